@@ -2,20 +2,35 @@ package org.devquality;
 
 import io.javalin.Javalin;
 import org.devquality.config.*;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.devquality.persistence.instrumentation.SqlStatsRegistry;
+import org.devquality.routes.ProductRoutes;
 import org.devquality.routes.Routes;
+import org.devquality.web.middleware.ContentNegotiation;
+import org.devquality.web.middleware.DbRequestAccounting;
+import org.devquality.web.middleware.InFlightRequestTracker;
+import org.devquality.web.middleware.JsonBodyReader;
+import org.devquality.web.validators.ValidationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
     public static void main(String[] args) {
         logger.info("🚀 Iniciando aplicación...");
+        StartupTimer startupTimer = StartupTimer.getInstance();
 
         try {
             // 0️⃣ Cargar configuración centralizada
             logger.info("0️⃣ Cargando configuración...");
-            AppConfiguration appConfig = AppConfiguration.getInstance();
+            AppConfiguration appConfig = startupTimer.time("configuración", AppConfiguration::getInstance);
 
             // Validar configuración antes de continuar
             if (!appConfig.validateConfiguration()) {
@@ -23,35 +38,74 @@ public class Main {
                 System.exit(1);
             }
 
-            // 1️⃣ Inicializar configuración de base de datos
-            logger.info("1️⃣ Inicializando base de datos...");
-            DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+            // Modo de ejecución: migrate | serve [--verify-schema] | migrate-and-serve
+            RunMode runMode = RunMode.fromValue(args.length > 0 && !args[0].startsWith("--")
+                    ? args[0] : appConfig.get("startup.run-mode"));
+            boolean verifySchema = Arrays.asList(args).contains("--verify-schema")
+                    || appConfig.getBoolean("startup.verify-schema", false);
+            logger.info("🎛️ Modo de ejecución: {}{}", runMode, verifySchema ? " (--verify-schema)" : "");
+
+            if (runMode == RunMode.MIGRATE) {
+                System.exit(runMigrationJob());
+            }
 
-            // 2️⃣ Ejecutar migraciones con Flyway
-            logger.info("2️⃣ Ejecutando migraciones...");
-            FlywayConfiguration flywayConfig = new FlywayConfiguration(dbConfig);
-            flywayConfig.runMigrations();
+            // 1️⃣ + 2️⃣ Base de datos y esquema en segundo plano: es la fase más lenta
+            // y no depende de Jackson ni del servidor web
+            logger.info("1️⃣ Inicializando base de datos y esquema...");
+            CompletableFuture<DatabaseConfig> database = CompletableFuture.supplyAsync(() -> {
+                DatabaseConfig dbConfig = startupTimer.time("pool de conexiones", DatabaseConfig::getInstance);
+                if (runMode == RunMode.MIGRATE_AND_SERVE) {
+                    startupTimer.time("migraciones", () -> new FlywayConfiguration(dbConfig).runMigrations());
+                } else if (verifySchema) {
+                    // Sin Flyway: una consulta al historial, sin tocar su lock
+                    startupTimer.time("verificación esquema", () -> new SchemaVerifier(dbConfig).verify(
+                            appConfig.getInt("startup.schema-wait-ms", 60000),
+                            appConfig.getInt("startup.schema-wait-max-backoff-ms", 5000)));
+                }
+                return dbConfig;
+            }, Main::startBootThread);
+
+            // Warm-up de Jackson y validadores en paralelo
+            CompletableFuture<Void> warmup = CompletableFuture.runAsync(
+                    () -> startupTimer.time("jackson + validadores", Main::warmUpSerialization),
+                    Main::startBootThread);
 
             // 3️⃣ Crear aplicación Javalin
             logger.info("3️⃣ Configurando servidor web...");
-            Javalin app = createJavalinApp(appConfig);
+            InFlightRequestTracker inFlightTracker = new InFlightRequestTracker(Set.of(ProductRoutes.CHANGES_PATH));
+            Javalin app = startupTimer.time("javalin", () -> createJavalinApp(appConfig, inFlightTracker));
+            DbRequestAccounting.getInstance().register(app);
+
+            DatabaseConfig dbConfig = join(database);
+            join(warmup);
 
             // 4️⃣ Configurar rutas
             logger.info("4️⃣ Configurando rutas...");
             Routes routes = new Routes(dbConfig);
-            routes.configureRoutes(app);
+            startupTimer.time("rutas", () -> routes.configureRoutes(app));
 
             // 5️⃣ Iniciar servidor
             logger.info("5️⃣ Iniciando servidor...");
             int port = appConfig.getInt("server.port");
-            app.start(port);
+            startupTimer.time("inicio servidor", () -> app.start(port));
 
             // 6️⃣ Mostrar información de la aplicación
             Routes.logApplicationInfo(port);
             appConfig.logConfiguration();
 
-            // 7️⃣ Graceful shutdown
-            setupShutdownHook(app, dbConfig);
+            // 7️⃣ Recarga en caliente desde APP_CONFIG_FILE (si está configurado)
+            ConfigFileWatcher configWatcher = startConfigWatcher(appConfig);
+
+            // 8️⃣ Graceful shutdown
+            setupShutdownHook(appConfig, app, inFlightTracker, routes, dbConfig, configWatcher);
+
+            // 🎓 Ejecución de entrenamiento del archivo AppCDS (tarea Gradle trainCds)
+            if (appConfig.getBoolean("startup.cds-training", false)) {
+                runCdsTraining(appConfig, dbConfig, port);
+            }
+
+            // 🔥 Warm-up con /ready cerrado hasta que termine
+            startWarmup(appConfig, dbConfig, port);
 
         } catch (Exception e) {
             logger.error("❌ Error fatal al iniciar la aplicación", e);
@@ -59,15 +113,111 @@ public class Main {
         }
     }
 
+    /**
+     * Modo migrate: ejecuta las migraciones y devuelve el código de salida del proceso
+     */
+    private static int runMigrationJob() {
+        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+        try {
+            new FlywayConfiguration(dbConfig).runMigrations();
+            logger.info("✅ Job de migración completado");
+            return 0;
+        } catch (Exception e) {
+            logger.error("❌ Job de migración fallido", e);
+            return 1;
+        } finally {
+            dbConfig.close();
+        }
+    }
+
+    /**
+     * Inicializa Jackson y los validadores precompilados antes de que llegue el primer request
+     */
+    private static void warmUpSerialization() {
+        JacksonConfiguration.getSharedObjectMapper();
+        JsonBodyReader.getMaxBodyBytes();
+        try {
+            // Fuerza la inicialización estática (carga de validadores vía ServiceLoader)
+            Class.forName(ValidationService.class.getName(), true, Main.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            logger.warn("⚠️ No se pudo precargar ValidationService: {}", e.getMessage());
+        }
+    }
+
+    private static void startBootThread(Runnable task) {
+        Thread thread = new Thread(task, "boot");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Ejecuta el warm-up en segundo plano y marca la instancia como lista al terminar.
+     * Mientras tanto /ready responde 503 y el balanceador no envía tráfico.
+     */
+    private static void startWarmup(AppConfiguration appConfig, DatabaseConfig dbConfig, int port) {
+        ReadinessState readiness = ReadinessState.getInstance();
+        if (!appConfig.getBoolean("warmup.enabled", true)) {
+            readiness.set(ReadinessState.Status.READY);
+            StartupTimer.getInstance().logBreakdown();
+            return;
+        }
+
+        readiness.set(ReadinessState.Status.WARMING_UP);
+        WarmupRunner warmupRunner = WarmupRunner.fromConfiguration(dbConfig, port, appConfig);
+        startBootThread(() -> {
+            try {
+                StartupTimer.getInstance().time("warm-up", warmupRunner::run);
+            } catch (Exception e) {
+                logger.warn("⚠️ Error durante el warm-up: {}", e.getMessage());
+            } finally {
+                resetRequestStats(dbConfig);
+                readiness.set(ReadinessState.Status.READY);
+                StartupTimer.getInstance().logBreakdown();
+            }
+        });
+    }
+
+    /**
+     * Descarta lo acumulado por la carga sintética: las estadísticas SQL y por ruta empiezan
+     * con el primer request real
+     */
+    private static void resetRequestStats(DatabaseConfig dbConfig) {
+        SqlStatsRegistry sqlStats = dbConfig.getSqlStats();
+        if (sqlStats != null) {
+            sqlStats.reset();
+        }
+        DbRequestAccounting.getInstance().reset();
+    }
+
+    /**
+     * Ejecuta el warm-up y termina el proceso: al salir, la JVM vuelca las clases cargadas
+     * en el archivo AppCDS (-XX:ArchiveClassesAtExit)
+     */
+    private static void runCdsTraining(AppConfiguration appConfig, DatabaseConfig dbConfig, int port) {
+        logger.info("🎓 Ejecución de entrenamiento AppCDS...");
+        WarmupRunner.fromConfiguration(dbConfig, port, appConfig).run();
+
+        logger.info("🎓 Entrenamiento completado, saliendo para volcar el archivo AppCDS");
+        System.exit(0);
+    }
+
     /**
      * Crea y configura la aplicación Javalin usando AppConfiguration
      */
-    private static Javalin createJavalinApp(AppConfiguration appConfig) {
+    private static Javalin createJavalinApp(AppConfiguration appConfig, InFlightRequestTracker inFlightTracker) {
         logger.debug("🔧 Creando aplicación Javalin...");
 
         return Javalin.create(config -> {
-            // JSON Configuration
-            config.jsonMapper(JacksonConfiguration.createJavalinJackson());
+            // JSON Configuration (con negociación de Smile/CBOR por Accept)
+            config.jsonMapper(ContentNegotiation.negotiating(JacksonConfiguration.createJavalinJackson()));
 
             // CORS Configuration
             config.bundledPlugins.enableCors(CorsConfiguration::configureCors);
@@ -75,6 +225,13 @@ public class Main {
             // Server Configuration
             config.showJavalinBanner = false;
 
+            // Requests en curso (filtro más externo: cuenta hasta que la respuesta está escrita) y
+            // accesos a la BD por request (enlazados al hilo por un filtro alrededor de los handlers)
+            config.jetty.modifyServletContextHandler(handler -> {
+                inFlightTracker.installFilter(handler);
+                DbRequestAccounting.getInstance().installFilter(handler);
+            });
+
             // Virtual Threads (si está habilitado y disponible)
             if (appConfig.getBoolean("server.virtual-threads") && isVirtualThreadsAvailable()) {
                 config.useVirtualThreads = true;
@@ -83,18 +240,26 @@ public class Main {
                 logger.info("🧵 Virtual Threads deshabilitados");
             }
 
-            // Request Logging (si está habilitado)
-            if (appConfig.getBoolean("server.request-logging")) {
-                config.requestLogger.http((ctx, ms) -> {
-                    if (appConfig.getBoolean("logging.request-details", false)) {
-                        logger.info("{} {} - {}ms [{}]",
-                                ctx.method(), ctx.path(), ms,
-                                ctx.header("User-Agent", "Unknown"));
-                    } else {
-                        logger.info("{} {} - {}ms", ctx.method(), ctx.path(), ms);
-                    }
-                });
-            }
+            // Request Logging: se registra siempre y lee la foto vigente, así un reload
+            // puede activarlo o desactivarlo sin reiniciar (solo lectura de campos finales)
+            config.requestLogger.http((ctx, ms) -> {
+                // Los requests sintéticos del warm-up no se registran ni cuentan como primer request
+                if (WarmupRunner.isWarmupRequest(ctx.header(WarmupRunner.WARMUP_HEADER))) {
+                    return;
+                }
+                StartupTimer.getInstance().markFirstRequest();
+                ConfigSnapshot snapshot = appConfig.snapshot();
+                if (!snapshot.requestLogging()) {
+                    return;
+                }
+                if (snapshot.requestDetails()) {
+                    logger.info("{} {} - {}ms [{}]",
+                            ctx.method(), ctx.path(), ms,
+                            ctx.header("User-Agent", "Unknown"));
+                } else {
+                    logger.info("{} {} - {}ms", ctx.method(), ctx.path(), ms);
+                }
+            });
 
             // Development Configuration
             if (appConfig.isDevelopment()) {
@@ -105,27 +270,104 @@ public class Main {
     }
 
     /**
-     * Configura el graceful shutdown
+     * Inicia la vigilancia del fichero de configuración, o devuelve null si no hay fichero
+     */
+    private static ConfigFileWatcher startConfigWatcher(AppConfiguration appConfig) {
+        if (appConfig.getConfigFile() == null) {
+            return null;
+        }
+        try {
+            ConfigFileWatcher watcher = new ConfigFileWatcher(appConfig.getConfigFile(), appConfig);
+            watcher.start();
+            return watcher;
+        } catch (Exception e) {
+            logger.warn("⚠️ No se pudo vigilar el fichero de configuración: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Configura el graceful shutdown con drenado de conexiones:
+     * readiness a DRAINING → espera pre-stop → dejar de aceptar conexiones → esperar requests
+     * en curso → vaciar componentes asíncronos → cerrar el pool
      */
-    private static void setupShutdownHook(Javalin app, DatabaseConfig dbConfig) {
+    private static void setupShutdownHook(AppConfiguration appConfig, Javalin app,
+                                          InFlightRequestTracker inFlightTracker, Routes routes,
+                                          DatabaseConfig dbConfig, ConfigFileWatcher configWatcher) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             logger.info("🛑 Iniciando cierre controlado de la aplicación...");
+            long shutdownStart = System.currentTimeMillis();
 
             try {
-                // Detener servidor HTTP
+                if (configWatcher != null) {
+                    configWatcher.stop();
+                }
+
+                // 1️⃣ /ready pasa a 503 para que el balanceador deje de enviar tráfico
+                ReadinessState.getInstance().set(ReadinessState.Status.DRAINING);
+                inFlightTracker.startDraining();
+
+                // 2️⃣ Dar tiempo a que el balanceador observe el cambio
+                long preStopDelayMs = appConfig.getInt("shutdown.pre-stop-delay-ms", 0);
+                if (preStopDelayMs > 0) {
+                    logger.info("⏳ Esperando {}ms antes de dejar de aceptar conexiones...", preStopDelayMs);
+                    Thread.sleep(preStopDelayMs);
+                }
+
+                // 3️⃣ Dejar de aceptar conexiones nuevas (las abiertas siguen atendiéndose)
+                closeConnectors(app);
+
+                // 4️⃣ Esperar los requests en curso hasta el plazo
+                long completedBefore = inFlightTracker.getCompleted();
+                long pending = inFlightTracker.getInFlight();
+                logger.info("⏳ Drenando {} requests en curso...", pending);
+                long aborted = inFlightTracker.awaitDrained(appConfig.getInt("shutdown.drain-timeout-ms", 20000));
+                long drained = inFlightTracker.getCompleted() - completedBefore;
+                if (aborted > 0) {
+                    logger.warn("⚠️ Drenado incompleto: {} requests completados, {} abortados", drained, aborted);
+                } else {
+                    logger.info("✅ Drenado completo: {} requests completados, 0 abortados", drained);
+                }
+
+                // Detener servidor HTTP (cierra las conexiones restantes, incluidas las SSE)
                 logger.info("⏹️ Deteniendo servidor HTTP...");
                 app.stop();
 
-                // Cerrar conexiones de base de datos
+                // 5️⃣ Vaciar componentes asíncronos: operaciones de BD en curso, coalescer,
+                // listener de cambios, conexiones SSE y sondeo de salud
+                DatabaseExecutor.getInstance().shutdown(10000);
+                routes.shutdown();
+
+                // 6️⃣ Solo ahora cerrar conexiones de base de datos
                 logger.info("🔌 Cerrando conexiones de base de datos...");
+                PipelinedDatabaseConfig.shutdown();
                 dbConfig.close();
 
-                logger.info("✅ Aplicación cerrada correctamente");
+                logger.info("✅ Aplicación cerrada correctamente en {}ms", System.currentTimeMillis() - shutdownStart);
 
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("❌ Cierre interrumpido", e);
             } catch (Exception e) {
                 logger.error("❌ Error durante el cierre de la aplicación", e);
             }
-        }));
+        }, "shutdown"));
+    }
+
+    /**
+     * Cierra los sockets de escucha de Jetty sin cortar las conexiones ya aceptadas
+     */
+    private static void closeConnectors(Javalin app) {
+        try {
+            for (Connector connector : app.jettyServer().server().getConnectors()) {
+                if (connector instanceof NetworkConnector) {
+                    ((NetworkConnector) connector).close();
+                }
+            }
+            logger.info("🚪 Conexiones nuevas rechazadas");
+        } catch (Exception e) {
+            logger.warn("⚠️ No se pudieron cerrar los conectores: {}", e.getMessage());
+        }
     }
 
     /**
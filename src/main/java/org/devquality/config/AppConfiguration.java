@@ -1,24 +1,44 @@
 package org.devquality.config;
 
+import org.devquality.persistence.counting.CountStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Configuración centralizada de la aplicación
  * Maneja todas las configuraciones desde variables de entorno y properties
+ *
+ * La configuración vigente es un {@link ConfigSnapshot} inmutable publicado en una
+ * referencia atómica: los lectores nunca ven un mapa a medio recargar y un reload
+ * sustituye la foto completa de una vez.
  */
 public class AppConfiguration {
     private static final Logger logger = LoggerFactory.getLogger(AppConfiguration.class);
     private static AppConfiguration instance;
-    private final Map<String, String> config;
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Solo se usan durante la carga (bajo el lock de reload/constructor)
+    private Map<String, String> loading;
+    private Properties fileOverrides;
 
     private AppConfiguration() {
-        this.config = new HashMap<>();
-        loadConfiguration();
+        ConfigSnapshot initial = loadConfiguration(1);
+        snapshot.set(initial);
     }
 
     public static synchronized AppConfiguration getInstance() {
@@ -29,10 +49,12 @@ public class AppConfiguration {
     }
 
     /**
-     * Carga toda la configuración de la aplicación
+     * Carga toda la configuración de la aplicación en una nueva foto
      */
-    private void loadConfiguration() {
+    private ConfigSnapshot loadConfiguration(long version) {
         logger.info("📋 Cargando configuración de la aplicación...");
+        loading = new HashMap<>();
+        fileOverrides = loadConfigFile();
 
         // Configuración del servidor
         loadServerConfiguration();
@@ -49,7 +71,81 @@ public class AppConfiguration {
         // Configuración de logging
         loadLoggingConfiguration();
 
+        // Configuración de estadísticas SQL
+        loadSqlConfiguration();
+
+        // Configuración de la contabilidad de BD por request
+        loadDbRequestConfiguration();
+
+        // Configuración de la cabecera Server-Timing
+        loadServerTimingConfiguration();
+
+        // Configuración de cachés
+        loadCacheConfiguration();
+
+        // Configuración de eventos
+        loadEventsConfiguration();
+
+        // Configuración de la sincronización incremental
+        loadSyncConfiguration();
+
+        // Configuración de la foto del catálogo
+        loadSnapshotConfiguration();
+
+        // Configuración de estadísticas del catálogo
+        loadStatsConfiguration();
+
+        // Configuración de particiones de products
+        loadPartitionsConfiguration();
+
+        // Configuración de health checks
+        loadHealthConfiguration();
+
+        // Configuración de warm-up
+        loadWarmupConfiguration();
+
+        // Configuración del cierre controlado
+        loadShutdownConfiguration();
+
+        // Configuración de administración
+        loadAdminConfiguration();
+
+        ConfigSnapshot loaded = ConfigSnapshot.from(version, loading);
+        loading = null;
+        fileOverrides = null;
+
         logger.info("✅ Configuración cargada correctamente");
+        return loaded;
+    }
+
+    /**
+     * Lee el fichero de properties indicado en APP_CONFIG_FILE (si existe).
+     * Sus claves usan los mismos nombres que las variables de entorno y tienen prioridad sobre ellas.
+     */
+    private Properties loadConfigFile() {
+        Properties properties = new Properties();
+        Path file = getConfigFile();
+        if (file == null) {
+            return properties;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            logger.info("📄 Fichero de configuración cargado: {}", file);
+        } catch (IOException e) {
+            logger.warn("⚠️ No se pudo leer el fichero de configuración {}: {}", file, e.getMessage());
+        }
+        return properties;
+    }
+
+    /**
+     * Fichero de configuración opcional (APP_CONFIG_FILE), o null si no está configurado
+     */
+    public Path getConfigFile() {
+        String path = System.getenv("APP_CONFIG_FILE");
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return Paths.get(path.trim());
     }
 
     /**
@@ -60,6 +156,15 @@ public class AppConfiguration {
         setConfig("server.environment", getEnvOrDefault("ENVIRONMENT", getEnvOrDefault("ENV", "development")));
         setConfig("server.virtual-threads", getEnvOrDefault("VIRTUAL_THREADS_ENABLED", "true"));
         setConfig("server.request-logging", getEnvOrDefault("REQUEST_LOGGING_ENABLED", "true"));
+        setConfig("server.max-body-bytes", getEnvOrDefault("SERVER_MAX_BODY_BYTES", "1048576"));
+        setConfig("server.max-json-depth", getEnvOrDefault("SERVER_MAX_JSON_DEPTH", "32"));
+        setConfig("validation.precompiled.enabled", getEnvOrDefault("VALIDATION_PRECOMPILED_ENABLED", "true"));
+        setConfig("startup.cds-training", getEnvOrDefault("APP_CDS_TRAINING", "false"));
+        setConfig("startup.run-mode", getEnvOrDefault("RUN_MODE", "migrate-and-serve"));
+        setConfig("startup.verify-schema", getEnvOrDefault("STARTUP_VERIFY_SCHEMA", "false"));
+        setConfig("startup.schema-wait-ms", getEnvOrDefault("STARTUP_SCHEMA_WAIT_MS", "60000"));
+        setConfig("startup.schema-wait-max-backoff-ms", getEnvOrDefault("STARTUP_SCHEMA_WAIT_MAX_BACKOFF_MS", "5000"));
+        setConfig("startup.migration-report", getEnvOrDefault("STARTUP_MIGRATION_REPORT", isLoadingDevelopment() ? "true" : "false"));
     }
 
     /**
@@ -74,6 +179,17 @@ public class AppConfiguration {
         setConfig("db.pool.max-size", getEnvOrDefault("DB_POOL_MAX_SIZE", "20"));
         setConfig("db.pool.min-idle", getEnvOrDefault("DB_POOL_MIN_IDLE", "5"));
         setConfig("db.connection-timeout", getEnvOrDefault("DB_CONNECTION_TIMEOUT", "30000"));
+        setConfig("db.count-strategy", getEnvOrDefault("DB_COUNT_STRATEGY", "exact"));
+        setConfig("db.driver", getEnvOrDefault("DB_DRIVER", "jdbc"));
+        setConfig("db.pipelined.max-connections", getEnvOrDefault("DB_PIPELINED_MAX_CONNECTIONS", "4"));
+        setConfig("db.pipelined.pipelining-limit", getEnvOrDefault("DB_PIPELINED_PIPELINING_LIMIT", "256"));
+        setConfig("db.pipelined.query-timeout-ms", getEnvOrDefault("DB_PIPELINED_QUERY_TIMEOUT_MS", "10000"));
+        setConfig("db.executor.threads", getEnvOrDefault("DB_EXECUTOR_THREADS", loading.get("db.pool.max-size")));
+        setConfig("db.executor.queue-size", getEnvOrDefault("DB_EXECUTOR_QUEUE_SIZE", "1000"));
+        setConfig("db.write-coalescer.enabled", getEnvOrDefault("DB_WRITE_COALESCER_ENABLED", "false"));
+        setConfig("db.write-coalescer.max-delay-ms", getEnvOrDefault("DB_WRITE_COALESCER_MAX_DELAY_MS", "2"));
+        setConfig("db.write-coalescer.max-batch-size", getEnvOrDefault("DB_WRITE_COALESCER_MAX_BATCH_SIZE", "64"));
+        setConfig("db.write-coalescer.wait-timeout-ms", getEnvOrDefault("DB_WRITE_COALESCER_WAIT_TIMEOUT_MS", "30000"));
     }
 
     /**
@@ -91,7 +207,7 @@ public class AppConfiguration {
      * Configuración de Jackson
      */
     private void loadJacksonConfiguration() {
-        setConfig("jackson.pretty-print", getEnvOrDefault("JACKSON_PRETTY_PRINT", isDevelopment() ? "true" : "false"));
+        setConfig("jackson.pretty-print", getEnvOrDefault("JACKSON_PRETTY_PRINT", isLoadingDevelopment() ? "true" : "false"));
         setConfig("jackson.naming-strategy", getEnvOrDefault("JACKSON_NAMING_STRATEGY", "camelCase"));
         setConfig("jackson.fail-on-unknown-properties", getEnvOrDefault("JACKSON_FAIL_ON_UNKNOWN_PROPERTIES", "false"));
         setConfig("jackson.date-format", getEnvOrDefault("JACKSON_DATE_FORMAT", "yyyy-MM-dd'T'HH:mm:ss.SSSXXX"));
@@ -102,29 +218,195 @@ public class AppConfiguration {
      */
     private void loadLoggingConfiguration() {
         setConfig("logging.level", getEnvOrDefault("LOGGING_LEVEL", "INFO"));
-        setConfig("logging.request-details", getEnvOrDefault("LOGGING_REQUEST_DETAILS", isDevelopment() ? "true" : "false"));
+        setConfig("logging.request-details", getEnvOrDefault("LOGGING_REQUEST_DETAILS", isLoadingDevelopment() ? "true" : "false"));
         setConfig("logging.sql-queries", getEnvOrDefault("LOGGING_SQL_QUERIES", "false"));
     }
 
+    /**
+     * Configuración de las estadísticas por sentencia SQL (InstrumentedDataSource)
+     */
+    private void loadSqlConfiguration() {
+        // Requiere reinicio: decide si el pool se envuelve con el DataSource instrumentado
+        setConfig("sql.stats.enabled", getEnvOrDefault("SQL_STATS_ENABLED", "true"));
+        setConfig("sql.stats.max-statements", getEnvOrDefault("SQL_STATS_MAX_STATEMENTS", "500"));
+        setConfig("sql.slow-query-ms", getEnvOrDefault("SQL_SLOW_QUERY_MS", "200"));
+        // EXPLAIN en segundo plano de las sentencias lentas (como mucho uno por sentencia y minuto)
+        setConfig("sql.slow-query-explain", getEnvOrDefault("SQL_SLOW_QUERY_EXPLAIN", isLoadingDevelopment() ? "true" : "false"));
+    }
+
+    /**
+     * Configuración de la contabilidad de accesos a la BD por request y sus presupuestos
+     */
+    private void loadDbRequestConfiguration() {
+        setConfig("db.request-accounting.enabled", getEnvOrDefault("DB_REQUEST_ACCOUNTING_ENABLED", "true"));
+        setConfig("db.request-accounting.header", getEnvOrDefault("DB_REQUEST_ACCOUNTING_HEADER", "true"));
+        // "MÉTODO /ruta=sentencias[:conexiones]" separados por comas; "*" aplica a las rutas sin presupuesto propio
+        setConfig("db.request-budgets", getEnvOrDefault("DB_REQUEST_BUDGETS", "PUT /api/products/{id}=3:3,*=10:5"));
+        // off | log | fail (fail responde 500 al exceder: pensado para ENVIRONMENT=test)
+        String environment = loading.getOrDefault("server.environment", "development");
+        setConfig("db.request-budget.mode", getEnvOrDefault("DB_REQUEST_BUDGET_MODE",
+                "test".equalsIgnoreCase(environment) ? "fail" : "log"));
+    }
+
+    /**
+     * Configuración de la cabecera Server-Timing (desglose de latencia por fase)
+     */
+    private void loadServerTimingConfiguration() {
+        setConfig("server-timing.enabled", getEnvOrDefault("SERVER_TIMING_ENABLED", "true"));
+        // Fracción de requests que llevan la cabecera (0.0 - 1.0): todas en desarrollo, una muestra en producción
+        setConfig("server-timing.sample-rate", getEnvOrDefault("SERVER_TIMING_SAMPLE_RATE",
+                isLoadingDevelopment() ? "1.0" : "0.01"));
+    }
+
+    /**
+     * Configuración de cachés
+     */
+    private void loadCacheConfiguration() {
+        setConfig("cache.products.enabled", getEnvOrDefault("CACHE_PRODUCTS_ENABLED", "true"));
+        setConfig("cache.products.max-entries", getEnvOrDefault("CACHE_PRODUCTS_MAX_ENTRIES", "1000"));
+        setConfig("cache.products.max-bytes", getEnvOrDefault("CACHE_PRODUCTS_MAX_BYTES", "16777216"));
+        setConfig("cache.products.version-check-ms", getEnvOrDefault("CACHE_PRODUCTS_VERSION_CHECK_MS", "1000"));
+    }
+
+    /**
+     * Configuración de eventos (stream SSE de cambios de productos)
+     */
+    private void loadEventsConfiguration() {
+        setConfig("events.products.enabled", getEnvOrDefault("EVENTS_PRODUCTS_ENABLED", "true"));
+        setConfig("events.products.queue-size", getEnvOrDefault("EVENTS_PRODUCTS_QUEUE_SIZE", "256"));
+        setConfig("events.products.replay-size", getEnvOrDefault("EVENTS_PRODUCTS_REPLAY_SIZE", "1024"));
+        setConfig("events.products.dispatcher-threads", getEnvOrDefault("EVENTS_PRODUCTS_DISPATCHER_THREADS", "4"));
+        setConfig("events.products.heartbeat-ms", getEnvOrDefault("EVENTS_PRODUCTS_HEARTBEAT_MS", "15000"));
+        setConfig("events.products.poll-ms", getEnvOrDefault("EVENTS_PRODUCTS_POLL_MS", "500"));
+    }
+
+    /**
+     * Configuración de la sincronización incremental (/api/products/sync)
+     */
+    private void loadSyncConfiguration() {
+        // Tokens emitidos antes de la retención reciben 410 (sus lápidas pueden estar purgadas).
+        // El cursor sigue el orden de confirmación (change_xid), no hace falta margen de seguridad
+        setConfig("sync.retention-ms", getEnvOrDefault("SYNC_RETENTION_MS", "604800000"));
+        setConfig("sync.purge-interval-ms", getEnvOrDefault("SYNC_PURGE_INTERVAL_MS", "3600000"));
+    }
+
+    /**
+     * Configuración de la foto del catálogo en disco (/api/products/snapshot)
+     */
+    private void loadSnapshotConfiguration() {
+        setConfig("snapshot.enabled", getEnvOrDefault("SNAPSHOT_ENABLED", "true"));
+        setConfig("snapshot.dir", getEnvOrDefault("SNAPSHOT_DIR", "data/snapshots"));
+        setConfig("snapshot.interval-ms", getEnvOrDefault("SNAPSHOT_INTERVAL_MS", "60000"));
+    }
+
+    /**
+     * Configuración de las estadísticas del catálogo (/api/products/stats)
+     */
+    private void loadStatsConfiguration() {
+        setConfig("stats.enabled", getEnvOrDefault("STATS_ENABLED", "true"));
+        setConfig("stats.refresh-interval-ms", getEnvOrDefault("STATS_REFRESH_INTERVAL_MS", "60000"));
+        // Límites del histograma de precios: buckets [a, b) más uno abierto por cada extremo
+        setConfig("stats.price-buckets", getEnvOrDefault("STATS_PRICE_BUCKETS", "10,50,100,500,1000"));
+        setConfig("stats.creation-hours", getEnvOrDefault("STATS_CREATION_HOURS", "48"));
+        setConfig("stats.creation-days", getEnvOrDefault("STATS_CREATION_DAYS", "30"));
+    }
+
+    /**
+     * Configuración del mantenimiento de particiones mensuales de products
+     */
+    private void loadPartitionsConfiguration() {
+        setConfig("partitions.maintenance.enabled", getEnvOrDefault("PARTITIONS_MAINTENANCE_ENABLED", "true"));
+        setConfig("partitions.maintenance-interval-ms", getEnvOrDefault("PARTITIONS_MAINTENANCE_INTERVAL_MS", "3600000"));
+        setConfig("partitions.months-ahead", getEnvOrDefault("PARTITIONS_MONTHS_AHEAD", "3"));
+        // 0 = sin retención; si no, se conservan ese número de meses completos además del actual
+        setConfig("partitions.retention-months", getEnvOrDefault("PARTITIONS_RETENTION_MONTHS", "0"));
+        // true = las particiones expiradas se conservan como products_archive_YYYYMM; false = se borran
+        setConfig("partitions.archive", getEnvOrDefault("PARTITIONS_ARCHIVE", "true"));
+    }
+
+    /**
+     * Configuración del sondeo de salud en segundo plano
+     */
+    private void loadHealthConfiguration() {
+        setConfig("health.probe-interval-ms", getEnvOrDefault("HEALTH_PROBE_INTERVAL_MS", "1000"));
+        // 0 = no informar DEGRADED por ese criterio
+        setConfig("health.degraded-pool-wait-ms", getEnvOrDefault("HEALTH_DEGRADED_POOL_WAIT_MS", "0"));
+        setConfig("health.degraded-pool-saturation-pct", getEnvOrDefault("HEALTH_DEGRADED_POOL_SATURATION_PCT", "0"));
+    }
+
+    /**
+     * Configuración del warm-up previo a /ready
+     */
+    private void loadWarmupConfiguration() {
+        setConfig("warmup.enabled", getEnvOrDefault("WARMUP_ENABLED", "true"));
+        setConfig("warmup.iterations", getEnvOrDefault("WARMUP_ITERATIONS", "200"));
+        setConfig("warmup.concurrency", getEnvOrDefault("WARMUP_CONCURRENCY", "4"));
+        setConfig("warmup.prime-pool", getEnvOrDefault("WARMUP_PRIME_POOL", "true"));
+        setConfig("warmup.prewarm-relations", getEnvOrDefault("WARMUP_PREWARM_RELATIONS", ""));
+        setConfig("warmup.extra-paths", getEnvOrDefault("WARMUP_EXTRA_PATHS", ""));
+        setConfig("warmup.timeout-ms", getEnvOrDefault("WARMUP_TIMEOUT_MS", "60000"));
+    }
+
+    /**
+     * Configuración del cierre controlado (drenado de conexiones)
+     */
+    private void loadShutdownConfiguration() {
+        setConfig("shutdown.pre-stop-delay-ms", getEnvOrDefault("SHUTDOWN_PRE_STOP_DELAY_MS", isLoadingDevelopment() ? "0" : "5000"));
+        setConfig("shutdown.drain-timeout-ms", getEnvOrDefault("SHUTDOWN_DRAIN_TIMEOUT_MS", "20000"));
+    }
+
+    /**
+     * Configuración de administración (endpoints /api/admin)
+     */
+    private void loadAdminConfiguration() {
+        setConfig("admin.token", getEnvOrDefault("ADMIN_TOKEN", ""));
+    }
+
+    /**
+     * Entorno de la configuración que se está cargando (los defaults dependen de él)
+     */
+    private boolean isLoadingDevelopment() {
+        String environment = loading.getOrDefault("server.environment", "development");
+        return "development".equalsIgnoreCase(environment) || "local".equalsIgnoreCase(environment);
+    }
+
+    /**
+     * Foto vigente de la configuración. Los hot paths deben leer sus campos tipados.
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Registra un listener que se invoca tras cada reload que cambie algún valor
+     */
+    public void addChangeListener(ConfigChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ConfigChangeListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * Obtiene un valor de configuración
      */
     public String get(String key) {
-        return config.get(key);
+        return snapshot.get().get(key);
     }
 
     /**
      * Obtiene un valor de configuración con valor por defecto
      */
     public String get(String key, String defaultValue) {
-        return config.getOrDefault(key, defaultValue);
+        return snapshot.get().get(key, defaultValue);
     }
 
     /**
      * Obtiene un valor como entero
      */
     public int getInt(String key) {
-        String value = config.get(key);
+        String value = get(key);
         if (value == null) {
             throw new IllegalArgumentException("Configuration key not found: " + key);
         }
@@ -135,7 +417,7 @@ public class AppConfiguration {
      * Obtiene un valor como entero con valor por defecto
      */
     public int getInt(String key, int defaultValue) {
-        String value = config.get(key);
+        String value = get(key);
         if (value == null) {
             return defaultValue;
         }
@@ -151,7 +433,7 @@ public class AppConfiguration {
      * Obtiene un valor como boolean
      */
     public boolean getBoolean(String key) {
-        String value = config.get(key);
+        String value = get(key);
         if (value == null) {
             throw new IllegalArgumentException("Configuration key not found: " + key);
         }
@@ -162,7 +444,7 @@ public class AppConfiguration {
      * Obtiene un valor como boolean con valor por defecto
      */
     public boolean getBoolean(String key, boolean defaultValue) {
-        String value = config.get(key);
+        String value = get(key);
         if (value == null) {
             return defaultValue;
         }
@@ -173,37 +455,38 @@ public class AppConfiguration {
      * Verifica si está en modo desarrollo
      */
     public boolean isDevelopment() {
-        String environment = get("server.environment", "development");
-        return "development".equalsIgnoreCase(environment) || "local".equalsIgnoreCase(environment);
+        return snapshot.get().isDevelopment();
     }
 
     /**
      * Verifica si está en modo producción
      */
     public boolean isProduction() {
-        String environment = get("server.environment", "development");
-        return "production".equalsIgnoreCase(environment);
+        return snapshot.get().isProduction();
     }
 
     /**
      * Obtiene el entorno actual
      */
     public String getEnvironment() {
-        return get("server.environment", "development");
+        return snapshot.get().environment();
     }
 
     /**
      * Establece un valor de configuración
      */
     private void setConfig(String key, String value) {
-        config.put(key, value);
+        loading.put(key, value);
     }
 
     /**
-     * Obtiene variable de entorno con valor por defecto
+     * Obtiene variable de entorno con valor por defecto (el fichero APP_CONFIG_FILE tiene prioridad)
      */
     private String getEnvOrDefault(String envVar, String defaultValue) {
-        String value = System.getenv(envVar);
+        String value = fileOverrides.getProperty(envVar);
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getenv(envVar);
+        }
         if (value == null || value.trim().isEmpty()) {
             return defaultValue;
         }
@@ -223,6 +506,11 @@ public class AppConfiguration {
         logger.info("  Puerto: {}", get("server.port"));
         logger.info("  Virtual Threads: {}", get("server.virtual-threads"));
         logger.info("  Request Logging: {}", get("server.request-logging"));
+        logger.info("  Max Body Bytes: {}", get("server.max-body-bytes"));
+        logger.info("  Max JSON Depth: {}", get("server.max-json-depth"));
+        logger.info("  Precompiled Validators: {}", get("validation.precompiled.enabled"));
+        logger.info("  Run Mode: {} (verify-schema: {})", get("startup.run-mode"), get("startup.verify-schema"));
+        logger.info("  Migration Report: {}", get("startup.migration-report"));
 
         logger.info("🗄️ Base de datos:");
         logger.info("  Host: {}", get("db.host"));
@@ -231,6 +519,14 @@ public class AppConfiguration {
         logger.info("  Usuario: {}", get("db.user"));
         logger.info("  Pool Max Size: {}", get("db.pool.max-size"));
         logger.info("  Pool Min Idle: {}", get("db.pool.min-idle"));
+        logger.info("  Driver: {} (timeout de consulta pipelined {}ms)", get("db.driver"),
+                get("db.pipelined.query-timeout-ms"));
+        logger.info("  Count Strategy: {}", get("db.count-strategy"));
+        logger.info("  Executor Threads: {}", get("db.executor.threads"));
+        logger.info("  Executor Queue Size: {}", get("db.executor.queue-size"));
+        logger.info("  Write Coalescer: {} (ventana {}ms, lote {}, espera máx. {}ms)", get("db.write-coalescer.enabled"),
+                get("db.write-coalescer.max-delay-ms"), get("db.write-coalescer.max-batch-size"),
+                get("db.write-coalescer.wait-timeout-ms"));
 
         logger.info("🌐 CORS:");
         logger.info("  Allow Credentials: {}", get("cors.allow-credentials"));
@@ -243,6 +539,62 @@ public class AppConfiguration {
         logger.info("📝 Logging:");
         logger.info("  Level: {}", get("logging.level"));
         logger.info("  Request Details: {}", get("logging.request-details"));
+        logger.info("  SQL Queries: {}", get("logging.sql-queries"));
+
+        logger.info("🔬 SQL Stats:");
+        logger.info("  Enabled: {} (máx. {} sentencias)", get("sql.stats.enabled"), get("sql.stats.max-statements"));
+        logger.info("  Slow Query: {}ms (EXPLAIN: {})", get("sql.slow-query-ms"), get("sql.slow-query-explain"));
+        logger.info("  Request Accounting: {} (cabecera: {})", get("db.request-accounting.enabled"),
+                get("db.request-accounting.header"));
+        logger.info("  Request Budgets: {} (modo {})", get("db.request-budgets"), get("db.request-budget.mode"));
+        logger.info("  Server-Timing: {} (muestreo {})", get("server-timing.enabled"), get("server-timing.sample-rate"));
+
+        logger.info("🗃️ Caché:");
+        logger.info("  Products Enabled: {}", get("cache.products.enabled"));
+        logger.info("  Products Max Entries: {}", get("cache.products.max-entries"));
+        logger.info("  Products Max Bytes: {}", get("cache.products.max-bytes"));
+
+        logger.info("📡 Eventos:");
+        logger.info("  Products Enabled: {}", get("events.products.enabled"));
+        logger.info("  Products Queue Size: {}", get("events.products.queue-size"));
+        logger.info("  Products Replay Size: {}", get("events.products.replay-size"));
+
+        logger.info("🔄 Sync:");
+        logger.info("  Retention: {}ms", get("sync.retention-ms"));
+        logger.info("  Purge Interval: {}ms", get("sync.purge-interval-ms"));
+
+        logger.info("📸 Snapshot:");
+        logger.info("  Enabled: {} (cada {}ms)", get("snapshot.enabled"), get("snapshot.interval-ms"));
+        logger.info("  Directorio: {}", get("snapshot.dir"));
+
+        logger.info("📊 Stats:");
+        logger.info("  Enabled: {} (refresco cada {}ms)", get("stats.enabled"), get("stats.refresh-interval-ms"));
+        logger.info("  Price Buckets: {}", get("stats.price-buckets"));
+        logger.info("  Creation Window: {}h / {} días", get("stats.creation-hours"), get("stats.creation-days"));
+
+        logger.info("🗂️ Particiones:");
+        logger.info("  Maintenance: {} (cada {}ms, {} meses por adelantado)", get("partitions.maintenance.enabled"),
+                get("partitions.maintenance-interval-ms"), get("partitions.months-ahead"));
+        logger.info("  Retention: {} meses (archivar: {})", get("partitions.retention-months"), get("partitions.archive"));
+
+        logger.info("🩺 Health:");
+        logger.info("  Probe Interval: {}ms", get("health.probe-interval-ms"));
+        logger.info("  Degraded Pool Wait: {}ms, Saturation: {}%", get("health.degraded-pool-wait-ms"),
+                get("health.degraded-pool-saturation-pct"));
+
+        logger.info("🔥 Warm-up:");
+        logger.info("  Enabled: {} ({} iteraciones, concurrencia {})", get("warmup.enabled"),
+                get("warmup.iterations"), get("warmup.concurrency"));
+        logger.info("  Prime Pool: {}", get("warmup.prime-pool"));
+        logger.info("  pg_prewarm: {}", get("warmup.prewarm-relations").isEmpty() ? "-" : get("warmup.prewarm-relations"));
+
+        logger.info("🛑 Shutdown:");
+        logger.info("  Pre-stop Delay: {}ms", get("shutdown.pre-stop-delay-ms"));
+        logger.info("  Drain Timeout: {}ms", get("shutdown.drain-timeout-ms"));
+
+        logger.info("🔐 Admin:");
+        logger.info("  Token configurado: {}", !get("admin.token", "").isEmpty());
+        logger.info("  Fichero de configuración: {}", getConfigFile() != null ? getConfigFile() : "-");
 
         logger.info("📋 ================================");
     }
@@ -251,13 +603,20 @@ public class AppConfiguration {
      * Valida que toda la configuración requerida esté presente
      */
     public boolean validateConfiguration() {
+        return validate(snapshot.get());
+    }
+
+    /**
+     * Valida una foto de configuración
+     */
+    private boolean validate(ConfigSnapshot candidate) {
         logger.info("🔍 Validando configuración...");
 
         boolean valid = true;
 
         // Validar configuración crítica
-        if (isProduction()) {
-            if (get("cors.production-origins", "").isEmpty()) {
+        if (candidate.isProduction()) {
+            if (candidate.get("cors.production-origins", "").isEmpty()) {
                 logger.error("❌ CORS_PRODUCTION_ORIGINS no configurado en producción");
                 valid = false;
             }
@@ -265,9 +624,25 @@ public class AppConfiguration {
 
         // Validar puerto
         try {
-            getInt("server.port");
+            Integer.parseInt(candidate.get("server.port"));
         } catch (NumberFormatException e) {
-            logger.error("❌ Puerto del servidor inválido: {}", get("server.port"));
+            logger.error("❌ Puerto del servidor inválido: {}", candidate.get("server.port"));
+            valid = false;
+        }
+
+        // Validar modo de ejecución
+        try {
+            RunMode.fromValue(candidate.get("startup.run-mode"));
+        } catch (IllegalArgumentException e) {
+            logger.error("❌ {}", e.getMessage());
+            valid = false;
+        }
+
+        // Validar estrategia de conteo
+        try {
+            CountStrategy.fromValue(candidate.get("db.count-strategy"));
+        } catch (IllegalArgumentException e) {
+            logger.error("❌ {}", e.getMessage());
             valid = false;
         }
 
@@ -281,12 +656,39 @@ public class AppConfiguration {
     }
 
     /**
-     * Recarga la configuración (útil para cambios en runtime)
+     * Recarga la configuración (útil para cambios en runtime).
+     *
+     * Construye una foto nueva, la valida y la publica con un único swap atómico;
+     * si no es válida se conserva la vigente.
+     *
+     * @return claves cuyo valor cambió
+     * @throws IllegalStateException si la nueva configuración no es válida
      */
-    public synchronized void reload() {
+    public synchronized Set<String> reload() {
         logger.info("🔄 Recargando configuración...");
-        config.clear();
-        loadConfiguration();
-        logger.info("✅ Configuración recargada");
+        ConfigSnapshot current = snapshot.get();
+        ConfigSnapshot candidate = loadConfiguration(current.version() + 1);
+
+        if (!validate(candidate)) {
+            throw new IllegalStateException("La nueva configuración no es válida, se mantiene la versión " + current.version());
+        }
+
+        Set<String> changedKeys = candidate.changedKeys(current);
+        if (changedKeys.isEmpty()) {
+            logger.info("✅ Configuración recargada sin cambios");
+            return Collections.emptySet();
+        }
+
+        ConfigSnapshot previous = snapshot.getAndSet(candidate);
+        logger.info("✅ Configuración recargada (versión {}), claves cambiadas: {}", candidate.version(), changedKeys);
+
+        for (ConfigChangeListener listener : listeners) {
+            try {
+                listener.onConfigChange(previous, candidate, changedKeys);
+            } catch (Exception e) {
+                logger.error("❌ Error notificando cambio de configuración: {}", e.getMessage(), e);
+            }
+        }
+        return changedKeys;
     }
-}
\ No newline at end of file
+}
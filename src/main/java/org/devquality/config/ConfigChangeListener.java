@@ -0,0 +1,12 @@
+package org.devquality.config;
+
+import java.util.Set;
+
+/**
+ * Recibe la nueva foto de configuración tras un reload que cambió algún valor
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    void onConfigChange(ConfigSnapshot previous, ConfigSnapshot current, Set<String> changedKeys);
+}
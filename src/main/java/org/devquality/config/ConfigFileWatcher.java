@@ -0,0 +1,99 @@
+package org.devquality.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Vigila el fichero de configuración (APP_CONFIG_FILE) y recarga AppConfiguration al modificarse
+ */
+public class ConfigFileWatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigFileWatcher.class);
+    // Los editores suelen escribir en varios pasos: se espera a que el fichero se estabilice
+    private static final long DEBOUNCE_MS = 250;
+
+    private final Path file;
+    private final AppConfiguration appConfig;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigFileWatcher(Path file, AppConfiguration appConfig) {
+        this.file = file.toAbsolutePath();
+        this.appConfig = appConfig;
+    }
+
+    public synchronized void start() throws IOException {
+        Path directory = file.getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::watchLoop, "config-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("👀 Vigilando cambios en {}", file);
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && file.getFileName().equals(context)) {
+                        relevant = true;
+                    }
+                }
+                key.reset();
+
+                if (relevant) {
+                    Thread.sleep(DEBOUNCE_MS);
+                    drainPendingEvents();
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.debug("🛑 Vigilancia de configuración detenida");
+        }
+    }
+
+    private void drainPendingEvents() {
+        WatchKey pending;
+        while ((pending = watchService.poll()) != null) {
+            pending.pollEvents();
+            pending.reset();
+        }
+    }
+
+    private void reload() {
+        try {
+            logger.info("📝 Cambio detectado en {}", file);
+            appConfig.reload();
+        } catch (Exception e) {
+            logger.error("❌ No se pudo recargar la configuración: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("No se pudo cerrar el WatchService: {}", e.getMessage());
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
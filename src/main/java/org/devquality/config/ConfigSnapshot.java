@@ -0,0 +1,97 @@
+package org.devquality.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Foto inmutable y tipada de la configuración.
+ *
+ * Los valores de uso frecuente se parsean una sola vez al construir la foto; los
+ * hot paths leen campos finales en lugar de parsear Strings del mapa en cada request.
+ */
+public record ConfigSnapshot(
+        long version,
+        Map<String, String> values,
+        String environment,
+        int serverPort,
+        boolean requestLogging,
+        boolean requestDetails,
+        boolean sqlQueries,
+        int maxBodyBytes,
+        int maxJsonDepth
+) {
+
+    public ConfigSnapshot {
+        values = Collections.unmodifiableMap(new HashMap<>(values));
+    }
+
+    /**
+     * Construye la foto a partir de los valores en texto
+     */
+    public static ConfigSnapshot from(long version, Map<String, String> values) {
+        return new ConfigSnapshot(
+                version,
+                values,
+                values.getOrDefault("server.environment", "development"),
+                parseInt(values.get("server.port"), 8090),
+                Boolean.parseBoolean(values.getOrDefault("server.request-logging", "true")),
+                Boolean.parseBoolean(values.getOrDefault("logging.request-details", "false")),
+                Boolean.parseBoolean(values.getOrDefault("logging.sql-queries", "false")),
+                parseInt(values.get("server.max-body-bytes"), 1048576),
+                parseInt(values.get("server.max-json-depth"), 32)
+        );
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public boolean isDevelopment() {
+        return "development".equalsIgnoreCase(environment) || "local".equalsIgnoreCase(environment);
+    }
+
+    public boolean isProduction() {
+        return "production".equalsIgnoreCase(environment);
+    }
+
+    /**
+     * Claves cuyo valor cambió respecto a otra foto
+     */
+    public Set<String> changedKeys(ConfigSnapshot previous) {
+        Set<String> changed = new TreeSet<>();
+        if (previous == null) {
+            changed.addAll(values.keySet());
+            return changed;
+        }
+        for (String key : values.keySet()) {
+            if (!Objects.equals(values.get(key), previous.values.get(key))) {
+                changed.add(key);
+            }
+        }
+        for (String key : previous.values.keySet()) {
+            if (!values.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
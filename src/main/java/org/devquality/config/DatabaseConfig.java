@@ -2,10 +2,14 @@ package org.devquality.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.devquality.persistence.instrumentation.InstrumentedDataSource;
+import org.devquality.persistence.instrumentation.RequestDbStats;
+import org.devquality.persistence.instrumentation.SqlStatsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Properties;
@@ -14,6 +18,11 @@ public class DatabaseConfig {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
     private static DatabaseConfig instance;
     private HikariDataSource dataSource;
+    private InstrumentedDataSource instrumentedDataSource;
+    private final PoolWaitTracker poolWaitTracker = new PoolWaitTracker();
+    private String jdbcUrl;
+    private String username;
+    private String password;
 
     private DatabaseConfig() {
         setupDataSource();
@@ -34,11 +43,11 @@ public class DatabaseConfig {
         String host = getEnvOrDefault("DB_HOST", "localhost");
         String port = getEnvOrDefault("DB_PORT", "5432");
         String database = getEnvOrDefault("DB_NAME", "users");
-        String username = getEnvOrDefault("DB_USER", "Hexagonal");
-        String password = getEnvOrDefault("DB_PASSWORD", "HexagonalSole89");
+        this.username = getEnvOrDefault("DB_USER", "Hexagonal");
+        this.password = getEnvOrDefault("DB_PASSWORD", "HexagonalSole89");
 
         // URL de conexión
-        String jdbcUrl = String.format("jdbc:postgresql://%s:%s/%s", host, port, database);
+        this.jdbcUrl = String.format("jdbc:postgresql://%s:%s/%s", host, port, database);
         config.setJdbcUrl(jdbcUrl);
         config.setUsername(username);
         config.setPassword(password);
@@ -70,6 +79,7 @@ public class DatabaseConfig {
         config.setConnectionTestQuery("SELECT 1");
         config.setValidationTimeout(5000);
         config.setRegisterMbeans(true);
+        config.setMetricsTrackerFactory(poolWaitTracker);
 
         try {
             this.dataSource = new HikariDataSource(config);
@@ -80,6 +90,14 @@ public class DatabaseConfig {
                 logger.info("✅ Conexión de prueba exitosa a PostgreSQL");
             }
 
+            // 🔬 Estadísticas por sentencia (Flyway y los EXPLAIN usan el pool sin instrumentar)
+            AppConfiguration appConfig = AppConfiguration.getInstance();
+            if (appConfig.getBoolean("sql.stats.enabled", true)) {
+                this.instrumentedDataSource = new InstrumentedDataSource(dataSource,
+                        SqlStatsRegistry.fromConfiguration(dataSource, appConfig));
+                logger.info("🔬 Estadísticas SQL habilitadas (lentas > {}ms)", appConfig.get("sql.slow-query-ms", "200"));
+            }
+
         } catch (Exception e) {
             logger.error("❌ Error al configurar el pool de conexiones", e);
             throw new RuntimeException("No se pudo conectar a PostgreSQL", e);
@@ -90,7 +108,28 @@ public class DatabaseConfig {
         if (dataSource == null || dataSource.isClosed()) {
             throw new SQLException("DataSource no está disponible");
         }
-        return dataSource.getConnection();
+        if (instrumentedDataSource != null) {
+            return instrumentedDataSource.getConnection();
+        }
+        // Sin estadísticas SQL se sigue contando la espera del pool del request (Server-Timing, X-DB-Stats)
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        RequestDbStats.recordConnection(System.nanoTime() - start);
+        return connection;
+    }
+
+    /**
+     * Abre una conexión dedicada fuera del pool (p. ej. para LISTEN/NOTIFY).
+     * El llamante es responsable de cerrarla.
+     */
+    public Connection openDedicatedConnection(String applicationName) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", username);
+        props.setProperty("password", password);
+        props.setProperty("ApplicationName", applicationName);
+        props.setProperty("tcpKeepAlive", "true");
+        props.setProperty("connectTimeout", "10");
+        return DriverManager.getConnection(jdbcUrl, props);
     }
 
     // ✅ Getter para Flyway
@@ -98,6 +137,17 @@ public class DatabaseConfig {
         return dataSource;
     }
 
+    /**
+     * Estadísticas por sentencia, o null si sql.stats.enabled es false
+     */
+    public SqlStatsRegistry getSqlStats() {
+        return instrumentedDataSource != null ? instrumentedDataSource.getRegistry() : null;
+    }
+
+    public PoolWaitTracker getPoolWaitTracker() {
+        return poolWaitTracker;
+    }
+
     public String getPoolStats() {
         if (dataSource != null) {
             return String.format(
@@ -111,6 +161,10 @@ public class DatabaseConfig {
         return "Pool no disponible";
     }
 
+    /**
+     * Comprobación síncrona que ocupa una conexión del pool. Los endpoints de health
+     * leen la foto de HealthProber en lugar de llamar a este método.
+     */
     public boolean isHealthy() {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
@@ -125,6 +179,9 @@ public class DatabaseConfig {
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
             logger.info("🔒 Cerrando pool de conexiones...");
+            if (instrumentedDataSource != null) {
+                instrumentedDataSource.getRegistry().shutdown();
+            }
             dataSource.close();
             logger.info("✅ Pool de conexiones cerrado");
         }
@@ -0,0 +1,114 @@
+package org.devquality.config;
+
+import org.devquality.persistence.instrumentation.RequestDbStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor dedicado y acotado para operaciones de base de datos.
+ *
+ * Los handlers HTTP delegan aquí las llamadas bloqueantes (JDBC) y devuelven
+ * un CompletableFuture a Javalin (ctx.future), de modo que los hilos de request
+ * quedan libres aunque la latencia de la BD se dispare.
+ */
+public class DatabaseExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseExecutor.class);
+    private static DatabaseExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+
+    private DatabaseExecutor(int threads, int queueSize) {
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new DatabaseThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        logger.info("🧵 Executor de base de datos inicializado ({} hilos, cola de {})", threads, queueSize);
+    }
+
+    public static synchronized DatabaseExecutor getInstance() {
+        if (instance == null) {
+            AppConfiguration appConfig = AppConfiguration.getInstance();
+            int poolSize = appConfig.getInt("db.pool.max-size", 20);
+            instance = new DatabaseExecutor(
+                    appConfig.getInt("db.executor.threads", poolSize),
+                    appConfig.getInt("db.executor.queue-size", 1000)
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * Ejecuta una tarea en el executor de BD.
+     * Las excepciones (incluida la saturación de la cola) se propagan en el future.
+     * Los accesos a la BD de la tarea se contabilizan en el request que la encoló.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        RequestDbStats requestStats = RequestDbStats.current();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return RequestDbStats.callWith(requestStats, task);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("⚠️ Executor de BD saturado (cola: {})", executor.getQueue().size());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public String getStats() {
+        return String.format(
+                "DB Executor - Active: %d, Pool: %d, Queued: %d, Completed: %d",
+                executor.getActiveCount(),
+                executor.getPoolSize(),
+                executor.getQueue().size(),
+                executor.getCompletedTaskCount()
+        );
+    }
+
+    /**
+     * Detiene el executor esperando las tareas en curso
+     */
+    public void shutdown(long timeoutMs) {
+        logger.info("🔒 Deteniendo executor de base de datos...");
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("⚠️ Tareas de BD pendientes tras {}ms, forzando cierre", timeoutMs);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class DatabaseThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "db-executor-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -28,8 +28,11 @@ public class FlywayConfiguration {
             // 🚀 Ejecutar migraciones desde cero
             executeMigrations(flyway);
 
-            // 📊 Mostrar estado final
-            showFinalStatus(flyway);
+            // 📊 Mostrar estado final (flyway.info() vuelve a escanear migraciones e historial,
+            // así que fuera de desarrollo solo se hace si se pide con STARTUP_MIGRATION_REPORT)
+            if (AppConfiguration.getInstance().getBoolean("startup.migration-report", false)) {
+                showFinalStatus(flyway);
+            }
 
         } catch (Exception e) {
             logger.error("❌ Error al ejecutar migraciones", e);
@@ -1,11 +1,18 @@
 package org.devquality.config;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.javalin.json.JavalinJackson;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.User;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,8 +28,26 @@ public class JacksonConfiguration {
     public static ObjectMapper createObjectMapper() {
         logger.debug("🔧 Configurando ObjectMapper de Jackson...");
 
-        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectMapper objectMapper = configure(new ObjectMapper());
 
+        logger.info("✅ ObjectMapper configurado correctamente");
+        return objectMapper;
+    }
+
+    /**
+     * ObjectMapper con la misma configuración sobre un formato binario (Smile, CBOR)
+     */
+    public static ObjectMapper createObjectMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = configure(new ObjectMapper(factory));
+
+        // Los formatos binarios no tienen pretty printing
+        objectMapper.disable(SerializationFeature.INDENT_OUTPUT);
+
+        logger.debug("✅ ObjectMapper configurado para {}", factory.getFormatName());
+        return objectMapper;
+    }
+
+    private static ObjectMapper configure(ObjectMapper objectMapper) {
         // 📅 Soporte para Java 8 Time API
         configureTimeSupport(objectMapper);
 
@@ -35,17 +60,30 @@ public class JacksonConfiguration {
         // 🏷️ Naming strategy
         configureNamingStrategy(objectMapper);
 
-        logger.info("✅ ObjectMapper configurado correctamente");
+        // 🔍 Proyección con ?fields=
+        configureFieldSelection(objectMapper);
+
         return objectMapper;
     }
 
+    /**
+     * ObjectMapper compartido por toda la aplicación (thread-safe una vez configurado)
+     */
+    public static ObjectMapper getSharedObjectMapper() {
+        return SharedObjectMapperHolder.INSTANCE;
+    }
+
+    private static final class SharedObjectMapperHolder {
+        private static final ObjectMapper INSTANCE = createObjectMapper();
+    }
+
     /**
      * Crea JavalinJackson configurado para Javalin
      */
     public static JavalinJackson createJavalinJackson() {
         logger.debug("🔧 Configurando JavalinJackson...");
 
-        ObjectMapper objectMapper = createObjectMapper();
+        ObjectMapper objectMapper = getSharedObjectMapper();
 
         // Crear JavalinJackson con pretty printing habilitado según el entorno
         boolean prettyPrint = isPrettyPrintEnabled();
@@ -94,6 +132,10 @@ public class JacksonConfiguration {
         // Para BigDecimal y números
         objectMapper.enable(SerializationFeature.WRITE_BIGDECIMAL_AS_PLAIN);
 
+        // Entidades con el filtro de ?fields=: sin ?fields= se serializan todas sus propiedades
+        objectMapper.setFilterProvider(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+
         logger.debug("✅ Características de serialización configuradas");
     }
 
@@ -119,6 +161,19 @@ public class JacksonConfiguration {
         logger.debug("✅ Características de deserialización configuradas");
     }
 
+    /**
+     * Asocia el filtro de ?fields= a las entidades proyectables mediante un mix-in,
+     * así las entidades de persistencia no dependen de Jackson
+     */
+    private static void configureFieldSelection(ObjectMapper objectMapper) {
+        objectMapper.addMixIn(Product.class, FieldSelectionMixIn.class);
+        objectMapper.addMixIn(User.class, FieldSelectionMixIn.class);
+    }
+
+    @JsonFilter(FieldSelection.JSON_FILTER)
+    private abstract static class FieldSelectionMixIn {
+    }
+
     /**
      * Configura la estrategia de naming (camelCase, snake_case, etc.)
      */
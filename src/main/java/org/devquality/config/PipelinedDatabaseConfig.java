@@ -0,0 +1,157 @@
+package org.devquality.config;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.PgException;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.Tuple;
+import org.devquality.persistence.instrumentation.RequestDbStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cliente PostgreSQL no bloqueante (protocolo nativo vía Vert.x) con pipelining.
+ *
+ * Varias consultas se envían por la misma conexión física sin esperar la respuesta
+ * de la anterior, por lo que pocas conexiones (4-8) soportan mucha concurrencia de lecturas.
+ *
+ * El timeout de consulta lo aplica el servidor (statement_timeout de la sesión): cancela solo
+ * la sentencia lenta. Un CancelRequest desde aquí cancelaría lo que esté ejecutando la conexión
+ * en ese momento, que con pipelining puede ser la consulta de otro hilo.
+ */
+public class PipelinedDatabaseConfig {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedDatabaseConfig.class);
+    private static PipelinedDatabaseConfig instance;
+    // Margen sobre statement_timeout para que llegue el error del servidor antes que el timeout local
+    private static final long CLIENT_TIMEOUT_GRACE_MS = 2000;
+
+    private final Vertx vertx;
+    private final SqlClient client;
+    private final long queryTimeoutMs;
+
+    private PipelinedDatabaseConfig(AppConfiguration appConfig) {
+        this(appConfig, appConfig.getInt("db.pipelined.query-timeout-ms", 10000));
+    }
+
+    /**
+     * @param queryTimeoutMs statement_timeout de las conexiones (visible para las pruebas)
+     */
+    PipelinedDatabaseConfig(AppConfiguration appConfig, long queryTimeoutMs) {
+        int maxConnections = appConfig.getInt("db.pipelined.max-connections", 4);
+        int pipeliningLimit = appConfig.getInt("db.pipelined.pipelining-limit", 256);
+        this.queryTimeoutMs = queryTimeoutMs;
+
+        PgConnectOptions connectOptions = new PgConnectOptions()
+                .setHost(appConfig.get("db.host"))
+                .setPort(appConfig.getInt("db.port"))
+                .setDatabase(appConfig.get("db.name"))
+                .setUser(appConfig.get("db.user"))
+                .setPassword(appConfig.get("db.password"))
+                .setPipeliningLimit(pipeliningLimit)
+                .setCachePreparedStatements(true)
+                .setTcpKeepAlive(true);
+        connectOptions.addProperty("application_name", "JavalinAPI-pipelined");
+        connectOptions.addProperty("statement_timeout", String.valueOf(queryTimeoutMs));
+
+        PoolOptions poolOptions = new PoolOptions()
+                .setMaxSize(maxConnections)
+                .setName("JavalinAPI-pipelined");
+
+        this.vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(Math.max(1, maxConnections)));
+        this.client = PgBuilder.client()
+                .with(poolOptions)
+                .connectingTo(connectOptions)
+                .using(vertx)
+                .build();
+
+        logger.info("🚀 Cliente PostgreSQL con pipelining inicializado ({} conexiones, pipelining {}, timeout {}ms)",
+                maxConnections, pipeliningLimit, queryTimeoutMs);
+    }
+
+    public static synchronized PipelinedDatabaseConfig getInstance() {
+        if (instance == null) {
+            instance = new PipelinedDatabaseConfig(AppConfiguration.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Ejecuta una consulta preparada y espera su resultado.
+     * El hilo llamante (executor de BD) queda bloqueado hasta la respuesta, así que la concurrencia
+     * sigue limitada por DB_EXECUTOR_THREADS; lo que ahorra el pipelining son conexiones físicas,
+     * que quedan libres para las consultas de otros hilos mientras tanto.
+     */
+    public RowSet<Row> execute(String sql, Tuple params) throws SQLException {
+        return await(System.nanoTime(), client.preparedQuery(sql).execute(params));
+    }
+
+    /**
+     * Ejecuta una consulta sin parámetros y espera su resultado
+     */
+    public RowSet<Row> execute(String sql) throws SQLException {
+        return await(System.nanoTime(), client.preparedQuery(sql).execute());
+    }
+
+    /**
+     * Espera el resultado y lo contabiliza en el request en curso (sin préstamo de conexión:
+     * las conexiones del pipelining son compartidas). Normalmente el timeout llega como error
+     * 57014 del servidor, que ya canceló la sentencia; el local solo salta si el servidor deja
+     * de responder (red caída) y evita que el hilo espere indefinidamente.
+     */
+    private RowSet<Row> await(long start, Future<RowSet<Row>> future) throws SQLException {
+        try {
+            return future.toCompletionStage()
+                    .toCompletableFuture()
+                    .get(queryTimeoutMs + CLIENT_TIMEOUT_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw toSqlException(e.getCause());
+        } catch (TimeoutException e) {
+            logger.error("❌ Sin respuesta del servidor {}ms después del statement_timeout", CLIENT_TIMEOUT_GRACE_MS);
+            throw new SQLException("Timeout de consulta tras " + queryTimeoutMs + "ms", "57014", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Consulta interrumpida", e);
+        } finally {
+            RequestDbStats.recordStatement(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Convierte los errores del cliente Vert.x a SQLException (mismo contrato que JDBC)
+     */
+    private static SQLException toSqlException(Throwable cause) {
+        if (cause instanceof PgException) {
+            PgException pgException = (PgException) cause;
+            return new SQLException(pgException.getMessage(), pgException.getSqlState(), pgException);
+        }
+        return new SQLException(cause != null ? cause.getMessage() : "Error desconocido", cause);
+    }
+
+    void close() {
+        client.close();
+        vertx.close();
+    }
+
+    /**
+     * Cierra el cliente si fue inicializado
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            logger.info("🔒 Cerrando cliente PostgreSQL con pipelining...");
+            instance.close();
+            instance = null;
+            logger.info("✅ Cliente PostgreSQL con pipelining cerrado");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.devquality.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.IMetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra cuánto esperan los hilos para obtener una conexión de HikariCP.
+ *
+ * Hikari llama a recordConnectionAcquiredNanos en cada checkout; aquí solo se acumula
+ * (sin locks) y el HealthProber vacía la ventana en cada sondeo.
+ */
+public class PoolWaitTracker implements IMetricsTrackerFactory, IMetricsTracker {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        totalWaitNanos.add(elapsedAcquiredNanos);
+        maxWaitNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Devuelve las esperas acumuladas desde la llamada anterior y reinicia la ventana
+     */
+    public Window drain() {
+        long count = acquisitions.sumThenReset();
+        long total = totalWaitNanos.sumThenReset();
+        long max = maxWaitNanos.getThenReset();
+        long timeoutCount = timeouts.sumThenReset();
+        return new Window(count, count == 0 ? 0 : total / count / 1_000, max / 1_000, timeoutCount);
+    }
+
+    /**
+     * Esperas de una ventana de sondeo (en microsegundos)
+     */
+    public record Window(long acquisitions, long avgWaitMicros, long maxWaitMicros, long timeouts) {
+    }
+}
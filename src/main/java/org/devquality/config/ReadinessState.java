@@ -0,0 +1,59 @@
+package org.devquality.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estado de disponibilidad de la instancia para recibir tráfico (/ready).
+ *
+ * Distinto de /api/health: una instancia puede estar viva pero todavía en warm-up.
+ */
+public class ReadinessState {
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessState.class);
+    private static final ReadinessState INSTANCE = new ReadinessState();
+
+    public enum Status {
+        STARTING,
+        WARMING_UP,
+        READY,
+        DRAINING
+    }
+
+    private volatile Status status = Status.STARTING;
+    private volatile long changedAt = System.currentTimeMillis();
+
+    private ReadinessState() {
+    }
+
+    public static ReadinessState getInstance() {
+        return INSTANCE;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+
+    public boolean isReady() {
+        return status == Status.READY;
+    }
+
+    /**
+     * Cambia el estado. DRAINING es definitivo: un warm-up que termina durante el cierre
+     * no vuelve a marcar la instancia como lista.
+     */
+    public synchronized void set(Status newStatus) {
+        Status previous = status;
+        if (previous == Status.DRAINING) {
+            return;
+        }
+        status = newStatus;
+        changedAt = System.currentTimeMillis();
+        if (previous != newStatus) {
+            logger.info("🚦 Disponibilidad: {} -> {}", previous, newStatus);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.devquality.config;
+
+import java.util.Locale;
+
+/**
+ * Modos de ejecución de la aplicación (primer argumento de Main o RUN_MODE)
+ */
+public enum RunMode {
+    /**
+     * Job puntual: ejecuta las migraciones con Flyway y termina
+     */
+    MIGRATE,
+
+    /**
+     * Servidor sin migraciones; con --verify-schema solo comprueba la versión del esquema
+     */
+    SERVE,
+
+    /**
+     * Migra y después sirve (comportamiento histórico, útil en desarrollo)
+     */
+    MIGRATE_AND_SERVE;
+
+    /**
+     * Convierte el valor de configuración a un modo (por defecto MIGRATE_AND_SERVE)
+     */
+    public static RunMode fromValue(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return MIGRATE_AND_SERVE;
+        }
+        try {
+            return RunMode.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de ejecución inválido: " + value
+                    + " (migrate, serve, migrate-and-serve)");
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.devquality.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Verificación barata del esquema para el modo serve --verify-schema.
+ *
+ * No usa Flyway (ni su lock del historial): compara la última migración versionada del
+ * classpath con la última aplicada en flyway_schema_history mediante una sola consulta.
+ */
+public class SchemaVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaVerifier.class);
+    private static final String MIGRATION_LOCATION = "db/migration";
+    private static final Pattern VERSIONED_MIGRATION = Pattern.compile("V([0-9][0-9._]*)__.+\\.sql");
+    private static final String LATEST_APPLIED_SQL = """
+            SELECT version, checksum
+            FROM flyway_schema_history
+            WHERE version IS NOT NULL AND success
+            ORDER BY installed_rank DESC
+            LIMIT 1
+            """;
+
+    private final DatabaseConfig databaseConfig;
+    private volatile Migration classpathMigration;
+
+    public SchemaVerifier(DatabaseConfig databaseConfig) {
+        this.databaseConfig = databaseConfig;
+    }
+
+    /**
+     * Versión de la última migración versionada del classpath
+     */
+    public String getClasspathVersion() {
+        return latestClasspathMigration().version;
+    }
+
+    /**
+     * Versión de la última migración aplicada con éxito, o null si no hay ninguna
+     */
+    public static String queryAppliedVersion(Connection conn) throws SQLException {
+        Migration applied = queryLatestApplied(conn);
+        return applied != null ? applied.version : null;
+    }
+
+    /**
+     * Espera (con backoff exponencial) a que el esquema alcance la versión del classpath.
+     *
+     * @param maxWaitMs tiempo máximo de espera; 0 verifica una sola vez
+     * @param maxBackoffMs espera máxima entre intentos
+     * @throws IllegalStateException si el esquema no es compatible o no se alcanza a tiempo
+     */
+    public void verify(long maxWaitMs, long maxBackoffMs) {
+        Migration expected = latestClasspathMigration();
+        logger.info("🔍 Verificando esquema: se espera V{} (checksum {})", expected.version, expected.checksum);
+
+        long deadline = System.currentTimeMillis() + maxWaitMs;
+        long backoff = Math.min(250, Math.max(1, maxBackoffMs));
+
+        while (true) {
+            String problem = check(expected);
+            if (problem == null) {
+                return;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new IllegalStateException(problem);
+            }
+
+            logger.info("⏳ {}; reintentando en {}ms", problem, Math.min(backoff, remaining));
+            try {
+                Thread.sleep(Math.min(backoff, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Espera del esquema interrumpida", e);
+            }
+            backoff = Math.min(backoff * 2, maxBackoffMs);
+        }
+    }
+
+    /**
+     * @return null si el esquema es compatible, o la razón por la que todavía no lo es
+     * @throws IllegalStateException si la diferencia no se resolverá esperando (checksum distinto)
+     */
+    private String check(Migration expected) {
+        Migration applied;
+        try {
+            applied = findLatestAppliedMigration();
+        } catch (SQLException e) {
+            return "No se pudo leer flyway_schema_history: " + e.getMessage();
+        }
+
+        if (applied == null) {
+            return "El esquema no tiene migraciones aplicadas";
+        }
+
+        int comparison = compareVersions(applied.version, expected.version);
+        if (comparison < 0) {
+            return "El esquema está en V" + applied.version + ", se necesita V" + expected.version;
+        }
+        if (comparison > 0) {
+            // Despliegue gradual: el job de migración ya aplicó una versión más nueva
+            logger.warn("⚠️ El esquema (V{}) es más reciente que esta versión de la aplicación (V{})",
+                    applied.version, expected.version);
+            return null;
+        }
+        if (applied.checksum != expected.checksum) {
+            throw new IllegalStateException("Checksum de V" + expected.version + " no coincide: BD "
+                    + applied.checksum + ", classpath " + expected.checksum);
+        }
+
+        logger.info("✅ Esquema verificado en V{}", applied.version);
+        return null;
+    }
+
+    private Migration findLatestAppliedMigration() throws SQLException {
+        try (Connection conn = databaseConfig.getConnection()) {
+            return queryLatestApplied(conn);
+        }
+    }
+
+    private static Migration queryLatestApplied(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(LATEST_APPLIED_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            return new Migration(rs.getString("version"), rs.getInt("checksum"));
+        }
+    }
+
+    private Migration latestClasspathMigration() {
+        Migration migration = classpathMigration;
+        if (migration == null) {
+            migration = findLatestClasspathMigration();
+            classpathMigration = migration;
+        }
+        return migration;
+    }
+
+    /**
+     * Última migración versionada del classpath con su checksum calculado como lo hace Flyway
+     */
+    private Migration findLatestClasspathMigration() {
+        List<String> names = listMigrationFiles();
+        String latestName = null;
+        String latestVersion = null;
+        for (String name : names) {
+            Matcher matcher = VERSIONED_MIGRATION.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            String version = matcher.group(1).replace('_', '.');
+            if (latestVersion == null || compareVersions(version, latestVersion) > 0) {
+                latestVersion = version;
+                latestName = name;
+            }
+        }
+        if (latestName == null) {
+            throw new IllegalStateException("No hay migraciones en classpath:" + MIGRATION_LOCATION);
+        }
+        return new Migration(latestVersion, checksum(MIGRATION_LOCATION + "/" + latestName));
+    }
+
+    private List<String> listMigrationFiles() {
+        URL url = SchemaVerifier.class.getClassLoader().getResource(MIGRATION_LOCATION);
+        if (url == null) {
+            throw new IllegalStateException("No se encontró classpath:" + MIGRATION_LOCATION);
+        }
+
+        List<String> names = new ArrayList<>();
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) url.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jar = connection.getJarFile()) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        String entry = entries.nextElement().getName();
+                        if (entry.startsWith(MIGRATION_LOCATION + "/") && !entry.endsWith("/")) {
+                            names.add(entry.substring(MIGRATION_LOCATION.length() + 1));
+                        }
+                    }
+                }
+            } else {
+                try (Stream<Path> files = Files.list(Paths.get(url.toURI()))) {
+                    files.forEach(file -> names.add(file.getFileName().toString()));
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("No se pudieron listar las migraciones: " + e.getMessage(), e);
+        }
+        return names;
+    }
+
+    /**
+     * CRC32 de las líneas sin saltos de línea ni BOM (mismo cálculo que Flyway)
+     */
+    private static int checksum(String resource) {
+        InputStream in = SchemaVerifier.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("No se encontró " + resource);
+        }
+        CRC32 crc32 = new CRC32();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line != null && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            while (line != null) {
+                crc32.update(line.getBytes(StandardCharsets.UTF_8));
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer " + resource + ": " + e.getMessage(), e);
+        }
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * Compara versiones de Flyway numéricamente por segmentos ("1.10" > "1.9")
+     */
+    public static int compareVersions(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            BigInteger l = i < left.length ? new BigInteger(left[i]) : BigInteger.ZERO;
+            BigInteger r = i < right.length ? new BigInteger(right[i]) : BigInteger.ZERO;
+            int comparison = l.compareTo(r);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private record Migration(String version, int checksum) {
+    }
+}
@@ -0,0 +1,93 @@
+package org.devquality.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Mide las fases de arranque y el tiempo hasta el primer request
+ */
+public class StartupTimer {
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimer.class);
+    private static final StartupTimer INSTANCE = new StartupTimer();
+
+    private final long mainStartNanos = System.nanoTime();
+    private final List<Phase> phases = new ArrayList<>();
+    private volatile boolean firstRequestSeen;
+
+    private StartupTimer() {
+    }
+
+    public static StartupTimer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ejecuta una fase registrando su duración y el hilo que la ejecutó
+     */
+    public <T> T time(String name, Supplier<T> phase) {
+        long start = System.nanoTime();
+        try {
+            return phase.get();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    public void time(String name, Runnable phase) {
+        long start = System.nanoTime();
+        try {
+            phase.run();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    private synchronized void record(String name, long startNanos) {
+        phases.add(new Phase(name, Thread.currentThread().getName(),
+                (startNanos - mainStartNanos) / 1_000_000, (System.nanoTime() - startNanos) / 1_000_000));
+    }
+
+    /**
+     * Muestra el desglose de fases (offset desde main y duración)
+     */
+    public synchronized void logBreakdown() {
+        long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        long mainElapsed = (System.nanoTime() - mainStartNanos) / 1_000_000;
+
+        logger.info("⏱️ ================================");
+        logger.info("⏱️ TIEMPOS DE ARRANQUE");
+        logger.info("⏱️ ================================");
+        for (Phase phase : phases) {
+            logger.info("  {} +{}ms {}ms [{}]",
+                    String.format("%-22s", phase.name), phase.offsetMs, phase.durationMs, phase.thread);
+        }
+        logger.info("  JVM hasta main: {}ms", jvmUptime - mainElapsed);
+        logger.info("  main hasta listo: {}ms (uptime JVM {}ms)", mainElapsed, jvmUptime);
+        logger.info("⏱️ ================================");
+    }
+
+    /**
+     * Registra el primer request atendido (time-to-first-request); después es una lectura volátil
+     */
+    public void markFirstRequest() {
+        if (firstRequestSeen) {
+            return;
+        }
+        synchronized (this) {
+            if (firstRequestSeen) {
+                return;
+            }
+            firstRequestSeen = true;
+        }
+        logger.info("⏱️ Primer request atendido a los {}ms de uptime JVM",
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private record Phase(String name, String thread, long offsetMs, long durationMs) {
+    }
+}
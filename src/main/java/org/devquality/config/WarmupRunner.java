@@ -0,0 +1,266 @@
+package org.devquality.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fase de warm-up tras app.start: calienta el JIT, las cachés de serializadores de Jackson,
+ * el pool de conexiones y (opcionalmente) los buffers de PostgreSQL antes de marcar la
+ * instancia como lista en /ready.
+ *
+ * La carga sintética se envía por HTTP al propio servidor, así recorre la cadena real
+ * de handlers (middleware, validación, servicios, repositorios y serialización). Esos requests
+ * llevan X-Warmup con un token aleatorio de este proceso: un cliente externo no puede marcar
+ * sus requests como sintéticos para que no se registren.
+ */
+public class WarmupRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+    public static final String WARMUP_HEADER = "X-Warmup";
+    private static final String TOKEN = newToken();
+
+    private final DatabaseConfig databaseConfig;
+    private final int port;
+    private final int iterations;
+    private final int concurrency;
+    private final boolean primePool;
+    private final List<String> prewarmRelations;
+    private final List<String> extraPaths;
+    private final long timeoutMs;
+
+    public WarmupRunner(DatabaseConfig databaseConfig, int port, int iterations, int concurrency,
+                        boolean primePool, List<String> prewarmRelations, List<String> extraPaths, long timeoutMs) {
+        this.databaseConfig = databaseConfig;
+        this.port = port;
+        this.iterations = iterations;
+        this.concurrency = Math.max(1, concurrency);
+        this.primePool = primePool;
+        this.prewarmRelations = prewarmRelations;
+        this.extraPaths = extraPaths;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public static WarmupRunner fromConfiguration(DatabaseConfig databaseConfig, int port, AppConfiguration appConfig) {
+        return new WarmupRunner(
+                databaseConfig,
+                port,
+                appConfig.getInt("warmup.iterations", 200),
+                appConfig.getInt("warmup.concurrency", 4),
+                appConfig.getBoolean("warmup.prime-pool", true),
+                splitList(appConfig.get("warmup.prewarm-relations", "")),
+                splitList(appConfig.get("warmup.extra-paths", "")),
+                appConfig.getInt("warmup.timeout-ms", 60000)
+        );
+    }
+
+    /**
+     * Ejecuta todas las etapas del warm-up. Los fallos se registran pero no impiden arrancar.
+     */
+    public void run() {
+        long start = System.currentTimeMillis();
+        logger.info("🔥 Iniciando warm-up ({} iteraciones, concurrencia {})...", iterations, concurrency);
+
+        if (primePool) {
+            primeConnectionPool();
+        }
+        if (!prewarmRelations.isEmpty()) {
+            prewarmRelations();
+        }
+        replayWorkload();
+
+        logger.info("🔥 Warm-up completado en {}ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Abre a la vez tantas conexiones como maximumPoolSize para que no se creen bajo carga
+     */
+    private void primeConnectionPool() {
+        int maxPoolSize = databaseConfig.getDataSource().getMaximumPoolSize();
+        List<Connection> connections = new ArrayList<>(maxPoolSize);
+        try {
+            for (int i = 0; i < maxPoolSize; i++) {
+                Connection conn = databaseConfig.getConnection();
+                connections.add(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT 1");
+                }
+            }
+            logger.info("🏊‍♂️ Pool de conexiones preparado ({} conexiones)", connections.size());
+        } catch (SQLException e) {
+            logger.warn("⚠️ No se pudo preparar el pool completo ({} de {}): {}",
+                    connections.size(), maxPoolSize, e.getMessage());
+        } finally {
+            for (Connection conn : connections) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.debug("No se pudo devolver la conexión al pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga las relaciones indicadas en shared_buffers con pg_prewarm (requiere la extensión)
+     */
+    private void prewarmRelations() {
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT pg_prewarm(?::regclass)")) {
+            for (String relation : prewarmRelations) {
+                stmt.setString(1, relation);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        logger.info("🐘 pg_prewarm {}: {} bloques", relation, rs.getLong(1));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ pg_prewarm no disponible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reproduce la carga sintética contra el propio servidor
+     */
+    private void replayWorkload() {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<HttpRequest> requests = buildWorkload();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                futures.add(workers.submit(() -> {
+                    for (int i = 0; i < iterations && System.currentTimeMillis() < deadline; i++) {
+                        for (HttpRequest request : requests) {
+                            try {
+                                client.send(request, HttpResponse.BodyHandlers.discarding());
+                                sent.incrementAndGet();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Warm-up interrumpido: {}", e.getMessage());
+        } finally {
+            workers.shutdownNow();
+            try {
+                workers.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        logger.info("🔥 Carga sintética: {} requests enviados, {} fallidos", sent.get(), failed.get());
+    }
+
+    /**
+     * Requests de solo lectura más un POST inválido (ejercita parsing y validación sin escribir en BD)
+     */
+    private List<HttpRequest> buildWorkload() {
+        List<String> paths = new ArrayList<>(List.of(
+                "/",
+                "/api/health",
+                "/api/products/health",
+                "/api/products",
+                "/api/products?page=0&size=20",
+                "/api/products?page=0&size=20&fields=id,name,price",
+                "/api/products/1",
+                "/api/products/search?name=a",
+                "/api/products/price-range?min=1&max=1000",
+                "/api/products/sync?limit=20",
+                "/api/products/stats",
+                "/api/users",
+                "/api/users/1"
+        ));
+        paths.addAll(extraPaths);
+
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : paths) {
+            requests.add(newRequest(path).GET().build());
+        }
+        requests.add(newRequest("/api/products?page=0&size=20")
+                .header("Accept", "application/x-jackson-smile")
+                .GET()
+                .build());
+        requests.add(newRequest("/api/products")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"\",\"price\":-1}"))
+                .build());
+        requests.add(newRequest("/api/users")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"\",\"email\":\"no-es-un-email\"}"))
+                .build());
+        return requests;
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .header(WARMUP_HEADER, TOKEN);
+    }
+
+    /**
+     * true si el valor de X-Warmup es el token de este proceso (comparación en tiempo constante)
+     */
+    public static boolean isWarmupRequest(String headerValue) {
+        return headerValue != null && MessageDigest.isEqual(
+                TOKEN.getBytes(StandardCharsets.US_ASCII), headerValue.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,331 @@
+package org.devquality.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.sse.SseClient;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.JacksonConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparte los cambios de products a todos los clientes SSE suscritos.
+ *
+ * Cada suscriptor tiene su propia cola acotada: si un consumidor lento la llena,
+ * se descartan sus eventos pendientes y recibe un evento "resync" (debe volver a
+ * consultar GET /api/products) sin frenar al resto. Un buffer circular en memoria
+ * permite reanudar con Last-Event-ID tras una desconexión breve.
+ */
+public class ProductChangeBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeBroadcaster.class);
+
+    public static final String CHANGE_EVENT = "product-change";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final ObjectMapper objectMapper = JacksonConfiguration.createObjectMapper();
+    // Distingue los ids de eventos de este proceso de los de un arranque anterior
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int queueSize;
+    private final int replaySize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ArrayDeque<Envelope> replay = new ArrayDeque<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private long sequence;
+    // Primer número de secuencia que todavía puede reenviarse desde el buffer
+    private long replayStart = 1;
+
+    public ProductChangeBroadcaster(int queueSize, int replaySize, int dispatcherThreads, long heartbeatMs) {
+        this.queueSize = queueSize;
+        this.replaySize = replaySize;
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, daemonThreads("sse-dispatcher-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("sse-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::heartbeatAll, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        logger.info("📡 Broadcaster de cambios de productos inicializado (cola: {}, replay: {})", queueSize, replaySize);
+    }
+
+    public static ProductChangeBroadcaster fromConfiguration(AppConfiguration appConfig) {
+        return new ProductChangeBroadcaster(
+                appConfig.getInt("events.products.queue-size", 256),
+                appConfig.getInt("events.products.replay-size", 1024),
+                appConfig.getInt("events.products.dispatcher-threads", 4),
+                appConfig.getInt("events.products.heartbeat-ms", 15000)
+        );
+    }
+
+    /**
+     * Publica un cambio recibido por NOTIFY a todos los suscriptores
+     */
+    public synchronized void publish(Long productId, String op, String updatedAt) {
+        ProductChangeEvent event = new ProductChangeEvent(++sequence, productId, op, updatedAt);
+        published.incrementAndGet();
+
+        if (event.requiresResync()) {
+            // Nada que reenviar de forma incremental: los clientes que reanuden deben resincronizar
+            replay.clear();
+            replayStart = sequence + 1;
+            subscribers.forEach(subscriber -> subscriber.requestResync("truncate"));
+            return;
+        }
+
+        Envelope envelope = new Envelope(event, formatEventId(event.getSequence()), toJson(event));
+        replay.addLast(envelope);
+        if (replay.size() > replaySize) {
+            replay.removeFirst();
+            replayStart = replay.peekFirst().event.getSequence();
+        }
+
+        subscribers.forEach(subscriber -> subscriber.enqueue(envelope));
+    }
+
+    /**
+     * Fuerza la resincronización de todos los suscriptores (p. ej. se perdieron notificaciones
+     * al reconectar el listener). El buffer de replay deja de ser fiable y se vacía.
+     */
+    public synchronized void resyncAll(String reason) {
+        replay.clear();
+        replayStart = sequence + 1;
+        subscribers.forEach(subscriber -> subscriber.requestResync(reason));
+    }
+
+    /**
+     * Registra un cliente SSE, reenviando los eventos posteriores a Last-Event-ID si es posible
+     */
+    public void subscribe(SseClient client) {
+        subscribe(SseConnection.of(client));
+    }
+
+    void subscribe(SseConnection client) {
+        Subscriber subscriber = new Subscriber(client);
+        client.onClose(() -> {
+            subscribers.remove(subscriber);
+            logger.debug("📴 Cliente SSE desconectado ({} activos)", subscribers.size());
+        });
+        client.keepAlive();
+
+        String lastEventId = client.lastEventId();
+
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayTo(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+
+        subscriber.schedule();
+        logger.debug("📡 Cliente SSE suscrito ({} activos)", subscribers.size());
+    }
+
+    private void replayTo(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence < replayStart - 1) {
+            subscriber.requestResync("replay-unavailable");
+            return;
+        }
+
+        for (Envelope envelope : replay) {
+            if (envelope.event.getSequence() > lastSequence) {
+                subscriber.enqueue(envelope);
+            }
+        }
+    }
+
+    /**
+     * Devuelve la secuencia de un id de evento de este proceso, o -1 si no es reanudable
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.indexOf(':');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String formatEventId(long eventSequence) {
+        return epoch + ":" + eventSequence;
+    }
+
+    private synchronized String currentEventId() {
+        return formatEventId(sequence);
+    }
+
+    private String toJson(ProductChangeEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", event.getProductId());
+        data.put("op", event.getOp());
+        data.put("updatedAt", event.getUpdatedAt());
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de producto", e);
+        }
+    }
+
+    private void heartbeatAll() {
+        subscribers.forEach(Subscriber::requestHeartbeat);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("published", published.get());
+        stats.put("resyncs", resyncs.get());
+        synchronized (this) {
+            stats.put("lastEventId", formatEventId(sequence));
+            stats.put("replayBuffered", replay.size());
+        }
+        return stats;
+    }
+
+    /**
+     * Cierra todas las conexiones SSE y detiene los hilos de envío
+     */
+    public void shutdown() {
+        logger.info("🔒 Cerrando {} conexiones SSE de productos...", subscribers.size());
+        heartbeat.shutdownNow();
+        List<Subscriber> active = new ArrayList<>(subscribers);
+        subscribers.clear();
+        active.forEach(subscriber -> subscriber.client.close());
+        dispatcher.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Evento ya serializado una sola vez para todos los suscriptores
+     */
+    private static final class Envelope {
+        private final ProductChangeEvent event;
+        private final String id;
+        private final String data;
+
+        private Envelope(ProductChangeEvent event, String id, String data) {
+            this.event = event;
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Cliente SSE con su cola acotada. Solo un hilo del dispatcher escribe en él a la vez.
+     */
+    private final class Subscriber {
+        private final SseConnection client;
+        private final ArrayBlockingQueue<Envelope> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile String pendingResync;
+        private volatile boolean pendingHeartbeat;
+
+        private Subscriber(SseConnection client) {
+            this.client = client;
+        }
+
+        private void enqueue(Envelope envelope) {
+            if (pendingResync != null) {
+                // Ya va a resincronizar: los eventos intermedios no aportan nada
+                return;
+            }
+            if (!queue.offer(envelope)) {
+                logger.warn("🐢 Cliente SSE lento: cola llena ({}), se fuerza resync", queueSize);
+                requestResync("overflow");
+                return;
+            }
+            schedule();
+        }
+
+        private void requestResync(String reason) {
+            queue.clear();
+            pendingResync = reason;
+            schedule();
+        }
+
+        private void requestHeartbeat() {
+            pendingHeartbeat = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!client.terminated()) {
+                    String reason = pendingResync;
+                    if (reason != null) {
+                        pendingResync = null;
+                        queue.clear();
+                        resyncs.incrementAndGet();
+                        client.sendEvent(RESYNC_EVENT, "{\"reason\":\"" + reason + "\"}", currentEventId());
+                        continue;
+                    }
+
+                    Envelope envelope = queue.poll();
+                    if (envelope == null) {
+                        if (pendingHeartbeat) {
+                            pendingHeartbeat = false;
+                            client.sendComment("heartbeat");
+                        }
+                        break;
+                    }
+
+                    pendingHeartbeat = false;
+                    client.sendEvent(CHANGE_EVENT, envelope.data, envelope.id);
+                }
+            } catch (Exception e) {
+                logger.debug("📴 Error enviando evento SSE, se desconecta el cliente: {}", e.getMessage());
+                subscribers.remove(this);
+                client.close();
+            } finally {
+                scheduled.set(false);
+            }
+
+            if (!client.terminated() && subscribers.contains(this)
+                    && (pendingResync != null || !queue.isEmpty())) {
+                schedule();
+            }
+        }
+    }
+}
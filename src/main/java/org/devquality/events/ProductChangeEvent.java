@@ -0,0 +1,41 @@
+package org.devquality.events;
+
+/**
+ * Evento compacto de cambio en products (id, operación, updated_at) tal como llega por NOTIFY
+ */
+public class ProductChangeEvent {
+    private final long sequence;
+    private final Long productId;
+    private final String op;
+    private final String updatedAt;
+
+    public ProductChangeEvent(long sequence, Long productId, String op, String updatedAt) {
+        this.sequence = sequence;
+        this.productId = productId;
+        this.op = op;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Un TRUNCATE no identifica filas: los clientes deben resincronizar
+     */
+    public boolean requiresResync() {
+        return productId == null;
+    }
+}
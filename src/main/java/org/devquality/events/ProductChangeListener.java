@@ -0,0 +1,135 @@
+package org.devquality.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.config.JacksonConfiguration;
+import org.devquality.persistence.cache.ProductQueryCache;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Escucha el canal product_changes (LISTEN/NOTIFY) con una única conexión dedicada
+ * y publica cada notificación en el broadcaster.
+ *
+ * Si la conexión se pierde se reconecta con backoff y se fuerza la resincronización
+ * de los clientes, ya que las notificaciones emitidas mientras tanto no se recuperan.
+ */
+public class ProductChangeListener implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeListener.class);
+    private static final String CHANNEL = "product_changes";
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final DatabaseConfig databaseConfig;
+    private final ProductChangeBroadcaster broadcaster;
+    private final ProductQueryCache queryCache;
+    private final int pollTimeoutMs;
+    private final ObjectMapper objectMapper = JacksonConfiguration.createObjectMapper();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ProductChangeListener(DatabaseConfig databaseConfig, ProductChangeBroadcaster broadcaster,
+                                 ProductQueryCache queryCache, int pollTimeoutMs) {
+        this.databaseConfig = databaseConfig;
+        this.broadcaster = broadcaster;
+        this.queryCache = queryCache;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "product-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        boolean reconnecting = false;
+
+        while (running) {
+            try (Connection connection = databaseConfig.openDedicatedConnection("JavalinAPI-listener")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("👂 Escuchando cambios de productos en el canal '{}'", CHANNEL);
+
+                if (reconnecting) {
+                    broadcaster.resyncAll("listener-reconnected");
+                    queryCache.bumpVersion();
+                    reconnecting = false;
+                }
+                backoffMs = INITIAL_BACKOFF_MS;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                reconnecting = true;
+                logger.warn("⚠️ Conexión LISTEN perdida ({}), reintentando en {}ms", e.getMessage(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+
+        logger.info("✅ Listener de cambios de productos detenido");
+    }
+
+    private void handle(String payload) {
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            Long productId = node.hasNonNull("id") ? node.get("id").asLong() : null;
+            String op = node.path("op").asText(null);
+            String updatedAt = node.hasNonNull("updated_at") ? node.get("updated_at").asText() : null;
+
+            // Escrituras de otras instancias o fuera de la aplicación también invalidan la caché local
+            queryCache.bumpVersion();
+            broadcaster.publish(productId, op, updatedAt);
+        } catch (Exception e) {
+            logger.warn("⚠️ Notificación de producto inválida ignorada: {}", payload);
+        }
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(pollTimeoutMs + 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.devquality.events;
+
+import io.javalin.http.sse.SseClient;
+
+/**
+ * Lo que el broadcaster usa de un cliente SSE. SseClient de Javalin es final y solo se crea
+ * desde un request real; esta interfaz permite probar el reparto con un cliente falso.
+ */
+interface SseConnection {
+
+    /**
+     * Último evento recibido antes de reconectar: cabecera Last-Event-ID o ?lastEventId=
+     * (EventSource no deja fijar cabeceras en la primera conexión)
+     */
+    String lastEventId();
+
+    void onClose(Runnable callback);
+
+    void keepAlive();
+
+    boolean terminated();
+
+    void sendEvent(String event, String data, String id);
+
+    void sendComment(String comment);
+
+    void close();
+
+    static SseConnection of(SseClient client) {
+        return new SseConnection() {
+            @Override
+            public String lastEventId() {
+                String lastEventId = client.ctx().header("Last-Event-ID");
+                return lastEventId != null ? lastEventId : client.ctx().queryParam("lastEventId");
+            }
+
+            @Override
+            public void onClose(Runnable callback) {
+                client.onClose(callback);
+            }
+
+            @Override
+            public void keepAlive() {
+                client.keepAlive();
+            }
+
+            @Override
+            public boolean terminated() {
+                return client.terminated();
+            }
+
+            @Override
+            public void sendEvent(String event, String data, String id) {
+                client.sendEvent(event, data, id);
+            }
+
+            @Override
+            public void sendComment(String comment) {
+                client.sendComment(comment);
+            }
+
+            @Override
+            public void close() {
+                client.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,207 @@
+package org.devquality.health;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.config.PoolWaitTracker;
+import org.devquality.config.SchemaVerifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sondeo de salud en segundo plano.
+ *
+ * Un único hilo mide cada intervalo la latencia de ida y vuelta a PostgreSQL (sobre una
+ * conexión dedicada, fuera del pool, para no competir con el tráfico ni quedarse sin
+ * conexión cuando el pool está agotado), la ocupación y las esperas del pool y el estado
+ * de las migraciones, y publica una {@link HealthSnapshot} inmutable. Los endpoints de
+ * health solo leen esa foto.
+ */
+public class HealthProber {
+    private static final Logger logger = LoggerFactory.getLogger(HealthProber.class);
+
+    private final DatabaseConfig databaseConfig;
+    private final SchemaVerifier schemaVerifier;
+    private final long intervalMs;
+    private final long degradedPoolWaitMs;
+    private final double degradedSaturation;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile HealthSnapshot snapshot = HealthSnapshot.unknown();
+    private Connection probeConnection;
+
+    public HealthProber(DatabaseConfig databaseConfig, long intervalMs, long degradedPoolWaitMs,
+                        double degradedSaturation) {
+        this.databaseConfig = databaseConfig;
+        this.schemaVerifier = new SchemaVerifier(databaseConfig);
+        this.intervalMs = intervalMs;
+        this.degradedPoolWaitMs = degradedPoolWaitMs;
+        this.degradedSaturation = degradedSaturation;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static HealthProber fromConfiguration(DatabaseConfig databaseConfig, AppConfiguration appConfig) {
+        return new HealthProber(
+                databaseConfig,
+                appConfig.getInt("health.probe-interval-ms", 1000),
+                appConfig.getInt("health.degraded-pool-wait-ms", 0),
+                appConfig.getInt("health.degraded-pool-saturation-pct", 0) / 100.0
+        );
+    }
+
+    public void start() {
+        probe();
+        scheduler.scheduleWithFixedDelay(this::probe, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("🩺 Sondeo de salud iniciado (cada {}ms)", intervalMs);
+    }
+
+    /**
+     * Foto vigente; si el sondeo lleva varios intervalos sin publicar se informa DOWN
+     */
+    public HealthSnapshot getSnapshot() {
+        HealthSnapshot current = snapshot;
+        if (current.checkedAt() > 0 && System.currentTimeMillis() - current.checkedAt() > intervalMs * 5) {
+            return new HealthSnapshot(HealthSnapshot.Status.DOWN, current.checkedAt(), current.dbLatencyMicros(),
+                    current.activeConnections(), current.idleConnections(), current.totalConnections(),
+                    current.maxConnections(), current.threadsAwaitingConnection(), current.avgPoolWaitMicros(),
+                    current.maxPoolWaitMicros(), current.poolTimeouts(), current.schemaVersion(),
+                    current.expectedSchemaVersion(), current.migrationState(), "Sondeo de salud desactualizado");
+        }
+        return current;
+    }
+
+    private void probe() {
+        long dbLatencyMicros = -1;
+        String schemaVersion = null;
+        String error = null;
+
+        try {
+            Connection conn = probeConnection();
+            long start = System.nanoTime();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.setQueryTimeout(5);
+                stmt.execute("SELECT 1");
+            }
+            dbLatencyMicros = (System.nanoTime() - start) / 1_000;
+            schemaVersion = queryAppliedVersion(conn);
+        } catch (SQLException e) {
+            error = e.getMessage();
+            closeProbeConnection();
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+
+        int active = 0, idle = 0, total = 0, waiting = 0;
+        int max = databaseConfig.getDataSource().getMaximumPoolSize();
+        HikariPoolMXBean pool = databaseConfig.getDataSource().getHikariPoolMXBean();
+        if (pool != null) {
+            active = pool.getActiveConnections();
+            idle = pool.getIdleConnections();
+            total = pool.getTotalConnections();
+            waiting = pool.getThreadsAwaitingConnection();
+        }
+        PoolWaitTracker.Window waits = databaseConfig.getPoolWaitTracker().drain();
+
+        String expectedVersion = expectedSchemaVersion();
+        HealthSnapshot.MigrationState migrationState = migrationState(schemaVersion, expectedVersion);
+
+        HealthSnapshot.Status status;
+        if (error != null) {
+            status = HealthSnapshot.Status.DOWN;
+        } else if (isDegraded(waits, active, max)) {
+            status = HealthSnapshot.Status.DEGRADED;
+        } else {
+            status = HealthSnapshot.Status.UP;
+        }
+
+        HealthSnapshot previous = snapshot;
+        snapshot = new HealthSnapshot(status, System.currentTimeMillis(), dbLatencyMicros, active, idle, total,
+                max, waiting, waits.avgWaitMicros(), waits.maxWaitMicros(), waits.timeouts(),
+                schemaVersion, expectedVersion, migrationState, error);
+
+        if (previous.status() != status) {
+            logger.info("🩺 Estado de salud: {} -> {}{}", previous.status(), status,
+                    error != null ? " (" + error + ")" : "");
+        }
+    }
+
+    /**
+     * DEGRADED solo si se configuró un umbral (espera máxima del pool o saturación)
+     */
+    private boolean isDegraded(PoolWaitTracker.Window waits, int active, int max) {
+        if (degradedPoolWaitMs > 0 && (waits.maxWaitMicros() > degradedPoolWaitMs * 1000 || waits.timeouts() > 0)) {
+            return true;
+        }
+        return degradedSaturation > 0 && max > 0 && (double) active / max >= degradedSaturation;
+    }
+
+    /**
+     * Un fallo aquí (p. ej. sin flyway_schema_history) deja el estado de migraciones en UNKNOWN
+     */
+    private String queryAppliedVersion(Connection conn) {
+        try {
+            return SchemaVerifier.queryAppliedVersion(conn);
+        } catch (SQLException e) {
+            logger.debug("No se pudo leer la versión del esquema: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String expectedSchemaVersion() {
+        try {
+            return schemaVerifier.getClasspathVersion();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private static HealthSnapshot.MigrationState migrationState(String applied, String expected) {
+        if (applied == null || expected == null) {
+            return HealthSnapshot.MigrationState.UNKNOWN;
+        }
+        int comparison = SchemaVerifier.compareVersions(applied, expected);
+        if (comparison < 0) {
+            return HealthSnapshot.MigrationState.BEHIND;
+        }
+        return comparison > 0 ? HealthSnapshot.MigrationState.AHEAD : HealthSnapshot.MigrationState.UP_TO_DATE;
+    }
+
+    private Connection probeConnection() throws SQLException {
+        if (probeConnection == null || probeConnection.isClosed()) {
+            probeConnection = databaseConfig.openDedicatedConnection("JavalinAPI-health");
+        }
+        return probeConnection;
+    }
+
+    private void closeProbeConnection() {
+        if (probeConnection != null) {
+            try {
+                probeConnection.close();
+            } catch (SQLException e) {
+                logger.debug("No se pudo cerrar la conexión de sondeo: {}", e.getMessage());
+            }
+            probeConnection = null;
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeProbeConnection();
+    }
+}
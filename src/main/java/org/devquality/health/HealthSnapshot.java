@@ -0,0 +1,86 @@
+package org.devquality.health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Foto inmutable del estado de la instancia publicada por HealthProber
+ */
+public record HealthSnapshot(
+        Status status,
+        long checkedAt,
+        long dbLatencyMicros,
+        int activeConnections,
+        int idleConnections,
+        int totalConnections,
+        int maxConnections,
+        int threadsAwaitingConnection,
+        long avgPoolWaitMicros,
+        long maxPoolWaitMicros,
+        long poolTimeouts,
+        String schemaVersion,
+        String expectedSchemaVersion,
+        MigrationState migrationState,
+        String error
+) {
+
+    public enum Status {
+        UP,
+        DEGRADED,
+        DOWN
+    }
+
+    public enum MigrationState {
+        UP_TO_DATE,
+        BEHIND,
+        AHEAD,
+        UNKNOWN
+    }
+
+    /**
+     * Foto inicial, antes del primer sondeo
+     */
+    public static HealthSnapshot unknown() {
+        return new HealthSnapshot(Status.DOWN, 0, -1, 0, 0, 0, 0, 0, 0, 0, 0,
+                null, null, MigrationState.UNKNOWN, "Sin sondeos todavía");
+    }
+
+    /**
+     * Ocupación del pool (conexiones activas / máximo)
+     */
+    public double poolSaturation() {
+        return maxConnections == 0 ? 0 : (double) activeConnections / maxConnections;
+    }
+
+    /**
+     * Representación para la respuesta JSON de los endpoints de health
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("active", activeConnections);
+        pool.put("idle", idleConnections);
+        pool.put("total", totalConnections);
+        pool.put("max", maxConnections);
+        pool.put("saturation", Math.round(poolSaturation() * 100) / 100.0);
+        pool.put("waitingThreads", threadsAwaitingConnection);
+        pool.put("avgWaitMs", avgPoolWaitMicros / 1000.0);
+        pool.put("maxWaitMs", maxPoolWaitMicros / 1000.0);
+        pool.put("timeouts", poolTimeouts);
+
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("state", migrationState.name());
+        schema.put("version", schemaVersion);
+        schema.put("expectedVersion", expectedSchemaVersion);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("status", status.name());
+        data.put("checkedAt", checkedAt);
+        data.put("dbLatencyMs", dbLatencyMicros < 0 ? null : dbLatencyMicros / 1000.0);
+        data.put("pool", pool);
+        data.put("schema", schema);
+        if (error != null) {
+            data.put("error", error);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,355 @@
+package org.devquality.persistence.batching;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrupa inserciones concurrentes de productos en un único INSERT multi-fila
+ * y una única transacción (group commit).
+ *
+ * Las llamadas que llegan dentro de la ventana max-delay-ms (o hasta completar
+ * max-batch-size) comparten un commit; cada llamante recibe su propio id y timestamps.
+ * Los ids se reservan antes del INSERT y cada fila lleva el suyo explícito, así las filas
+ * devueltas se asignan por id y no dependen del orden en que PostgreSQL evalúe nextval().
+ * Si una fila viola una restricción, el lote se reintenta fila a fila con savepoints
+ * para que solo falle el llamante afectado.
+ */
+public class ProductInsertCoalescer {
+    private static final Logger logger = LoggerFactory.getLogger(ProductInsertCoalescer.class);
+
+    private static final String ALLOCATE_IDS =
+            "SELECT nextval('products_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SINGLE =
+            "INSERT INTO products (name, price, description) VALUES (?, ?, ?) RETURNING " + ProductRowMapper.COLUMNS;
+
+    private final DatabaseConfig databaseConfig;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final long waitTimeoutMs;
+    private final LinkedBlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+    private final Map<Integer, String> batchSqlCache = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    /**
+     * @param waitTimeoutMs espera máxima de un llamante a que su lote se confirme
+     */
+    public ProductInsertCoalescer(DatabaseConfig databaseConfig, long maxDelayMs, int maxBatchSize, long waitTimeoutMs) {
+        this.databaseConfig = databaseConfig;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.writer = new Thread(this::writeLoop, "product-insert-coalescer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        logger.info("📦 Coalescer de inserciones inicializado (ventana: {}ms, lote máximo: {})", maxDelayMs, this.maxBatchSize);
+    }
+
+    public static ProductInsertCoalescer fromConfiguration(DatabaseConfig databaseConfig, AppConfiguration appConfig) {
+        return new ProductInsertCoalescer(
+                databaseConfig,
+                appConfig.getInt("db.write-coalescer.max-delay-ms", 2),
+                appConfig.getInt("db.write-coalescer.max-batch-size", 64),
+                appConfig.getInt("db.write-coalescer.wait-timeout-ms", 30000)
+        );
+    }
+
+    /**
+     * Encola la inserción y espera a que su lote se confirme
+     */
+    public Product insert(String name, BigDecimal price, String description) throws SQLException {
+        if (!running) {
+            throw new SQLException("El coalescer de inserciones está detenido");
+        }
+
+        PendingInsert pending = new PendingInsert(name, price, description);
+        queue.add(pending);
+        // Si shutdown() llegó entre la comprobación y el add, el escritor puede haber vaciado
+        // ya la cola por última vez: nadie completaría esta inserción
+        if (!running && queue.remove(pending)) {
+            throw new SQLException("El coalescer de inserciones está detenido");
+        }
+
+        try {
+            return pending.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // El lote puede confirmarse todavía: el llamante no sabe si la fila quedó escrita
+            throw new SQLException("La inserción agrupada no se confirmó en " + waitTimeoutMs + "ms", "57014", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Error en la inserción agrupada", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Inserción interrumpida", e);
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                collectBatch(batch);
+                flush(batch);
+
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                logger.error("❌ Error inesperado en el coalescer de inserciones", e);
+            }
+        }
+
+        failQueued();
+    }
+
+    /**
+     * Lo que quede en la cola tras detenerse no llegará a escribirse
+     */
+    private void failQueued() {
+        List<PendingInsert> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result.completeExceptionally(
+                new SQLException("El coalescer de inserciones se detuvo antes de escribir")));
+    }
+
+    /**
+     * Completa el lote con lo que llegue dentro de la ventana configurada
+     */
+    private void collectBatch(List<PendingInsert> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                return;
+            }
+            PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        batches.incrementAndGet();
+        rows.addAndGet(batch.size());
+
+        try (Connection conn = databaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Product> saved = insertBatch(conn, batch);
+                conn.commit();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(saved.get(i));
+                }
+                logger.debug("💾 Lote de {} productos confirmado en una transacción", batch.size());
+
+            } catch (SQLException e) {
+                conn.rollback();
+                if (batch.size() == 1) {
+                    failedRows.incrementAndGet();
+                    batch.get(0).result.completeExceptionally(e);
+                } else {
+                    logger.warn("⚠️ Lote de {} productos falló ({}), reintentando fila a fila", batch.size(), e.getMessage());
+                    insertIndividually(conn, batch);
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error al escribir lote de productos: {}", e.getMessage());
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Un único INSERT multi-fila con ids reservados de antemano: la fila devuelta con el id
+     * de cada llamante es la suya, en el orden que sea
+     */
+    private List<Product> insertBatch(Connection conn, List<PendingInsert> batch) throws SQLException {
+        long[] ids = allocateIds(conn, batch.size());
+        Map<Long, Product> byId = new HashMap<>(batch.size() * 2);
+
+        try (PreparedStatement stmt = conn.prepareStatement(batchSql(batch.size()))) {
+            int index = 1;
+            for (int i = 0; i < batch.size(); i++) {
+                PendingInsert pending = batch.get(i);
+                stmt.setLong(index++, ids[i]);
+                stmt.setString(index++, pending.name);
+                stmt.setBigDecimal(index++, pending.price);
+                stmt.setString(index++, pending.description);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Product product = ProductRowMapper.INSTANCE.map(rs);
+                    byId.put(product.getId(), product);
+                }
+            }
+        }
+
+        List<Product> saved = new ArrayList<>(batch.size());
+        for (long id : ids) {
+            Product product = byId.get(id);
+            if (product == null) {
+                throw new SQLException("El INSERT agrupado no devolvió la fila con id " + id);
+            }
+            saved.add(product);
+        }
+        return saved;
+    }
+
+    private static long[] allocateIds(Connection conn, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement stmt = conn.prepareStatement(ALLOCATE_IDS)) {
+            stmt.setInt(1, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int i = 0;
+                while (rs.next() && i < count) {
+                    ids[i++] = rs.getLong(1);
+                }
+                if (i != count) {
+                    throw new SQLException("Se reservaron " + i + " ids de " + count);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reintento fila a fila en una sola transacción: cada fila en su savepoint,
+     * así un error de restricción solo afecta a su llamante
+     */
+    private void insertIndividually(Connection conn, List<PendingInsert> batch) throws SQLException {
+        fallbacks.incrementAndGet();
+        Map<PendingInsert, Product> saved = new LinkedHashMap<>();
+        Map<PendingInsert, SQLException> failed = new LinkedHashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SINGLE)) {
+            for (PendingInsert pending : batch) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    stmt.setString(1, pending.name);
+                    stmt.setBigDecimal(2, pending.price);
+                    stmt.setString(3, pending.description);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        saved.put(pending, ProductRowMapper.INSTANCE.map(rs));
+                    }
+                    conn.releaseSavepoint(savepoint);
+                } catch (SQLException e) {
+                    conn.rollback(savepoint);
+                    failed.put(pending, e);
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+
+        failedRows.addAndGet(failed.size());
+        saved.forEach((pending, product) -> pending.result.complete(product));
+        failed.forEach((pending, error) -> pending.result.completeExceptionally(error));
+        logger.info("✅ Reintento fila a fila: {} guardados, {} rechazados", saved.size(), failed.size());
+    }
+
+    private String batchSql(int size) {
+        return batchSqlCache.computeIfAbsent(size, n -> {
+            StringBuilder sql = new StringBuilder("INSERT INTO products (id, name, price, description) VALUES ");
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(?, ?, ?, ?)");
+            }
+            sql.append(" RETURNING ").append(ProductRowMapper.COLUMNS);
+            return sql.toString();
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        long rowCount = rows.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("batches", batchCount);
+        stats.put("rows", rowCount);
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) rowCount / batchCount);
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("failedRows", failedRows.get());
+        stats.put("pending", queue.size());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Deja de aceptar inserciones y escribe las pendientes antes de terminar
+     */
+    public void shutdown(long timeoutMs) {
+        logger.info("🔒 Deteniendo coalescer de inserciones ({} pendientes)...", queue.size());
+        running = false;
+        try {
+            writer.join(timeoutMs);
+            if (writer.isAlive()) {
+                writer.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // El escritor puede seguir bloqueado en un lote: los que esperan en la cola no se quedan colgados
+        failQueued();
+    }
+
+    private static final class PendingInsert {
+        private final String name;
+        private final BigDecimal price;
+        private final String description;
+        private final CompletableFuture<Product> result = new CompletableFuture<>();
+
+        private PendingInsert(String name, BigDecimal price, String description) {
+            this.name = name;
+            this.price = price;
+            this.description = description;
+        }
+    }
+}
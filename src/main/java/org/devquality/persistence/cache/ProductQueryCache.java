@@ -0,0 +1,275 @@
+package org.devquality.persistence.cache;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de resultados para búsquedas de productos (por nombre y rango de precio).
+ *
+ * La validez de cada entrada se controla con una versión monotónica de la tabla
+ * products: cada escritura incrementa la versión y las entradas con una versión
+ * anterior se descartan de forma perezosa al consultarlas.
+ */
+public class ProductQueryCache {
+    private static final Logger logger = LoggerFactory.getLogger(ProductQueryCache.class);
+
+    // Estimación aproximada del tamaño en memoria de un Product sin contar sus Strings
+    private static final long PRODUCT_BASE_BYTES = 96;
+    // OffsetDateTime con su LocalDateTime/LocalDate/LocalTime (el ZoneOffset es compartido)
+    private static final long TIMESTAMP_BYTES = 96;
+    private static final long ENTRY_BASE_BYTES = 96;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long versionCheckIntervalMs;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong lastVersionCheck = new AtomicLong();
+    private volatile long lastSeenDbVersion = -1;
+
+    // LRU por orden de acceso; protegido por el monitor de la propia caché
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleEvictions = new LongAdder();
+
+    public ProductQueryCache(boolean enabled, int maxEntries, long maxBytes, long versionCheckIntervalMs) {
+        this.enabled = enabled && maxEntries > 0 && maxBytes > 0;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.versionCheckIntervalMs = versionCheckIntervalMs;
+    }
+
+    /**
+     * Crea la caché a partir de AppConfiguration
+     */
+    public static ProductQueryCache fromConfiguration(AppConfiguration appConfig) {
+        ProductQueryCache cache = new ProductQueryCache(
+                appConfig.getBoolean("cache.products.enabled", true),
+                appConfig.getInt("cache.products.max-entries", 1000),
+                appConfig.getInt("cache.products.max-bytes", 16 * 1024 * 1024),
+                appConfig.getInt("cache.products.version-check-ms", 1000)
+        );
+        logger.info("🗃️ Caché de consultas de productos: {} (max {} entradas, {} bytes)",
+                cache.enabled ? "habilitada" : "deshabilitada", cache.maxEntries, cache.maxBytes);
+        return cache;
+    }
+
+    /**
+     * Caché deshabilitada (todas las consultas van a la BD)
+     */
+    public static ProductQueryCache disabled() {
+        return new ProductQueryCache(false, 0, 0, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Versión actual de la tabla products vista por esta instancia
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Invalida todas las entradas actuales (se llama en cada escritura)
+     */
+    public void bumpVersion() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Sincroniza la versión local con la versión mantenida por el trigger de PostgreSQL,
+     * como máximo una vez por intervalo, para detectar escrituras hechas fuera de la aplicación
+     */
+    public void refreshExternalVersion(SqlSupplier<Long> dbVersionLoader) {
+        if (!enabled || versionCheckIntervalMs <= 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long last = lastVersionCheck.get();
+        if (now - last < versionCheckIntervalMs || !lastVersionCheck.compareAndSet(last, now)) {
+            return;
+        }
+
+        try {
+            Long dbVersion = dbVersionLoader.get();
+            if (dbVersion != null && dbVersion != lastSeenDbVersion) {
+                if (lastSeenDbVersion >= 0) {
+                    logger.debug("🔄 Versión de products cambió en BD ({} -> {}), invalidando caché",
+                            lastSeenDbVersion, dbVersion);
+                    bumpVersion();
+                }
+                lastSeenDbVersion = dbVersion;
+            }
+        } catch (SQLException e) {
+            // Sin versión externa no podemos confiar en lo cacheado
+            logger.warn("⚠️ No se pudo leer la versión de products: {}", e.getMessage());
+            bumpVersion();
+        }
+    }
+
+    /**
+     * Devuelve el resultado cacheado para la clave o lo carga desde la BD
+     */
+    public List<Product> getOrLoad(String key, SqlSupplier<List<Product>> loader) throws SQLException {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        // La versión se captura ANTES de consultar: si hay una escritura concurrente
+        // la entrada queda obsoleta inmediatamente y se descartará en la siguiente lectura
+        long versionAtLoad = version.get();
+
+        List<Product> cached = lookup(key, versionAtLoad);
+        if (cached != null) {
+            hits.increment();
+            logger.debug("🗃️ Cache hit: {}", key);
+            return cached;
+        }
+
+        misses.increment();
+        List<Product> loaded = List.copyOf(loader.get());
+        store(key, versionAtLoad, loaded);
+        return loaded;
+    }
+
+    /**
+     * Patrón de búsqueda por nombre tal y como se consulta y se cachea: el repositorio lo
+     * normaliza una vez y usa el mismo valor para la clave y para el SQL (que ya compara en
+     * minúsculas), así dos patrones con la misma clave devuelven siempre el mismo resultado
+     */
+    public static String normalizeNamePattern(String namePattern) {
+        return namePattern.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clave para búsqueda por nombre; el patrón llega ya normalizado con {@link #normalizeNamePattern}
+     */
+    public static String searchKey(String normalizedPattern, FieldSelection fields) {
+        return "name:" + normalizedPattern + fieldsSuffix(fields);
+    }
+
+    /**
+     * Clave normalizada para búsqueda por rango de precio
+     */
+    public static String priceRangeKey(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields) {
+        return "price:" + minPrice.stripTrailingZeros().toPlainString()
+                + ":" + maxPrice.stripTrailingZeros().toPlainString() + fieldsSuffix(fields);
+    }
+
+    /**
+     * Las proyecciones parciales se cachean aparte de la consulta completa
+     */
+    private static String fieldsSuffix(FieldSelection fields) {
+        return fields.isAll() ? "" : "|fields:" + fields.mask();
+    }
+
+    /**
+     * Estadísticas de uso de la caché
+     */
+    public synchronized Map<String, Object> getStats() {
+        return Map.of(
+                "enabled", enabled,
+                "version", version.get(),
+                "entries", entries.size(),
+                "bytes", currentBytes,
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "staleEvictions", staleEvictions.sum()
+        );
+    }
+
+    private synchronized List<Product> lookup(String key, long expectedVersion) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.version != expectedVersion) {
+            entries.remove(key);
+            currentBytes -= entry.bytes;
+            staleEvictions.increment();
+            return null;
+        }
+
+        return entry.products;
+    }
+
+    private synchronized void store(String key, long entryVersion, List<Product> products) {
+        // No guardar resultados que ya son obsoletos
+        if (entryVersion != version.get()) {
+            return;
+        }
+
+        long bytes = estimateBytes(key, products);
+        if (bytes > maxBytes) {
+            logger.debug("🗃️ Resultado demasiado grande para cachear ({} bytes): {}", bytes, key);
+            return;
+        }
+
+        CacheEntry previous = entries.put(key, new CacheEntry(entryVersion, products, bytes));
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+        currentBytes += bytes;
+
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext()) {
+            CacheEntry eldest = iterator.next();
+            iterator.remove();
+            currentBytes -= eldest.bytes;
+        }
+    }
+
+    private static long estimateBytes(String key, List<Product> products) {
+        long bytes = ENTRY_BASE_BYTES + stringBytes(key);
+        for (Product product : products) {
+            bytes += PRODUCT_BASE_BYTES
+                    + stringBytes(product.getName())
+                    + stringBytes(product.getDescription())
+                    + (product.getCreatedAt() != null ? TIMESTAMP_BYTES : 0)
+                    + (product.getUpdatedAt() != null ? TIMESTAMP_BYTES : 0);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private static final class CacheEntry {
+        private final long version;
+        private final List<Product> products;
+        private final long bytes;
+
+        private CacheEntry(long version, List<Product> products, long bytes) {
+            this.version = version;
+            this.products = products;
+            this.bytes = bytes;
+        }
+    }
+}
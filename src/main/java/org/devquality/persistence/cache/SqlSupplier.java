@@ -0,0 +1,11 @@
+package org.devquality.persistence.cache;
+
+import java.sql.SQLException;
+
+/**
+ * Supplier que puede lanzar SQLException (carga de resultados desde la BD)
+ */
+@FunctionalInterface
+public interface SqlSupplier<T> {
+    T get() throws SQLException;
+}
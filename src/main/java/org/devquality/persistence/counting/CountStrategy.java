@@ -0,0 +1,37 @@
+package org.devquality.persistence.counting;
+
+import java.util.Locale;
+
+/**
+ * Estrategias para obtener el total de filas de una tabla
+ */
+public enum CountStrategy {
+    /**
+     * SELECT COUNT(*) - exacto pero recorre toda la tabla
+     */
+    EXACT,
+
+    /**
+     * Contadores mantenidos por triggers en row_counters (filas fragmentadas)
+     */
+    MAINTAINED,
+
+    /**
+     * Estimación del planner (pg_class.reltuples) - casi gratis pero aproximado
+     */
+    ESTIMATED;
+
+    /**
+     * Convierte el valor de configuración a una estrategia (por defecto EXACT)
+     */
+    public static CountStrategy fromValue(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return EXACT;
+        }
+        try {
+            return CountStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estrategia de conteo inválida: " + value);
+        }
+    }
+}
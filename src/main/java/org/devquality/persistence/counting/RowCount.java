@@ -0,0 +1,30 @@
+package org.devquality.persistence.counting;
+
+/**
+ * Total de filas junto con la indicación de si es exacto o estimado
+ */
+public class RowCount {
+    private final long value;
+    private final boolean exact;
+
+    private RowCount(long value, boolean exact) {
+        this.value = value;
+        this.exact = exact;
+    }
+
+    public static RowCount exact(long value) {
+        return new RowCount(value, true);
+    }
+
+    public static RowCount estimated(long value) {
+        return new RowCount(Math.max(0, value), false);
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
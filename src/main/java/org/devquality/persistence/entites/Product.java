@@ -1,17 +1,26 @@
 package org.devquality.persistence.entites;
 
-import java.math.BigDecimal;
-
-public class Product {
-
-    private Long id;
-    private String name;
-    private BigDecimal price;
-    private String description;
-    private String createdAt;
-    private String updatedAt;
+import org.devquality.processor.GenerateRowMapper;
 
-    public Product(Long id, String name, BigDecimal price, String description, String createdAt, String updatedAt) {
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Producto inmutable. Se serializa tal cual en las respuestas de lectura; con ?fields= solo
+ * se leen y se emiten los campos pedidos (el resto queda a null). El filtro de Jackson lo
+ * registra JacksonConfiguration con un mix-in: la entidad no lleva anotaciones web.
+ */
+@GenerateRowMapper
+public final class Product {
+    private final Long id;
+    private final String name;
+    private final BigDecimal price;
+    private final String description;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime updatedAt;
+
+    public Product(Long id, String name, BigDecimal price, String description,
+                   OffsetDateTime createdAt, OffsetDateTime updatedAt) {
         this.id = id;
         this.name = name;
         this.price = price;
@@ -20,54 +29,27 @@ public class Product {
         this.updatedAt = updatedAt;
     }
 
-    public Product() {
-    }
-
     public Long getId() {
         return id;
     }
 
-    public void setId(Long id) {
-        this.id = id;
-    }
-
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
-        this.price = price;
-    }
-
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public String getCreatedAt() {
+    public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(String createdAt) {
-        this.createdAt = createdAt;
-    }
-
-    public String getUpdatedAt() {
+    public OffsetDateTime getUpdatedAt() {
         return updatedAt;
     }
-
-    public void setUpdatedAt(String updatedAt) {
-        this.updatedAt = updatedAt;
-    }
 }
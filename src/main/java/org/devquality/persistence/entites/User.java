@@ -1,13 +1,23 @@
 package org.devquality.persistence.entites;
 
-public class User {
-    private Long id;
-    private String name;
-    private String email;
-    private String createdAt;
-    private String updatedAt;
-
-    public User(Long id, String name, String email, String createdAt, String updatedAt) {
+import org.devquality.processor.GenerateRowMapper;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Usuario inmutable. Se serializa tal cual en las respuestas de lectura; con ?fields= solo
+ * se leen y se emiten los campos pedidos (el resto queda a null). El filtro de Jackson lo
+ * registra JacksonConfiguration con un mix-in: la entidad no lleva anotaciones web.
+ */
+@GenerateRowMapper
+public final class User {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime updatedAt;
+
+    public User(Long id, String name, String email, OffsetDateTime createdAt, OffsetDateTime updatedAt) {
         this.id = id;
         this.name = name;
         this.email = email;
@@ -15,44 +25,23 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
-    public User() {}
     public Long getId() {
         return id;
     }
 
-    public void setId(Long id) {
-        this.id = id;
-    }
-
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getEmail() {
         return email;
     }
 
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public String getCreatedAt() {
+    public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(String createdAt) {
-        this.createdAt = createdAt;
-    }
-
-    public String getUpdatedAt() {
+    public OffsetDateTime getUpdatedAt() {
         return updatedAt;
     }
-
-    public void setUpdatedAt(String updatedAt) {
-        this.updatedAt = updatedAt;
-    }
 }
@@ -0,0 +1,273 @@
+package org.devquality.persistence.instrumentation;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * DataSource que envuelve el pool de HikariCP y mide cada sentencia ejecutada.
+ *
+ * Conexiones y sentencias se devuelven como proxies dinámicos: las llamadas execute* se
+ * cronometran y se agregan en SqlStatsRegistry por SQL normalizado y los set* de parámetros
+ * se recuerdan para el log de sentencias lentas. Los ResultSet se envuelven en
+ * CountingResultSet, sin reflexión, porque sus getters se llaman por columna y fila.
+ * La espera para obtener la conexión del pool se atribuye a la primera sentencia que la usa.
+ * Conexiones y sentencias se suman también a los accesos del request en curso (RequestDbStats).
+ */
+public class InstrumentedDataSource implements DataSource {
+    private static final ClassLoader PROXY_LOADER = InstrumentedDataSource.class.getClassLoader();
+    private final DataSource delegate;
+    private final SqlStatsRegistry registry;
+
+    public InstrumentedDataSource(DataSource delegate, SqlStatsRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    public SqlStatsRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = delegate.getConnection();
+        return wrap(connection, System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = delegate.getConnection(username, password);
+        return wrap(connection, System.nanoTime() - start);
+    }
+
+    private Connection wrap(Connection connection, long acquireWaitNanos) {
+        RequestDbStats.recordConnection(acquireWaitNanos);
+        return (Connection) Proxy.newProxyInstance(PROXY_LOADER,
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, acquireWaitNanos));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Envuelve las sentencias que crea la conexión; el resto de llamadas pasan tal cual
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private long pendingAcquireWaitNanos;
+
+        ConnectionHandler(Connection target, long acquireWaitNanos) {
+            this.target = target;
+            this.pendingAcquireWaitNanos = acquireWaitNanos;
+        }
+
+        /**
+         * Espera del pool para la primera sentencia de la conexión; -1 para las siguientes
+         */
+        long takeAcquireWaitNanos() {
+            long wait = pendingAcquireWaitNanos;
+            pendingAcquireWaitNanos = -1;
+            return wait;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof Statement statement
+                    && (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))) {
+                String sql = name.equals("createStatement") ? null : (String) args[0];
+                return Proxy.newProxyInstance(PROXY_LOADER,
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(this, statement, sql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Cronometra las ejecuciones y recuerda los parámetros ligados
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final ConnectionHandler connection;
+        private final Statement target;
+        private SqlStatementStats preparedStats;
+        private final String preparedSql;
+        private Object[] parameters;
+        private int parameterCount;
+        private CountingResultSet openResultSet;
+        private SqlStatementStats lastStats;
+
+        StatementHandler(ConnectionHandler connection, Statement target, String preparedSql) {
+            this.connection = connection;
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.preparedStats = preparedSql != null ? registry.statsFor(preparedSql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && target instanceof PreparedStatement) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameterCount = 0;
+            } else if (name.equals("close")) {
+                flushRows();
+            }
+
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (name.equals("getResultSet") && result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, lastStats != null ? lastStats : currentStats(null));
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            SqlStatementStats stats = currentStats(sql);
+            lastStats = stats;
+            flushRows();
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedDataSource.invoke(target, method, args);
+            } catch (SQLException e) {
+                record(stats, sql, System.nanoTime() - start, true);
+                throw e;
+            }
+            record(stats, sql, System.nanoTime() - start, false);
+
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, stats);
+            }
+            stats.addRows(affectedRows(result));
+            return result;
+        }
+
+        private void record(SqlStatementStats stats, String sql, long nanos, boolean error) {
+            RequestDbStats.recordStatement(nanos);
+            registry.recordExecution(stats, sql != null ? sql : "", nanos, connection.takeAcquireWaitNanos(),
+                    error, parameters, parameterCount);
+        }
+
+        private SqlStatementStats currentStats(String sql) {
+            if (sql == null || sql.equals(preparedSql)) {
+                if (preparedStats == null) {
+                    return registry.statsFor("<desconocida>");
+                }
+                if (preparedStats.isRetired()) {
+                    preparedStats = registry.statsFor(preparedSql);
+                }
+                return preparedStats;
+            }
+            return registry.statsFor(sql);
+        }
+
+        private void bind(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(8, index)];
+            } else if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, SqlStatementStats stats) {
+            openResultSet = new CountingResultSet(resultSet, stats);
+            return openResultSet;
+        }
+
+        /**
+         * Cerrar la sentencia cierra su ResultSet sin pasar por el proxy: se vuelcan aquí sus filas
+         */
+        private void flushRows() {
+            if (openResultSet != null) {
+                openResultSet.flush();
+                openResultSet = null;
+            }
+        }
+
+        private static long affectedRows(Object result) {
+            if (result instanceof Integer count) {
+                return count;
+            }
+            if (result instanceof Long count) {
+                return count;
+            }
+            if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            if (result instanceof long[] counts) {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.devquality.persistence.instrumentation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accesos a la BD de un request: sentencias, conexiones prestadas, tiempo de BD y espera del pool.
+ *
+ * Se enlaza al hilo con {@link #callWith} al estilo de ScopedValue.where(...).call(...): el valor
+ * solo es visible dentro de la llamada y se restaura el anterior al salir, así nunca queda
+ * colgado en un hilo reutilizado. DatabaseExecutor lo propaga a sus hilos al encolar la tarea.
+ * Los contadores son atómicos porque un request puede lanzar varias tareas de BD en paralelo.
+ */
+public final class RequestDbStats {
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong dbNanos = new AtomicLong();
+    private final AtomicLong acquireWaitNanos = new AtomicLong();
+
+    /**
+     * Accesos del request en curso en este hilo, o null fuera de un request
+     */
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ejecuta la tarea con {@code stats} como accesos en curso (null ejecuta sin contabilizar)
+     */
+    public static <T> T callWith(RequestDbStats stats, Callable<T> task) throws Exception {
+        RequestDbStats previous = CURRENT.get();
+        if (stats == previous) {
+            return task.call();
+        }
+        CURRENT.set(stats);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Contabiliza una sentencia en el request en curso, si lo hay
+     */
+    public static void recordStatement(long nanos) {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.incrementAndGet();
+            stats.dbNanos.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * Contabiliza una conexión prestada por el pool en el request en curso, si lo hay
+     */
+    public static void recordConnection(long waitNanos) {
+        RequestDbStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connections.incrementAndGet();
+            stats.acquireWaitNanos.addAndGet(waitNanos);
+        }
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public long getDbNanos() {
+        return dbNanos.get();
+    }
+
+    public long getAcquireWaitNanos() {
+        return acquireWaitNanos.get();
+    }
+
+    /**
+     * Valor para la cabecera de respuesta: "statements=3;connections=2;db-ms=4.21;wait-ms=0.10"
+     */
+    public String toHeaderValue() {
+        return "statements=" + statements.get()
+                + ";connections=" + connections.get()
+                + ";db-ms=" + formatMillis(dbNanos.get())
+                + ";wait-ms=" + formatMillis(acquireWaitNanos.get());
+    }
+
+    private static String formatMillis(long nanos) {
+        long hundredths = nanos / 10_000;
+        long fraction = hundredths % 100;
+        return hundredths / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
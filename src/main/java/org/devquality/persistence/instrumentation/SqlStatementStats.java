@@ -0,0 +1,109 @@
+package org.devquality.persistence.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumuladores de una sentencia normalizada (sin locks, como PoolWaitTracker)
+ */
+final class SqlStatementStats {
+    private final String sql;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireWaitNanos = new LongAdder();
+    private final AtomicLong lastExplainAtMillis = new AtomicLong();
+
+    private volatile String lastSlowParameters;
+    private volatile String lastPlan;
+    private volatile boolean retired;
+
+    SqlStatementStats(String sql) {
+        this.sql = sql;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    void recordExecution(long nanos, boolean error) {
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    void recordAcquireWait(long nanos) {
+        acquisitions.increment();
+        acquireWaitNanos.add(nanos);
+    }
+
+    void addRows(long count) {
+        if (count > 0) {
+            rows.add(count);
+        }
+    }
+
+    void setLastSlowParameters(String parameters) {
+        this.lastSlowParameters = parameters;
+    }
+
+    void setLastPlan(String plan) {
+        this.lastPlan = plan;
+    }
+
+    /**
+     * Ya no está en el registro (reset): quien lo tenga resuelto debe pedir uno nuevo
+     */
+    void retire() {
+        this.retired = true;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Como mucho un EXPLAIN por sentencia y intervalo: true si le toca a este llamante
+     */
+    boolean tryClaimExplain(long nowMillis, long intervalMillis) {
+        long last = lastExplainAtMillis.get();
+        return nowMillis - last >= intervalMillis && lastExplainAtMillis.compareAndSet(last, nowMillis);
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    SqlStatementSummary summary() {
+        long callCount = calls.sum();
+        long total = totalNanos.sum();
+        long rowCount = rows.sum();
+        long acquired = acquisitions.sum();
+        long waited = acquireWaitNanos.sum();
+        return new SqlStatementSummary(
+                sql,
+                callCount,
+                errors.sum(),
+                millis(total),
+                callCount == 0 ? 0 : millis(total / callCount),
+                millis(maxNanos.get()),
+                rowCount,
+                callCount == 0 ? 0 : (double) rowCount / callCount,
+                millis(waited),
+                acquired == 0 ? 0 : millis(waited / acquired),
+                lastSlowParameters,
+                lastPlan
+        );
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
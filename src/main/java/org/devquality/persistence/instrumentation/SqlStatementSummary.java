@@ -0,0 +1,33 @@
+package org.devquality.persistence.instrumentation;
+
+/**
+ * Estadísticas agregadas de una sentencia normalizada (tiempos en milisegundos)
+ *
+ * @param sql sentencia normalizada (literales y listas de placeholders colapsados)
+ * @param calls ejecuciones
+ * @param errors ejecuciones que lanzaron SQLException
+ * @param totalMs tiempo total de ejecución (hasta que el driver devuelve el resultado)
+ * @param meanMs tiempo medio por ejecución
+ * @param maxMs ejecución más lenta
+ * @param rows filas devueltas (SELECT/RETURNING) o afectadas (UPDATE/DELETE sin RETURNING)
+ * @param meanRows filas medias por ejecución
+ * @param acquireWaitMs espera total en el pool de las conexiones cuya primera sentencia fue esta
+ * @param meanAcquireWaitMs espera media en el pool de esas conexiones
+ * @param lastSlowParameters forma de los parámetros de la última ejecución lenta (tipos, sin valores)
+ * @param lastPlan último EXPLAIN capturado para una ejecución lenta, si está habilitado
+ */
+public record SqlStatementSummary(
+        String sql,
+        long calls,
+        long errors,
+        double totalMs,
+        double meanMs,
+        double maxMs,
+        long rows,
+        double meanRows,
+        double acquireWaitMs,
+        double meanAcquireWaitMs,
+        String lastSlowParameters,
+        String lastPlan
+) {
+}
@@ -0,0 +1,284 @@
+package org.devquality.persistence.instrumentation;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.ConfigChangeListener;
+import org.devquality.config.ConfigSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Estadísticas por sentencia SQL normalizada que alimenta InstrumentedDataSource.
+ *
+ * Agrega llamadas, latencia, filas y espera de conexión por sentencia; registra las que
+ * superan el umbral de lentitud con la forma de sus parámetros (tipos, nunca valores) y,
+ * si está habilitado, captura su EXPLAIN en segundo plano con una conexión aparte.
+ * Umbral, EXPLAIN y logging.sql-queries se recargan en caliente.
+ */
+public class SqlStatsRegistry implements ConfigChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatsRegistry.class);
+    private static final String OTHER_STATEMENTS = "<otras sentencias>";
+    private static final int NORMALIZED_CACHE_SIZE = 2048;
+    private static final long EXPLAIN_INTERVAL_MS = 60_000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern REPEATED_GROUP = Pattern.compile("(\\([^()]*\\))(?:\\s*,\\s*\\1)+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(SELECT|INSERT|UPDATE|DELETE|WITH)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Map<String, Comparator<SqlStatementSummary>> ORDERINGS = Map.of(
+            "total", Comparator.comparingDouble(SqlStatementSummary::totalMs),
+            "mean", Comparator.comparingDouble(SqlStatementSummary::meanMs),
+            "max", Comparator.comparingDouble(SqlStatementSummary::maxMs),
+            "calls", Comparator.comparingLong(SqlStatementSummary::calls),
+            "rows", Comparator.comparingLong(SqlStatementSummary::rows),
+            "wait", Comparator.comparingDouble(SqlStatementSummary::acquireWaitMs)
+    );
+
+    private final Map<String, SqlStatementStats> statements = new ConcurrentHashMap<>();
+    private final AtomicInteger distinctStatements = new AtomicInteger();
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final DataSource explainDataSource;
+    private final int maxStatements;
+    private final ThreadPoolExecutor explainExecutor;
+
+    private volatile long slowThresholdNanos;
+    private volatile boolean explainSlow;
+    private volatile boolean logStatements;
+
+    /**
+     * @param explainDataSource pool sin instrumentar para los EXPLAIN (no cuentan en las estadísticas)
+     */
+    public SqlStatsRegistry(DataSource explainDataSource, int maxStatements) {
+        this.explainDataSource = explainDataSource;
+        this.maxStatements = maxStatements;
+        // Un hilo y cola corta: si se acumulan EXPLAIN se descartan en lugar de competir con el tráfico
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+            Thread thread = new Thread(runnable, "sql-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public static SqlStatsRegistry fromConfiguration(DataSource explainDataSource, AppConfiguration appConfig) {
+        SqlStatsRegistry registry = new SqlStatsRegistry(explainDataSource,
+                appConfig.getInt("sql.stats.max-statements", 500));
+        registry.apply(appConfig.snapshot());
+        appConfig.addChangeListener(registry);
+        return registry;
+    }
+
+    @Override
+    public void onConfigChange(ConfigSnapshot previous, ConfigSnapshot current, Set<String> changedKeys) {
+        apply(current);
+    }
+
+    private void apply(ConfigSnapshot config) {
+        try {
+            slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(config.get("sql.slow-query-ms", "200").trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ sql.slow-query-ms inválido, se mantiene {}ms", slowThresholdNanos / 1_000_000);
+        }
+        explainSlow = Boolean.parseBoolean(config.get("sql.slow-query-explain", "false"));
+        logStatements = config.sqlQueries();
+    }
+
+    /**
+     * Acumuladores de la sentencia (se resuelve una vez por Statement preparado y de nuevo
+     * si un reset() lo retira)
+     */
+    SqlStatementStats statsFor(String sql) {
+        String key = normalize(sql);
+        SqlStatementStats stats = statements.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        // Tope de sentencias distintas: SQL dinámico no acotado acaba en un único cajón. El cupo
+        // se reserva dentro de computeIfAbsent para que las altas concurrentes no lo rebasen
+        stats = statements.computeIfAbsent(key, newKey -> {
+            if (distinctStatements.incrementAndGet() > maxStatements) {
+                distinctStatements.decrementAndGet();
+                return null;
+            }
+            return new SqlStatementStats(newKey);
+        });
+        return stats != null ? stats : statements.computeIfAbsent(OTHER_STATEMENTS, SqlStatementStats::new);
+    }
+
+    /**
+     * Registra una ejecución; acquireWaitNanos es -1 si la conexión ya había ejecutado otra sentencia
+     */
+    void recordExecution(SqlStatementStats stats, String sql, long nanos, long acquireWaitNanos,
+                         boolean error, Object[] parameters, int parameterCount) {
+        stats.recordExecution(nanos, error);
+        if (acquireWaitNanos >= 0) {
+            stats.recordAcquireWait(acquireWaitNanos);
+        }
+
+        if (logStatements) {
+            logger.info("🗄️ {}ms {}{}", nanos / 1_000_000.0, stats.getSql(), error ? " (error)" : "");
+        }
+        if (nanos < slowThresholdNanos) {
+            return;
+        }
+
+        String shape = parameterShape(parameters, parameterCount);
+        stats.setLastSlowParameters(shape);
+        logger.warn("🐢 Sentencia lenta ({}ms): {} | parámetros: {}", nanos / 1_000_000, stats.getSql(), shape);
+
+        if (explainSlow && EXPLAINABLE.matcher(sql).find()
+                && stats.tryClaimExplain(System.currentTimeMillis(), EXPLAIN_INTERVAL_MS)) {
+            Object[] values = parameters == null ? new Object[0] : Arrays.copyOf(parameters, parameterCount);
+            explainExecutor.execute(() -> explain(stats, sql, values));
+        }
+    }
+
+    /**
+     * Las N sentencias con mayor valor según el criterio (total, mean, max, calls, rows, wait)
+     *
+     * @throws IllegalArgumentException si el criterio no existe
+     */
+    public List<SqlStatementSummary> top(int limit, String sort) {
+        Comparator<SqlStatementSummary> ordering = ORDERINGS.get(sort.toLowerCase(Locale.ROOT));
+        if (ordering == null) {
+            throw new IllegalArgumentException("Orden inválido: " + sort + ". Permitidos: " + ORDERINGS.keySet());
+        }
+        List<SqlStatementSummary> summaries = new ArrayList<>(statements.size());
+        for (SqlStatementStats stats : statements.values()) {
+            summaries.add(stats.summary());
+        }
+        summaries.sort(ordering.reversed());
+        return summaries.subList(0, Math.min(limit, summaries.size()));
+    }
+
+    /**
+     * Tiempo total acumulado de todas las sentencias (ms)
+     */
+    public double totalMillis() {
+        long total = 0;
+        for (SqlStatementStats stats : statements.values()) {
+            total += stats.totalNanos();
+        }
+        return total / 1_000_000.0;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Empieza una ventana nueva (p. ej. antes de una prueba de carga). Los acumuladores quitados
+     * se marcan como retirados para que los Statement abiertos que los tenían resueltos
+     * vuelvan a pedir los suyos en la siguiente ejecución
+     */
+    public void reset() {
+        Iterator<Map.Entry<String, SqlStatementStats>> entries = statements.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, SqlStatementStats> entry = entries.next();
+            entries.remove();
+            entry.getValue().retire();
+            if (!entry.getKey().equals(OTHER_STATEMENTS)) {
+                distinctStatements.decrementAndGet();
+            }
+        }
+        logger.info("🧹 Estadísticas SQL reiniciadas");
+    }
+
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void explain(SqlStatementStats stats, String sql, Object[] values) {
+        try (Connection conn = explainDataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < values.length; i++) {
+                stmt.setObject(i + 1, values[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (plan.length() > 0) {
+                        plan.append('\n');
+                    }
+                    plan.append(rs.getString(1));
+                }
+            }
+            stats.setLastPlan(plan.toString());
+            logger.warn("🐢 Plan de {}:\n{}", stats.getSql(), plan);
+        } catch (SQLException | RuntimeException e) {
+            logger.debug("⚠️ No se pudo obtener el EXPLAIN de {}: {}", stats.getSql(), e.getMessage());
+        }
+    }
+
+    /**
+     * Tipos de los parámetros ligados ("[Long, String(12), null]"); los valores no se registran
+     */
+    static String parameterShape(Object[] parameters, int count) {
+        if (parameters == null || count == 0) {
+            return "[]";
+        }
+        StringBuilder shape = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                shape.append(", ");
+            }
+            Object value = parameters[i];
+            if (value == null) {
+                shape.append("null");
+            } else if (value instanceof CharSequence text) {
+                shape.append("String(").append(text.length()).append(')');
+            } else {
+                shape.append(value.getClass().getSimpleName());
+            }
+        }
+        return shape.append(']').toString();
+    }
+
+    /**
+     * Forma canónica de la sentencia: literales como ?, listas de placeholders y grupos
+     * VALUES repetidos colapsados (un INSERT de 3 o de 50 filas cuenta como la misma)
+     */
+    String normalize(String sql) {
+        String cached = normalized.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String result = normalizeUncached(sql);
+        if (normalized.size() < NORMALIZED_CACHE_SIZE) {
+            normalized.put(sql, result);
+        }
+        return result;
+    }
+
+    static String normalizeUncached(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = WHITESPACE.matcher(result).replaceAll(" ").trim();
+        result = REPEATED_GROUP.matcher(result).replaceAll("$1, ...");
+        result = PLACEHOLDER_LIST.matcher(result).replaceAll("?, ...");
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package org.devquality.persistence.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Subconjunto de campos pedido con ?fields=, validado contra la lista blanca de la entidad.
+ *
+ * La máscara usa el mismo orden que FIELDS del mapper generado, así el repositorio puede
+ * proyectar solo esas columnas en el SELECT y el serializador emitir solo esas propiedades.
+ */
+public final class FieldSelection {
+    /** Id del filtro de Jackson que JacksonConfiguration asocia a las entidades proyectables */
+    public static final String JSON_FILTER = "fieldSelection";
+
+    private final List<String> names;
+    private final int mask;
+    private final boolean all;
+
+    private FieldSelection(List<String> names, int mask, boolean all) {
+        this.names = names;
+        this.mask = mask;
+        this.all = all;
+    }
+
+    /**
+     * Todos los campos de la entidad
+     */
+    public static FieldSelection all(List<String> allowed) {
+        return new FieldSelection(allowed, (1 << allowed.size()) - 1, true);
+    }
+
+    /**
+     * Parsea una lista separada por comas ("id,name,price").
+     *
+     * @return todos los campos si el parámetro es null o vacío
+     * @throws IllegalArgumentException si algún campo no está en la lista blanca
+     */
+    public static FieldSelection parse(String fields, List<String> allowed) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return all(allowed);
+        }
+
+        int mask = 0;
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            int index = indexOfIgnoreCase(allowed, name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Campo no permitido en 'fields': " + name
+                        + ". Permitidos: " + String.join(",", allowed));
+            }
+            mask |= 1 << index;
+        }
+        if (mask == 0) {
+            return all(allowed);
+        }
+
+        int allMask = (1 << allowed.size()) - 1;
+        if (mask == allMask) {
+            return all(allowed);
+        }
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < allowed.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                names.add(allowed.get(i));
+            }
+        }
+        return new FieldSelection(Collections.unmodifiableList(names), mask, false);
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Campos seleccionados en el orden de la entidad
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    private static int indexOfIgnoreCase(List<String> allowed, String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < allowed.size(); i++) {
+            if (allowed.get(i).toLowerCase(Locale.ROOT).equals(lower)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return all ? "*" : String.join(",", names);
+    }
+}
@@ -0,0 +1,33 @@
+package org.devquality.persistence.mapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Plantilla SQL con la lista de columnas como placeholder ({columns}).
+ * Cachea el SQL generado por combinación de campos, así cada proyección se construye una
+ * sola vez y el driver puede reutilizar su sentencia preparada.
+ */
+public final class ProjectedSql {
+    private static final String PLACEHOLDER = "{columns}";
+
+    private final String template;
+    private final IntFunction<String> columns;
+    private final Map<Integer, String> byMask = new ConcurrentHashMap<>();
+
+    /**
+     * @param columns lista de columnas para una máscara (p. ej. ProductRowMapper::columns)
+     */
+    public ProjectedSql(String template, IntFunction<String> columns) {
+        if (!template.contains(PLACEHOLDER)) {
+            throw new IllegalArgumentException("La plantilla SQL no contiene " + PLACEHOLDER + ": " + template);
+        }
+        this.template = template;
+        this.columns = columns;
+    }
+
+    public String sql(FieldSelection fields) {
+        return byMask.computeIfAbsent(fields.mask(), mask -> template.replace(PLACEHOLDER, columns.apply(mask)));
+    }
+}
@@ -0,0 +1,25 @@
+package org.devquality.persistence.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en un objeto leyendo las columnas por índice.
+ * Las implementaciones se generan en compilación con @GenerateRowMapper.
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Mapea la fila actual empezando en la columna indicada (1 = primera)
+     */
+    T map(ResultSet rs, int firstColumn) throws SQLException;
+
+    /**
+     * Mapea solo las columnas de la máscara (bit i = campo i), leídas en orden desde firstColumn
+     */
+    T map(ResultSet rs, int firstColumn, int mask) throws SQLException;
+
+    default T map(ResultSet rs) throws SQLException {
+        return map(rs, 1);
+    }
+}
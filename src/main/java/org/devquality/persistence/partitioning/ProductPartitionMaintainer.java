@@ -0,0 +1,119 @@
+package org.devquality.persistence.partitioning;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantenimiento periódico de las particiones mensuales de products (V9).
+ *
+ * Crea por adelantado las particiones de los próximos meses y, si hay retención configurada,
+ * saca de la tabla las particiones antiguas: se archivan como products_archive_YYYYMM o se
+ * borran. No hay partición DEFAULT (V16): si este mantenimiento se queda atrás, los INSERT del
+ * mes sin partición fallan, por eso un fallo al crearlas se registra como error.
+ * Varias instancias pueden ejecutarlo a la vez: las funciones toman el mismo advisory lock de
+ * transacción (V13), así que las llamadas se serializan y la segunda no encuentra nada que hacer.
+ */
+public class ProductPartitionMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(ProductPartitionMaintainer.class);
+
+    private static final String ENSURE_PARTITIONS = "SELECT ensure_product_partitions(?)";
+    private static final String EXPIRE_PARTITIONS = "SELECT expire_product_partitions(?, ?)";
+
+    private final DatabaseConfig databaseConfig;
+    private final long intervalMs;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean archive;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param retentionMonths meses completos que se conservan además del actual (0 = sin retención)
+     * @param archive true para conservar las particiones expiradas como tablas sueltas, false para borrarlas
+     */
+    public ProductPartitionMaintainer(DatabaseConfig databaseConfig, long intervalMs, int monthsAhead,
+                                      int retentionMonths, boolean archive) {
+        this.databaseConfig = databaseConfig;
+        this.intervalMs = intervalMs;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archive = archive;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-maintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static ProductPartitionMaintainer fromConfiguration(DatabaseConfig databaseConfig, AppConfiguration appConfig) {
+        return new ProductPartitionMaintainer(
+                databaseConfig,
+                appConfig.getInt("partitions.maintenance-interval-ms", 3600000),
+                appConfig.getInt("partitions.months-ahead", 3),
+                appConfig.getInt("partitions.retention-months", 0),
+                appConfig.getBoolean("partitions.archive", true)
+        );
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::maintain, 0, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("🗂️ Mantenimiento de particiones de products iniciado (cada {}ms, {} meses por adelantado, retención {})",
+                intervalMs, monthsAhead, retentionMonths > 0 ? retentionMonths + " meses" : "desactivada");
+    }
+
+    private void maintain() {
+        try (Connection conn = databaseConfig.getConnection()) {
+            try {
+                int created = callFunction(conn, ENSURE_PARTITIONS, monthsAhead, null);
+                if (created > 0) {
+                    logger.info("🗂️ {} particiones nuevas de products creadas", created);
+                }
+            } catch (SQLException e) {
+                logger.error("❌ No se pudieron crear las particiones próximas de products; los INSERT fallarán "
+                        + "al llegar a un mes sin partición: {}", e.getMessage());
+                return;
+            }
+
+            if (retentionMonths > 0) {
+                int expired = callFunction(conn, EXPIRE_PARTITIONS, retentionMonths, !archive);
+                if (expired > 0) {
+                    logger.info("🗂️ {} particiones antiguas de products {}", expired, archive ? "archivadas" : "eliminadas");
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ No se pudo mantener las particiones de products: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("❌ Error inesperado manteniendo particiones: {}", e.getMessage(), e);
+        }
+    }
+
+    private static int callFunction(Connection conn, String sql, int months, Boolean dropData) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, months);
+            if (dropData != null) {
+                stmt.setBoolean(2, dropData);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package org.devquality.persistence.repositories;
 
+import org.devquality.persistence.counting.RowCount;
 import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
 
 public interface IProductRepository {
+    FieldSelection ALL_FIELDS = FieldSelection.all(ProductRowMapper.FIELDS);
+
     Product save(String name, BigDecimal price, String description) throws SQLException;
 
-    List<Product> findAll() throws SQLException;
+    List<Product> findAll(FieldSelection fields) throws SQLException;
+
+    List<Product> findPage(int offset, int limit, FieldSelection fields) throws SQLException;
+
+    RowCount countProducts() throws SQLException;
+
+    Product findById(Long id, FieldSelection fields) throws SQLException;
 
-    Product findById(Long id) throws SQLException;
+    default Product findById(Long id) throws SQLException {
+        return findById(id, ALL_FIELDS);
+    }
 
     Product update(Long id, String name, BigDecimal price, String description) throws SQLException;
 
     boolean deleteById(Long id) throws SQLException;
 
-    List<Product> findByNameContaining(String namePattern) throws SQLException;
+    List<Product> findByNameContaining(String namePattern, FieldSelection fields) throws SQLException;
 
-    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) throws SQLException;
+    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields) throws SQLException;
 }
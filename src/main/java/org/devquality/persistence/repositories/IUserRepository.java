@@ -1,17 +1,25 @@
 package org.devquality.persistence.repositories;
 
 import org.devquality.persistence.entites.User;
+import org.devquality.persistence.entites.UserRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.web.dtos.users.request.CreaterUserRequest;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
 
 public interface IUserRepository {
-    ArrayList<User> findAllUsers() throws SQLException;
+    FieldSelection ALL_FIELDS = FieldSelection.all(UserRowMapper.FIELDS);
+
+    ArrayList<User> findAllUsers(FieldSelection fields) throws SQLException;
 
     User save(CreaterUserRequest user) throws SQLException;
 
-    User findById(Long id) throws SQLException;
+    User findById(Long id, FieldSelection fields) throws SQLException;
+
+    default User findById(Long id) throws SQLException {
+        return findById(id, ALL_FIELDS);
+    }
 
     boolean existsByEmail(String email) throws SQLException;
 
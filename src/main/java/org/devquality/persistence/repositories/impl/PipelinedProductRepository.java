@@ -0,0 +1,220 @@
+package org.devquality.persistence.repositories.impl;
+
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import org.devquality.config.PipelinedDatabaseConfig;
+import org.devquality.persistence.cache.ProductQueryCache;
+import org.devquality.persistence.counting.CountStrategy;
+import org.devquality.persistence.counting.RowCount;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.mapping.ProjectedSql;
+import org.devquality.persistence.repositories.IProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación de IProductRepository sobre el cliente PostgreSQL con pipelining
+ */
+public class PipelinedProductRepository implements IProductRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedProductRepository.class);
+    private final PipelinedDatabaseConfig databaseConfig;
+    private final ProductQueryCache queryCache;
+    private final CountStrategy countStrategy;
+
+    // SQL Queries (placeholders nativos de PostgreSQL)
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, price, description) VALUES ($1, $2, $3) RETURNING " + ProductRowMapper.COLUMNS;
+
+    private static final ProjectedSql SELECT_ALL_PRODUCTS = new ProjectedSql(
+            "SELECT {columns} FROM products ORDER BY created_at DESC, id DESC", ProductRowMapper::columns);
+
+    // Mismo orden que idx_products_created_at: sin partición DEFAULT (V16) las particiones de rango
+    // están ordenadas y el plan es un Append de la más reciente hacia atrás; el LIMIT corta en
+    // cuanto llena la página, sin abrir las antiguas (QueryPlanRegressionTest lo comprueba)
+    private static final ProjectedSql SELECT_PRODUCTS_PAGE = new ProjectedSql(
+            "SELECT {columns} FROM products " +
+                    "ORDER BY created_at DESC, id DESC LIMIT $1 OFFSET $2", ProductRowMapper::columns);
+
+    private static final ProjectedSql SELECT_PRODUCT_BY_ID = new ProjectedSql(
+            "SELECT {columns} FROM products WHERE id = $1", ProductRowMapper::columns);
+
+    private static final String UPDATE_PRODUCT =
+            "UPDATE products SET name = $1, price = $2, description = $3 WHERE id = $4 " +
+                    "RETURNING " + ProductRowMapper.COLUMNS;
+
+    private static final String DELETE_PRODUCT_BY_ID =
+            "DELETE FROM products WHERE id = $1";
+
+    private static final String COUNT_PRODUCTS =
+            "SELECT COUNT(*) FROM products";
+
+    private static final String COUNT_PRODUCTS_MAINTAINED =
+            "SELECT COALESCE(SUM(row_count), 0) FROM row_counters WHERE table_name = 'products'";
+
+    // products está particionada: la tabla padre no tiene reltuples, se suman las particiones
+    private static final String COUNT_PRODUCTS_ESTIMATED =
+            "SELECT CASE WHEN bool_or(c.reltuples >= 0) THEN SUM(GREATEST(c.reltuples, 0))::bigint ELSE -1 END " +
+                    "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'products'::regclass";
+
+    private static final ProjectedSql SEARCH_PRODUCTS_BY_NAME = new ProjectedSql(
+            "SELECT {columns} FROM products " +
+                    "WHERE LOWER(name) LIKE LOWER($1) ORDER BY name", ProductRowMapper::columns);
+
+    private static final ProjectedSql SELECT_PRODUCTS_BY_PRICE_RANGE = new ProjectedSql(
+            "SELECT {columns} FROM products " +
+                    "WHERE price BETWEEN $1 AND $2 ORDER BY price", ProductRowMapper::columns);
+
+    private static final String SELECT_PRODUCTS_VERSION =
+            "SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'";
+
+    public PipelinedProductRepository(PipelinedDatabaseConfig databaseConfig, ProductQueryCache queryCache,
+                                      CountStrategy countStrategy) {
+        this.databaseConfig = databaseConfig;
+        this.queryCache = queryCache;
+        this.countStrategy = countStrategy;
+    }
+
+    @Override
+    public Product save(String name, BigDecimal price, String description) throws SQLException {
+        logger.debug("💾 Guardando producto: {}", name);
+
+        try {
+            RowSet<Row> rows = databaseConfig.execute(INSERT_PRODUCT, Tuple.of(name, price, description));
+            if (rows.size() == 0) {
+                throw new SQLException("No se pudo obtener el ID del producto creado");
+            }
+
+            Product savedProduct = ProductRowMapper.fromRow(rows.iterator().next());
+
+            queryCache.bumpVersion();
+            logger.info("✅ Producto guardado con ID: {}", savedProduct.getId());
+            return savedProduct;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error al guardar producto: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findAll(FieldSelection fields) throws SQLException {
+        logger.debug("🔍 Obteniendo todos los productos");
+        List<Product> products = mapRows(databaseConfig.execute(SELECT_ALL_PRODUCTS.sql(fields)), fields);
+        logger.info("✅ {} productos obtenidos", products.size());
+        return products;
+    }
+
+    @Override
+    public List<Product> findPage(int offset, int limit, FieldSelection fields) throws SQLException {
+        logger.debug("🔍 Obteniendo página de productos (offset: {}, limit: {})", offset, limit);
+        return mapRows(databaseConfig.execute(SELECT_PRODUCTS_PAGE.sql(fields), Tuple.of(limit, offset)), fields);
+    }
+
+    @Override
+    public RowCount countProducts() throws SQLException {
+        switch (countStrategy) {
+            case MAINTAINED:
+                return RowCount.exact(querySingleLong(COUNT_PRODUCTS_MAINTAINED));
+            case ESTIMATED:
+                long estimate = querySingleLong(COUNT_PRODUCTS_ESTIMATED);
+                if (estimate <= 0) {
+                    return RowCount.exact(querySingleLong(COUNT_PRODUCTS));
+                }
+                return RowCount.estimated(estimate);
+            case EXACT:
+            default:
+                return RowCount.exact(querySingleLong(COUNT_PRODUCTS));
+        }
+    }
+
+    @Override
+    public Product findById(Long id, FieldSelection fields) throws SQLException {
+        logger.debug("🔍 Buscando producto por ID: {}", id);
+        List<Product> products = mapRows(
+                databaseConfig.execute(SELECT_PRODUCT_BY_ID.sql(fields), Tuple.of(id)), fields);
+        return products.isEmpty() ? null : products.get(0);
+    }
+
+    /**
+     * Actualiza y devuelve el producto en un único round trip (UPDATE ... RETURNING)
+     */
+    @Override
+    public Product update(Long id, String name, BigDecimal price, String description) throws SQLException {
+        logger.debug("🔄 Actualizando producto ID: {}", id);
+
+        List<Product> products = mapRows(
+                databaseConfig.execute(UPDATE_PRODUCT, Tuple.of(name, price, description, id)), ALL_FIELDS);
+        if (products.isEmpty()) {
+            logger.warn("❌ Producto con ID {} no encontrado para actualizar", id);
+            return null;
+        }
+
+        queryCache.bumpVersion();
+        logger.info("✅ Producto actualizado: {}", id);
+        return products.get(0);
+    }
+
+    @Override
+    public boolean deleteById(Long id) throws SQLException {
+        logger.debug("🗑️ Eliminando producto ID: {}", id);
+
+        boolean deleted = databaseConfig.execute(DELETE_PRODUCT_BY_ID, Tuple.of(id)).rowCount() > 0;
+        if (deleted) {
+            queryCache.bumpVersion();
+            logger.info("✅ Producto eliminado: {}", id);
+        } else {
+            logger.warn("❌ Producto con ID {} no encontrado para eliminar", id);
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Product> findByNameContaining(String namePattern, FieldSelection fields) throws SQLException {
+        String pattern = ProductQueryCache.normalizeNamePattern(namePattern);
+        queryCache.refreshExternalVersion(() -> querySingleLong(SELECT_PRODUCTS_VERSION));
+        return queryCache.getOrLoad(
+                ProductQueryCache.searchKey(pattern, fields),
+                () -> mapRows(databaseConfig.execute(SEARCH_PRODUCTS_BY_NAME.sql(fields),
+                        Tuple.of("%" + pattern + "%")), fields)
+        );
+    }
+
+    @Override
+    public List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields)
+            throws SQLException {
+        queryCache.refreshExternalVersion(() -> querySingleLong(SELECT_PRODUCTS_VERSION));
+        return queryCache.getOrLoad(
+                ProductQueryCache.priceRangeKey(minPrice, maxPrice, fields),
+                () -> mapRows(databaseConfig.execute(SELECT_PRODUCTS_BY_PRICE_RANGE.sql(fields),
+                        Tuple.of(minPrice, maxPrice)), fields)
+        );
+    }
+
+    private long querySingleLong(String sql) throws SQLException {
+        RowSet<Row> rows = databaseConfig.execute(sql);
+        if (rows.size() == 0) {
+            return 0;
+        }
+        Long value = rows.iterator().next().getLong(0);
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Mapea las filas devueltas por el cliente a objetos Product (solo las columnas proyectadas)
+     */
+    private static List<Product> mapRows(RowSet<Row> rows, FieldSelection fields) {
+        List<Product> products = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            products.add(ProductRowMapper.fromRow(row, fields.mask()));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,105 @@
+package org.devquality.persistence.repositories.impl;
+
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import org.devquality.config.PipelinedDatabaseConfig;
+import org.devquality.persistence.entites.User;
+import org.devquality.persistence.entites.UserRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.mapping.ProjectedSql;
+import org.devquality.persistence.repositories.IUserRepository;
+import org.devquality.web.dtos.users.request.CreaterUserRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * Implementación de IUserRepository sobre el cliente PostgreSQL con pipelining
+ */
+public class PipelinedUserRepository implements IUserRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedUserRepository.class);
+    private final PipelinedDatabaseConfig databaseConfig;
+
+    // SQL Queries (placeholders nativos de PostgreSQL)
+    private static final String INSERT_USER =
+            "INSERT INTO users (name, email) VALUES ($1, $2) RETURNING " + UserRowMapper.COLUMNS;
+
+    private static final ProjectedSql SELECT_ALL_USERS = new ProjectedSql(
+            "SELECT {columns} FROM users ORDER BY created_at DESC", UserRowMapper::columns);
+
+    private static final ProjectedSql SELECT_USER_BY_ID = new ProjectedSql(
+            "SELECT {columns} FROM users WHERE id = $1", UserRowMapper::columns);
+
+    private static final String EXISTS_BY_EMAIL =
+            "SELECT 1 FROM users WHERE email = $1 LIMIT 1";
+
+    private static final String COUNT_USERS =
+            "SELECT COUNT(*) FROM users";
+
+    public PipelinedUserRepository(PipelinedDatabaseConfig databaseConfig) {
+        this.databaseConfig = databaseConfig;
+    }
+
+    @Override
+    public ArrayList<User> findAllUsers(FieldSelection fields) throws SQLException {
+        logger.debug("🔍 Obteniendo todos los usuarios de la base de datos");
+        ArrayList<User> users = mapRows(databaseConfig.execute(SELECT_ALL_USERS.sql(fields)), fields);
+        logger.info("✅ {} usuarios obtenidos de la base de datos", users.size());
+        return users;
+    }
+
+    @Override
+    public User save(CreaterUserRequest userRequest) throws SQLException {
+        logger.debug("💾 Guardando usuario: {}", userRequest.getEmail());
+
+        try {
+            RowSet<Row> rows = databaseConfig.execute(INSERT_USER,
+                    Tuple.of(userRequest.getName(), userRequest.getEmail()));
+            if (rows.size() == 0) {
+                throw new SQLException("No se pudo obtener el ID del usuario creado");
+            }
+
+            User savedUser = UserRowMapper.fromRow(rows.iterator().next());
+
+            logger.info("✅ Usuario guardado con ID: {}", savedUser.getId());
+            return savedUser;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error al guardar usuario: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public User findById(Long id, FieldSelection fields) throws SQLException {
+        logger.debug("🔍 Buscando usuario por ID: {}", id);
+        ArrayList<User> users = mapRows(databaseConfig.execute(SELECT_USER_BY_ID.sql(fields), Tuple.of(id)), fields);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) throws SQLException {
+        logger.debug("🔍 Verificando si existe usuario con email: {}", email);
+        return databaseConfig.execute(EXISTS_BY_EMAIL, Tuple.of(email)).size() > 0;
+    }
+
+    @Override
+    public long countUsers() throws SQLException {
+        RowSet<Row> rows = databaseConfig.execute(COUNT_USERS);
+        return rows.size() == 0 ? 0 : rows.iterator().next().getLong(0);
+    }
+
+    /**
+     * Mapea las filas devueltas por el cliente a objetos User (solo las columnas proyectadas)
+     */
+    private static ArrayList<User> mapRows(RowSet<Row> rows, FieldSelection fields) {
+        ArrayList<User> users = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            users.add(UserRowMapper.fromRow(row, fields.mask()));
+        }
+        return users;
+    }
+}
@@ -1,7 +1,14 @@
 package org.devquality.persistence.repositories.impl;
 
 import org.devquality.config.DatabaseConfig;
+import org.devquality.persistence.batching.ProductInsertCoalescer;
+import org.devquality.persistence.cache.ProductQueryCache;
+import org.devquality.persistence.counting.CountStrategy;
+import org.devquality.persistence.counting.RowCount;
 import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.mapping.ProjectedSql;
 import org.devquality.persistence.repositories.IProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,19 +24,29 @@ import java.util.List;
 public class ProductRepository implements IProductRepository {
     private static final Logger logger = LoggerFactory.getLogger(ProductRepository.class);
     private final DatabaseConfig databaseConfig;
+    private final ProductQueryCache queryCache;
+    private final CountStrategy countStrategy;
+    private final ProductInsertCoalescer insertCoalescer;
 
     // SQL Queries
     private static final String INSERT_PRODUCT =
-            "INSERT INTO products (name, price, description) VALUES (?, ?, ?) RETURNING id, created_at, updated_at";
+            "INSERT INTO products (name, price, description) VALUES (?, ?, ?) RETURNING " + ProductRowMapper.COLUMNS;
 
-    private static final String SELECT_ALL_PRODUCTS =
-            "SELECT id, name, price, description, created_at, updated_at FROM products ORDER BY created_at DESC";
+    private static final ProjectedSql SELECT_ALL_PRODUCTS = new ProjectedSql(
+            "SELECT {columns} FROM products ORDER BY created_at DESC, id DESC", ProductRowMapper::columns);
 
-    private static final String SELECT_PRODUCT_BY_ID =
-            "SELECT id, name, price, description, created_at, updated_at FROM products WHERE id = ?";
+    // Mismo orden que idx_products_created_at: sin partición DEFAULT (V16) las particiones de rango
+    // están ordenadas y el plan es un Append de la más reciente hacia atrás; el LIMIT corta en
+    // cuanto llena la página, sin abrir las antiguas (QueryPlanRegressionTest lo comprueba)
+    private static final ProjectedSql SELECT_PRODUCTS_PAGE = new ProjectedSql(
+            "SELECT {columns} FROM products " +
+                    "ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?", ProductRowMapper::columns);
+
+    private static final ProjectedSql SELECT_PRODUCT_BY_ID = new ProjectedSql(
+            "SELECT {columns} FROM products WHERE id = ?", ProductRowMapper::columns);
 
     private static final String UPDATE_PRODUCT =
-            "UPDATE products SET name = ?, price = ?, description = ? WHERE id = ? RETURNING updated_at";
+            "UPDATE products SET name = ?, price = ?, description = ? WHERE id = ? RETURNING " + ProductRowMapper.COLUMNS;
 
     private static final String DELETE_PRODUCT_BY_ID =
             "DELETE FROM products WHERE id = ?";
@@ -37,16 +54,42 @@ public class ProductRepository implements IProductRepository {
     private static final String COUNT_PRODUCTS =
             "SELECT COUNT(*) FROM products";
 
-    private static final String SEARCH_PRODUCTS_BY_NAME =
-            "SELECT id, name, price, description, created_at, updated_at FROM products " +
-                    "WHERE LOWER(name) LIKE LOWER(?) ORDER BY name";
+    private static final String COUNT_PRODUCTS_MAINTAINED =
+            "SELECT COALESCE(SUM(row_count), 0) FROM row_counters WHERE table_name = 'products'";
+
+    // products está particionada: la tabla padre no tiene reltuples, se suman las particiones
+    private static final String COUNT_PRODUCTS_ESTIMATED =
+            "SELECT CASE WHEN bool_or(c.reltuples >= 0) THEN SUM(GREATEST(c.reltuples, 0))::bigint ELSE -1 END " +
+                    "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'products'::regclass";
+
+    private static final ProjectedSql SEARCH_PRODUCTS_BY_NAME = new ProjectedSql(
+            "SELECT {columns} FROM products " +
+                    "WHERE LOWER(name) LIKE LOWER(?) ORDER BY name", ProductRowMapper::columns);
 
-    private static final String SELECT_PRODUCTS_BY_PRICE_RANGE =
-            "SELECT id, name, price, description, created_at, updated_at FROM products " +
-                    "WHERE price BETWEEN ? AND ? ORDER BY price";
+    private static final ProjectedSql SELECT_PRODUCTS_BY_PRICE_RANGE = new ProjectedSql(
+            "SELECT {columns} FROM products " +
+                    "WHERE price BETWEEN ? AND ? ORDER BY price", ProductRowMapper::columns);
+
+    private static final String SELECT_PRODUCTS_VERSION =
+            "SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'";
 
     public ProductRepository(DatabaseConfig databaseConfig) {
+        this(databaseConfig, ProductQueryCache.disabled(), CountStrategy.EXACT);
+    }
+
+    public ProductRepository(DatabaseConfig databaseConfig, ProductQueryCache queryCache, CountStrategy countStrategy) {
+        this(databaseConfig, queryCache, countStrategy, null);
+    }
+
+    /**
+     * @param insertCoalescer si no es null, las inserciones concurrentes se agrupan en un único commit
+     */
+    public ProductRepository(DatabaseConfig databaseConfig, ProductQueryCache queryCache, CountStrategy countStrategy,
+                             ProductInsertCoalescer insertCoalescer) {
         this.databaseConfig = databaseConfig;
+        this.queryCache = queryCache;
+        this.countStrategy = countStrategy;
+        this.insertCoalescer = insertCoalescer;
     }
 
     /**
@@ -56,6 +99,18 @@ public class ProductRepository implements IProductRepository {
     public Product save(String name, BigDecimal price, String description) throws SQLException {
         logger.debug("💾 Guardando producto: {}", name);
 
+        if (insertCoalescer != null) {
+            try {
+                Product savedProduct = insertCoalescer.insert(name, price, description);
+                queryCache.bumpVersion();
+                logger.info("✅ Producto guardado con ID: {}", savedProduct.getId());
+                return savedProduct;
+            } catch (SQLException e) {
+                logger.error("❌ Error al guardar producto: {}", e.getMessage());
+                throw e;
+            }
+        }
+
         try (Connection conn = databaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(INSERT_PRODUCT)) {
 
@@ -65,14 +120,9 @@ public class ProductRepository implements IProductRepository {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Product savedProduct = new Product();
-                    savedProduct.setId(rs.getLong("id"));
-                    savedProduct.setName(name);
-                    savedProduct.setPrice(price);
-                    savedProduct.setDescription(description);
-                    savedProduct.setCreatedAt(String.valueOf(rs.getTimestamp("created_at").toLocalDateTime()));
-                    savedProduct.setUpdatedAt(String.valueOf(rs.getTimestamp("updated_at").toLocalDateTime()));
+                    Product savedProduct = ProductRowMapper.INSTANCE.map(rs);
 
+                    queryCache.bumpVersion();
                     logger.info("✅ Producto guardado con ID: {}", savedProduct.getId());
                     return savedProduct;
                 } else {
@@ -89,16 +139,16 @@ public class ProductRepository implements IProductRepository {
      * Obtiene todos los productos
      */
     @Override
-    public List<Product> findAll() throws SQLException {
+    public List<Product> findAll(FieldSelection fields) throws SQLException {
         List<Product> products = new ArrayList<>();
         logger.debug("🔍 Obteniendo todos los productos");
 
         try (Connection conn = databaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_PRODUCTS);
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_PRODUCTS.sql(fields));
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                products.add(mapResultSetToProduct(rs));
+                products.add(ProductRowMapper.INSTANCE.map(rs, 1, fields.mask()));
             }
 
             logger.info("✅ {} productos obtenidos", products.size());
@@ -110,21 +160,50 @@ public class ProductRepository implements IProductRepository {
         }
     }
 
+    /**
+     * Obtiene una página de productos (más recientes primero)
+     */
+    @Override
+    public List<Product> findPage(int offset, int limit, FieldSelection fields) throws SQLException {
+        List<Product> products = new ArrayList<>(limit);
+        logger.debug("🔍 Obteniendo página de productos (offset: {}, limit: {})", offset, limit);
+
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PRODUCTS_PAGE.sql(fields))) {
+
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(ProductRowMapper.INSTANCE.map(rs, 1, fields.mask()));
+                }
+            }
+
+            logger.debug("✅ {} productos obtenidos en la página", products.size());
+            return products;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error al obtener página de productos: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Busca un producto por ID
      */
     @Override
-    public Product findById(Long id) throws SQLException {
+    public Product findById(Long id, FieldSelection fields) throws SQLException {
         logger.debug("🔍 Buscando producto por ID: {}", id);
 
         try (Connection conn = databaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_PRODUCT_BY_ID)) {
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PRODUCT_BY_ID.sql(fields))) {
 
             stmt.setLong(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Product product = mapResultSetToProduct(rs);
+                    Product product = ProductRowMapper.INSTANCE.map(rs, 1, fields.mask());
                     logger.debug("✅ Producto encontrado: {}", product.getName());
                     return product;
                 } else {
@@ -155,8 +234,8 @@ public class ProductRepository implements IProductRepository {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    // Obtener el producto actualizado
-                    Product updatedProduct = findById(id);
+                    queryCache.bumpVersion();
+                    Product updatedProduct = ProductRowMapper.INSTANCE.map(rs);
                     logger.info("✅ Producto actualizado: {}", id);
                     return updatedProduct;
                 } else {
@@ -185,6 +264,7 @@ public class ProductRepository implements IProductRepository {
 
             boolean deleted = rowsAffected > 0;
             if (deleted) {
+                queryCache.bumpVersion();
                 logger.info("✅ Producto eliminado: {}", id);
             } else {
                 logger.warn("❌ Producto con ID {} no encontrado para eliminar", id);
@@ -221,22 +301,70 @@ public class ProductRepository implements IProductRepository {
         }
     }
 
+    /**
+     * Cuenta el total de productos según la estrategia configurada
+     */
+    @Override
+    public RowCount countProducts() throws SQLException {
+        switch (countStrategy) {
+            case MAINTAINED:
+                return RowCount.exact(querySingleLong(COUNT_PRODUCTS_MAINTAINED));
+            case ESTIMATED:
+                long estimate = querySingleLong(COUNT_PRODUCTS_ESTIMATED);
+                if (estimate <= 0) {
+                    // Ninguna partición analizada todavía (reltuples = -1), o estimación 0 recién
+                    // creada la tabla: la tabla suele ser pequeña y así no se anuncian 0 productos
+                    logger.debug("📊 Sin estimación del planner para products, usando COUNT(*)");
+                    return RowCount.exact(count());
+                }
+                return RowCount.estimated(estimate);
+            case EXACT:
+            default:
+                return RowCount.exact(count());
+        }
+    }
+
     /**
      * Busca productos por nombre (búsqueda parcial)
      */
     @Override
-    public List<Product> findByNameContaining(String namePattern) throws SQLException {
+    public List<Product> findByNameContaining(String namePattern, FieldSelection fields) throws SQLException {
+        String pattern = ProductQueryCache.normalizeNamePattern(namePattern);
+        queryCache.refreshExternalVersion(this::loadTableVersion);
+        return queryCache.getOrLoad(
+                ProductQueryCache.searchKey(pattern, fields),
+                () -> queryByNameContaining(pattern, fields)
+        );
+    }
+
+    /**
+     * Busca productos en un rango de precios
+     */
+    @Override
+    public List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields)
+            throws SQLException {
+        queryCache.refreshExternalVersion(this::loadTableVersion);
+        return queryCache.getOrLoad(
+                ProductQueryCache.priceRangeKey(minPrice, maxPrice, fields),
+                () -> queryByPriceBetween(minPrice, maxPrice, fields)
+        );
+    }
+
+    /**
+     * Ejecuta la búsqueda por nombre contra la BD (sin caché)
+     */
+    private List<Product> queryByNameContaining(String namePattern, FieldSelection fields) throws SQLException {
         List<Product> products = new ArrayList<>();
         logger.debug("🔍 Buscando productos por nombre: {}", namePattern);
 
         try (Connection conn = databaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SEARCH_PRODUCTS_BY_NAME)) {
+             PreparedStatement stmt = conn.prepareStatement(SEARCH_PRODUCTS_BY_NAME.sql(fields))) {
 
             stmt.setString(1, "%" + namePattern + "%");
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    products.add(mapResultSetToProduct(rs));
+                    products.add(ProductRowMapper.INSTANCE.map(rs, 1, fields.mask()));
                 }
             }
 
@@ -250,22 +378,21 @@ public class ProductRepository implements IProductRepository {
     }
 
     /**
-     * Busca productos en un rango de precios
+     * Ejecuta la búsqueda por rango de precio contra la BD (sin caché)
      */
-    @Override
-    public List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) throws SQLException {
+    private List<Product> queryByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields) throws SQLException {
         List<Product> products = new ArrayList<>();
         logger.debug("🔍 Buscando productos entre {} y {}", minPrice, maxPrice);
 
         try (Connection conn = databaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_PRODUCTS_BY_PRICE_RANGE)) {
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PRODUCTS_BY_PRICE_RANGE.sql(fields))) {
 
             stmt.setBigDecimal(1, minPrice);
             stmt.setBigDecimal(2, maxPrice);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    products.add(mapResultSetToProduct(rs));
+                    products.add(ProductRowMapper.INSTANCE.map(rs, 1, fields.mask()));
                 }
             }
 
@@ -279,16 +406,30 @@ public class ProductRepository implements IProductRepository {
     }
 
     /**
-     * Mapea un ResultSet a un objeto Product
+     * Ejecuta una consulta que devuelve un único valor numérico
+     */
+    private long querySingleLong(String sql) throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error al contar productos ({}): {}", countStrategy, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Lee la versión de products mantenida por el trigger de PostgreSQL
      */
-    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
-        Product product = new Product();
-        product.setId(rs.getLong("id"));
-        product.setName(rs.getString("name"));
-        product.setPrice(rs.getBigDecimal("price"));
-        product.setDescription(rs.getString("description"));
-        product.setCreatedAt(String.valueOf(rs.getTimestamp("created_at").toLocalDateTime()));
-        product.setUpdatedAt(String.valueOf(rs.getTimestamp("updated_at").toLocalDateTime()));
-        return product;
+    private Long loadTableVersion() throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PRODUCTS_VERSION);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : null;
+        }
     }
-}
\ No newline at end of file
+}
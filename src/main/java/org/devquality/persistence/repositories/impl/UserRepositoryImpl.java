@@ -3,6 +3,9 @@ package org.devquality.persistence.repositories.impl;
 import org.devquality.Main;
 import org.devquality.config.DatabaseConfig;
 import org.devquality.persistence.entites.User;
+import org.devquality.persistence.entites.UserRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.mapping.ProjectedSql;
 import org.devquality.persistence.repositories.IUserRepository;
 import org.devquality.web.dtos.users.request.CreaterUserRequest;
 import org.slf4j.Logger;
@@ -18,19 +21,19 @@ public class UserRepositoryImpl implements IUserRepository {
     private final DatabaseConfig databaseConfig;
     // SQL Queries
     private static final String INSERT_USER =
-            "INSERT INTO users (name, email) VALUES (?, ?) RETURNING id, created_at, updated_at";
+            "INSERT INTO users (name, email) VALUES (?, ?) RETURNING " + UserRowMapper.COLUMNS;
 
-    private static final String SELECT_ALL_USERS =
-            "SELECT id, name, email, created_at, updated_at FROM users ORDER BY created_at DESC";
+    private static final ProjectedSql SELECT_ALL_USERS = new ProjectedSql(
+            "SELECT {columns} FROM users ORDER BY created_at DESC", UserRowMapper::columns);
 
-    private static final String SELECT_USER_BY_ID =
-            "SELECT id, name, email, created_at, updated_at FROM users WHERE id = ?";
+    private static final ProjectedSql SELECT_USER_BY_ID = new ProjectedSql(
+            "SELECT {columns} FROM users WHERE id = ?", UserRowMapper::columns);
 
     private static final String SELECT_USER_BY_EMAIL =
-            "SELECT id, name, email, created_at, updated_at FROM users WHERE email = ?";
+            "SELECT " + UserRowMapper.COLUMNS + " FROM users WHERE email = ?";
 
     private static final String UPDATE_USER =
-            "UPDATE users SET name = ?, email = ? WHERE id = ? RETURNING updated_at";
+            "UPDATE users SET name = ?, email = ? WHERE id = ? RETURNING " + UserRowMapper.COLUMNS;
 
     private static final String DELETE_USER_BY_ID =
             "DELETE FROM users WHERE id = ?";
@@ -51,21 +54,16 @@ public class UserRepositoryImpl implements IUserRepository {
     }
 
     @Override
-    public ArrayList<User> findAllUsers() throws SQLException {
+    public ArrayList<User> findAllUsers(FieldSelection fields) throws SQLException {
         ArrayList<User> users = new ArrayList<>();
         logger.debug("🔍 Obteniendo todos los usuarios de la base de datos");
 
         try (Connection conn = databaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_USERS);
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_USERS.sql(fields));
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setName(rs.getString("name"));
-                user.setEmail(rs.getString("email"));
-                user.setCreatedAt(String.valueOf(rs.getTimestamp("created_at").toLocalDateTime()));
-                user.setUpdatedAt(String.valueOf(rs.getTimestamp("updated_at").toLocalDateTime()));
+                User user = UserRowMapper.INSTANCE.map(rs, 1, fields.mask());
 
                 users.add(user);
                 logger.debug("📋 Usuario cargado: {} - {}", user.getId(), user.getEmail());
@@ -93,12 +91,7 @@ public class UserRepositoryImpl implements IUserRepository {
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     // ✅ Crear el objeto User con los datos devueltos por la BD
-                    User savedUser = new User();
-                    savedUser.setId(rs.getLong("id"));
-                    savedUser.setName(userRequest.getName());
-                    savedUser.setEmail(userRequest.getEmail());
-                    savedUser.setCreatedAt(String.valueOf(rs.getTimestamp("created_at").toLocalDateTime()));
-                    savedUser.setUpdatedAt(String.valueOf(rs.getTimestamp("updated_at").toLocalDateTime()));
+                    User savedUser = UserRowMapper.INSTANCE.map(rs);
 
                     logger.info("✅ Usuario guardado con ID: {}", savedUser.getId());
                     return savedUser; // ✅ Retornar el User, no el request
@@ -118,22 +111,17 @@ public class UserRepositoryImpl implements IUserRepository {
      * Buscar usuario por ID
      */
     @Override
-    public User findById(Long id) throws SQLException {
+    public User findById(Long id, FieldSelection fields) throws SQLException {
         logger.debug("🔍 Buscando usuario por ID: {}", id);
 
         try (Connection conn = databaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_USER_BY_ID)) {
+             PreparedStatement stmt = conn.prepareStatement(SELECT_USER_BY_ID.sql(fields))) {
 
             stmt.setLong(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getLong("id"));
-                    user.setName(rs.getString("name"));
-                    user.setEmail(rs.getString("email"));
-                    user.setCreatedAt(String.valueOf(rs.getTimestamp("created_at").toLocalDateTime()));
-                    user.setUpdatedAt(String.valueOf(rs.getTimestamp("updated_at").toLocalDateTime()));
+                    User user = UserRowMapper.INSTANCE.map(rs, 1, fields.mask());
 
                     logger.debug("✅ Usuario encontrado: {}", user.getEmail());
                     return user;
@@ -0,0 +1,141 @@
+package org.devquality.persistence.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Foto materializada del catálogo de productos (JSON y JSON gzip ya comprimido).
+ *
+ * Los ficheros se mapean en memoria una sola vez al publicarse: servir una descarga es
+ * escribir un slice del mapeo, sin leer el fichero ni tocar la BD. El mapeo sigue siendo
+ * válido aunque el fichero se borre al publicarse una versión más nueva. Un MappedByteBuffer
+ * no pasa de 2GB, así que los ficheros se mapean en trozos.
+ */
+public final class CatalogSnapshot {
+    private final String databaseId;
+    private final long version;
+    private final OffsetDateTime generatedAt;
+    private final Content json;
+    private final Content gzip;
+
+    CatalogSnapshot(String databaseId, long version, OffsetDateTime generatedAt, Content json, Content gzip) {
+        this.databaseId = databaseId;
+        this.version = version;
+        this.generatedAt = generatedAt;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Identidad de la BD de la que salió la foto (V15)
+     */
+    public String getDatabaseId() {
+        return databaseId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public OffsetDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public Content getJson() {
+        return json;
+    }
+
+    public Content getGzip() {
+        return gzip;
+    }
+
+    /**
+     * Una representación de la foto: fichero mapeado y su ETag
+     */
+    public static final class Content {
+        /** Tamaño máximo de cada trozo mapeado (1GB, por debajo del límite de int de ByteBuffer) */
+        static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+        private final Path path;
+        private final String etag;
+        private final MappedByteBuffer[] chunks;
+        private final int chunkSize;
+        private final long size;
+
+        private Content(Path path, String etag, MappedByteBuffer[] chunks, int chunkSize, long size) {
+            this.path = path;
+            this.etag = etag;
+            this.chunks = chunks;
+            this.chunkSize = chunkSize;
+            this.size = size;
+        }
+
+        /**
+         * Mapea el fichero; el ETag combina la identidad de la BD, la versión de la tabla y el
+         * CRC32 del contenido (la versión sola se repite si se recrea la BD)
+         */
+        static Content map(Path path, String databaseId, long version, String suffix) throws IOException {
+            return map(path, databaseId, version, suffix, DEFAULT_CHUNK_SIZE);
+        }
+
+        static Content map(Path path, String databaseId, long version, String suffix, int chunkSize)
+                throws IOException {
+            long size;
+            MappedByteBuffer[] chunks;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                size = channel.size();
+                chunks = new MappedByteBuffer[(int) ((size + chunkSize - 1) / chunkSize)];
+                for (int i = 0; i < chunks.length; i++) {
+                    long position = (long) i * chunkSize;
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, size - position));
+                }
+            }
+            CRC32 crc32 = new CRC32();
+            for (MappedByteBuffer chunk : chunks) {
+                crc32.update(chunk.duplicate());
+            }
+            String etag = "\"" + databaseId + "-v" + version + "-" + Long.toHexString(crc32.getValue()) + suffix + "\"";
+            return new Content(path, etag, chunks, chunkSize, size);
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * ETag fuerte (entre comillas, listo para la cabecera)
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Vistas de solo lectura de [start, start + length) sin copiar, una por trozo que toca el rango
+         */
+        public List<ByteBuffer> slices(long start, long length) {
+            List<ByteBuffer> slices = new ArrayList<>(2);
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                int chunk = (int) (position / chunkSize);
+                int offset = (int) (position % chunkSize);
+                int sliceLength = (int) Math.min(end - position, chunks[chunk].capacity() - offset);
+                slices.add(chunks[chunk].slice(offset, sliceLength));
+                position += sliceLength;
+            }
+            return slices;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.devquality.persistence.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.config.JacksonConfiguration;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Materializa periódicamente el catálogo completo de productos en disco para
+ * GET /api/products/snapshot.
+ *
+ * Cada intervalo compara la versión de products (table_versions) y la identidad de la BD
+ * con las de la foto publicada y solo regenera si cambiaron. Los ficheros se escriben en temporales del mismo
+ * directorio y se publican con un rename atómico, así que un lector nunca ve una foto a
+ * medias; al arrancar se reutiliza la foto en disco si sigue siendo la versión vigente.
+ */
+public class CatalogSnapshotJob {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotJob.class);
+    private static final String FILE_PREFIX = "products-";
+    private static final String JSON_SUFFIX = ".json";
+    private static final String GZIP_SUFFIX = ".json.gz";
+    private static final String TEMP_PREFIX = ".products-";
+    private static final int FETCH_SIZE = 1000;
+
+    // Versión de products e identidad de la BD (V15): juntas identifican el contenido de la foto
+    private static final String SELECT_SNAPSHOT_KEY =
+            "SELECT (SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'), " +
+                    "(SELECT left(replace(id::text, '-', ''), 12) FROM database_identity)";
+
+    private static final String SELECT_ALL_PRODUCTS =
+            "SELECT " + ProductRowMapper.COLUMNS + " FROM products ORDER BY id";
+
+    private final DatabaseConfig databaseConfig;
+    private final Path directory;
+    private final long intervalMs;
+    private final ObjectWriter writer;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile CatalogSnapshot current;
+
+    public CatalogSnapshotJob(DatabaseConfig databaseConfig, Path directory, long intervalMs) {
+        this.databaseConfig = databaseConfig;
+        this.directory = directory;
+        this.intervalMs = intervalMs;
+        // Sin indentación ni flush por producto: la foto es para máquinas y puede ocupar decenas de MB
+        this.writer = JacksonConfiguration.getSharedObjectMapper().writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static CatalogSnapshotJob fromConfiguration(DatabaseConfig databaseConfig, AppConfiguration appConfig) {
+        return new CatalogSnapshotJob(
+                databaseConfig,
+                Paths.get(appConfig.get("snapshot.dir", "data/snapshots")),
+                appConfig.getInt("snapshot.interval-ms", 60000)
+        );
+    }
+
+    /**
+     * Programa la materialización; la primera se lanza de inmediato en segundo plano
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("📸 Foto del catálogo programada en {} (cada {}ms)", directory.toAbsolutePath(), intervalMs);
+    }
+
+    /**
+     * Última foto publicada, o null si todavía no hay ninguna
+     */
+    public CatalogSnapshot getCurrent() {
+        return current;
+    }
+
+    /**
+     * Un ciclo de materialización; lo ejecuta el scheduler (visible para las pruebas)
+     */
+    void refresh() {
+        try {
+            SnapshotKey key = queryKey();
+            CatalogSnapshot snapshot = current;
+            if (snapshot != null && snapshot.getVersion() == key.version()
+                    && snapshot.getDatabaseId().equals(key.databaseId())) {
+                return;
+            }
+
+            Files.createDirectories(directory);
+            if (current == null) {
+                deleteTempFiles();
+            }
+
+            CatalogSnapshot published = reuseExisting(key);
+            if (published == null) {
+                published = materialize();
+            }
+            current = published;
+            deleteOtherVersions(published.getDatabaseId(), published.getVersion());
+        } catch (SQLException | IOException e) {
+            logger.warn("⚠️ No se pudo materializar la foto del catálogo: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("❌ Error inesperado materializando la foto del catálogo: {}", e.getMessage(), e);
+        }
+    }
+
+    private SnapshotKey queryKey() throws SQLException {
+        try (Connection conn = databaseConfig.getConnection()) {
+            return queryKey(conn);
+        }
+    }
+
+    private static SnapshotKey queryKey(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_SNAPSHOT_KEY);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return new SnapshotKey(rs.getString(2), rs.getLong(1));
+        }
+    }
+
+    /**
+     * Foto ya escrita en disco para esta BD y versión (p. ej. por una ejecución anterior)
+     */
+    private CatalogSnapshot reuseExisting(SnapshotKey key) throws IOException {
+        Path json = jsonPath(key.databaseId(), key.version());
+        Path gzip = gzipPath(key.databaseId(), key.version());
+        // El JSON se publica después del gzip: si existe, ambos están completos
+        if (!Files.exists(json) || !Files.exists(gzip)) {
+            return null;
+        }
+        CatalogSnapshot snapshot = publish(key,
+                OffsetDateTime.ofInstant(Files.getLastModifiedTime(json).toInstant(), ZoneOffset.UTC));
+        logger.info("📸 Reutilizando la foto del catálogo v{} ya en disco", key.version());
+        return snapshot;
+    }
+
+    /**
+     * Vuelca el catálogo a JSON y JSON gzip y los publica con un rename atómico
+     */
+    private CatalogSnapshot materialize() throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        Path jsonTemp = Files.createTempFile(directory, TEMP_PREFIX, JSON_SUFFIX);
+        Path gzipTemp = Files.createTempFile(directory, TEMP_PREFIX, GZIP_SUFFIX);
+        try {
+            OffsetDateTime generatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+            SnapshotKey key;
+            int rows;
+            try (Connection conn = databaseConfig.getConnection()) {
+                // Versión y filas de la misma foto MVCC; el cursor evita cargar todo el catálogo en memoria
+                boolean autoCommit = conn.getAutoCommit();
+                int isolation = conn.getTransactionIsolation();
+                conn.setAutoCommit(false);
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                conn.setReadOnly(true);
+                try {
+                    key = queryKey(conn);
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(jsonTemp), 64 * 1024)) {
+                        rows = writeCatalog(conn, out, key.version(), generatedAt);
+                    }
+                    conn.commit();
+                } catch (SQLException | IOException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setReadOnly(false);
+                    conn.setTransactionIsolation(isolation);
+                    conn.setAutoCommit(autoCommit);
+                }
+            }
+
+            // Compresión máxima: se paga una vez por versión y no por descarga
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipTemp), 64 * 1024) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                Files.copy(jsonTemp, out);
+            }
+
+            Files.move(gzipTemp, gzipPath(key.databaseId(), key.version()),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(jsonTemp, jsonPath(key.databaseId(), key.version()),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            CatalogSnapshot snapshot = publish(key, generatedAt);
+            logger.info("📸 Foto del catálogo v{} materializada: {} productos, {} bytes ({} gzip) en {}ms",
+                    key.version(), rows, snapshot.getJson().getSize(), snapshot.getGzip().getSize(),
+                    System.currentTimeMillis() - start);
+            return snapshot;
+        } finally {
+            Files.deleteIfExists(jsonTemp);
+            Files.deleteIfExists(gzipTemp);
+        }
+    }
+
+    /**
+     * Escribe {"version", "generatedAt", "products": [...]} fila a fila
+     *
+     * @return número de productos escritos
+     */
+    private int writeCatalog(Connection conn, OutputStream out, long version, OffsetDateTime generatedAt)
+            throws SQLException, IOException {
+        int rows = 0;
+        try (JsonGenerator generator = writer.createGenerator(out);
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_PRODUCTS)) {
+            stmt.setFetchSize(FETCH_SIZE);
+            generator.writeStartObject();
+            generator.writeNumberField("version", version);
+            generator.writeFieldName("generatedAt");
+            writer.writeValue(generator, generatedAt);
+            generator.writeArrayFieldStart("products");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.writeValue(generator, ProductRowMapper.INSTANCE.map(rs));
+                    rows++;
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return rows;
+    }
+
+    private CatalogSnapshot publish(SnapshotKey key, OffsetDateTime generatedAt) throws IOException {
+        String databaseId = key.databaseId();
+        long version = key.version();
+        return new CatalogSnapshot(databaseId, version, generatedAt,
+                CatalogSnapshot.Content.map(jsonPath(databaseId, version), databaseId, version, ""),
+                CatalogSnapshot.Content.map(gzipPath(databaseId, version), databaseId, version, "-gzip"));
+    }
+
+    /**
+     * Borra las versiones anteriores (los mapeos ya publicados siguen siendo válidos)
+     */
+    private void deleteOtherVersions(String databaseId, long version) throws IOException {
+        String keepJson = jsonPath(databaseId, version).getFileName().toString();
+        String keepGzip = gzipPath(databaseId, version).getFileName().toString();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.equals(keepJson) && !name.equals(keepGzip)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Temporales huérfanos de una ejecución interrumpida
+     */
+    private void deleteTempFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, TEMP_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * products-{identidad de la BD}-v{versión}.json: una BD recreada no reutiliza fotos de la anterior
+     */
+    Path jsonPath(String databaseId, long version) {
+        return directory.resolve(FILE_PREFIX + databaseId + "-v" + version + JSON_SUFFIX);
+    }
+
+    private Path gzipPath(String databaseId, long version) {
+        return directory.resolve(FILE_PREFIX + databaseId + "-v" + version + GZIP_SUFFIX);
+    }
+
+    private record SnapshotKey(String databaseId, long version) {
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
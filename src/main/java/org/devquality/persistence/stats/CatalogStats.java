@@ -0,0 +1,41 @@
+package org.devquality.persistence.stats;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Foto inmutable de las estadísticas del catálogo publicada por CatalogStatsRefresher
+ *
+ * @param sourceVersion versión de products con la que se refrescaron las vistas
+ * @param refreshedAt momento del último REFRESH de las vistas
+ * @param pricePercentiles p50, p90, p95 y p99 del precio
+ * @param priceHistogram un bucket por intervalo [lower, upper) de los límites configurados
+ * @param createdPerHour altas por hora de la ventana configurada
+ * @param createdPerDay altas por día (UTC) de la ventana configurada
+ */
+public record CatalogStats(
+        long sourceVersion,
+        OffsetDateTime refreshedAt,
+        long productCount,
+        long withDescriptionCount,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        BigDecimal avgPrice,
+        Map<String, BigDecimal> pricePercentiles,
+        List<PriceBucket> priceHistogram,
+        List<TimeBucket> createdPerHour,
+        List<TimeBucket> createdPerDay
+) {
+
+    /**
+     * @param lower límite inferior incluido (null = sin límite)
+     * @param upper límite superior excluido (null = sin límite)
+     */
+    public record PriceBucket(BigDecimal lower, BigDecimal upper, long count) {
+    }
+
+    public record TimeBucket(OffsetDateTime start, long count) {
+    }
+}
@@ -0,0 +1,330 @@
+package org.devquality.persistence.stats;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresco en segundo plano de las vistas materializadas de estadísticas (V8).
+ *
+ * Cada intervalo compara la versión de products con la source_version de las vistas y
+ * solo las refresca (CONCURRENTLY, sin bloquear lecturas) si cambió. Entre réplicas, el
+ * refresco se hace bajo un advisory lock de transacción (como el mantenimiento de particiones
+ * de V13): la que no lo obtiene no espera ni repite el trabajo, y la que lo obtiene vuelve a
+ * comparar versiones por si otra acaba de refrescar. Después publica una {@link CatalogStats}
+ * inmutable que el endpoint sirve desde memoria.
+ */
+public class CatalogStatsRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStatsRefresher.class);
+    private static final String DEFAULT_PRICE_BUCKETS = "10,50,100,500,1000";
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p95", "p99"};
+
+    private static final String TRY_REFRESH_LOCK =
+            "SELECT pg_try_advisory_xact_lock(hashtext('catalog_stats_refresh'))";
+
+    private static final String SELECT_VERSIONS =
+            "SELECT (SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'), " +
+                    "(SELECT source_version FROM product_price_stats)";
+
+    // product_price_stats va primero: su source_version se lee en el mismo snapshot que sus filas y
+    // las vistas siguientes ven como mínimo esos datos. Una escritura durante el refresco deja
+    // source_version por detrás de table_versions y el siguiente ciclo vuelve a refrescar; al
+    // final, en cambio, marcaría como incluidas escrituras que las otras vistas no llegaron a ver
+    static final String[] REFRESH_VIEWS = {
+            "REFRESH MATERIALIZED VIEW CONCURRENTLY product_price_stats",
+            "REFRESH MATERIALIZED VIEW CONCURRENTLY product_price_counts",
+            "REFRESH MATERIALIZED VIEW CONCURRENTLY product_creation_hourly"
+    };
+
+    private static final String SELECT_PRICE_STATS =
+            "SELECT source_version, refreshed_at, product_count, with_description_count, " +
+                    "min_price, max_price, avg_price, price_percentiles FROM product_price_stats";
+
+    private static final String SELECT_PRICE_HISTOGRAM =
+            "SELECT width_bucket(price, ?::numeric[]) AS bucket, SUM(product_count) " +
+                    "FROM product_price_counts GROUP BY bucket";
+
+    private static final String SELECT_CREATION_HOURLY =
+            "SELECT bucket_start, product_count FROM product_creation_hourly " +
+                    "WHERE bucket_start >= CURRENT_TIMESTAMP - ? * INTERVAL '1 hour' ORDER BY bucket_start";
+
+    private final DatabaseConfig databaseConfig;
+    private final AppConfiguration appConfig;
+    private final long intervalMs;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile CatalogStats current;
+    private String publishedSettings;
+
+    public CatalogStatsRefresher(DatabaseConfig databaseConfig, AppConfiguration appConfig, long intervalMs) {
+        this.databaseConfig = databaseConfig;
+        this.appConfig = appConfig;
+        this.intervalMs = intervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static CatalogStatsRefresher fromConfiguration(DatabaseConfig databaseConfig, AppConfiguration appConfig) {
+        return new CatalogStatsRefresher(databaseConfig, appConfig,
+                appConfig.getInt("stats.refresh-interval-ms", 60000));
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("📊 Refresco de estadísticas del catálogo iniciado (cada {}ms)", intervalMs);
+    }
+
+    /**
+     * Últimas estadísticas publicadas, o null si todavía no hay ninguna
+     */
+    public CatalogStats getCurrent() {
+        return current;
+    }
+
+    /**
+     * Un ciclo de refresco; lo ejecuta el scheduler (visible para las pruebas)
+     */
+    void refresh() {
+        // Los límites y ventanas se leen en cada ciclo (admiten recarga de configuración)
+        List<BigDecimal> boundaries = parseBoundaries(appConfig.get("stats.price-buckets", DEFAULT_PRICE_BUCKETS));
+        int hours = appConfig.getInt("stats.creation-hours", 48);
+        int days = appConfig.getInt("stats.creation-days", 30);
+        String settings = boundaries + "|" + hours + "|" + days;
+
+        try (Connection conn = databaseConfig.getConnection()) {
+            long[] versions = queryVersions(conn);
+            if (versions[0] != versions[1]) {
+                refreshViews(conn);
+            }
+
+            CatalogStats stats = current;
+            if (stats == null || stats.sourceVersion() != queryVersions(conn)[1] || !settings.equals(publishedSettings)) {
+                current = load(conn, boundaries, hours, days);
+                publishedSettings = settings;
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ No se pudieron refrescar las estadísticas del catálogo: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("❌ Error inesperado refrescando estadísticas: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Refresca las vistas si esta réplica obtiene el lock y siguen desactualizadas; el lock se
+     * libera con el commit o el rollback
+     */
+    private static void refreshViews(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            if (!tryRefreshLock(conn)) {
+                logger.debug("📊 Otra instancia está refrescando las estadísticas, se omite este ciclo");
+                conn.rollback();
+                return;
+            }
+
+            // Otra réplica pudo confirmar su refresco entre la primera comparación y el lock
+            long[] versions = queryVersions(conn);
+            if (versions[0] != versions[1]) {
+                long start = System.currentTimeMillis();
+                try (Statement stmt = conn.createStatement()) {
+                    for (String refresh : REFRESH_VIEWS) {
+                        stmt.execute(refresh);
+                    }
+                }
+                logger.info("📊 Vistas de estadísticas refrescadas (v{}) en {}ms", versions[0],
+                        System.currentTimeMillis() - start);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static boolean tryRefreshLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(TRY_REFRESH_LOCK);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * @return {versión actual de products, versión con la que se refrescaron las vistas}
+     */
+    private static long[] queryVersions(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_VERSIONS);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return new long[]{rs.getLong(1), rs.getLong(2)};
+        }
+    }
+
+    private CatalogStats load(Connection conn, List<BigDecimal> boundaries, int hours, int days) throws SQLException {
+        long sourceVersion;
+        OffsetDateTime refreshedAt;
+        long productCount;
+        long withDescriptionCount;
+        BigDecimal minPrice;
+        BigDecimal maxPrice;
+        BigDecimal avgPrice;
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PRICE_STATS);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            sourceVersion = rs.getLong(1);
+            refreshedAt = rs.getObject(2, OffsetDateTime.class);
+            productCount = rs.getLong(3);
+            withDescriptionCount = rs.getLong(4);
+            minPrice = rs.getBigDecimal(5);
+            maxPrice = rs.getBigDecimal(6);
+            avgPrice = rs.getBigDecimal(7) != null ? rs.getBigDecimal(7).setScale(2, RoundingMode.HALF_UP) : null;
+
+            Array array = rs.getArray(8);
+            Object[] values = array != null ? (Object[]) array.getArray() : new Object[0];
+            for (int i = 0; i < PERCENTILE_NAMES.length && i < values.length; i++) {
+                percentiles.put(PERCENTILE_NAMES[i], values[i] != null
+                        ? BigDecimal.valueOf(((Number) values[i]).doubleValue()).setScale(2, RoundingMode.HALF_UP)
+                        : null);
+            }
+        }
+
+        List<CatalogStats.TimeBucket> hourly = loadCreationHourly(conn, Math.max(hours, days * 24));
+        CatalogStats stats = new CatalogStats(
+                sourceVersion,
+                refreshedAt,
+                productCount,
+                withDescriptionCount,
+                minPrice,
+                maxPrice,
+                avgPrice,
+                percentiles,
+                loadPriceHistogram(conn, boundaries),
+                lastHours(hourly, hours),
+                perDay(hourly, days)
+        );
+        logger.debug("📊 Estadísticas publicadas: {} productos (v{})", productCount, sourceVersion);
+        return stats;
+    }
+
+    /**
+     * width_bucket devuelve 0 por debajo del primer límite y n a partir del último
+     */
+    private static List<CatalogStats.PriceBucket> loadPriceHistogram(Connection conn, List<BigDecimal> boundaries)
+            throws SQLException {
+        long[] counts = new long[boundaries.size() + 1];
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PRICE_HISTOGRAM)) {
+            stmt.setArray(1, conn.createArrayOf("numeric", boundaries.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts[rs.getInt(1)] = rs.getLong(2);
+                }
+            }
+        }
+
+        List<CatalogStats.PriceBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal lower = i > 0 ? boundaries.get(i - 1) : null;
+            BigDecimal upper = i < boundaries.size() ? boundaries.get(i) : null;
+            buckets.add(new CatalogStats.PriceBucket(lower, upper, counts[i]));
+        }
+        return buckets;
+    }
+
+    private static List<CatalogStats.TimeBucket> loadCreationHourly(Connection conn, int hours) throws SQLException {
+        List<CatalogStats.TimeBucket> buckets = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CREATION_HOURLY)) {
+            stmt.setInt(1, hours);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    buckets.add(new CatalogStats.TimeBucket(
+                            rs.getObject(1, OffsetDateTime.class).withOffsetSameInstant(ZoneOffset.UTC),
+                            rs.getLong(2)));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private static List<CatalogStats.TimeBucket> lastHours(List<CatalogStats.TimeBucket> hourly, int hours) {
+        OffsetDateTime from = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(hours);
+        List<CatalogStats.TimeBucket> buckets = new ArrayList<>();
+        for (CatalogStats.TimeBucket bucket : hourly) {
+            if (!bucket.start().isBefore(from)) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+
+    private static List<CatalogStats.TimeBucket> perDay(List<CatalogStats.TimeBucket> hourly, int days) {
+        OffsetDateTime from = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).minusDays(days);
+        TreeMap<OffsetDateTime, Long> counts = new TreeMap<>();
+        for (CatalogStats.TimeBucket bucket : hourly) {
+            OffsetDateTime day = bucket.start().truncatedTo(ChronoUnit.DAYS);
+            if (!day.isBefore(from)) {
+                counts.merge(day, bucket.count(), Long::sum);
+            }
+        }
+        List<CatalogStats.TimeBucket> buckets = new ArrayList<>(counts.size());
+        counts.forEach((day, count) -> buckets.add(new CatalogStats.TimeBucket(day, count)));
+        return buckets;
+    }
+
+    /**
+     * Límites del histograma ("10,50,100"): ordenados y sin duplicados; si no son válidos se usan los de por defecto
+     */
+    private static List<BigDecimal> parseBoundaries(String value) {
+        TreeSet<BigDecimal> boundaries = new TreeSet<>();
+        try {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    boundaries.add(new BigDecimal(item.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ stats.price-buckets inválido ('{}'), usando {}", value, DEFAULT_PRICE_BUCKETS);
+            return parseBoundaries(DEFAULT_PRICE_BUCKETS);
+        }
+        if (boundaries.isEmpty()) {
+            return parseBoundaries(DEFAULT_PRICE_BUCKETS);
+        }
+        return new ArrayList<>(boundaries);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
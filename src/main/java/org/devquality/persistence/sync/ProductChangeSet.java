@@ -0,0 +1,16 @@
+package org.devquality.persistence.sync;
+
+import org.devquality.persistence.entites.Product;
+
+import java.util.List;
+
+/**
+ * Página de cambios de la sincronización incremental
+ *
+ * @param updated productos creados o modificados, en orden de transacción (change_xid, id)
+ * @param deleted ids eliminados, en orden de transacción (change_xid, id)
+ * @param next posición desde la que pedir la siguiente página
+ * @param hasMore true si quedan cambios pendientes hasta el horizonte actual
+ */
+public record ProductChangeSet(List<Product> updated, List<Long> deleted, SyncToken next, boolean hasMore) {
+}
@@ -0,0 +1,197 @@
+package org.devquality.persistence.sync;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecturas de la sincronización incremental (productos modificados + lápidas).
+ *
+ * El cursor es (change_xid, id): el xid de la transacción que escribió la fila. Solo se entregan
+ * filas con xid menor que el más antiguo todavía en curso (pg_snapshot_xmin), así que una
+ * transacción que confirma tarde siempre queda por delante del cursor: como mucho retrasa la
+ * entrega de los cambios posteriores mientras sigue abierta, pero ninguno se pierde.
+ * Ambas consultas son recorridos de índice por (change_xid, id) a partir del token.
+ */
+public class ProductSyncRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSyncRepository.class);
+
+    private static final String SELECT_UPDATED_PRODUCTS =
+            "SELECT " + ProductRowMapper.COLUMNS + ", change_xid::text FROM products " +
+                    "WHERE (change_xid, id) > (?::xid8, ?) " +
+                    "AND change_xid < pg_snapshot_xmin(pg_current_snapshot()) " +
+                    "ORDER BY change_xid, id LIMIT ?";
+
+    private static final String SELECT_TOMBSTONES =
+            "SELECT id, change_xid::text FROM product_tombstones " +
+                    "WHERE (change_xid, id) > (?::xid8, ?) " +
+                    "AND change_xid < pg_snapshot_xmin(pg_current_snapshot()) " +
+                    "ORDER BY change_xid, id LIMIT ?";
+
+    // La purga solo ve lápidas confirmadas: confirmed_at es posterior a cualquier token emitido sin ellas
+    private static final String CONFIRM_TOMBSTONES =
+            "UPDATE product_tombstones SET confirmed_at = clock_timestamp() WHERE confirmed_at IS NULL";
+
+    private static final String PURGE_TOMBSTONES =
+            "DELETE FROM product_tombstones WHERE id IN (" +
+                    "SELECT id FROM product_tombstones " +
+                    "WHERE confirmed_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond' " +
+                    "ORDER BY confirmed_at, id LIMIT ?)";
+
+    private static final int PURGE_BATCH_SIZE = 10000;
+
+    private final DatabaseConfig databaseConfig;
+    private final long retentionMs;
+
+    public ProductSyncRepository(DatabaseConfig databaseConfig, long retentionMs) {
+        this.databaseConfig = databaseConfig;
+        this.retentionMs = retentionMs;
+    }
+
+    public static ProductSyncRepository fromConfiguration(DatabaseConfig databaseConfig, AppConfiguration appConfig) {
+        return new ProductSyncRepository(
+                databaseConfig,
+                appConfig.getInt("sync.retention-ms", 7 * 24 * 60 * 60 * 1000)
+        );
+    }
+
+    public long getRetentionMs() {
+        return retentionMs;
+    }
+
+    /**
+     * Cambios posteriores a la posición dada, como mucho {@code limit} entre modificados y eliminados
+     *
+     * @throws SyncTokenExpiredException si la posición es anterior a la retención de lápidas
+     */
+    public ProductChangeSet findChangesSince(SyncToken since, int limit) throws SQLException {
+        // Antes de abrir la transacción: el token nunca dice ser posterior a su foto
+        long issuedAt = System.currentTimeMillis();
+        if (since.isOlderThan(retentionMs, issuedAt)) {
+            throw new SyncTokenExpiredException(
+                    "El token de sincronización ha expirado, es necesario resincronizar desde cero");
+        }
+
+        List<Product> products = new ArrayList<>();
+        List<Change> productChanges = new ArrayList<>();
+        List<Change> tombstones = new ArrayList<>();
+
+        try (Connection conn = databaseConfig.getConnection()) {
+            // Una sola transacción de lectura: misma foto y mismo horizonte (xmin) en ambas consultas
+            boolean autoCommit = conn.getAutoCommit();
+            int isolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setReadOnly(true);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_UPDATED_PRODUCTS)) {
+                    bindRange(stmt, since, limit + 1);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Product product = ProductRowMapper.INSTANCE.map(rs);
+                            products.add(product);
+                            productChanges.add(new Change(
+                                    Long.parseLong(rs.getString(ProductRowMapper.COLUMN_COUNT + 1)), product.getId()));
+                        }
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_TOMBSTONES)) {
+                    bindRange(stmt, since, limit + 1);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            tombstones.add(new Change(Long.parseLong(rs.getString(2)), rs.getLong(1)));
+                        }
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setReadOnly(false);
+                conn.setTransactionIsolation(isolation);
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        return merge(since.reissuedAt(issuedAt), products, productChanges, tombstones, limit);
+    }
+
+    /**
+     * Elimina las lápidas anteriores a la retención (por lotes para no bloquear la tabla)
+     *
+     * @return número de lápidas eliminadas
+     */
+    public int purgeExpiredTombstones() throws SQLException {
+        int total = 0;
+        try (Connection conn = databaseConfig.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(CONFIRM_TOMBSTONES)) {
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(PURGE_TOMBSTONES)) {
+                stmt.setLong(1, retentionMs);
+                stmt.setInt(2, PURGE_BATCH_SIZE);
+                int deleted;
+                do {
+                    deleted = stmt.executeUpdate();
+                    total += deleted;
+                } while (deleted == PURGE_BATCH_SIZE);
+            }
+        }
+        return total;
+    }
+
+    private void bindRange(PreparedStatement stmt, SyncToken since, int limit) throws SQLException {
+        stmt.setString(1, Long.toString(since.xid()));
+        stmt.setLong(2, since.id());
+        stmt.setInt(3, limit);
+    }
+
+    /**
+     * Mezcla ambas listas (ya ordenadas) por (xid, id) y corta en {@code limit}
+     *
+     * @param since posición de partida, ya con el instante de emisión de esta página
+     */
+    private static ProductChangeSet merge(SyncToken since, List<Product> products, List<Change> productChanges,
+                                          List<Change> tombstones, int limit) {
+        List<Product> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        SyncToken next = since;
+
+        int p = 0;
+        int t = 0;
+        while (updated.size() + deleted.size() < limit && (p < products.size() || t < tombstones.size())) {
+            boolean takeProduct = t >= tombstones.size()
+                    || (p < products.size() && productChanges.get(p).compareTo(tombstones.get(t)) < 0);
+            Change change;
+            if (takeProduct) {
+                change = productChanges.get(p);
+                updated.add(products.get(p++));
+            } else {
+                change = tombstones.get(t++);
+                deleted.add(change.id());
+            }
+            next = new SyncToken(change.xid(), change.id(), since.issuedAtMillis());
+        }
+
+        boolean hasMore = products.size() + tombstones.size() > limit;
+        logger.debug("🔄 Sync: {} modificados, {} eliminados (más pendientes: {})", updated.size(), deleted.size(), hasMore);
+        return new ProductChangeSet(updated, deleted, next, hasMore);
+    }
+
+    private record Change(long xid, long id) implements Comparable<Change> {
+
+        @Override
+        public int compareTo(Change other) {
+            int comparison = Long.compare(xid, other.xid);
+            return comparison != 0 ? comparison : Long.compare(id, other.id);
+        }
+    }
+}
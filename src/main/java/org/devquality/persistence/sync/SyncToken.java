@@ -0,0 +1,72 @@
+package org.devquality.persistence.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición opaca de la sincronización incremental: último (xid, id) entregado y el instante
+ * en que se emitió. Se codifica en base64url como "v2:xid:id:issuedAtMillis".
+ *
+ * El xid es el de la transacción que escribió la fila (change_xid), así que el orden sigue al
+ * de confirmación; issuedAt solo sirve para saber si las lápidas pendientes pueden haberse purgado.
+ */
+public record SyncToken(long xid, long id, long issuedAtMillis) {
+    private static final String VERSION = "v2";
+
+    /**
+     * Posición inicial: la primera sync recorre todo el catálogo por páginas
+     */
+    public static final SyncToken START = new SyncToken(0, 0, Long.MAX_VALUE);
+
+    /**
+     * @throws IllegalArgumentException si el token no es válido
+     * @throws SyncTokenExpiredException si es un token del formato anterior (por timestamp)
+     */
+    public static SyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token de sincronización inválido");
+        }
+        if (parts.length == 2) {
+            // "epochMicros:id": paginaba por updated_at y puede haber perdido cambios
+            throw new SyncTokenExpiredException(
+                    "El token de sincronización es de una versión anterior, es necesario resincronizar desde cero");
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Token de sincronización inválido");
+        }
+        try {
+            return new SyncToken(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Token de sincronización inválido");
+        }
+    }
+
+    public String encode() {
+        String value = VERSION + ":" + xid + ":" + id + ":" + issuedAtMillis;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public boolean isStart() {
+        return xid == 0 && id == 0;
+    }
+
+    /**
+     * Misma posición emitida en otro instante (una página sin cambios renueva el token)
+     */
+    public SyncToken reissuedAt(long issuedAtMillis) {
+        return new SyncToken(xid, id, issuedAtMillis);
+    }
+
+    /**
+     * true si el token se emitió antes de la retención de lápidas (pueden faltar borrados)
+     */
+    public boolean isOlderThan(long retentionMs, long nowMillis) {
+        return !isStart() && issuedAtMillis < nowMillis - retentionMs;
+    }
+}
@@ -0,0 +1,11 @@
+package org.devquality.persistence.sync;
+
+/**
+ * El token es anterior a la retención de lápidas: el cliente debe resincronizar desde cero
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
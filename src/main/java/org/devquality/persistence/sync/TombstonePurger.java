@@ -0,0 +1,58 @@
+package org.devquality.persistence.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purga periódica de las lápidas de productos anteriores a la retención de la sync
+ */
+public class TombstonePurger {
+    private static final Logger logger = LoggerFactory.getLogger(TombstonePurger.class);
+
+    private final ProductSyncRepository syncRepository;
+    private final long intervalMs;
+    private final ScheduledExecutorService scheduler;
+
+    public TombstonePurger(ProductSyncRepository syncRepository, long intervalMs) {
+        this.syncRepository = syncRepository;
+        this.intervalMs = intervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tombstone-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::purge, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("🪦 Purga de lápidas iniciada (cada {}ms, retención {}ms)", intervalMs,
+                syncRepository.getRetentionMs());
+    }
+
+    private void purge() {
+        try {
+            int purged = syncRepository.purgeExpiredTombstones();
+            if (purged > 0) {
+                logger.info("🪦 {} lápidas de productos purgadas", purged);
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ No se pudieron purgar las lápidas: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("❌ Error inesperado purgando lápidas: {}", e.getMessage(), e);
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
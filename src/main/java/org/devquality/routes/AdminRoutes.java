@@ -0,0 +1,34 @@
+package org.devquality.routes;
+
+import io.javalin.Javalin;
+import org.devquality.web.controllers.AdminController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AdminRoutes {
+    private static final Logger logger = LoggerFactory.getLogger(AdminRoutes.class);
+    private final AdminController adminController;
+
+    public AdminRoutes(AdminController adminController) {
+        this.adminController = adminController;
+    }
+
+    /**
+     * Configura las rutas de administración
+     */
+    public void configure(Javalin app) {
+        logger.info("🛣️ Configurando rutas de administración...");
+
+        // 🔐 Autorización de todos los endpoints de admin
+        app.before("/api/admin/*", adminController::authorize);
+
+        app.get("/api/admin/config", adminController::getConfig);
+        app.post("/api/admin/config/reload", adminController::reloadConfig);
+        app.get("/api/admin/sql-stats", adminController::getSqlStats);
+        app.post("/api/admin/sql-stats/reset", adminController::resetSqlStats);
+        app.get("/api/admin/db-requests", adminController::getDbRequests);
+        app.post("/api/admin/db-requests/reset", adminController::resetDbRequests);
+
+        logger.info("✅ Rutas de administración configuradas correctamente");
+    }
+}
@@ -1,16 +1,42 @@
 package org.devquality.routes;
 
 import io.javalin.Javalin;
+import org.devquality.web.controllers.ProductChangeController;
 import org.devquality.web.controllers.ProductController;
+import org.devquality.web.controllers.ProductSnapshotController;
+import org.devquality.web.controllers.ProductStatsController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ProductRoutes {
     private static final Logger logger = LoggerFactory.getLogger(ProductRoutes.class);
+    /** Stream SSE de cambios: conexiones de larga duración, fuera del drenado del apagado */
+    public static final String CHANGES_PATH = "/api/products/changes";
     private final ProductController productController;
+    private final ProductChangeController productChangeController;
+    private final ProductSnapshotController productSnapshotController;
+    private final ProductStatsController productStatsController;
 
     public ProductRoutes(ProductController productController) {
+        this(productController, null);
+    }
+
+    public ProductRoutes(ProductController productController, ProductChangeController productChangeController) {
+        this(productController, productChangeController, null);
+    }
+
+    public ProductRoutes(ProductController productController, ProductChangeController productChangeController,
+                         ProductSnapshotController productSnapshotController) {
+        this(productController, productChangeController, productSnapshotController, null);
+    }
+
+    public ProductRoutes(ProductController productController, ProductChangeController productChangeController,
+                         ProductSnapshotController productSnapshotController,
+                         ProductStatsController productStatsController) {
         this.productController = productController;
+        this.productChangeController = productChangeController;
+        this.productSnapshotController = productSnapshotController;
+        this.productStatsController = productStatsController;
     }
 
     /**
@@ -25,6 +51,22 @@ public class ProductRoutes {
         // 🔍 Rutas de búsqueda (DEBEN IR ANTES que las rutas con {id})
         app.get("/api/products/search", productController::searchProductsByName);
         app.get("/api/products/price-range", productController::getProductsByPriceRange);
+        app.get("/api/products/sync", productController::syncProducts);
+
+        // 📡 Stream SSE de cambios (si está habilitado)
+        if (productChangeController != null) {
+            app.sse(CHANGES_PATH, productChangeController::streamChanges);
+        }
+
+        // 📸 Catálogo completo materializado en disco (si está habilitado)
+        if (productSnapshotController != null) {
+            app.get("/api/products/snapshot", productSnapshotController::getSnapshot);
+        }
+
+        // 📊 Estadísticas agregadas del catálogo (si están habilitadas)
+        if (productStatsController != null) {
+            app.get("/api/products/stats", productStatsController::getStats);
+        }
 
         // 📦 Rutas CRUD principales de productos
         app.get("/api/products", productController::getAllProducts);           // GET - Obtener todos los productos
@@ -44,12 +86,23 @@ public class ProductRoutes {
         logger.info("📋 Rutas de productos disponibles:");
         logger.info("  GET    /api/products/health           - Health check de productos");
         logger.info("  GET    /api/products                  - Obtener todos los productos");
+        logger.info("  GET    /api/products?page=0&size=20   - Obtener productos paginados");
         logger.info("  POST   /api/products                  - Crear nuevo producto");
         logger.info("  GET    /api/products/:id              - Obtener producto por ID");
         logger.info("  PUT    /api/products/:id              - Actualizar producto");
         logger.info("  DELETE /api/products/:id              - Eliminar producto");
         logger.info("  GET    /api/products/search?name=...  - Buscar productos por nombre");
         logger.info("  GET    /api/products/price-range?min=...&max=... - Buscar por rango de precio");
+        logger.info("  GET    /api/products/sync?since=...   - Cambios desde el token (sync incremental)");
+        if (productChangeController != null) {
+            logger.info("  GET    /api/products/changes          - Stream SSE de cambios de productos");
+        }
+        if (productSnapshotController != null) {
+            logger.info("  GET    /api/products/snapshot         - Catálogo completo (ETag, Range, gzip)");
+        }
+        if (productStatsController != null) {
+            logger.info("  GET    /api/products/stats            - Estadísticas agregadas del catálogo");
+        }
     }
 
     /**
@@ -66,6 +119,16 @@ public class ProductRoutes {
         logger.info("   curl http://localhost:{}/api/products/search?name=laptop", port);
         logger.info("   curl http://localhost:{}/api/products/price-range?min=100&max=1000", port);
 
+        logger.info("🔄 Sincronizar cambios:");
+        logger.info("   curl http://localhost:{}/api/products/sync", port);
+        logger.info("   curl http://localhost:{}/api/products/sync?since=<nextToken>", port);
+
+        logger.info("📸 Descargar el catálogo completo (reanudable):");
+        logger.info("   curl -C - --compressed -o catalog.json http://localhost:{}/api/products/snapshot", port);
+
+        logger.info("📡 Escuchar cambios:");
+        logger.info("   curl -N http://localhost:{}/api/products/changes", port);
+
         logger.info("🔄 Actualizar producto:");
         logger.info("   curl -X PUT http://localhost:{}/api/products/1 \\", port);
         logger.info("   -H \"Content-Type: application/json\" \\");
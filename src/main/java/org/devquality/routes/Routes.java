@@ -2,23 +2,56 @@ package org.devquality.routes;
 
 import io.javalin.Javalin;
 import io.javalin.http.HttpStatus;
+import org.devquality.config.AppConfiguration;
 import org.devquality.config.DatabaseConfig;
+import org.devquality.config.DatabaseExecutor;
+import org.devquality.config.PipelinedDatabaseConfig;
+import org.devquality.config.ReadinessState;
+import org.devquality.events.ProductChangeBroadcaster;
+import org.devquality.events.ProductChangeListener;
+import org.devquality.health.HealthProber;
+import org.devquality.persistence.batching.ProductInsertCoalescer;
+import org.devquality.persistence.cache.ProductQueryCache;
+import org.devquality.persistence.counting.CountStrategy;
+import org.devquality.persistence.partitioning.ProductPartitionMaintainer;
 import org.devquality.persistence.repositories.IProductRepository;
 import org.devquality.persistence.repositories.IUserRepository;
+import org.devquality.persistence.repositories.impl.PipelinedProductRepository;
+import org.devquality.persistence.repositories.impl.PipelinedUserRepository;
 import org.devquality.persistence.repositories.impl.ProductRepository;
 import org.devquality.persistence.repositories.impl.UserRepositoryImpl;
+import org.devquality.persistence.snapshot.CatalogSnapshotJob;
+import org.devquality.persistence.stats.CatalogStatsRefresher;
+import org.devquality.persistence.sync.ProductSyncRepository;
+import org.devquality.persistence.sync.TombstonePurger;
 import org.devquality.services.IProductService;
 import org.devquality.services.IUserService;
 import org.devquality.services.impl.ProductServiceImpl;
 import org.devquality.services.impl.UserServiceImpl;
+import org.devquality.web.controllers.AdminController;
+import org.devquality.web.controllers.ProductChangeController;
 import org.devquality.web.controllers.ProductController;
+import org.devquality.web.controllers.ProductSnapshotController;
+import org.devquality.web.controllers.ProductStatsController;
+import org.devquality.web.controllers.ReadinessController;
 import org.devquality.web.controllers.UserController;
+import org.devquality.web.middleware.ContentNegotiation;
+import org.devquality.web.middleware.DbRequestAccounting;
+import org.devquality.web.middleware.ServerTiming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class Routes {
     private static final Logger logger = LoggerFactory.getLogger(Routes.class);
     private final DatabaseConfig databaseConfig;
+    private ProductChangeBroadcaster productChangeBroadcaster;
+    private ProductChangeListener productChangeListener;
+    private ProductInsertCoalescer productInsertCoalescer;
+    private HealthProber healthProber;
+    private TombstonePurger tombstonePurger;
+    private CatalogSnapshotJob catalogSnapshotJob;
+    private CatalogStatsRefresher catalogStatsRefresher;
+    private ProductPartitionMaintainer productPartitionMaintainer;
 
     public Routes(DatabaseConfig databaseConfig) {
         this.databaseConfig = databaseConfig;
@@ -30,24 +63,98 @@ public class Routes {
     public void configureRoutes(Javalin app) {
         logger.info("🌐 Configurando todas las rutas de la aplicación...");
 
+        AppConfiguration appConfig = AppConfiguration.getInstance();
+
+        // 🧵 Executor acotado para las operaciones de base de datos
+        DatabaseExecutor databaseExecutor = DatabaseExecutor.getInstance();
+
+        ProductQueryCache productQueryCache = ProductQueryCache.fromConfiguration(appConfig);
+        CountStrategy countStrategy = CountStrategy.fromValue(appConfig.get("db.count-strategy"));
+
+        // 🗄️ Repositorios según el driver configurado (JDBC o cliente con pipelining)
+        IUserRepository userRepository;
+        IProductRepository productRepository;
+        if ("pipelined".equalsIgnoreCase(appConfig.get("db.driver", "jdbc"))) {
+            logger.info("🚀 Usando repositorios con pipelining (cliente PostgreSQL no bloqueante)");
+            PipelinedDatabaseConfig pipelinedConfig = PipelinedDatabaseConfig.getInstance();
+            userRepository = new PipelinedUserRepository(pipelinedConfig);
+            productRepository = new PipelinedProductRepository(pipelinedConfig, productQueryCache, countStrategy);
+        } else {
+            if (appConfig.getBoolean("db.write-coalescer.enabled", false)) {
+                productInsertCoalescer = ProductInsertCoalescer.fromConfiguration(databaseConfig, appConfig);
+            }
+            userRepository = new UserRepositoryImpl(databaseConfig);
+            productRepository = new ProductRepository(databaseConfig, productQueryCache, countStrategy,
+                    productInsertCoalescer);
+        }
+
+        // 🩺 Sondeo de salud en segundo plano (los endpoints de health leen su foto)
+        healthProber = HealthProber.fromConfiguration(databaseConfig, appConfig);
+        healthProber.start();
+
         // 🔧 Inyección de dependencias manual para Users
-        IUserRepository userRepository = new UserRepositoryImpl(databaseConfig);
-        IUserService userService = new UserServiceImpl(userRepository);
-        UserController userController = new UserController(userService);
+        IUserService userService = new UserServiceImpl(userRepository, databaseExecutor);
+        UserController userController = new UserController(userService, healthProber);
+
+        // 🗂️ Particiones mensuales de products (creación anticipada y retención)
+        if (appConfig.getBoolean("partitions.maintenance.enabled", true)) {
+            productPartitionMaintainer = ProductPartitionMaintainer.fromConfiguration(databaseConfig, appConfig);
+            productPartitionMaintainer.start();
+        }
+
+        // 🔄 Sincronización incremental (lápidas de borrados + purga periódica)
+        ProductSyncRepository productSyncRepository = ProductSyncRepository.fromConfiguration(databaseConfig, appConfig);
+        tombstonePurger = new TombstonePurger(productSyncRepository, appConfig.getInt("sync.purge-interval-ms", 3600000));
+        tombstonePurger.start();
 
         // 🔧 Inyección de dependencias manual para Products
-        IProductRepository productRepository = new ProductRepository(databaseConfig);
-        IProductService productService = new ProductServiceImpl(productRepository);
-        ProductController productController = new ProductController(productService);
+        IProductService productService = new ProductServiceImpl(productRepository, databaseExecutor, productSyncRepository);
+        ProductController productController = new ProductController(productService, healthProber);
+
+        // 📡 Stream de cambios de productos (LISTEN/NOTIFY -> SSE)
+        ProductChangeController productChangeController = null;
+        if (appConfig.getBoolean("events.products.enabled", true)) {
+            productChangeBroadcaster = ProductChangeBroadcaster.fromConfiguration(appConfig);
+            productChangeListener = new ProductChangeListener(databaseConfig, productChangeBroadcaster,
+                    productQueryCache, appConfig.getInt("events.products.poll-ms", 500));
+            productChangeListener.start();
+            productChangeController = new ProductChangeController(productChangeBroadcaster);
+        }
+
+        // 📸 Foto del catálogo en disco para descargas completas
+        ProductSnapshotController productSnapshotController = null;
+        if (appConfig.getBoolean("snapshot.enabled", true)) {
+            catalogSnapshotJob = CatalogSnapshotJob.fromConfiguration(databaseConfig, appConfig);
+            catalogSnapshotJob.start();
+            productSnapshotController = new ProductSnapshotController(catalogSnapshotJob);
+        }
+
+        // 📊 Estadísticas del catálogo (vistas materializadas refrescadas en segundo plano)
+        ProductStatsController productStatsController = null;
+        if (appConfig.getBoolean("stats.enabled", true)) {
+            catalogStatsRefresher = CatalogStatsRefresher.fromConfiguration(databaseConfig, appConfig);
+            catalogStatsRefresher.start();
+            productStatsController = new ProductStatsController(catalogStatsRefresher);
+        }
 
         // 📋 Configurar rutas de usuarios
         UserRoutes userRoutes = new UserRoutes(userController);
         userRoutes.configure(app);
 
         // 📦 Configurar rutas de productos
-        ProductRoutes productRoutes = new ProductRoutes(productController);
+        ProductRoutes productRoutes = new ProductRoutes(productController, productChangeController,
+                productSnapshotController, productStatsController);
         productRoutes.configure(app);
 
+        // 🔐 Configurar rutas de administración
+        AdminRoutes adminRoutes = new AdminRoutes(new AdminController(appConfig, databaseConfig.getSqlStats(),
+                DbRequestAccounting.getInstance()));
+        adminRoutes.configure(app);
+
+        // 🚦 Readiness (separado de /api/health: 503 hasta terminar el warm-up)
+        ReadinessController readinessController = new ReadinessController(ReadinessState.getInstance());
+        app.get("/ready", readinessController::ready);
+
         // 🏠 Ruta de bienvenida principal
         configureWelcomeRoute(app);
 
@@ -57,9 +164,46 @@ public class Routes {
         // 🔍 Configurar middleware de logging
         configureLoggingMiddleware(app);
 
+        // 📦 Respuestas en Smile/CBOR si el cliente las pide en Accept
+        app.after(ContentNegotiation::encodeResponse);
+
+        // ⏱️ Server-Timing: después de encodeResponse para incluir la serialización
+        ServerTiming.getInstance().register(app);
+
         logger.info("✅ Todas las rutas configuradas correctamente");
     }
 
+    /**
+     * Detiene los componentes en segundo plano creados al configurar las rutas.
+     * Debe llamarse después de vaciar el executor de BD (escribe las inserciones agrupadas pendientes).
+     */
+    public void shutdown() {
+        if (productInsertCoalescer != null) {
+            productInsertCoalescer.shutdown(5000);
+        }
+        if (productChangeListener != null) {
+            productChangeListener.stop();
+        }
+        if (productChangeBroadcaster != null) {
+            productChangeBroadcaster.shutdown();
+        }
+        if (tombstonePurger != null) {
+            tombstonePurger.shutdown();
+        }
+        if (catalogSnapshotJob != null) {
+            catalogSnapshotJob.shutdown();
+        }
+        if (catalogStatsRefresher != null) {
+            catalogStatsRefresher.shutdown();
+        }
+        if (productPartitionMaintainer != null) {
+            productPartitionMaintainer.shutdown();
+        }
+        if (healthProber != null) {
+            healthProber.shutdown();
+        }
+    }
+
     /**
      * Configura la ruta de bienvenida principal
      */
@@ -81,12 +225,17 @@ public class Routes {
                             ),
                             "products", java.util.List.of(
                                     "GET /api/products - Listar productos",
+                                    "GET /api/products?page=0&size=20 - Listar productos paginados",
                                     "POST /api/products - Crear producto",
                                     "GET /api/products/{id} - Obtener producto",
                                     "PUT /api/products/{id} - Actualizar producto",
                                     "DELETE /api/products/{id} - Eliminar producto",
                                     "GET /api/products/search?name=... - Buscar por nombre",
                                     "GET /api/products/price-range?min=...&max=... - Buscar por precio",
+                                    "GET /api/products/changes - Stream SSE de cambios",
+                                    "GET /api/products/sync?since=... - Cambios desde el token",
+                                    "GET /api/products/snapshot - Catálogo completo (ETag, Range, gzip)",
+                                    "GET /api/products/stats - Estadísticas agregadas del catálogo",
                                     "GET /api/products/health - Health check productos"
                             )
                     ),
@@ -139,7 +288,8 @@ public class Routes {
                     "method", ctx.method(),
                     "available_endpoints", java.util.Map.of(
                             "general", java.util.List.of(
-                                    "GET /"
+                                    "GET /",
+                                    "GET /ready"
                             ),
                             "users", java.util.List.of(
                                     "GET /api/health",
@@ -155,7 +305,19 @@ public class Routes {
                                     "PUT /api/products/{id}",
                                     "DELETE /api/products/{id}",
                                     "GET /api/products/search?name=...",
-                                    "GET /api/products/price-range?min=...&max=..."
+                                    "GET /api/products/price-range?min=...&max=...",
+                                    "GET /api/products/changes",
+                                    "GET /api/products/sync?since=...",
+                                    "GET /api/products/snapshot",
+                                    "GET /api/products/stats"
+                            ),
+                            "admin", java.util.List.of(
+                                    "GET /api/admin/config",
+                                    "POST /api/admin/config/reload",
+                                    "GET /api/admin/sql-stats",
+                                    "POST /api/admin/sql-stats/reset",
+                                    "GET /api/admin/db-requests",
+                                    "POST /api/admin/db-requests/reset"
                             )
                     )
             ));
@@ -210,6 +372,7 @@ public class Routes {
         logger.info("🚀 APLICACIÓN INICIADA CORRECTAMENTE");
         logger.info("🌟 ================================");
         logger.info("🌐 URL: http://localhost:{}", port);
+        logger.info("🚦 Readiness: http://localhost:{}/ready", port);
 
         logger.info("👥 Endpoints de USUARIOS:");
         logger.info("   GET    http://localhost:{}/api/health       - Health check", port);
@@ -226,6 +389,18 @@ public class Routes {
         logger.info("   DELETE http://localhost:{}/api/products/1    - Eliminar producto", port);
         logger.info("   GET    http://localhost:{}/api/products/search?name=laptop - Buscar por nombre", port);
         logger.info("   GET    http://localhost:{}/api/products/price-range?min=100&max=1000 - Buscar por precio", port);
+        logger.info("   GET    http://localhost:{}/api/products/changes - Stream SSE de cambios", port);
+        logger.info("   GET    http://localhost:{}/api/products/sync - Sincronización incremental", port);
+        logger.info("   GET    http://localhost:{}/api/products/snapshot - Catálogo completo", port);
+        logger.info("   GET    http://localhost:{}/api/products/stats - Estadísticas del catálogo", port);
+
+        logger.info("🔐 Endpoints de ADMINISTRACIÓN (header X-Admin-Token):");
+        logger.info("   GET    http://localhost:{}/api/admin/config        - Configuración vigente", port);
+        logger.info("   POST   http://localhost:{}/api/admin/config/reload - Recargar configuración", port);
+        logger.info("   GET    http://localhost:{}/api/admin/sql-stats     - Top N sentencias SQL", port);
+        logger.info("   POST   http://localhost:{}/api/admin/sql-stats/reset - Reiniciar estadísticas SQL", port);
+        logger.info("   GET    http://localhost:{}/api/admin/db-requests   - Accesos a la BD por ruta", port);
+        logger.info("   POST   http://localhost:{}/api/admin/db-requests/reset - Reiniciar accesos por ruta", port);
 
         logger.info("🌟 ================================");
         logger.info("💡 Ejemplos de uso:");
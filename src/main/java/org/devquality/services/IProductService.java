@@ -1,28 +1,60 @@
 package org.devquality.services;
 
+import org.devquality.persistence.counting.RowCount;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.sync.ProductChangeSet;
 import org.devquality.web.dtos.products.request.CreateProductRequest;
 import org.devquality.web.dtos.products.request.UpdateProductRequest;
 import org.devquality.web.dtos.products.response.CreateProductResponse;
 import org.devquality.web.dtos.products.response.DeletedBaseResponse;
-import org.devquality.web.dtos.products.response.GetProductResponse;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 public interface IProductService {
 
     CreateProductResponse createProduct(CreateProductRequest request) throws SQLException;
 
-    List<GetProductResponse> getAllProducts() throws SQLException;
+    List<Product> getAllProducts(FieldSelection fields) throws SQLException;
 
-    GetProductResponse getProductById(Long id) throws SQLException;
+    List<Product> getProductsPage(int page, int size, FieldSelection fields) throws SQLException;
 
-    GetProductResponse updateProduct(Long id, UpdateProductRequest request) throws SQLException;
+    RowCount countProducts() throws SQLException;
+
+    Product getProductById(Long id, FieldSelection fields) throws SQLException;
+
+    Product updateProduct(Long id, UpdateProductRequest request) throws SQLException;
 
     DeletedBaseResponse deleteProductById(Long id) throws SQLException;
 
-    List<GetProductResponse> searchProductsByName(String namePattern) throws SQLException;
+    List<Product> searchProductsByName(String namePattern, FieldSelection fields) throws SQLException;
+
+    List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields) throws SQLException;
+
+    ProductChangeSet getProductChanges(String sinceToken, int limit) throws SQLException;
+
+    // ⚡ Variantes asíncronas (se ejecutan en el executor de base de datos)
+
+    CompletionStage<CreateProductResponse> createProductAsync(CreateProductRequest request);
+
+    CompletionStage<List<Product>> getAllProductsAsync(FieldSelection fields);
+
+    CompletionStage<List<Product>> getProductsPageAsync(int page, int size, FieldSelection fields);
+
+    CompletionStage<RowCount> countProductsAsync();
+
+    CompletionStage<Product> getProductByIdAsync(Long id, FieldSelection fields);
+
+    CompletionStage<Product> updateProductAsync(Long id, UpdateProductRequest request);
+
+    CompletionStage<DeletedBaseResponse> deleteProductByIdAsync(Long id);
+
+    CompletionStage<List<Product>> searchProductsByNameAsync(String namePattern, FieldSelection fields);
+
+    CompletionStage<List<Product>> getProductsByPriceRangeAsync(BigDecimal minPrice, BigDecimal maxPrice, FieldSelection fields);
 
-    List<GetProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) throws SQLException;
-}
\ No newline at end of file
+    CompletionStage<ProductChangeSet> getProductChangesAsync(String sinceToken, int limit);
+}
@@ -1,13 +1,24 @@
 package org.devquality.services;
 
 import org.devquality.persistence.entites.User;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.web.dtos.users.request.CreaterUserRequest;
 import org.devquality.web.dtos.users.response.CreateUserResponse;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 public interface IUserService {
     CreateUserResponse createUser(CreaterUserRequest user) throws SQLException;
-    List<User> getAllUsers() throws SQLException;
-    User getUserById(Long id) throws SQLException;}
+    List<User> getAllUsers(FieldSelection fields) throws SQLException;
+    User getUserById(Long id, FieldSelection fields) throws SQLException;
+
+    // ⚡ Variantes asíncronas (se ejecutan en el executor de base de datos)
+
+    CompletionStage<CreateUserResponse> createUserAsync(CreaterUserRequest user);
+
+    CompletionStage<List<User>> getAllUsersAsync(FieldSelection fields);
+
+    CompletionStage<User> getUserByIdAsync(Long id, FieldSelection fields);
+}
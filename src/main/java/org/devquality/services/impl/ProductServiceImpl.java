@@ -1,27 +1,44 @@
 package org.devquality.services.impl;
 
+import org.devquality.config.DatabaseExecutor;
+import org.devquality.persistence.counting.RowCount;
 import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.persistence.repositories.IProductRepository;
+import org.devquality.persistence.sync.ProductChangeSet;
+import org.devquality.persistence.sync.ProductSyncRepository;
+import org.devquality.persistence.sync.SyncToken;
 import org.devquality.services.IProductService;
 import org.devquality.web.dtos.core.response.BaseResponse;
 import org.devquality.web.dtos.products.request.CreateProductRequest;
 import org.devquality.web.dtos.products.request.UpdateProductRequest;
 import org.devquality.web.dtos.products.response.CreateProductResponse;
 import org.devquality.web.dtos.products.response.DeletedBaseResponse;
-import org.devquality.web.dtos.products.response.GetProductResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 public class ProductServiceImpl implements IProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
     private final IProductRepository productRepository;
+    private final DatabaseExecutor databaseExecutor;
+    private final ProductSyncRepository syncRepository;
 
-    public ProductServiceImpl(IProductRepository productRepository) {
+    public ProductServiceImpl(IProductRepository productRepository, DatabaseExecutor databaseExecutor) {
+        this(productRepository, databaseExecutor, null);
+    }
+
+    /**
+     * @param syncRepository lecturas de la sincronización incremental (null = no disponible)
+     */
+    public ProductServiceImpl(IProductRepository productRepository, DatabaseExecutor databaseExecutor,
+                              ProductSyncRepository syncRepository) {
         this.productRepository = productRepository;
+        this.databaseExecutor = databaseExecutor;
+        this.syncRepository = syncRepository;
     }
 
     @Override
@@ -62,58 +79,62 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
-    public List<GetProductResponse> getAllProducts() throws SQLException {
+    public List<Product> getAllProducts(FieldSelection fields) throws SQLException {
         logger.debug("📋 Obteniendo todos los productos desde el servicio");
 
-        List<Product> products = productRepository.findAll();
-        List<GetProductResponse> responses = new ArrayList<>();
+        List<Product> products = productRepository.findAll(fields);
+        logger.info("✅ {} productos obtenidos desde el servicio", products.size());
+        return products;
+    }
+
+    @Override
+    public List<Product> getProductsPage(int page, int size, FieldSelection fields) throws SQLException {
+        logger.debug("📋 Obteniendo página {} de productos (tamaño {})", page, size);
+
+        if (page < 0) {
+            throw new IllegalArgumentException("La página debe ser mayor o igual a 0");
+        }
+
+        if (size <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0");
+        }
 
-        for (Product product : products) {
-            GetProductResponse response = GetProductResponse.builder()
-                    .id(product.getId())
-                    .name(product.getName())
-                    .price(product.getPrice())
-                    .description(product.getDescription())
-                    .createdAt(product.getCreatedAt())
-                    .updatedAt(product.getUpdatedAt())
-                    .build();
-            responses.add(response);
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("La página " + page + " está fuera de rango para el tamaño " + size);
         }
 
-        logger.info("✅ {} productos obtenidos desde el servicio", responses.size());
-        return responses;
+        List<Product> products = productRepository.findPage((int) offset, size, fields);
+        logger.info("✅ {} productos obtenidos en la página {}", products.size(), page);
+        return products;
     }
 
     @Override
-    public GetProductResponse getProductById(Long id) throws SQLException {
+    public RowCount countProducts() throws SQLException {
+        return productRepository.countProducts();
+    }
+
+    @Override
+    public Product getProductById(Long id, FieldSelection fields) throws SQLException {
         logger.debug("🔍 Obteniendo producto por ID: {}", id);
 
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
 
-        Product product = productRepository.findById(id);
+        Product product = productRepository.findById(id, fields);
 
         if (product == null) {
             logger.warn("❌ Producto con ID {} no encontrado", id);
             return null;
         }
 
-        GetProductResponse response = GetProductResponse.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .price(product.getPrice())
-                .description(product.getDescription())
-                .createdAt(product.getCreatedAt())
-                .updatedAt(product.getUpdatedAt())
-                .build();
-
         logger.info("✅ Producto encontrado: {} - {}", product.getId(), product.getName());
-        return response;
+        return product;
     }
 
     @Override
-    public GetProductResponse updateProduct(Long id, UpdateProductRequest request) throws SQLException {
+    public Product updateProduct(Long id, UpdateProductRequest request) throws SQLException {
         logger.debug("🔄 Actualizando producto ID: {}", id);
 
         if (id == null || id <= 0) {
@@ -144,17 +165,8 @@ public class ProductServiceImpl implements IProductService {
             throw new SQLException("No se pudo actualizar el producto");
         }
 
-        GetProductResponse response = GetProductResponse.builder()
-                .id(updatedProduct.getId())
-                .name(updatedProduct.getName())
-                .price(updatedProduct.getPrice())
-                .description(updatedProduct.getDescription())
-                .createdAt(updatedProduct.getCreatedAt())
-                .updatedAt(updatedProduct.getUpdatedAt())
-                .build();
-
         logger.info("✅ Producto actualizado exitosamente: {} - ID: {}", updatedProduct.getName(), updatedProduct.getId());
-        return response;
+        return updatedProduct;
     }
 
     @Override
@@ -185,34 +197,21 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
-    public List<GetProductResponse> searchProductsByName(String namePattern) throws SQLException {
+    public List<Product> searchProductsByName(String namePattern, FieldSelection fields) throws SQLException {
         logger.debug("🔍 Buscando productos por nombre: {}", namePattern);
 
         if (namePattern == null || namePattern.trim().isEmpty()) {
             throw new IllegalArgumentException("El patrón de búsqueda no puede estar vacío");
         }
 
-        List<Product> products = productRepository.findByNameContaining(namePattern.trim());
-        List<GetProductResponse> responses = new ArrayList<>();
-
-        for (Product product : products) {
-            GetProductResponse response = GetProductResponse.builder()
-                    .id(product.getId())
-                    .name(product.getName())
-                    .price(product.getPrice())
-                    .description(product.getDescription())
-                    .createdAt(product.getCreatedAt())
-                    .updatedAt(product.getUpdatedAt())
-                    .build();
-            responses.add(response);
-        }
-
-        logger.info("✅ {} productos encontrados con patrón '{}'", responses.size(), namePattern);
-        return responses;
+        List<Product> products = productRepository.findByNameContaining(namePattern.trim(), fields);
+        logger.info("✅ {} productos encontrados con patrón '{}'", products.size(), namePattern);
+        return products;
     }
 
     @Override
-    public List<GetProductResponse> getProductsByPriceRange(java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice) throws SQLException {
+    public List<Product> getProductsByPriceRange(java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice,
+                                                 FieldSelection fields) throws SQLException {
         logger.debug("🔍 Buscando productos entre {} y {}", minPrice, maxPrice);
 
         if (minPrice == null || maxPrice == null) {
@@ -227,22 +226,77 @@ public class ProductServiceImpl implements IProductService {
             throw new IllegalArgumentException("El precio mínimo debe ser mayor o igual a 0");
         }
 
-        List<Product> products = productRepository.findByPriceBetween(minPrice, maxPrice);
-        List<GetProductResponse> responses = new ArrayList<>();
+        List<Product> products = productRepository.findByPriceBetween(minPrice, maxPrice, fields);
+        logger.info("✅ {} productos encontrados en rango de precio", products.size());
+        return products;
+    }
+
+    @Override
+    public ProductChangeSet getProductChanges(String sinceToken, int limit) throws SQLException {
+        if (syncRepository == null) {
+            throw new IllegalStateException("La sincronización incremental no está configurada");
+        }
 
-        for (Product product : products) {
-            GetProductResponse response = GetProductResponse.builder()
-                    .id(product.getId())
-                    .name(product.getName())
-                    .price(product.getPrice())
-                    .description(product.getDescription())
-                    .createdAt(product.getCreatedAt())
-                    .updatedAt(product.getUpdatedAt())
-                    .build();
-            responses.add(response);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0");
         }
 
-        logger.info("✅ {} productos encontrados en rango de precio", responses.size());
-        return responses;
+        SyncToken since = SyncToken.decode(sinceToken);
+        logger.debug("🔄 Obteniendo cambios de productos desde {}", since.isStart() ? "el inicio" : since);
+
+        ProductChangeSet changes = syncRepository.findChangesSince(since, limit);
+        logger.info("✅ Sync de productos: {} modificados, {} eliminados", changes.updated().size(), changes.deleted().size());
+        return changes;
+    }
+
+    @Override
+    public CompletionStage<CreateProductResponse> createProductAsync(CreateProductRequest request) {
+        return databaseExecutor.supplyAsync(() -> createProduct(request));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getAllProductsAsync(FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> getAllProducts(fields));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getProductsPageAsync(int page, int size, FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> getProductsPage(page, size, fields));
+    }
+
+    @Override
+    public CompletionStage<RowCount> countProductsAsync() {
+        return databaseExecutor.supplyAsync(this::countProducts);
+    }
+
+    @Override
+    public CompletionStage<Product> getProductByIdAsync(Long id, FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> getProductById(id, fields));
+    }
+
+    @Override
+    public CompletionStage<Product> updateProductAsync(Long id, UpdateProductRequest request) {
+        return databaseExecutor.supplyAsync(() -> updateProduct(id, request));
+    }
+
+    @Override
+    public CompletionStage<DeletedBaseResponse> deleteProductByIdAsync(Long id) {
+        return databaseExecutor.supplyAsync(() -> deleteProductById(id));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> searchProductsByNameAsync(String namePattern, FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> searchProductsByName(namePattern, fields));
+    }
+
+    @Override
+    public CompletionStage<List<Product>> getProductsByPriceRangeAsync(java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice,
+                                                                         FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> getProductsByPriceRange(minPrice, maxPrice, fields));
+    }
+
+    @Override
+    public CompletionStage<ProductChangeSet> getProductChangesAsync(String sinceToken, int limit) {
+        return databaseExecutor.supplyAsync(() -> getProductChanges(sinceToken, limit));
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,9 @@
 package org.devquality.services.impl;
 
+import org.devquality.config.DatabaseExecutor;
 import org.devquality.persistence.entites.User;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.persistence.repositories.IUserRepository;
-import org.devquality.persistence.repositories.impl.UserRepositoryImpl;
 import org.devquality.services.IUserService;
 import org.devquality.web.dtos.users.request.CreaterUserRequest;
 import org.devquality.web.dtos.users.response.CreateUserResponse;
@@ -11,13 +12,16 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 public class UserServiceImpl implements IUserService {
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     private final IUserRepository userRepository;
+    private final DatabaseExecutor databaseExecutor;
 
-    public UserServiceImpl(IUserRepository userRepository) {
+    public UserServiceImpl(IUserRepository userRepository, DatabaseExecutor databaseExecutor) {
         this.userRepository = userRepository;
+        this.databaseExecutor = databaseExecutor;
     }
 
     @Override
@@ -33,12 +37,9 @@ public class UserServiceImpl implements IUserService {
             throw new IllegalArgumentException("El email es obligatorio");
         }
 
-        // Verificar si el usuario ya existe (si el repository tiene este método)
-        if (userRepository instanceof UserRepositoryImpl) {
-            UserRepositoryImpl repo = (UserRepositoryImpl) userRepository;
-            if (repo.existsByEmail(user.getEmail())) {
-                throw new IllegalArgumentException("Ya existe un usuario con ese email");
-            }
+        // Verificar si el usuario ya existe
+        if (userRepository.existsByEmail(user.getEmail())) {
+            throw new IllegalArgumentException("Ya existe un usuario con ese email");
         }
 
         // Guardar usuario
@@ -55,37 +56,46 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
-    public List<User> getAllUsers() throws SQLException {
+    public List<User> getAllUsers(FieldSelection fields) throws SQLException {
         logger.debug("📋 Obteniendo todos los usuarios desde el servicio");
 
-        List<User> users = userRepository.findAllUsers();
+        List<User> users = userRepository.findAllUsers(fields);
 
         logger.info("✅ {} usuarios obtenidos desde el servicio", users.size());
         return users;
     }
 
     @Override
-    public User getUserById(Long id) throws SQLException {
+    public User getUserById(Long id, FieldSelection fields) throws SQLException {
         logger.debug("🔍 Obteniendo usuario por ID: {}", id);
 
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
 
-        // Verificar si el repository tiene el método findById
-        if (userRepository instanceof UserRepositoryImpl) {
-            UserRepositoryImpl repo = (UserRepositoryImpl) userRepository;
-            User user = repo.findById(id);
+        User user = userRepository.findById(id, fields);
 
-            if (user == null) {
-                logger.warn("❌ Usuario con ID {} no encontrado", id);
-                return null;
-            }
-
-            logger.info("✅ Usuario encontrado: {} - {}", user.getId(), user.getEmail());
-            return user;
-        } else {
-            throw new UnsupportedOperationException("Método findById no disponible en esta implementación del repository");
+        if (user == null) {
+            logger.warn("❌ Usuario con ID {} no encontrado", id);
+            return null;
         }
+
+        logger.info("✅ Usuario encontrado: {} - {}", user.getId(), user.getEmail());
+        return user;
+    }
+
+    @Override
+    public CompletionStage<CreateUserResponse> createUserAsync(CreaterUserRequest user) {
+        return databaseExecutor.supplyAsync(() -> createUser(user));
+    }
+
+    @Override
+    public CompletionStage<List<User>> getAllUsersAsync(FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> getAllUsers(fields));
+    }
+
+    @Override
+    public CompletionStage<User> getUserByIdAsync(Long id, FieldSelection fields) {
+        return databaseExecutor.supplyAsync(() -> getUserById(id, fields));
     }
-}
\ No newline at end of file
+}
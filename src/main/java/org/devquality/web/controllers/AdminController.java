@@ -0,0 +1,186 @@
+package org.devquality.web.controllers;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.ConfigSnapshot;
+import org.devquality.persistence.instrumentation.SqlStatementSummary;
+import org.devquality.persistence.instrumentation.SqlStatsRegistry;
+import org.devquality.web.middleware.DbRequestAccounting;
+import org.devquality.web.dtos.core.response.BaseResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class AdminController {
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private static final String TOKEN_HEADER = "X-Admin-Token";
+    private static final int DEFAULT_SQL_STATS_TOP = 20;
+    private static final int MAX_SQL_STATS_TOP = 500;
+    private final AppConfiguration appConfig;
+    private final SqlStatsRegistry sqlStats;
+    private final DbRequestAccounting dbRequestAccounting;
+
+    public AdminController(AppConfiguration appConfig) {
+        this(appConfig, null, null);
+    }
+
+    public AdminController(AppConfiguration appConfig, SqlStatsRegistry sqlStats) {
+        this(appConfig, sqlStats, null);
+    }
+
+    /**
+     * @param sqlStats estadísticas por sentencia; null si están deshabilitadas
+     * @param dbRequestAccounting accesos a la BD agregados por ruta; null si no se contabilizan
+     */
+    public AdminController(AppConfiguration appConfig, SqlStatsRegistry sqlStats,
+                           DbRequestAccounting dbRequestAccounting) {
+        this.appConfig = appConfig;
+        this.sqlStats = sqlStats;
+        this.dbRequestAccounting = dbRequestAccounting;
+    }
+
+    /**
+     * Before-handler de /api/admin/*: exige el header X-Admin-Token si ADMIN_TOKEN está configurado;
+     * sin token solo se permite en desarrollo
+     */
+    public void authorize(Context ctx) {
+        String expected = appConfig.get("admin.token", "");
+        if (expected.isEmpty()) {
+            if (!appConfig.isDevelopment()) {
+                logger.warn("🚫 Acceso a admin rechazado: ADMIN_TOKEN no configurado");
+                ctx.status(HttpStatus.FORBIDDEN).json(BaseResponse.error("Endpoints de administración deshabilitados"));
+                ctx.skipRemainingHandlers();
+            }
+            return;
+        }
+
+        String provided = ctx.header(TOKEN_HEADER);
+        if (provided == null || !MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), provided.getBytes(StandardCharsets.UTF_8))) {
+            logger.warn("🚫 Token de admin inválido desde {}", ctx.ip());
+            ctx.status(HttpStatus.UNAUTHORIZED).json(BaseResponse.error("Token de administración inválido"));
+            ctx.skipRemainingHandlers();
+        }
+    }
+
+    /**
+     * GET /api/admin/config - Configuración vigente (sin passwords ni tokens)
+     */
+    public void getConfig(Context ctx) {
+        ConfigSnapshot snapshot = appConfig.snapshot();
+        Map<String, String> values = new TreeMap<>(snapshot.values());
+        values.replaceAll((key, value) -> isSecret(key) ? "****" : value);
+
+        ctx.json(BaseResponse.success(Map.of(
+                "version", snapshot.version(),
+                "values", values
+        ), "Configuración vigente"));
+    }
+
+    /**
+     * POST /api/admin/config/reload - Recarga la configuración y publica la nueva foto
+     */
+    public void reloadConfig(Context ctx) {
+        try {
+            Set<String> changedKeys = appConfig.reload();
+            ctx.json(BaseResponse.success(Map.of(
+                    "version", appConfig.snapshot().version(),
+                    "changedKeys", changedKeys
+            ), changedKeys.isEmpty() ? "Configuración sin cambios" : "Configuración recargada"));
+        } catch (IllegalStateException e) {
+            logger.warn("❌ Reload de configuración rechazado: {}", e.getMessage());
+            ctx.status(HttpStatus.BAD_REQUEST).json(BaseResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/admin/sql-stats?top={n}&sort={total|mean|max|calls|rows|wait} - Sentencias SQL que más pesan
+     */
+    public void getSqlStats(Context ctx) {
+        if (sqlStats == null) {
+            ctx.status(HttpStatus.NOT_IMPLEMENTED).json(BaseResponse.error("Estadísticas SQL deshabilitadas (SQL_STATS_ENABLED=false)"));
+            return;
+        }
+
+        String sort = ctx.queryParam("sort") != null ? ctx.queryParam("sort") : "total";
+        List<SqlStatementSummary> top;
+        try {
+            int limit = parseTop(ctx.queryParam("top"));
+            top = sqlStats.top(limit, sort);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(BaseResponse.error(e.getMessage()));
+            return;
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("statements", sqlStats.size());
+        data.put("totalMs", sqlStats.totalMillis());
+        data.put("sort", sort);
+        data.put("top", top);
+        ctx.json(BaseResponse.success(data, "Top " + top.size() + " sentencias SQL por " + sort));
+    }
+
+    /**
+     * POST /api/admin/sql-stats/reset - Reinicia las estadísticas SQL
+     */
+    public void resetSqlStats(Context ctx) {
+        if (sqlStats == null) {
+            ctx.status(HttpStatus.NOT_IMPLEMENTED).json(BaseResponse.error("Estadísticas SQL deshabilitadas (SQL_STATS_ENABLED=false)"));
+            return;
+        }
+        sqlStats.reset();
+        ctx.json(BaseResponse.success(Map.of("statements", 0), "Estadísticas SQL reiniciadas"));
+    }
+
+    /**
+     * GET /api/admin/db-requests - Accesos a la BD por ruta (sentencias, conexiones, tiempo, presupuesto)
+     */
+    public void getDbRequests(Context ctx) {
+        if (dbRequestAccounting == null) {
+            ctx.status(HttpStatus.NOT_IMPLEMENTED).json(BaseResponse.error("Contabilidad de BD por request deshabilitada"));
+            return;
+        }
+        List<DbRequestAccounting.RouteSummary> routes = dbRequestAccounting.summaries();
+        ctx.json(BaseResponse.success(Map.of("routes", routes), routes.size() + " rutas con accesos a la BD"));
+    }
+
+    /**
+     * POST /api/admin/db-requests/reset - Reinicia los accesos agregados por ruta
+     */
+    public void resetDbRequests(Context ctx) {
+        if (dbRequestAccounting == null) {
+            ctx.status(HttpStatus.NOT_IMPLEMENTED).json(BaseResponse.error("Contabilidad de BD por request deshabilitada"));
+            return;
+        }
+        dbRequestAccounting.reset();
+        ctx.json(BaseResponse.success(Map.of("routes", 0), "Accesos a la BD por ruta reiniciados"));
+    }
+
+    private static int parseTop(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_SQL_STATS_TOP;
+        }
+        int top;
+        try {
+            top = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro 'top' debe ser un número entero");
+        }
+        if (top < 1 || top > MAX_SQL_STATS_TOP) {
+            throw new IllegalArgumentException("El parámetro 'top' debe estar entre 1 y " + MAX_SQL_STATS_TOP);
+        }
+        return top;
+    }
+
+    private static boolean isSecret(String key) {
+        return key.contains("password") || key.contains("token");
+    }
+}
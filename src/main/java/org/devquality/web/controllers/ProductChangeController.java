@@ -0,0 +1,26 @@
+package org.devquality.web.controllers;
+
+import io.javalin.http.sse.SseClient;
+import org.devquality.events.ProductChangeBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ProductChangeController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeController.class);
+    private final ProductChangeBroadcaster broadcaster;
+
+    public ProductChangeController(ProductChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * GET /api/products/changes - Stream SSE de cambios de productos
+     *
+     * Eventos "product-change" con {id, op, updatedAt}; un evento "resync" indica que el
+     * cliente debe volver a cargar GET /api/products. Admite reanudar con Last-Event-ID.
+     */
+    public void streamChanges(SseClient client) {
+        logger.debug("📡 Nueva suscripción a cambios de productos desde {}", client.ctx().ip());
+        broadcaster.subscribe(client);
+    }
+}
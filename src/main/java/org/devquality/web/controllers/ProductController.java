@@ -2,29 +2,46 @@ package org.devquality.web.controllers;
 
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.devquality.health.HealthProber;
+import org.devquality.health.HealthSnapshot;
+import org.devquality.persistence.counting.RowCount;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.services.IProductService;
 import org.devquality.web.dtos.core.response.BaseResponse;
+import org.devquality.web.dtos.core.response.PaginationInfo;
 import org.devquality.web.dtos.core.response.ResponseMetadata;
+import org.devquality.web.dtos.core.response.SparseFieldset;
 import org.devquality.web.dtos.products.request.CreateProductRequest;
 import org.devquality.web.dtos.products.request.UpdateProductRequest;
-import org.devquality.web.dtos.products.response.CreateProductResponse;
-import org.devquality.web.dtos.products.response.DeletedBaseResponse;
-import org.devquality.web.dtos.products.response.GetProductResponse;
+import org.devquality.web.dtos.products.response.ProductSyncResponse;
 import org.devquality.web.middleware.BeanValidationMiddleware;
+import org.devquality.web.middleware.ErrorHandlingMiddleware;
 import org.devquality.web.validators.groups.ValidationGroups;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 public class ProductController {
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SYNC_LIMIT = 100;
+    private static final int MAX_SYNC_LIMIT = 1000;
     private final IProductService productService;
+    private final HealthProber healthProber;
 
     public ProductController(IProductService productService) {
+        this(productService, null);
+    }
+
+    public ProductController(IProductService productService, HealthProber healthProber) {
         this.productService = productService;
+        this.healthProber = healthProber;
     }
 
     /**
@@ -39,75 +56,106 @@ public class ProductController {
 
         if (request == null) return;
 
-        try {
-            CreateProductResponse productResponse = productService.createProduct(request);
-
-            ctx.status(HttpStatus.CREATED).json(
-                    BaseResponse.success(productResponse, "Producto creado correctamente")
-            );
-
-        } catch (SQLException e) {
-            BeanValidationMiddleware.handleDatabaseError(ctx, e);
-        } catch (IllegalArgumentException e) {
-            logger.warn("❌ Argumento inválido: {}", e.getMessage());
-            ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(e.getMessage())
-            );
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al crear producto", e);
-        }
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al crear producto", productService.createProductAsync(request)
+                .thenAccept(productResponse -> ctx.status(HttpStatus.CREATED).json(
+                        BaseResponse.success(productResponse, "Producto creado correctamente")
+                )));
     }
 
     /**
      * GET /api/products - Obtener todos los productos
+     * GET /api/products?page={page}&size={size} - Obtener una página de productos
+     * Ambas aceptan ?fields=id,name,price para leer y devolver solo esos campos
      */
     public void getAllProducts(Context ctx) {
-        try {
-            List<GetProductResponse> products = productService.getAllProducts();
+        FieldSelection fields = BeanValidationMiddleware.validateFields(ctx, ProductRowMapper.FIELDS);
+        if (fields == null) return;
 
-            ResponseMetadata metadata = ResponseMetadata.builder()
-                    .type("PRODUCT_LIST")
-                    .totalElements((long) products.size())
-                    .build();
+        if (ctx.queryParam("page") != null || ctx.queryParam("size") != null) {
+            getProductsPage(ctx, fields);
+            return;
+        }
 
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(products, "Productos obtenidos correctamente", metadata)
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al obtener productos", productService.getAllProductsAsync(fields)
+                .thenAccept(products -> {
+                    ResponseMetadata metadata = ResponseMetadata.builder()
+                            .type("PRODUCT_LIST")
+                            .totalElements((long) products.size())
+                            .build();
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(SparseFieldset.of(products, fields), "Productos obtenidos correctamente", metadata)
+                    );
+                }));
+    }
+
+    /**
+     * Respuesta paginada con el total según la estrategia de conteo configurada.
+     * La página y el total se consultan en paralelo.
+     */
+    private void getProductsPage(Context ctx, FieldSelection fields) {
+        int page;
+        int size;
+        try {
+            page = parseIntParam(ctx.queryParam("page"), 0);
+            size = parseIntParam(ctx.queryParam("size"), DEFAULT_PAGE_SIZE);
+        } catch (NumberFormatException e) {
+            logger.warn("❌ Parámetros de paginación inválidos: {}", e.getMessage());
+            ctx.status(HttpStatus.BAD_REQUEST).json(
+                    BaseResponse.error("Los parámetros 'page' y 'size' deben ser números enteros")
             );
+            return;
+        }
 
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al obtener productos", e);
+        if (size > MAX_PAGE_SIZE) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(
+                    BaseResponse.error("El tamaño de página no puede exceder " + MAX_PAGE_SIZE)
+            );
+            return;
         }
+
+        CompletionStage<List<Product>> pageStage = productService.getProductsPageAsync(page, size, fields);
+        CompletionStage<RowCount> countStage = productService.countProductsAsync();
+
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al obtener productos", pageStage
+                .thenCombine(countStage, (products, total) -> {
+                    ResponseMetadata metadata = ResponseMetadata.builder()
+                            .type("PRODUCT_PAGE")
+                            .totalElements(total.getValue())
+                            .exactCount(total.isExact())
+                            .pagination(PaginationInfo.create(page, size, total.getValue()))
+                            .build();
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(SparseFieldset.of(products, fields), "Productos obtenidos correctamente", metadata)
+                    );
+                    return null;
+                }));
     }
 
     /**
-     * GET /api/products/{id} - Obtener producto por ID
+     * GET /api/products/{id}?fields= - Obtener producto por ID
      */
     public void getProductById(Context ctx) {
         Long productId = BeanValidationMiddleware.validateId(ctx, "id");
         if (productId == null) return;
 
-        try {
-            GetProductResponse product = productService.getProductById(productId);
-
-            if (product == null) {
-                ctx.status(HttpStatus.NOT_FOUND).json(
-                        BaseResponse.error("Producto no encontrado")
-                );
-                return;
-            }
-
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(product, "Producto encontrado")
-            );
-
-        } catch (IllegalArgumentException e) {
-            logger.warn("❌ Argumento inválido: {}", e.getMessage());
-            ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(e.getMessage())
-            );
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al obtener producto", e);
-        }
+        FieldSelection fields = BeanValidationMiddleware.validateFields(ctx, ProductRowMapper.FIELDS);
+        if (fields == null) return;
+
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al obtener producto", productService.getProductByIdAsync(productId, fields)
+                .thenAccept(product -> {
+                    if (product == null) {
+                        ctx.status(HttpStatus.NOT_FOUND).json(
+                                BaseResponse.error("Producto no encontrado")
+                        );
+                        return;
+                    }
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(SparseFieldset.of(product, fields), "Producto encontrado")
+                    );
+                }));
     }
 
     /**
@@ -125,38 +173,27 @@ public class ProductController {
 
         if (request == null) return;
 
-        try {
-            // Asegurar que el ID del path coincida con el del body (si existe)
-            if (request.getId() != null && !request.getId().equals(productId)) {
-                ctx.status(HttpStatus.BAD_REQUEST).json(
-                        BaseResponse.error("El ID del path no coincide con el ID del body")
-                );
-                return;
-            }
-
-            GetProductResponse updatedProduct = productService.updateProduct(productId, request);
-
-            if (updatedProduct == null) {
-                ctx.status(HttpStatus.NOT_FOUND).json(
-                        BaseResponse.error("Producto no encontrado")
-                );
-                return;
-            }
-
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(updatedProduct, "Producto actualizado correctamente")
-            );
-
-        } catch (SQLException e) {
-            BeanValidationMiddleware.handleDatabaseError(ctx, e);
-        } catch (IllegalArgumentException e) {
-            logger.warn("❌ Argumento inválido: {}", e.getMessage());
+        // Asegurar que el ID del path coincida con el del body (si existe)
+        if (request.getId() != null && !request.getId().equals(productId)) {
             ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(e.getMessage())
+                    BaseResponse.error("El ID del path no coincide con el ID del body")
             );
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al actualizar producto", e);
+            return;
         }
+
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al actualizar producto", productService.updateProductAsync(productId, request)
+                .thenAccept(updatedProduct -> {
+                    if (updatedProduct == null) {
+                        ctx.status(HttpStatus.NOT_FOUND).json(
+                                BaseResponse.error("Producto no encontrado")
+                        );
+                        return;
+                    }
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(updatedProduct, "Producto actualizado correctamente")
+                    );
+                }));
     }
 
     /**
@@ -166,35 +203,28 @@ public class ProductController {
         Long productId = BeanValidationMiddleware.validateId(ctx, "id");
         if (productId == null) return;
 
-        try {
-            DeletedBaseResponse result = productService.deleteProductById(productId);
-
-            if (!result.isSuccess()) {
-                ctx.status(HttpStatus.NOT_FOUND).json(
-                        BaseResponse.error(result.getMessage())
-                );
-                return;
-            }
-
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(result, "Producto eliminado correctamente")
-            );
-
-        } catch (IllegalArgumentException e) {
-            logger.warn("❌ Argumento inválido: {}", e.getMessage());
-            ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(e.getMessage())
-            );
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al eliminar producto", e);
-        }
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al eliminar producto", productService.deleteProductByIdAsync(productId)
+                .thenAccept(result -> {
+                    if (!result.isSuccess()) {
+                        ctx.status(HttpStatus.NOT_FOUND).json(
+                                BaseResponse.error(result.getMessage())
+                        );
+                        return;
+                    }
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(result, "Producto eliminado correctamente")
+                    );
+                }));
     }
 
     /**
-     * GET /api/products/search?name={pattern} - Buscar productos por nombre
+     * GET /api/products/search?name={pattern}&fields= - Buscar productos por nombre
      */
     public void searchProductsByName(Context ctx) {
         String namePattern = ctx.queryParam("name");
+        FieldSelection fields = BeanValidationMiddleware.validateFields(ctx, ProductRowMapper.FIELDS);
+        if (fields == null) return;
 
         if (namePattern == null || namePattern.trim().isEmpty()) {
             ctx.status(HttpStatus.BAD_REQUEST).json(
@@ -203,36 +233,29 @@ public class ProductController {
             return;
         }
 
-        try {
-            List<GetProductResponse> products = productService.searchProductsByName(namePattern);
-
-            ResponseMetadata metadata = ResponseMetadata.builder()
-                    .type("PRODUCT_SEARCH")
-                    .totalElements((long) products.size())
-                    .build();
-
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(products,
-                            String.format("Se encontraron %d productos con el patrón '%s'", products.size(), namePattern),
-                            metadata)
-            );
-
-        } catch (IllegalArgumentException e) {
-            logger.warn("❌ Argumento inválido: {}", e.getMessage());
-            ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(e.getMessage())
-            );
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al buscar productos", e);
-        }
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al buscar productos", productService.searchProductsByNameAsync(namePattern, fields)
+                .thenAccept(products -> {
+                    ResponseMetadata metadata = ResponseMetadata.builder()
+                            .type("PRODUCT_SEARCH")
+                            .totalElements((long) products.size())
+                            .build();
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(SparseFieldset.of(products, fields),
+                                    String.format("Se encontraron %d productos con el patrón '%s'", products.size(), namePattern),
+                                    metadata)
+                    );
+                }));
     }
 
     /**
-     * GET /api/products/price-range?min={minPrice}&max={maxPrice} - Buscar productos por rango de precios
+     * GET /api/products/price-range?min={minPrice}&max={maxPrice}&fields= - Buscar productos por rango de precios
      */
     public void getProductsByPriceRange(Context ctx) {
         String minPriceStr = ctx.queryParam("min");
         String maxPriceStr = ctx.queryParam("max");
+        FieldSelection fields = BeanValidationMiddleware.validateFields(ctx, ProductRowMapper.FIELDS);
+        if (fields == null) return;
 
         if (minPriceStr == null || maxPriceStr == null) {
             ctx.status(HttpStatus.BAD_REQUEST).json(
@@ -241,55 +264,133 @@ public class ProductController {
             return;
         }
 
+        BigDecimal minPrice;
+        BigDecimal maxPrice;
         try {
-            BigDecimal minPrice = new BigDecimal(minPriceStr);
-            BigDecimal maxPrice = new BigDecimal(maxPriceStr);
-
-            List<GetProductResponse> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-
-            ResponseMetadata metadata = ResponseMetadata.builder()
-                    .type("PRODUCT_PRICE_RANGE")
-                    .totalElements((long) products.size())
-                    .build();
-
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(products,
-                            String.format("Se encontraron %d productos entre $%s y $%s", products.size(), minPrice, maxPrice),
-                            metadata)
-            );
-
+            minPrice = new BigDecimal(minPriceStr);
+            maxPrice = new BigDecimal(maxPriceStr);
         } catch (NumberFormatException e) {
             logger.warn("❌ Formato de precio inválido: {}", e.getMessage());
             ctx.status(HttpStatus.BAD_REQUEST).json(
                     BaseResponse.error("Los precios deben ser números válidos")
             );
-        } catch (IllegalArgumentException e) {
-            logger.warn("❌ Argumento inválido: {}", e.getMessage());
+            return;
+        }
+
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al buscar productos por rango de precio",
+                productService.getProductsByPriceRangeAsync(minPrice, maxPrice, fields)
+                        .thenAccept(products -> {
+                            ResponseMetadata metadata = ResponseMetadata.builder()
+                                    .type("PRODUCT_PRICE_RANGE")
+                                    .totalElements((long) products.size())
+                                    .build();
+
+                            ctx.status(HttpStatus.OK).json(
+                                    BaseResponse.success(SparseFieldset.of(products, fields),
+                                            String.format("Se encontraron %d productos entre $%s y $%s", products.size(), minPrice, maxPrice),
+                                            metadata)
+                            );
+                        }));
+    }
+
+    /**
+     * GET /api/products/sync?since={token}&limit={n} - Cambios desde el token (sincronización incremental)
+     *
+     * Sin token empieza desde el principio. Se sigue pidiendo con nextToken mientras hasMore sea
+     * true; un 410 indica que el token es anterior a la retención y hay que resincronizar.
+     */
+    public void syncProducts(Context ctx) {
+        int limit;
+        try {
+            limit = parseIntParam(ctx.queryParam("limit"), DEFAULT_SYNC_LIMIT);
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(
+                    BaseResponse.error("El parámetro 'limit' debe ser un número entero")
+            );
+            return;
+        }
+
+        if (limit > MAX_SYNC_LIMIT) {
             ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(e.getMessage())
+                    BaseResponse.error("El límite no puede exceder " + MAX_SYNC_LIMIT)
             );
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al buscar productos por rango de precio", e);
+            return;
         }
+
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al sincronizar productos",
+                productService.getProductChangesAsync(ctx.queryParam("since"), limit)
+                        .thenAccept(changes -> {
+                            ProductSyncResponse response = ProductSyncResponse.builder()
+                                    .updated(changes.updated())
+                                    .deleted(changes.deleted())
+                                    .nextToken(changes.next().encode())
+                                    .hasMore(changes.hasMore())
+                                    .build();
+
+                            ResponseMetadata metadata = ResponseMetadata.builder()
+                                    .type("PRODUCT_SYNC")
+                                    .totalElements((long) (changes.updated().size() + changes.deleted().size()))
+                                    .build();
+
+                            ctx.status(HttpStatus.OK).json(
+                                    BaseResponse.success(response, "Cambios de productos obtenidos correctamente", metadata)
+                            );
+                        }));
     }
 
     /**
      * GET /api/products/health - Health check específico para productos
      */
     public void healthCheck(Context ctx) {
+        var features = java.util.List.of(
+                "CRUD operations",
+                "Search by name",
+                "Filter by price range",
+                "Incremental sync"
+        );
+
+        if (healthProber == null) {
+            var healthData = java.util.Map.of(
+                    "status", "UP",
+                    "service", "ProductService",
+                    "version", "1.0.0",
+                    "features", features
+            );
+
+            ctx.status(HttpStatus.OK).json(
+                    BaseResponse.success(healthData, "Servicio de productos funcionando correctamente")
+            );
+            return;
+        }
+
+        // Lectura O(1) de la última foto del sondeo en segundo plano
+        HealthSnapshot health = healthProber.getSnapshot();
         var healthData = java.util.Map.of(
-                "status", "UP",
+                "status", health.status().name(),
                 "service", "ProductService",
                 "version", "1.0.0",
-                "features", java.util.List.of(
-                        "CRUD operations",
-                        "Search by name",
-                        "Filter by price range"
-                )
+                "features", features,
+                "database", health.toMap()
         );
 
-        ctx.status(HttpStatus.OK).json(
-                BaseResponse.success(healthData, "Servicio de productos funcionando correctamente")
-        );
+        if (health.status() == HealthSnapshot.Status.DOWN) {
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(
+                    BaseResponse.success(healthData, "Servicio de productos no disponible")
+            );
+        } else {
+            ctx.status(HttpStatus.OK).json(
+                    BaseResponse.success(healthData, "Servicio de productos funcionando correctamente")
+            );
+        }
+    }
+
+    /**
+     * Parsea un query param entero con valor por defecto
+     */
+    private static int parseIntParam(String value, int defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
     }
-}
\ No newline at end of file
+}
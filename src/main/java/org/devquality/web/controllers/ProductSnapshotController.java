@@ -0,0 +1,207 @@
+package org.devquality.web.controllers;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import jakarta.servlet.ServletOutputStream;
+import org.devquality.persistence.snapshot.CatalogSnapshot;
+import org.devquality.persistence.snapshot.CatalogSnapshotJob;
+import org.devquality.web.dtos.core.response.BaseResponse;
+import org.eclipse.jetty.server.HttpOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+public class ProductSnapshotController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSnapshotController.class);
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+    private final CatalogSnapshotJob snapshotJob;
+
+    public ProductSnapshotController(CatalogSnapshotJob snapshotJob) {
+        this.snapshotJob = snapshotJob;
+    }
+
+    /**
+     * GET /api/products/snapshot - Catálogo completo materializado en disco
+     *
+     * Sirve la última foto (gzip si Accept-Encoding lo admite) con ETag, If-None-Match y
+     * Range/If-Range para reanudar descargas. No accede a la BD ni serializa nada: el
+     * fichero está mapeado en memoria y Jetty lo escribe directamente en el socket.
+     */
+    public void getSnapshot(Context ctx) throws IOException {
+        CatalogSnapshot snapshot = snapshotJob.getCurrent();
+        if (snapshot == null) {
+            ctx.header("Retry-After", "5");
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(
+                    BaseResponse.error("La foto del catálogo todavía no está disponible")
+            );
+            return;
+        }
+
+        boolean gzip = acceptsGzip(ctx.header(Header.ACCEPT_ENCODING));
+        CatalogSnapshot.Content content = gzip ? snapshot.getGzip() : snapshot.getJson();
+
+        ctx.header(Header.ETAG, content.getEtag());
+        ctx.header(Header.LAST_MODIFIED, DateTimeFormatter.RFC_1123_DATE_TIME.format(snapshot.getGeneratedAt()));
+        ctx.header(Header.CACHE_CONTROL, "no-cache");
+        ctx.header(Header.VARY, "Accept-Encoding");
+        ctx.header(Header.ACCEPT_RANGES, "bytes");
+        ctx.header("X-Snapshot-Version", String.valueOf(snapshot.getVersion()));
+
+        if (matchesAny(ctx.header(Header.IF_NONE_MATCH), content.getEtag())) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+
+        long size = content.getSize();
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        String ifRange = ctx.header("If-Range");
+        if (ifRange == null || ifRange.trim().equals(content.getEtag())) {
+            ByteRange range = parseRange(ctx.header(Header.RANGE), size);
+            if (range == UNSATISFIABLE) {
+                ctx.header(Header.CONTENT_RANGE, "bytes */" + size);
+                ctx.status(416);
+                return;
+            }
+            if (range != null) {
+                start = range.start();
+                end = range.end();
+                status = HttpStatus.PARTIAL_CONTENT;
+                ctx.header(Header.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        if (gzip) {
+            ctx.header(Header.CONTENT_ENCODING, "gzip");
+        }
+        ctx.status(status);
+        ctx.contentType("application/json");
+        ctx.res().setContentLengthLong(end - start + 1);
+
+        logger.debug("📸 Sirviendo foto v{} ({}, bytes {}-{}/{})", snapshot.getVersion(),
+                gzip ? "gzip" : "json", start, end, size);
+        write(ctx, content.slices(start, end - start + 1));
+    }
+
+    /**
+     * Escribe los trozos mapeados sin pasar por el heap (HttpOutput los envía tal cual al socket)
+     */
+    private static void write(Context ctx, List<ByteBuffer> buffers) throws IOException {
+        // ctx.res() y no ctx.outputStream(): este último comprimiría (el gzip ya está hecho)
+        ServletOutputStream out = ctx.res().getOutputStream();
+        if (out instanceof HttpOutput httpOutput) {
+            // sendContent completa la respuesta: solo para el último trozo
+            for (int i = 0; i < buffers.size() - 1; i++) {
+                httpOutput.write(buffers.get(i));
+            }
+            if (!buffers.isEmpty()) {
+                httpOutput.sendContent(buffers.get(buffers.size() - 1));
+            }
+            return;
+        }
+        WritableByteChannel channel = Channels.newChannel(out);
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if ((coding.equals("gzip") || coding.equals("*")) && !isZeroQuality(parts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match: "*" o lista de ETags (comparación débil, se ignora el prefijo W/)
+     */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Un único rango "bytes=a-b", "bytes=a-" o "bytes=-n".
+     *
+     * @return el rango, null si se debe ignorar (sin Range, mal formado o múltiples rangos)
+     * o UNSATISFIABLE si empieza fuera del fichero
+     */
+    private static ByteRange parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Sufijo: los últimos n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return start <= end ? new ByteRange(start, end) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record ByteRange(long start, long end) {
+    }
+}
@@ -0,0 +1,42 @@
+package org.devquality.web.controllers;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.devquality.persistence.stats.CatalogStats;
+import org.devquality.persistence.stats.CatalogStatsRefresher;
+import org.devquality.web.dtos.core.response.BaseResponse;
+import org.devquality.web.dtos.core.response.ResponseMetadata;
+
+public class ProductStatsController {
+    private final CatalogStatsRefresher statsRefresher;
+
+    public ProductStatsController(CatalogStatsRefresher statsRefresher) {
+        this.statsRefresher = statsRefresher;
+    }
+
+    /**
+     * GET /api/products/stats - Conteos, percentiles e histograma de precios y altas por hora/día
+     *
+     * Se sirve de la última foto en memoria (vistas materializadas refrescadas en segundo
+     * plano): no consulta la BD en el request.
+     */
+    public void getStats(Context ctx) {
+        CatalogStats stats = statsRefresher.getCurrent();
+        if (stats == null) {
+            ctx.header("Retry-After", "5");
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(
+                    BaseResponse.error("Las estadísticas del catálogo todavía no están disponibles")
+            );
+            return;
+        }
+
+        ResponseMetadata metadata = ResponseMetadata.builder()
+                .type("PRODUCT_STATS")
+                .totalElements(stats.productCount())
+                .build();
+
+        ctx.status(HttpStatus.OK).json(
+                BaseResponse.success(stats, "Estadísticas del catálogo obtenidas correctamente", metadata)
+        );
+    }
+}
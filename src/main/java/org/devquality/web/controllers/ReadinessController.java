@@ -0,0 +1,33 @@
+package org.devquality.web.controllers;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.devquality.config.ReadinessState;
+import org.devquality.web.dtos.core.response.BaseResponse;
+
+import java.util.Map;
+
+public class ReadinessController {
+    private final ReadinessState readinessState;
+
+    public ReadinessController(ReadinessState readinessState) {
+        this.readinessState = readinessState;
+    }
+
+    /**
+     * GET /ready - 200 solo cuando la instancia terminó el warm-up; 503 mientras tanto
+     */
+    public void ready(Context ctx) {
+        ReadinessState.Status status = readinessState.getStatus();
+        var data = Map.of(
+                "status", status.name(),
+                "since", readinessState.getChangedAt()
+        );
+
+        if (readinessState.isReady()) {
+            ctx.status(HttpStatus.OK).json(BaseResponse.success(data, "Instancia lista"));
+        } else {
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(BaseResponse.error(data, "Instancia no lista"));
+        }
+    }
+}
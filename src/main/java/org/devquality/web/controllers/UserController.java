@@ -2,26 +2,34 @@ package org.devquality.web.controllers;
 
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.devquality.health.HealthProber;
+import org.devquality.health.HealthSnapshot;
+import org.devquality.persistence.entites.UserRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.services.IUserService;
 import org.devquality.web.dtos.core.response.BaseResponse;
 import org.devquality.web.dtos.core.response.ResponseMetadata;
+import org.devquality.web.dtos.core.response.SparseFieldset;
 import org.devquality.web.dtos.users.request.CreaterUserRequest;
-import org.devquality.web.dtos.users.response.CreateUserResponse;
 import org.devquality.web.middleware.BeanValidationMiddleware;
+import org.devquality.web.middleware.ErrorHandlingMiddleware;
 import org.devquality.web.validators.groups.ValidationGroups;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.SQLException;
-import java.util.Collections;
-
 
 public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final IUserService userService;
+    private final HealthProber healthProber;
 
     public UserController(IUserService userService) {
+        this(userService, null);
+    }
+
+    public UserController(IUserService userService, HealthProber healthProber) {
         this.userService = userService;
+        this.healthProber = healthProber;
     }
 
     /**
@@ -37,83 +45,94 @@ public class UserController {
 
         if (request == null) return;
 
-        try {
-            CreateUserResponse userResponse = userService.createUser(request);
-
-            ctx.status(HttpStatus.CREATED).json(
-                    BaseResponse.success(userResponse, "Usuario creado correctamente")
-            );
-
-        } catch (SQLException e) {
-            BeanValidationMiddleware.handleDatabaseError(ctx, e);
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al crear usuario", e);
-        }
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al crear usuario", userService.createUserAsync(request)
+                .thenAccept(userResponse -> ctx.status(HttpStatus.CREATED).json(
+                        BaseResponse.success(userResponse, "Usuario creado correctamente")
+                )));
     }
 
     /**
-     *  GET /api/users/{id} - Obtener usuario por ID (ULTRA LIMPIO)
+     *  GET /api/users/{id}?fields= - Obtener usuario por ID (ULTRA LIMPIO)
      */
     public void getUserById(Context ctx) {
         Long userId = BeanValidationMiddleware.validateId(ctx, "id");
         if (userId == null) return;
 
-        try {
-            var user = userService.getUserById(userId);
-
-            if (user == null) {
-                ctx.status(HttpStatus.NOT_FOUND).json(
-                        BaseResponse.error("Usuario no encontrado")
-                );
-                return;
-            }
-
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(user, "Usuario encontrado")
-            );
-
-        } catch (Exception e) {
-            BeanValidationMiddleware.handleError(ctx, "Error al obtener usuario", e);
-        }
+        FieldSelection fields = BeanValidationMiddleware.validateFields(ctx, UserRowMapper.FIELDS);
+        if (fields == null) return;
+
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al obtener usuario", userService.getUserByIdAsync(userId, fields)
+                .thenAccept(user -> {
+                    if (user == null) {
+                        ctx.status(HttpStatus.NOT_FOUND).json(
+                                BaseResponse.error("Usuario no encontrado")
+                        );
+                        return;
+                    }
+
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(SparseFieldset.of(user, fields), "Usuario encontrado")
+                    );
+                }));
     }
 
     /**
-     *  GET /api/users - Obtener todos los usuarios
+     *  GET /api/users?fields= - Obtener todos los usuarios
      */
     public void getAllUsers(Context ctx) {
-        try {
-            // ✨ SOLO LÓGICA DE NEGOCIO
-            var users = userService.getAllUsers();
-
-            // ✨ METADATA OPCIONAL
-            ResponseMetadata metadata = ResponseMetadata.builder()
-                    .type("USER_LIST")
-                    .totalElements((long) users.size())
-                    .build();
-
-            // ✨ RESPUESTA DIRECTA
-            ctx.status(HttpStatus.OK).json(
-                    BaseResponse.success(users, "Usuarios obtenidos correctamente", metadata)
-            );
-
-        } catch (Exception e) {
-            // ✨ 1 LÍNEA: Manejo automático de errores
-            BeanValidationMiddleware.handleError(ctx, "Error al obtener usuarios", e);
-        }
+        FieldSelection fields = BeanValidationMiddleware.validateFields(ctx, UserRowMapper.FIELDS);
+        if (fields == null) return;
+
+        // ✨ SOLO LÓGICA DE NEGOCIO (en el executor de BD)
+        ErrorHandlingMiddleware.handleAsync(ctx, "Error al obtener usuarios", userService.getAllUsersAsync(fields)
+                .thenAccept(users -> {
+                    // ✨ METADATA OPCIONAL
+                    ResponseMetadata metadata = ResponseMetadata.builder()
+                            .type("USER_LIST")
+                            .totalElements((long) users.size())
+                            .build();
+
+                    // ✨ RESPUESTA DIRECTA
+                    ctx.status(HttpStatus.OK).json(
+                            BaseResponse.success(SparseFieldset.of(users, fields), "Usuarios obtenidos correctamente", metadata)
+                    );
+                }));
     }
 
     /**
      *  GET /api/health - Health check
      */
     public void healthCheck(Context ctx) {
+        if (healthProber == null) {
+            var healthData = java.util.Map.of(
+                    "status", "UP",
+                    "service", "UserService",
+                    "version", "1.0.0"
+            );
+
+            ctx.status(HttpStatus.OK).json(
+                    BaseResponse.success(healthData, "Servicio funcionando correctamente")
+            );
+            return;
+        }
+
+        // Lectura O(1) de la última foto del sondeo en segundo plano
+        HealthSnapshot health = healthProber.getSnapshot();
         var healthData = java.util.Map.of(
-                "status", "UP",
+                "status", health.status().name(),
                 "service", "UserService",
-                "version", "1.0.0"
+                "version", "1.0.0",
+                "database", health.toMap()
         );
 
-        ctx.status(HttpStatus.OK).json(
-                BaseResponse.success(healthData, "Servicio funcionando correctamente")
-        );
+        if (health.status() == HealthSnapshot.Status.DOWN) {
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(
+                    BaseResponse.success(healthData, "Servicio no disponible")
+            );
+        } else {
+            ctx.status(HttpStatus.OK).json(
+                    BaseResponse.success(healthData, "Servicio funcionando correctamente")
+            );
+        }
     }
-}
\ No newline at end of file
+}
@@ -47,6 +47,16 @@ public class BaseResponse<T> {
                 .build();
     }
 
+    // Respuesta de error con datos (p. ej. el estado que explica el fallo)
+    public static <T> BaseResponse<T> error(T data, String message) {
+        return BaseResponse.<T>builder()
+                .success(false)
+                .message(message)
+                .data(data)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
     // Respuesta de error con detalles
     public static <T> BaseResponse<T> error(String message, List<ErrorDetail> errors) {
         return BaseResponse.<T>builder()
@@ -11,6 +11,8 @@ import lombok.Setter;
 public class ResponseMetadata {
     private String type;
     private Long totalElements;
+    private Boolean exactCount;
+    private PaginationInfo pagination;
     private Long executionTimeMs;
     private String version;
     private Long timestamp;
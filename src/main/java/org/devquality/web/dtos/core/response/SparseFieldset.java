@@ -0,0 +1,116 @@
+package org.devquality.web.dtos.core.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.devquality.persistence.mapping.FieldSelection;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Datos de respuesta restringidos a los campos pedidos con ?fields=.
+ * Las entidades con el filtro FieldSelection.JSON_FILTER (mix-in de JacksonConfiguration)
+ * emiten solo esos campos.
+ */
+@JsonSerialize(using = SparseFieldset.Serializer.class)
+public final class SparseFieldset {
+    private final Object data;
+    private final FieldSelection fields;
+
+    private SparseFieldset(Object data, FieldSelection fields) {
+        this.data = data;
+        this.fields = fields;
+    }
+
+    /**
+     * Envuelve los datos solo si la selección es parcial (sin ?fields= se serializan tal cual)
+     */
+    public static Object of(Object data, FieldSelection fields) {
+        return fields == null || fields.isAll() ? data : new SparseFieldset(data, fields);
+    }
+
+    public static final class Serializer extends StdSerializer<SparseFieldset> {
+        // Una entrada por combinación de campos (acotado por la lista blanca)
+        private static final Map<List<String>, FilterProvider> FILTERS = new ConcurrentHashMap<>();
+
+        public Serializer() {
+            super(SparseFieldset.class);
+        }
+
+        @Override
+        public void serialize(SparseFieldset value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!(gen.getCodec() instanceof ObjectMapper mapper)) {
+                provider.defaultSerializeValue(value.data, gen);
+                return;
+            }
+            FilterProvider filters = FILTERS.computeIfAbsent(value.fields.names(), names -> new SimpleFilterProvider()
+                    .addFilter(FieldSelection.JSON_FILTER, new JavaNameFilter(names)));
+            mapper.writer(filters).writeValue(gen, value.data);
+        }
+    }
+
+    /**
+     * Filtra por el nombre Java de la propiedad (el de la lista blanca), no por el nombre JSON:
+     * así la selección sigue funcionando con PropertyNamingStrategy (snake_case, kebab-case) o @JsonProperty.
+     */
+    static final class JavaNameFilter extends SimpleBeanPropertyFilter {
+        private final Set<String> names = new HashSet<>();
+        // Los PropertyWriter son los del serializador cacheado de cada clase: una entrada por propiedad
+        private final Map<PropertyWriter, Boolean> decisions = new ConcurrentHashMap<>();
+
+        JavaNameFilter(List<String> names) {
+            for (String name : names) {
+                this.names.add(name.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        @Override
+        protected boolean include(PropertyWriter writer) {
+            return decisions.computeIfAbsent(writer, w -> names.contains(javaName(w)));
+        }
+
+        @Override
+        protected boolean include(BeanPropertyWriter writer) {
+            return include((PropertyWriter) writer);
+        }
+
+        /**
+         * Campo tal cual; getter sin el prefijo get/is; accesor de record tal cual
+         */
+        private static String javaName(PropertyWriter writer) {
+            AnnotatedMember member = writer.getMember();
+            if (member == null) {
+                return writer.getName().toLowerCase(Locale.ROOT);
+            }
+            String name = member.getName();
+            if (member instanceof AnnotatedMethod) {
+                if (hasPrefix(name, "get")) {
+                    name = name.substring(3);
+                } else if (hasPrefix(name, "is")) {
+                    name = name.substring(2);
+                }
+            }
+            return name.toLowerCase(Locale.ROOT);
+        }
+
+        private static boolean hasPrefix(String name, String prefix) {
+            return name.length() > prefix.length() && name.startsWith(prefix)
+                    && Character.isUpperCase(name.charAt(prefix.length()));
+        }
+    }
+}
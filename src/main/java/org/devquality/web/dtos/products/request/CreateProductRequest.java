@@ -2,6 +2,7 @@ package org.devquality.web.dtos.products.request;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.devquality.processor.GenerateValidator;
 import org.devquality.web.validators.groups.ValidationGroups;
 
 import jakarta.validation.constraints.*;
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
 
 @Getter
 @Setter
+@GenerateValidator
 public class CreateProductRequest {
 
     @NotNull(message = "El nombre es obligatorio", groups = ValidationGroups.Basic.class)
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 
 @Builder
 @Getter
@@ -14,5 +15,5 @@ public class CreateProductResponse {
     private String name;
     private BigDecimal price;
     private String description;
-    private String createdAt;
+    private OffsetDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.devquality.web.dtos.products.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.devquality.persistence.entites.Product;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+public class ProductSyncResponse {
+    private List<Product> updated;
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -2,12 +2,14 @@ package org.devquality.web.dtos.users.request;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.devquality.processor.GenerateValidator;
 import org.devquality.web.validators.groups.ValidationGroups;
 
 import jakarta.validation.constraints.*;
 
 @Getter
 @Setter
+@GenerateValidator
 public class UpdateUserRequest {
 
     @NotNull(message = "El ID es obligatorio", groups = ValidationGroups.Update.class)
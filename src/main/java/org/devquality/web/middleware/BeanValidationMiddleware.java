@@ -1,16 +1,15 @@
 package org.devquality.web.middleware;
 
 
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
+import org.devquality.persistence.mapping.FieldSelection;
 import org.devquality.web.dtos.core.response.BaseResponse;
-import org.devquality.web.dtos.core.response.ErrorDetail;
 import org.devquality.web.validators.ValidationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -38,13 +37,23 @@ public class BeanValidationMiddleware {
             }
 
             // 2️⃣ Parsear JSON a objeto
+            ServerTiming.Timings timings = ServerTiming.of(ctx);
+            long start = timings != null ? System.nanoTime() : 0;
             T request = parseJsonBody(ctx, clazz);
+            if (timings != null) {
+                long parsed = System.nanoTime();
+                timings.addParse(parsed - start);
+                start = parsed;
+            }
             if (request == null) {
                 return null; // Ya respondió con error de parsing
             }
 
             // 3️⃣ Validar usando Bean Validation
             ValidationService.ValidationResult result = ValidationService.validate(request, groups);
+            if (timings != null) {
+                timings.addValidate(System.nanoTime() - start);
+            }
 
             // 4️⃣ Si hay errores, responder automáticamente
             if (result.hasErrors()) {
@@ -114,66 +123,20 @@ public class BeanValidationMiddleware {
     }
 
     /**
-     * 🎯 Maneja errores de base de datos de forma inteligente
-     */
-    public static void handleDatabaseError(Context ctx, SQLException e) {
-        logger.error("❌ Error de base de datos: {}", e.getMessage());
-
-        // Manejar errores comunes de PostgreSQL
-        String message = e.getMessage().toLowerCase();
-
-        if (message.contains("duplicate key") || message.contains("unique constraint")) {
-            // Error de clave duplicada
-            String field = extractFieldFromUniqueError(message);
-            String errorMessage = field != null ?
-                    "Ya existe un registro con ese " + field :
-                    "Ya existe un registro con esos datos";
-
-            ctx.status(HttpStatus.CONFLICT).json(
-                    BaseResponse.error(errorMessage)
-            );
-
-        } else if (message.contains("foreign key constraint")) {
-            // Error de clave foránea
-            ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error("La operación viola una restricción de integridad")
-            );
-
-        } else if (message.contains("not null constraint")) {
-            // Error de campo obligatorio
-            String field = extractFieldFromNotNullError(message);
-            String errorMessage = field != null ?
-                    "El campo '" + field + "' es obligatorio" :
-                    "Faltan campos obligatorios";
-
-            ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error(errorMessage)
-            );
-
-        } else {
-            // Error genérico de base de datos
-            handleError(ctx, "Error de base de datos", e);
-        }
-    }
-
-    /**
-     * 🎯 Manejo genérico de errores con detalles en desarrollo
+     * 🎯 Valida el query parameter ?fields= contra la lista blanca de la entidad
+     *
+     * @param ctx Context de Javalin
+     * @param allowed Campos permitidos (FIELDS del mapper generado)
+     * @return selección de campos (todos si no se indica) o null si hay errores (ya responde automáticamente)
      */
-    public static void handleError(Context ctx, String message, Exception e) {
-        List<ErrorDetail> errorDetails = new ArrayList<>();
-
-        // En desarrollo, incluir detalles técnicos
-        String env = System.getenv().getOrDefault("ENV", "development");
-        if ("development".equals(env)) {
-            errorDetails.add(ErrorDetail.simple("Detalle técnico: " + e.getMessage()));
-
-            // En desarrollo también loggear el stack trace
-            logger.error("❌ Stack trace completo:", e);
+    public static FieldSelection validateFields(Context ctx, List<String> allowed) {
+        try {
+            return FieldSelection.parse(ctx.queryParam("fields"), allowed);
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ Parámetro 'fields' inválido: {}", e.getMessage());
+            ctx.status(HttpStatus.BAD_REQUEST).json(BaseResponse.error(e.getMessage()));
+            return null;
         }
-
-        ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(
-                BaseResponse.error(message, errorDetails.isEmpty() ? null : errorDetails)
-        );
     }
 
     // 🔧 MÉTODOS PRIVADOS DE UTILIDAD
@@ -184,11 +147,11 @@ public class BeanValidationMiddleware {
     private static boolean validateContentType(Context ctx) {
         String contentType = ctx.header("Content-Type");
 
-        if (contentType == null || !contentType.contains("application/json")) {
+        if (ContentNegotiation.forContentType(contentType) == null) {
             logger.warn("❌ Content-Type inválido: {}", contentType);
 
             ctx.status(HttpStatus.BAD_REQUEST).json(
-                    BaseResponse.error("Content-Type debe ser application/json")
+                    BaseResponse.error("Content-Type debe ser application/json, application/x-jackson-smile o application/cbor")
             );
             return false;
         }
@@ -197,27 +160,44 @@ public class BeanValidationMiddleware {
     }
 
     /**
-     * Parsea el body JSON a un objeto
+     * Parsea el body (JSON, Smile o CBOR según Content-Type) en una sola pasada desde el
+     * InputStream (sin copiar el body a un String), aplicando los límites de tamaño y anidamiento
      */
     private static <T> T parseJsonBody(Context ctx, Class<T> clazz) {
         try {
-            String body = ctx.body();
+            ContentNegotiation.Format format = ContentNegotiation.forContentType(ctx.header("Content-Type"));
+            T request = JsonBodyReader.read(ctx.bodyInputStream(), ctx.contentLength(), format, clazz);
 
             // Validar que el body no esté vacío
-            if (body == null || body.trim().isEmpty()) {
+            if (request == null) {
                 ctx.status(HttpStatus.BAD_REQUEST).json(
                         BaseResponse.error("El body del request no puede estar vacío")
                 );
                 return null;
             }
 
-            // Parsear con Jackson
-            T request = ctx.bodyAsClass(clazz);
             logger.debug("✅ JSON parseado correctamente a {}", clazz.getSimpleName());
-
             return request;
 
+        } catch (JsonBodyReader.BodyTooLargeException e) {
+            logger.warn("❌ Body demasiado grande: {}", e.getMessage());
+
+            ctx.status(413).json(
+                    BaseResponse.error(e.getMessage())
+            );
+            return null;
+
         } catch (Exception e) {
+            StreamConstraintsException violation = findConstraintViolation(e);
+            if (violation != null) {
+                logger.warn("❌ JSON excede los límites permitidos: {}", violation.getMessage());
+
+                ctx.status(HttpStatus.BAD_REQUEST).json(
+                        BaseResponse.error("JSON inválido: excede los límites permitidos (anidamiento o longitud de valores)")
+                );
+                return null;
+            }
+
             logger.warn("❌ Error al parsear JSON: {}", e.getMessage());
 
             String errorMessage = "JSON inválido";
@@ -235,35 +215,17 @@ public class BeanValidationMiddleware {
     }
 
     /**
-     * Extrae el nombre del campo de errores unique constraint de PostgreSQL
+     * Límite del parser en la cadena de causas: databind lo envuelve en JsonMappingException
+     * cuando salta mientras se deserializa un objeto
      */
-    private static String extractFieldFromUniqueError(String errorMessage) {
-        try {
-            // Buscar patrón: detail: key (campo)=(valor) already exists
-            if (errorMessage.contains("key (") && errorMessage.contains(")=")) {
-                int start = errorMessage.indexOf("key (") + 5;
-                int end = errorMessage.indexOf(")", start);
-                return errorMessage.substring(start, end);
+    static StreamConstraintsException findConstraintViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StreamConstraintsException violation) {
+                return violation;
             }
-        } catch (Exception e) {
-            logger.debug("No se pudo extraer campo de error unique: {}", e.getMessage());
-        }
-        return null;
-    }
-
-    /**
-     * Extrae el nombre del campo de errores not null constraint de PostgreSQL
-     */
-    private static String extractFieldFromNotNullError(String errorMessage) {
-        try {
-            // Buscar patrón: null value in column "campo" violates not-null constraint
-            if (errorMessage.contains("column \"") && errorMessage.contains("\" violates")) {
-                int start = errorMessage.indexOf("column \"") + 8;
-                int end = errorMessage.indexOf("\"", start);
-                return errorMessage.substring(start, end);
+            if (cause.getCause() == cause) {
+                break;
             }
-        } catch (Exception e) {
-            logger.debug("No se pudo extraer campo de error not null: {}", e.getMessage());
         }
         return null;
     }
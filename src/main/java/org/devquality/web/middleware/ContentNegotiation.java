@@ -0,0 +1,267 @@
+package org.devquality.web.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.json.JsonMapper;
+import org.devquality.config.JacksonConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Negociación de formato por Accept / Content-Type: JSON (por defecto), Smile y CBOR.
+ *
+ * ctx.json(...) no serializa en el momento: el JsonMapper devuelve un body diferido que
+ * conserva el objeto. El after-handler lo codifica en el formato binario pedido o, si el
+ * cliente no pidió ninguno, se escribe como JSON al enviar la respuesta (sin coste extra),
+ * salvo en los requests muestreados por ServerTiming, que se serializan aquí para medirlo.
+ *
+ * Protobuf no se negocia: necesita un esquema por tipo raíz y BaseResponse lleva data genérica
+ * (T se borra a Object, que protobuf no puede describir sin Any y un registro de tipos) y las
+ * proyecciones de ?fields=, así que haría falta un DTO y un .proto paralelos por endpoint.
+ */
+public final class ContentNegotiation {
+    private static final Logger logger = LoggerFactory.getLogger(ContentNegotiation.class);
+
+    public enum Format {
+        JSON("application/json"),
+        SMILE("application/x-jackson-smile"),
+        CBOR("application/cbor");
+
+        private final String mimeType;
+
+        Format(String mimeType) {
+            this.mimeType = mimeType;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+    }
+
+    private ContentNegotiation() {
+    }
+
+    /**
+     * Formato preferido según Accept (respeta q=; en empate gana el primero listado)
+     */
+    public static Format forAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+
+        Format best = Format.JSON;
+        double bestQuality = -1;
+        for (String entry : accept.split(",")) {
+            String[] parts = entry.split(";");
+            Format format = forMediaType(parts[0]);
+            if (format == null) {
+                continue;
+            }
+            double quality = quality(parts);
+            if (quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return bestQuality > 0 ? best : Format.JSON;
+    }
+
+    /**
+     * Formato de un body entrante, o null si el Content-Type no está soportado
+     */
+    public static Format forContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        Format format = forMediaType(contentType.split(";")[0]);
+        return format != null && !contentType.contains("*") ? format : null;
+    }
+
+    /**
+     * ObjectMapper del formato (mismas features que el de JSON)
+     */
+    public static ObjectMapper mapper(Format format) {
+        switch (format) {
+            case SMILE:
+                return BinaryMappers.SMILE;
+            case CBOR:
+                return BinaryMappers.CBOR;
+            case JSON:
+            default:
+                return JacksonConfiguration.getSharedObjectMapper();
+        }
+    }
+
+    /**
+     * After-handler: recodifica el body diferido si el cliente pidió un formato binario
+     */
+    public static void encodeResponse(Context ctx) throws IOException {
+        if (!(ctx.resultInputStream() instanceof DeferredBody body)) {
+            return;
+        }
+
+        ctx.header(Header.VARY, "Accept");
+        Format format = forAccept(ctx.header(Header.ACCEPT));
+        ServerTiming.Timings timings = ServerTiming.of(ctx);
+        if (format == Format.JSON) {
+            if (timings != null) {
+                // Muestreado para Server-Timing: se serializa ya para medirlo antes de enviar las cabeceras
+                long start = System.nanoTime();
+                byte[] bytes = body.toJsonBytes();
+                timings.addSerialize(System.nanoTime() - start);
+                ctx.result(bytes);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        ctx.result(mapper(format).writeValueAsBytes(body.value));
+        if (timings != null) {
+            timings.addSerialize(System.nanoTime() - start);
+        }
+        ctx.contentType(format.mimeType);
+        logger.debug("📦 Respuesta codificada como {}", format);
+    }
+
+    /**
+     * Envuelve el JsonMapper de Javalin para que ctx.json(...) difiera la serialización
+     */
+    public static JsonMapper negotiating(JsonMapper json) {
+        return new NegotiatingJsonMapper(json);
+    }
+
+    private static Format forMediaType(String mediaType) {
+        String type = mediaType.trim().toLowerCase(Locale.ROOT);
+        switch (type) {
+            case "application/json":
+            case "application/*":
+            case "*/*":
+                return Format.JSON;
+            case "application/x-jackson-smile":
+                return Format.SMILE;
+            case "application/cbor":
+                return Format.CBOR;
+            default:
+                return null;
+        }
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class BinaryMappers {
+        private static final ObjectMapper SMILE = JacksonConfiguration.createObjectMapper(new SmileFactory());
+        private static final ObjectMapper CBOR = JacksonConfiguration.createObjectMapper(new CBORFactory());
+    }
+
+    private static final class NegotiatingJsonMapper implements JsonMapper {
+        private final JsonMapper json;
+
+        private NegotiatingJsonMapper(JsonMapper json) {
+            this.json = json;
+        }
+
+        @Override
+        public String toJsonString(Object obj, Type type) {
+            return json.toJsonString(obj, type);
+        }
+
+        @Override
+        public InputStream toJsonStream(Object obj, Type type) {
+            return new DeferredBody(json, obj, type);
+        }
+
+        @Override
+        public void writeToOutputStream(Stream<?> stream, OutputStream outputStream) {
+            json.writeToOutputStream(stream, outputStream);
+        }
+
+        @Override
+        public <T> T fromJsonString(String value, Type targetType) {
+            return json.fromJsonString(value, targetType);
+        }
+
+        @Override
+        public <T> T fromJsonStream(InputStream value, Type targetType) {
+            return json.fromJsonStream(value, targetType);
+        }
+    }
+
+    /**
+     * Body pendiente de serializar: se convierte en JSON solo cuando se lee
+     */
+    private static final class DeferredBody extends InputStream {
+        private final JsonMapper json;
+        private final Object value;
+        private final Type type;
+        private InputStream delegate;
+
+        private DeferredBody(JsonMapper json, Object value, Type type) {
+            this.json = json;
+            this.value = value;
+            this.type = type;
+        }
+
+        /**
+         * Serializa el body completo de una vez directamente a bytes, sin pasar por un String.
+         * JavalinJackson escribe con el mismo ObjectMapper compartido y envía los String tal cual
+         */
+        private byte[] toJsonBytes() throws IOException {
+            if (value instanceof String text) {
+                return text.getBytes(StandardCharsets.UTF_8);
+            }
+            return mapper(Format.JSON).writeValueAsBytes(value);
+        }
+
+        private InputStream delegate() {
+            if (delegate == null) {
+                delegate = json.toJsonStream(value, type);
+            }
+            return delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return delegate().read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate().available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+    }
+}
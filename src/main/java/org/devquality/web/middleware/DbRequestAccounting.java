@@ -0,0 +1,294 @@
+package org.devquality.web.middleware;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.ConfigChangeListener;
+import org.devquality.config.ConfigSnapshot;
+import org.devquality.persistence.instrumentation.RequestDbStats;
+import org.devquality.web.dtos.core.response.BaseResponse;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contabilidad de accesos a la BD por request y presupuesto por ruta.
+ *
+ * Un filtro de Jetty crea los RequestDbStats de cada request y los enlaza al hilo mientras
+ * se ejecutan los handlers (DatabaseExecutor los propaga a sus hilos); el after-handler los
+ * publica en la cabecera X-DB-Stats, los agrega por ruta para /api/admin/db-requests y los
+ * compara con el presupuesto de la ruta (db.request-budgets). Al excederlo se registra un
+ * aviso o, en modo fail (por defecto en ENVIRONMENT=test), se responde 500 para que un N+1
+ * rompa las pruebas antes de llegar a producción.
+ */
+public class DbRequestAccounting implements ConfigChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(DbRequestAccounting.class);
+    public static final String ATTRIBUTE = "db-request-stats";
+    public static final String HEADER = "X-DB-Stats";
+    private static final String DEFAULT_ROUTE = "*";
+    private static final String UNMATCHED_ROUTE = "<sin ruta>";
+    private static DbRequestAccounting instance;
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private volatile Settings settings;
+
+    private DbRequestAccounting(ConfigSnapshot config) {
+        this.settings = Settings.from(config);
+    }
+
+    public static synchronized DbRequestAccounting getInstance() {
+        if (instance == null) {
+            AppConfiguration appConfig = AppConfiguration.getInstance();
+            instance = new DbRequestAccounting(appConfig.snapshot());
+            appConfig.addChangeListener(instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onConfigChange(ConfigSnapshot previous, ConfigSnapshot current, Set<String> changedKeys) {
+        settings = Settings.from(current);
+    }
+
+    /**
+     * Añade el filtro que enlaza los accesos del request a los hilos que lo atienden
+     */
+    public void installFilter(ServletContextHandler handler) {
+        FilterHolder holder = new FilterHolder(new BindingFilter());
+        holder.setName("db-request-accounting");
+        // Javalin atiende los handlers con ctx.future() en modo asíncrono
+        holder.setAsyncSupported(true);
+        handler.addFilter(holder, "/*", EnumSet.of(DispatcherType.REQUEST));
+    }
+
+    /**
+     * Registra el after-handler que publica, agrega y comprueba el presupuesto
+     */
+    public void register(Javalin app) {
+        app.after(this::onRequestEnd);
+    }
+
+    private void onRequestEnd(Context ctx) {
+        RequestDbStats stats = ctx.attribute(ATTRIBUTE);
+        if (stats == null) {
+            return;
+        }
+        Settings current = settings;
+        String route = routeOf(ctx);
+
+        if (current.header()) {
+            ctx.header(HEADER, stats.toHeaderValue());
+        }
+        routes.computeIfAbsent(route, RouteStats::new).record(stats);
+
+        Budget budget = current.budgetFor(route);
+        if (budget == null || current.mode() == BudgetMode.OFF || !budget.isExceededBy(stats)) {
+            return;
+        }
+        routes.get(route).overBudget.increment();
+        String message = "Presupuesto de BD excedido en " + route + ": " + stats.getStatements()
+                + " sentencias / " + stats.getConnections() + " conexiones (máximo " + budget + ")";
+        logger.warn("💸 {}", message);
+        if (current.mode() == BudgetMode.FAIL) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(BaseResponse.error(message));
+        }
+    }
+
+    private static String routeOf(Context ctx) {
+        String path;
+        try {
+            path = ctx.endpointHandlerPath();
+        } catch (IllegalStateException e) {
+            path = null;
+        }
+        if (path == null || path.isEmpty()) {
+            return UNMATCHED_ROUTE;
+        }
+        return ctx.method() + " " + path;
+    }
+
+    /**
+     * Accesos agregados por ruta, de mayor a menor tiempo de BD total
+     */
+    public List<RouteSummary> summaries() {
+        Settings current = settings;
+        List<RouteSummary> summaries = new ArrayList<>(routes.size());
+        for (RouteStats stats : routes.values()) {
+            Budget budget = current.budgetFor(stats.route);
+            summaries.add(stats.summary(budget != null ? budget.toString() : null));
+        }
+        summaries.sort(Comparator.comparingDouble(RouteSummary::totalDbMs).reversed());
+        return summaries;
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    /**
+     * Crea los accesos del request y los enlaza al hilo durante la parte síncrona de los handlers
+     */
+    private final class BindingFilter implements Filter {
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            if (!settings.enabled()) {
+                chain.doFilter(request, response);
+                return;
+            }
+            RequestDbStats stats = new RequestDbStats();
+            request.setAttribute(ATTRIBUTE, stats);
+            try {
+                RequestDbStats.callWith(stats, () -> {
+                    chain.doFilter(request, response);
+                    return null;
+                });
+            } catch (IOException | ServletException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ServletException(e);
+            }
+        }
+    }
+
+    /**
+     * Modo de aplicación del presupuesto
+     */
+    enum BudgetMode {
+        OFF, LOG, FAIL;
+
+        static BudgetMode fromValue(String value) {
+            try {
+                return BudgetMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                logger.warn("⚠️ db.request-budget.mode inválido: {} (off, log, fail), se usa log", value);
+                return LOG;
+            }
+        }
+    }
+
+    /**
+     * Máximo de sentencias y de conexiones prestadas por request (-1 = sin límite)
+     */
+    record Budget(int statements, int connections) {
+
+        boolean isExceededBy(RequestDbStats stats) {
+            return (statements >= 0 && stats.getStatements() > statements)
+                    || (connections >= 0 && stats.getConnections() > connections);
+        }
+
+        @Override
+        public String toString() {
+            return connections >= 0 ? statements + ":" + connections : String.valueOf(statements);
+        }
+    }
+
+    record Settings(boolean enabled, boolean header, BudgetMode mode, Map<String, Budget> budgets) {
+
+        static Settings from(ConfigSnapshot config) {
+            String defaultMode = "test".equalsIgnoreCase(config.environment()) ? "fail" : "log";
+            return new Settings(
+                    Boolean.parseBoolean(config.get("db.request-accounting.enabled", "true")),
+                    Boolean.parseBoolean(config.get("db.request-accounting.header", "true")),
+                    BudgetMode.fromValue(config.get("db.request-budget.mode", defaultMode)),
+                    parseBudgets(config.get("db.request-budgets", ""))
+            );
+        }
+
+        Budget budgetFor(String route) {
+            Budget budget = budgets.get(route);
+            return budget != null ? budget : budgets.get(DEFAULT_ROUTE);
+        }
+
+        /**
+         * "PUT /api/products/{id}=3:2,*=10:5": ruta (método y plantilla) = sentencias[:conexiones]
+         */
+        static Map<String, Budget> parseBudgets(String value) {
+            Map<String, Budget> budgets = new HashMap<>();
+            for (String entry : value.split(",")) {
+                if (entry.isBlank()) {
+                    continue;
+                }
+                int equals = entry.lastIndexOf('=');
+                try {
+                    if (equals <= 0) {
+                        throw new NumberFormatException("falta '='");
+                    }
+                    String[] limits = entry.substring(equals + 1).trim().split(":");
+                    int statements = Integer.parseInt(limits[0].trim());
+                    int connections = limits.length > 1 ? Integer.parseInt(limits[1].trim()) : -1;
+                    budgets.put(entry.substring(0, equals).trim(), new Budget(statements, connections));
+                } catch (NumberFormatException e) {
+                    logger.warn("⚠️ Presupuesto de BD inválido ignorado: '{}'", entry.trim());
+                }
+            }
+            return Map.copyOf(budgets);
+        }
+    }
+
+    /**
+     * Accesos agregados de una ruta (tiempos en milisegundos)
+     */
+    public record RouteSummary(String route, long requests, double meanStatements, long maxStatements,
+                               double meanConnections, long maxConnections, double meanDbMs, double totalDbMs,
+                               double meanWaitMs, long overBudget, String budget) {
+    }
+
+    private static final class RouteStats {
+        private final String route;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder connections = new LongAdder();
+        private final LongAccumulator maxConnections = new LongAccumulator(Math::max, 0);
+        private final LongAdder dbNanos = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+
+        RouteStats(String route) {
+            this.route = route;
+        }
+
+        void record(RequestDbStats stats) {
+            requests.increment();
+            statements.add(stats.getStatements());
+            maxStatements.accumulate(stats.getStatements());
+            connections.add(stats.getConnections());
+            maxConnections.accumulate(stats.getConnections());
+            dbNanos.add(stats.getDbNanos());
+            waitNanos.add(stats.getAcquireWaitNanos());
+        }
+
+        RouteSummary summary(String budget) {
+            long count = Math.max(1, requests.sum());
+            double totalMs = dbNanos.sum() / 1_000_000.0;
+            return new RouteSummary(route, requests.sum(),
+                    (double) statements.sum() / count, maxStatements.get(),
+                    (double) connections.sum() / count, maxConnections.get(),
+                    totalMs / count, totalMs,
+                    waitNanos.sum() / 1_000_000.0 / count,
+                    overBudget.sum(), budget);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.devquality.web.middleware;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.devquality.persistence.sync.SyncTokenExpiredException;
+import org.devquality.web.dtos.core.response.BaseResponse;
+import org.devquality.web.dtos.core.response.ErrorDetail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Middleware centralizado que convierte los errores de las operaciones (asíncronas o de BD)
+ * en respuestas HTTP: BD → 409/400/500, executor saturado → 503, token expirado → 410
+ */
+public class ErrorHandlingMiddleware {
+    private static final Logger logger = LoggerFactory.getLogger(ErrorHandlingMiddleware.class);
+
+    /**
+     * 🎯 Maneja errores de base de datos de forma inteligente
+     */
+    public static void handleDatabaseError(Context ctx, SQLException e) {
+        logger.error("❌ Error de base de datos: {}", e.getMessage());
+
+        // Manejar errores comunes de PostgreSQL
+        String message = e.getMessage().toLowerCase();
+
+        if (message.contains("duplicate key") || message.contains("unique constraint")) {
+            // Error de clave duplicada
+            String field = extractFieldFromUniqueError(message);
+            String errorMessage = field != null ?
+                    "Ya existe un registro con ese " + field :
+                    "Ya existe un registro con esos datos";
+
+            ctx.status(HttpStatus.CONFLICT).json(
+                    BaseResponse.error(errorMessage)
+            );
+
+        } else if (message.contains("foreign key constraint")) {
+            // Error de clave foránea
+            ctx.status(HttpStatus.BAD_REQUEST).json(
+                    BaseResponse.error("La operación viola una restricción de integridad")
+            );
+
+        } else if (message.contains("not null constraint")) {
+            // Error de campo obligatorio
+            String field = extractFieldFromNotNullError(message);
+            String errorMessage = field != null ?
+                    "El campo '" + field + "' es obligatorio" :
+                    "Faltan campos obligatorios";
+
+            ctx.status(HttpStatus.BAD_REQUEST).json(
+                    BaseResponse.error(errorMessage)
+            );
+
+        } else {
+            // Error genérico de base de datos
+            handleError(ctx, "Error de base de datos", e);
+        }
+    }
+
+    /**
+     * 🎯 Manejo genérico de errores con detalles en desarrollo
+     */
+    public static void handleError(Context ctx, String message, Exception e) {
+        List<ErrorDetail> errorDetails = new ArrayList<>();
+
+        // En desarrollo, incluir detalles técnicos
+        String env = System.getenv().getOrDefault("ENV", "development");
+        if ("development".equals(env)) {
+            errorDetails.add(ErrorDetail.simple("Detalle técnico: " + e.getMessage()));
+
+            // En desarrollo también loggear el stack trace
+            logger.error("❌ Stack trace completo:", e);
+        }
+
+        ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(
+                BaseResponse.error(message, errorDetails.isEmpty() ? null : errorDetails)
+        );
+    }
+
+    /**
+     * 🎯 Entrega una operación asíncrona a Javalin (ctx.future) con manejo centralizado de errores
+     *
+     * @param ctx Context de Javalin
+     * @param message Mensaje a usar si la operación falla con un error inesperado
+     * @param stage Operación que ya escribe la respuesta al completarse
+     */
+    public static void handleAsync(Context ctx, String message, CompletionStage<?> stage) {
+        ctx.future(() -> stage
+                .exceptionally(throwable -> {
+                    handleAsyncError(ctx, message, throwable);
+                    return null;
+                })
+                .toCompletableFuture());
+    }
+
+    /**
+     * 🎯 Manejo de errores de operaciones asíncronas (ctx.future)
+     * Desenvuelve la excepción original y aplica el mismo tratamiento que en los handlers síncronos
+     */
+    public static void handleAsyncError(Context ctx, String message, Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof SQLException) {
+            handleDatabaseError(ctx, (SQLException) cause);
+        } else if (cause instanceof RejectedExecutionException) {
+            logger.warn("⚠️ Request rechazado, executor de BD saturado");
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(
+                    BaseResponse.error("Servicio saturado, intente de nuevo más tarde")
+            );
+        } else if (cause instanceof SyncTokenExpiredException) {
+            logger.info("🪦 Token de sincronización expirado");
+            ctx.status(HttpStatus.GONE).json(
+                    BaseResponse.error(cause.getMessage())
+            );
+        } else if (cause instanceof IllegalArgumentException) {
+            logger.warn("❌ Argumento inválido: {}", cause.getMessage());
+            ctx.status(HttpStatus.BAD_REQUEST).json(
+                    BaseResponse.error(cause.getMessage())
+            );
+        } else if (cause instanceof Exception) {
+            handleError(ctx, message, (Exception) cause);
+        } else {
+            handleError(ctx, message, new RuntimeException(cause));
+        }
+    }
+
+    // 🔧 MÉTODOS PRIVADOS DE UTILIDAD
+
+    /**
+     * Extrae el nombre del campo de errores unique constraint de PostgreSQL
+     */
+    private static String extractFieldFromUniqueError(String errorMessage) {
+        try {
+            // Buscar patrón: detail: key (campo)=(valor) already exists
+            if (errorMessage.contains("key (") && errorMessage.contains(")=")) {
+                int start = errorMessage.indexOf("key (") + 5;
+                int end = errorMessage.indexOf(")", start);
+                return errorMessage.substring(start, end);
+            }
+        } catch (Exception e) {
+            logger.debug("No se pudo extraer campo de error unique: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Extrae el nombre del campo de errores not null constraint de PostgreSQL
+     */
+    private static String extractFieldFromNotNullError(String errorMessage) {
+        try {
+            // Buscar patrón: null value in column "campo" violates not-null constraint
+            if (errorMessage.contains("column \"") && errorMessage.contains("\" violates")) {
+                int start = errorMessage.indexOf("column \"") + 8;
+                int end = errorMessage.indexOf("\"", start);
+                return errorMessage.substring(start, end);
+            }
+        } catch (Exception e) {
+            logger.debug("No se pudo extraer campo de error not null: {}", e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package org.devquality.web.middleware;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuenta los requests en curso para poder drenarlos antes de cerrar el pool.
+ *
+ * Un filtro de Jetty, el más externo, envuelve toda la cadena: el request deja de contar cuando
+ * el servlet de Javalin ha terminado (after-handlers, negociación de contenido, Server-Timing y
+ * escritura del cuerpo) o, si se atendió en modo asíncrono con ctx.future(), cuando el
+ * AsyncContext se completa. Solo usa contadores atómicos: el coste por request es un incremento
+ * y un decremento.
+ *
+ * Las rutas de larga duración (SSE) quedan fuera por ruta y no por la cabecera Accept: curl y
+ * muchos polyfills de EventSource no envían text/event-stream. Se cierran con app.stop().
+ */
+public class InFlightRequestTracker {
+    private final Set<String> longLivedPaths;
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private volatile boolean draining;
+
+    /**
+     * @param longLivedPaths rutas exactas que no se esperan al drenar (p. ej. streams SSE)
+     */
+    public InFlightRequestTracker(Set<String> longLivedPaths) {
+        this.longLivedPaths = Set.copyOf(longLivedPaths);
+    }
+
+    /**
+     * Añade el filtro que mantiene el contador; debe instalarse antes que el resto de filtros
+     */
+    public void installFilter(ServletContextHandler handler) {
+        FilterHolder holder = new FilterHolder(new TrackingFilter());
+        holder.setName("in-flight-requests");
+        // Javalin atiende los handlers con ctx.future() en modo asíncrono
+        holder.setAsyncSupported(true);
+        handler.addFilter(holder, "/*", EnumSet.of(DispatcherType.REQUEST));
+    }
+
+    private void onRequestEnd() {
+        inFlight.decrementAndGet();
+        completed.incrementAndGet();
+    }
+
+    public void startDraining() {
+        draining = true;
+    }
+
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Espera a que no queden requests en curso o a que venza el plazo
+     *
+     * @return requests que seguían en curso al vencer el plazo (0 si se drenaron todos)
+     */
+    public long awaitDrained(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long remaining;
+        while ((remaining = inFlight.get()) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(25);
+        }
+        return Math.max(0, remaining);
+    }
+
+    private final class TrackingFilter implements Filter {
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            if (longLivedPaths.contains(((HttpServletRequest) request).getRequestURI())) {
+                chain.doFilter(request, response);
+                return;
+            }
+            inFlight.incrementAndGet();
+
+            // Durante el drenado se pide al cliente que abra una conexión nueva (en otra instancia)
+            if (draining) {
+                ((HttpServletResponse) response).setHeader("Connection", "close");
+            }
+
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new CompletionListener());
+                } else {
+                    onRequestEnd();
+                }
+            }
+        }
+    }
+
+    /**
+     * onComplete llega también tras un timeout o un error del AsyncContext
+     */
+    private final class CompletionListener implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            onRequestEnd();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
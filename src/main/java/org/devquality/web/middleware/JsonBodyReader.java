@@ -0,0 +1,148 @@
+package org.devquality.web.middleware;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.ConfigSnapshot;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lectura de bodies JSON (o Smile/CBOR) en una sola pasada desde el InputStream del request.
+ *
+ * No materializa el body como String: Jackson parsea directamente del stream con un
+ * ObjectReader cacheado por formato y clase de DTO, aplicando límites de tamaño y de
+ * anidamiento mientras lee. Los límites se reconstruyen cuando cambia la configuración.
+ */
+public final class JsonBodyReader {
+    private static volatile Limits limits;
+
+    static {
+        AppConfiguration appConfig = AppConfiguration.getInstance();
+        limits = new Limits(appConfig.snapshot());
+        appConfig.addChangeListener((previous, current, changedKeys) -> {
+            if (changedKeys.contains("server.max-body-bytes") || changedKeys.contains("server.max-json-depth")) {
+                limits = new Limits(current);
+            }
+        });
+    }
+
+    private JsonBodyReader() {
+    }
+
+    /**
+     * Parsea el stream JSON al tipo indicado.
+     *
+     * @return el objeto parseado, o null si el body está vacío
+     * @throws BodyTooLargeException si el body supera server.max-body-bytes
+     */
+    public static <T> T read(InputStream body, long contentLength, Class<T> clazz) throws IOException {
+        return read(body, contentLength, ContentNegotiation.Format.JSON, clazz);
+    }
+
+    /**
+     * Parsea el stream en el formato indicado al tipo indicado
+     */
+    public static <T> T read(InputStream body, long contentLength, ContentNegotiation.Format format, Class<T> clazz)
+            throws IOException {
+        Limits current = limits;
+        if (contentLength > current.maxBodyBytes) {
+            throw new BodyTooLargeException(current.maxBodyBytes);
+        }
+
+        ObjectMapper mapper = current.mappers.get(format);
+        ObjectReader reader = current.readers.get(format).computeIfAbsent(clazz, mapper::readerFor);
+        try (JsonParser parser = reader.createParser(new LimitedInputStream(body, current.maxBodyBytes))) {
+            JsonToken first = parser.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            return reader.readValue(parser);
+        }
+    }
+
+    public static long getMaxBodyBytes() {
+        return limits.maxBodyBytes;
+    }
+
+    /**
+     * Límites vigentes junto a los mappers (uno por formato) y los readers construidos con ellos
+     */
+    private static final class Limits {
+        private final long maxBodyBytes;
+        private final Map<ContentNegotiation.Format, ObjectMapper> mappers =
+                new EnumMap<>(ContentNegotiation.Format.class);
+        private final Map<ContentNegotiation.Format, Map<Class<?>, ObjectReader>> readers =
+                new EnumMap<>(ContentNegotiation.Format.class);
+
+        private Limits(ConfigSnapshot config) {
+            this.maxBodyBytes = config.maxBodyBytes();
+
+            // Copias de los mappers compartidos con límites propios para los requests
+            StreamReadConstraints constraints = StreamReadConstraints.builder()
+                    .maxNestingDepth(config.maxJsonDepth())
+                    .build();
+            for (ContentNegotiation.Format format : ContentNegotiation.Format.values()) {
+                ObjectMapper mapper = ContentNegotiation.mapper(format).copy();
+                mapper.getFactory().setStreamReadConstraints(constraints);
+                mappers.put(format, mapper);
+                readers.put(format, new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    /**
+     * El body superó el tamaño máximo permitido
+     */
+    public static class BodyTooLargeException extends IOException {
+        public BodyTooLargeException(long maxBytes) {
+            super("El body del request supera el máximo de " + maxBytes + " bytes");
+        }
+    }
+
+    /**
+     * Corta la lectura en cuanto se supera el límite, sin esperar a tener todo el body
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long read;
+
+        private LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws BodyTooLargeException {
+            read += n;
+            if (read > maxBytes) {
+                throw new BodyTooLargeException(maxBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.devquality.web.middleware;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.ConfigChangeListener;
+import org.devquality.config.ConfigSnapshot;
+import org.devquality.persistence.instrumentation.RequestDbStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cabecera W3C Server-Timing con el desglose de latencia de un request:
+ * parse y validate (BeanValidationMiddleware), pool y db (RequestDbStats), serialize
+ * (ContentNegotiation) y app (desde el before-handler hasta el after-handler).
+ *
+ * Solo los requests muestreados (server-timing.sample-rate) crean un {@link Timings} y lo
+ * guardan en el Context; el resto paga una consulta de atributo nula por fase, sin reservas.
+ * Los requests muestreados en JSON se serializan en el after-handler para poder medirlo
+ * antes de enviar las cabeceras.
+ */
+public class ServerTiming implements ConfigChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(ServerTiming.class);
+    public static final String ATTRIBUTE = "server-timing";
+    public static final String HEADER = "Server-Timing";
+    private static ServerTiming instance;
+
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+
+    ServerTiming(ConfigSnapshot config) {
+        apply(config);
+    }
+
+    public static synchronized ServerTiming getInstance() {
+        if (instance == null) {
+            AppConfiguration appConfig = AppConfiguration.getInstance();
+            instance = new ServerTiming(appConfig.snapshot());
+            appConfig.addChangeListener(instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onConfigChange(ConfigSnapshot previous, ConfigSnapshot current, Set<String> changedKeys) {
+        apply(current);
+    }
+
+    private void apply(ConfigSnapshot config) {
+        enabled = Boolean.parseBoolean(config.get("server-timing.enabled", "true"));
+        try {
+            sampleRate = Math.max(0.0, Math.min(1.0, Double.parseDouble(config.get("server-timing.sample-rate", "1.0").trim())));
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ server-timing.sample-rate inválido, se mantiene {}", sampleRate);
+        }
+    }
+
+    /**
+     * Registra el muestreo y la cabecera; debe ir después de ContentNegotiation::encodeResponse
+     * para incluir la serialización
+     */
+    public void register(Javalin app) {
+        app.before(this::onRequestStart);
+        app.after(this::onRequestEnd);
+    }
+
+    /**
+     * Tiempos del request en curso, o null si no está muestreado
+     */
+    public static Timings of(Context ctx) {
+        return ctx.attribute(ATTRIBUTE);
+    }
+
+    private void onRequestStart(Context ctx) {
+        if (shouldSample()) {
+            ctx.attribute(ATTRIBUTE, new Timings(System.nanoTime()));
+        }
+    }
+
+    /**
+     * true si el request en curso entra en la muestra (sample-rate 1 siempre, 0 nunca)
+     */
+    boolean shouldSample() {
+        double rate = sampleRate;
+        return enabled && rate > 0.0 && (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void onRequestEnd(Context ctx) {
+        Timings timings = of(ctx);
+        if (timings != null) {
+            ctx.header(HEADER, timings.toHeaderValue(ctx.attribute(DbRequestAccounting.ATTRIBUTE)));
+        }
+    }
+
+    /**
+     * Tiempos por fase de un request (nanosegundos). Los handlers de un request no se solapan,
+     * así que basta con campos simples
+     */
+    public static final class Timings {
+        private final long startNanos;
+        private long parseNanos;
+        private long validateNanos;
+        private long serializeNanos;
+
+        Timings(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void addParse(long nanos) {
+            parseNanos += nanos;
+        }
+
+        public void addValidate(long nanos) {
+            validateNanos += nanos;
+        }
+
+        public void addSerialize(long nanos) {
+            serializeNanos += nanos;
+        }
+
+        /**
+         * "parse;dur=0.12, validate;dur=0.05, pool;dur=0.10, db;dur=4.21;desc=\"2 statements\", serialize;dur=0.30, app;dur=6.10"
+         */
+        String toHeaderValue(RequestDbStats db) {
+            StringBuilder value = new StringBuilder(160);
+            if (parseNanos > 0) {
+                appendMetric(value, "parse", parseNanos);
+            }
+            if (validateNanos > 0) {
+                appendMetric(value, "validate", validateNanos);
+            }
+            if (db != null && db.getConnections() > 0) {
+                appendMetric(value, "pool", db.getAcquireWaitNanos());
+            }
+            if (db != null && db.getStatements() > 0) {
+                appendMetric(value, "db", db.getDbNanos());
+                value.append(";desc=\"").append(db.getStatements()).append(" statements\"");
+            }
+            if (serializeNanos > 0) {
+                appendMetric(value, "serialize", serializeNanos);
+            }
+            appendMetric(value, "app", System.nanoTime() - startNanos);
+            return value.toString();
+        }
+
+        private static void appendMetric(StringBuilder value, String name, long nanos) {
+            if (value.length() > 0) {
+                value.append(", ");
+            }
+            long hundredths = nanos / 10_000;
+            long fraction = hundredths % 100;
+            value.append(name).append(";dur=").append(hundredths / 100).append(fraction < 10 ? ".0" : ".").append(fraction);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.devquality.web.validators;
+
+import org.devquality.web.dtos.core.response.ErrorDetail;
+
+import java.util.List;
+
+/**
+ * Validador en Java plano generado en compilación para un DTO (@GenerateValidator)
+ */
+public interface PrecompiledValidator<T> {
+
+    Class<T> getTargetType();
+
+    /**
+     * Valida el objeto con los grupos indicados (Default si no se indica ninguno)
+     */
+    List<ErrorDetail> validate(T object, Class<?>... groups);
+}
@@ -0,0 +1,82 @@
+package org.devquality.web.validators;
+
+import jakarta.validation.groups.Default;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Funciones de soporte para los validadores generados.
+ * Reproducen la semántica de los validadores de Hibernate Validator para cada restricción.
+ */
+public final class PrecompiledValidators {
+    private static final Class<?>[] DEFAULT_GROUPS = {Default.class};
+
+    private PrecompiledValidators() {
+    }
+
+    /**
+     * Una restricción aplica si alguno de los grupos pedidos es (o extiende) uno de sus grupos
+     */
+    public static boolean inGroups(Class<?>[] requested, Class<?>... constraintGroups) {
+        Class<?>[] groups = requested == null || requested.length == 0 ? DEFAULT_GROUPS : requested;
+        for (Class<?> group : groups) {
+            for (Class<?> constraintGroup : constraintGroups) {
+                if (constraintGroup.isAssignableFrom(group)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static boolean sizeBetween(int length, int min, int max) {
+        return length >= min && length <= max;
+    }
+
+    public static int signum(Number value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).signum();
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).signum();
+        }
+        return Long.signum(value.longValue());
+    }
+
+    public static int compare(Number value, long bound) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).compareTo(BigDecimal.valueOf(bound));
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).compareTo(BigInteger.valueOf(bound));
+        }
+        return Long.compare(value.longValue(), bound);
+    }
+
+    public static int compare(Number value, BigDecimal bound) {
+        return toBigDecimal(value).compareTo(bound);
+    }
+
+    /**
+     * Misma regla que DigitsValidatorForNumber de Hibernate Validator
+     */
+    public static boolean digits(Number value, int maxInteger, int maxFraction) {
+        BigDecimal number = value instanceof BigDecimal
+                ? (BigDecimal) value
+                : new BigDecimal(value.toString()).stripTrailingZeros();
+        int integerLength = number.precision() - number.scale();
+        int fractionLength = Math.max(number.scale(), 0);
+        return maxInteger >= integerLength && maxFraction >= fractionLength;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+}
@@ -1,6 +1,7 @@
 package org.devquality.web.validators;
 
 
+import org.devquality.config.AppConfiguration;
 import org.devquality.web.dtos.core.response.ErrorDetail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,47 +11,59 @@ import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 
 /**
  * Servicio centralizado para validaciones usando Bean Validation (JSR-303/JSR-380)
+ *
+ * Los DTOs anotados con @GenerateValidator se validan con el validador generado en
+ * compilación (sin reflexión ni EL); el resto, y las propiedades con restricciones no
+ * soportadas por el generador, con Hibernate Validator, que se inicializa solo si se usa.
  */
 public class ValidationService {
     private static final Logger logger = LoggerFactory.getLogger(ValidationService.class);
-    private static final Validator validator;
-
-    // Inicialización del validador (singleton)
-    static {
-        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
-            validator = factory.getValidator();
-            logger.info("✅ Bean Validation inicializado correctamente");
-        } catch (Exception e) {
-            logger.error("❌ Error al inicializar Bean Validation", e);
-            throw new RuntimeException("No se pudo inicializar Bean Validation", e);
-        }
-    }
+    private static final Map<Class<?>, PrecompiledValidator<?>> precompiledValidators = loadPrecompiledValidators();
 
     /**
-     * Valida un objeto usando Bean Validation sin grupos específicos
+     * Inicialización perezosa del validador de Hibernate (holder idiom)
      */
-    public static <T> ValidationResult validate(T object) {
-        if (object == null) {
-            List<ErrorDetail> errors = List.of(
-                    ErrorDetail.simple("El objeto a validar no puede ser null")
-            );
-            return new ValidationResult(false, errors);
+    private static final class HibernateValidatorHolder {
+        private static final Validator validator;
+
+        static {
+            try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+                validator = factory.getValidator();
+                logger.info("✅ Bean Validation inicializado correctamente");
+            } catch (Exception e) {
+                logger.error("❌ Error al inicializar Bean Validation", e);
+                throw new RuntimeException("No se pudo inicializar Bean Validation", e);
+            }
         }
+    }
 
-        logger.debug("🔍 Validando objeto: {}", object.getClass().getSimpleName());
-
-        Set<ConstraintViolation<T>> violations = validator.validate(object);
-        List<ErrorDetail> errors = convertViolationsToErrors(violations);
+    private static Map<Class<?>, PrecompiledValidator<?>> loadPrecompiledValidators() {
+        Map<Class<?>, PrecompiledValidator<?>> validators = new HashMap<>();
+        if (!AppConfiguration.getInstance().getBoolean("validation.precompiled.enabled", true)) {
+            logger.info("⚙️ Validadores precompilados deshabilitados, se usa Hibernate Validator");
+            return validators;
+        }
 
-        boolean isValid = errors.isEmpty();
-        logger.debug("✅ Validación completada: {} errores encontrados", errors.size());
+        for (PrecompiledValidator<?> validator : ServiceLoader.load(PrecompiledValidator.class)) {
+            validators.put(validator.getTargetType(), validator);
+        }
+        logger.info("⚡ {} validadores precompilados registrados", validators.size());
+        return validators;
+    }
 
-        return new ValidationResult(isValid, errors);
+    /**
+     * Valida un objeto usando Bean Validation sin grupos específicos
+     */
+    public static <T> ValidationResult validate(T object) {
+        return validate(object, new Class<?>[0]);
     }
 
     /**
@@ -66,8 +79,14 @@ public class ValidationService {
 
         logger.debug("🔍 Validando objeto con grupos: {}", object.getClass().getSimpleName());
 
-        Set<ConstraintViolation<T>> violations = validator.validate(object, groups);
-        List<ErrorDetail> errors = convertViolationsToErrors(violations);
+        List<ErrorDetail> errors;
+        PrecompiledValidator<T> precompiled = findPrecompiled(object);
+        if (precompiled != null) {
+            errors = precompiled.validate(object, groups);
+        } else {
+            Set<ConstraintViolation<T>> violations = HibernateValidatorHolder.validator.validate(object, groups);
+            errors = convertViolationsToErrors(violations);
+        }
 
         boolean isValid = errors.isEmpty();
         logger.debug("✅ Validación por grupos completada: {} errores", errors.size());
@@ -75,6 +94,21 @@ public class ValidationService {
         return new ValidationResult(isValid, errors);
     }
 
+    /**
+     * Valida una propiedad con Hibernate Validator.
+     * Lo usan los validadores generados para las restricciones que no saben traducir.
+     */
+    public static <T> List<ErrorDetail> validatePropertyWithHibernate(T object, String propertyName, Class<?>... groups) {
+        Set<ConstraintViolation<T>> violations =
+                HibernateValidatorHolder.validator.validateProperty(object, propertyName, groups);
+        return convertViolationsToErrors(violations);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> PrecompiledValidator<T> findPrecompiled(T object) {
+        return (PrecompiledValidator<T>) precompiledValidators.get(object.getClass());
+    }
+
     /**
      * Valida un valor específico de una propiedad
      */
@@ -88,7 +122,7 @@ public class ValidationService {
 
         logger.debug("🔍 Validando propiedad '{}' de {}", propertyName, object.getClass().getSimpleName());
 
-        Set<ConstraintViolation<T>> violations = validator.validateProperty(object, propertyName, groups);
+        Set<ConstraintViolation<T>> violations = HibernateValidatorHolder.validator.validateProperty(object, propertyName, groups);
         List<ErrorDetail> errors = convertViolationsToErrors(violations);
 
         boolean isValid = errors.isEmpty();
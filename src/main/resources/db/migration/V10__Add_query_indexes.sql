@@ -0,0 +1,19 @@
+-- V10__Add_query_indexes.sql
+
+-- Índices para las consultas de ProductRepository/UserRepositoryImpl que hoy recorren la tabla.
+-- Se comprueban con el modo explain-check (EXPLAIN de cada consulta del repositorio).
+-- Requiere pg_trgm, extensión "trusted" desde PostgreSQL 13: basta con ser dueño de la BD.
+
+-- Rango de precios: ?fields=id,name,price se resuelve con un Index Only Scan sin tocar el heap
+CREATE INDEX idx_products_price ON products(price) INCLUDE (id, name);
+
+-- Búsqueda por nombre: LOWER(name) LIKE '%texto%' empieza por comodín, un B-tree sobre
+-- lower(name) no serviría; el índice de trigramas sí admite LIKE con comodines a ambos lados
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_products_lower_name ON products USING gin (lower(name) gin_trgm_ops);
+
+-- (created_at DESC, id) no se crea: idx_products_created_at (created_at, id) de V9 ya sirve
+-- ORDER BY created_at DESC, id DESC recorriéndolo hacia atrás
+
+-- users.email ya es UNIQUE (users_email_key): idx_users_email lo duplicaba
+DROP INDEX idx_users_email;
@@ -0,0 +1,101 @@
+-- V11__Order_sync_by_transaction.sql
+
+-- La sincronización incremental deja de paginar por updated_at: CURRENT_TIMESTAMP es la hora
+-- de inicio de la transacción, y una transacción larga confirmaba filas detrás de tokens ya
+-- entregados. Cada fila modificada y cada lápida guardan ahora el xid de la transacción que
+-- la escribió (xid8, PostgreSQL 13+) y la sync solo entrega xids menores que el más antiguo
+-- en curso (pg_snapshot_xmin(pg_current_snapshot())): cualquier confirmación posterior tiene
+-- un xid mayor que el cursor, por larga que haya sido la transacción.
+--
+-- Las filas existentes quedan con el xid de esta migración; los tokens antiguos (por
+-- timestamp) se rechazan como expirados y los clientes resincronizan desde cero.
+
+ALTER TABLE products ADD COLUMN change_xid xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE OR REPLACE FUNCTION stamp_change_xid()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid = pg_current_xact_id();
+RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER stamp_products_change_xid
+    BEFORE UPDATE ON products
+    FOR EACH ROW
+    EXECUTE FUNCTION stamp_change_xid();
+
+DROP INDEX idx_products_updated_at;
+CREATE INDEX idx_products_change_xid ON products(change_xid, id);
+
+-- Lápidas: confirmed_at lo fija la purga la primera vez que ve la lápida (ya confirmada), así
+-- la retención cuenta desde después de la confirmación y no desde el inicio de la transacción
+ALTER TABLE product_tombstones ADD COLUMN change_xid xid8 NOT NULL DEFAULT pg_current_xact_id();
+ALTER TABLE product_tombstones ADD COLUMN confirmed_at TIMESTAMP WITH TIME ZONE;
+UPDATE product_tombstones SET confirmed_at = deleted_at;
+
+DROP INDEX idx_product_tombstones_deleted_at;
+CREATE INDEX idx_product_tombstones_change_xid ON product_tombstones(change_xid, id);
+CREATE INDEX idx_product_tombstones_confirmed_at ON product_tombstones(confirmed_at, id);
+CREATE INDEX idx_product_tombstones_unconfirmed ON product_tombstones(id) WHERE confirmed_at IS NULL;
+
+CREATE OR REPLACE FUNCTION record_product_tombstones()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO product_tombstones (id, deleted_at, change_xid, confirmed_at)
+    SELECT id, CURRENT_TIMESTAMP, pg_current_xact_id(), NULL FROM old_rows
+    ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at,
+                                   change_xid = EXCLUDED.change_xid,
+                                   confirmed_at = NULL;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Igual que en V9, con el xid y confirmed_at en las lápidas de las particiones expiradas
+CREATE OR REPLACE FUNCTION expire_product_partitions(retention_months INT, drop_data BOOLEAN)
+RETURNS INT AS $$
+DECLARE
+    cutoff TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC') - make_interval(months => retention_months);
+    partition_name TEXT;
+    removed BIGINT;
+    expired INT := 0;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'products'::regclass
+          AND c.relname ~ '^products_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM 11), 'YYYYMM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('INSERT INTO product_tombstones (id, deleted_at, change_xid, confirmed_at) '
+                           || 'SELECT id, CURRENT_TIMESTAMP, pg_current_xact_id(), NULL FROM %I '
+                           || 'ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at, '
+                           || 'change_xid = EXCLUDED.change_xid, confirmed_at = NULL', partition_name);
+        GET DIAGNOSTICS removed = ROW_COUNT;
+
+        EXECUTE format('ALTER TABLE products DETACH PARTITION %I', partition_name);
+        IF drop_data THEN
+            EXECUTE format('DROP TABLE %I', partition_name);
+ELSE
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', partition_name,
+                           'products_archive_' || substring(partition_name FROM 11));
+END IF;
+
+UPDATE row_counters SET row_count = row_count - removed
+WHERE table_name = 'products' AND shard = 0;
+expired := expired + 1;
+END LOOP;
+
+    IF expired > 0 THEN
+UPDATE table_versions SET version = version + 1 WHERE table_name = 'products';
+PERFORM pg_notify('product_changes', json_build_object(
+                'id', NULL,
+                'op', 'TRUNCATE',
+                'updated_at', NOW()
+        )::text);
+END IF;
+RETURN expired;
+END;
+$$ language 'plpgsql';
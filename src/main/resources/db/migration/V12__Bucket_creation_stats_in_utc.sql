@@ -0,0 +1,17 @@
+-- V12__Bucket_creation_stats_in_utc.sql
+
+-- product_creation_hourly agrupaba con date_trunc('hour', created_at), que trunca en la zona
+-- horaria de la sesión que ejecuta el REFRESH: con zonas de desfase no entero (p. ej.
+-- Asia/Kolkata, +05:30) los buckets empezaban a la media hora UTC y la agregación diaria (UTC)
+-- mezclaba días. Se trunca siempre en UTC y se vuelve a convertir a timestamptz.
+
+DROP MATERIALIZED VIEW product_creation_hourly;
+
+CREATE MATERIALIZED VIEW product_creation_hourly AS
+SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC' AS bucket_start,
+       COUNT(*) AS product_count
+FROM products
+WHERE created_at IS NOT NULL
+GROUP BY 1;
+
+CREATE UNIQUE INDEX idx_product_creation_hourly_bucket ON product_creation_hourly(bucket_start);
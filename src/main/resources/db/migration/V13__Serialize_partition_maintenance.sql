@@ -0,0 +1,86 @@
+-- V13__Serialize_partition_maintenance.sql
+
+-- Varias instancias ejecutan el mantenimiento de particiones a la vez. create_product_partition
+-- comprobaba to_regclass y luego hacía CREATE TABLE, y expire_product_partitions listaba las
+-- particiones y luego las separaba: dos llamadas concurrentes podían ver el mismo estado y
+-- fallar en el CREATE/DETACH/DROP (o registrar dos veces las lápidas y restar dos veces el
+-- contador). Ambas toman ahora el mismo advisory lock de transacción, así que las llamadas se
+-- serializan y la segunda ve el catálogo ya actualizado; IF NOT EXISTS / IF EXISTS cubren
+-- además a quien modifique las particiones a mano sin el lock.
+--
+-- Recordatorio de V9: la clave primaria de products es (id, created_at) y ya no garantiza por sí
+-- sola que id sea único. Solo lo es porque products_id_seq lo genera; un id insertado a mano con
+-- otro created_at se duplicaría sin error (y ON CONFLICT (id) no puede usarse sobre products).
+
+CREATE OR REPLACE FUNCTION create_product_partition(month_start TIMESTAMP WITH TIME ZONE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    month_utc TIMESTAMP := date_trunc('month', month_start AT TIME ZONE 'UTC');
+    partition_name TEXT := 'products_p' || to_char(month_utc, 'YYYYMM');
+BEGIN
+    -- Mismo lock que expire_product_partitions; se libera al terminar la transacción
+    PERFORM pg_advisory_xact_lock(hashtext('products_partition_maintenance'));
+
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+END IF;
+
+    -- Falla si products_default ya tiene filas de ese mes (hay que moverlas a mano)
+EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF products FOR VALUES FROM (%L) TO (%L)',
+               partition_name,
+               month_utc AT TIME ZONE 'UTC',
+               (month_utc + INTERVAL '1 month') AT TIME ZONE 'UTC');
+RETURN TRUE;
+END;
+$$ language 'plpgsql';
+
+CREATE OR REPLACE FUNCTION expire_product_partitions(retention_months INT, drop_data BOOLEAN)
+RETURNS INT AS $$
+DECLARE
+    cutoff TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC') - make_interval(months => retention_months);
+    partition_name TEXT;
+    removed BIGINT;
+    expired INT := 0;
+BEGIN
+    -- La lista de particiones se lee después del lock: otra instancia ya no puede estar separándolas
+    PERFORM pg_advisory_xact_lock(hashtext('products_partition_maintenance'));
+
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'products'::regclass
+          AND c.relname ~ '^products_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM 11), 'YYYYMM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('INSERT INTO product_tombstones (id, deleted_at, change_xid, confirmed_at) '
+                           || 'SELECT id, CURRENT_TIMESTAMP, pg_current_xact_id(), NULL FROM %I '
+                           || 'ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at, '
+                           || 'change_xid = EXCLUDED.change_xid, confirmed_at = NULL', partition_name);
+        GET DIAGNOSTICS removed = ROW_COUNT;
+
+        EXECUTE format('ALTER TABLE products DETACH PARTITION %I', partition_name);
+        IF drop_data THEN
+            EXECUTE format('DROP TABLE IF EXISTS %I', partition_name);
+ELSE
+            EXECUTE format('ALTER TABLE IF EXISTS %I RENAME TO %I', partition_name,
+                           'products_archive_' || substring(partition_name FROM 11));
+END IF;
+
+UPDATE row_counters SET row_count = row_count - removed
+WHERE table_name = 'products' AND shard = 0;
+expired := expired + 1;
+END LOOP;
+
+    IF expired > 0 THEN
+UPDATE table_versions SET version = version + 1 WHERE table_name = 'products';
+PERFORM pg_notify('product_changes', json_build_object(
+                'id', NULL,
+                'op', 'TRUNCATE',
+                'updated_at', NOW()
+        )::text);
+END IF;
+RETURN expired;
+END;
+$$ language 'plpgsql';
@@ -0,0 +1,44 @@
+-- V14__Shard_table_versions.sql
+
+-- Cada sentencia de escritura sobre products actualizaba la única fila de table_versions y
+-- mantenía su bloqueo hasta el commit: todas las transacciones que escriben en products se
+-- serializaban en esa fila. Igual que row_counters (V5), la versión pasa a repartirse en 16
+-- fragmentos (uno por backend) y la versión de la tabla es la suma. Cada fragmento solo crece,
+-- así que la suma también: sigue sirviendo para detectar cualquier escritura confirmada.
+-- Dos transacciones de backends con el mismo fragmento siguen esperándose entre sí.
+
+ALTER TABLE table_versions ADD COLUMN shard SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE table_versions DROP CONSTRAINT table_versions_pkey;
+ALTER TABLE table_versions ADD PRIMARY KEY (table_name, shard);
+
+-- La versión actual queda en el fragmento 0 (la suma no cambia)
+INSERT INTO table_versions (table_name, shard, version)
+SELECT t.table_name, s, 0
+FROM (SELECT DISTINCT table_name FROM table_versions) t
+         CROSS JOIN generate_series(1, 15) AS s;
+
+CREATE OR REPLACE FUNCTION bump_table_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE table_versions SET version = version + 1
+    WHERE table_name = TG_TABLE_NAME AND shard = pg_backend_pid() % 16;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- source_version se lee ahora como suma de fragmentos
+DROP MATERIALIZED VIEW product_price_stats;
+
+CREATE MATERIALIZED VIEW product_price_stats AS
+SELECT 1 AS id,
+       (SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products') AS source_version,
+       COUNT(*) AS product_count,
+       COUNT(description) AS with_description_count,
+       MIN(price) AS min_price,
+       MAX(price) AS max_price,
+       AVG(price) AS avg_price,
+       percentile_cont(ARRAY[0.5, 0.9, 0.95, 0.99]) WITHIN GROUP (ORDER BY price) AS price_percentiles,
+       CURRENT_TIMESTAMP AS refreshed_at
+FROM products;
+
+CREATE UNIQUE INDEX idx_product_price_stats_id ON product_price_stats(id);
@@ -0,0 +1,12 @@
+-- V15__Create_database_identity.sql
+
+-- Identidad aleatoria de esta base de datos, generada una vez al migrar. Las versiones de
+-- table_versions vuelven a empezar si se recrea la BD, así que lo que se guarde fuera de ella
+-- indexado por versión (la foto del catálogo en disco) lleva también esta identidad.
+CREATE TABLE database_identity (
+                                   singleton BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+                                   id UUID NOT NULL DEFAULT gen_random_uuid(),
+                                   created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO database_identity DEFAULT VALUES;
@@ -0,0 +1,79 @@
+-- V16__Drop_products_default_partition.sql
+
+-- products_default (V9) impedía que PostgreSQL tratara las particiones de rango como ordenadas:
+-- con una partición DEFAULT sin podar, ORDER BY created_at DESC, id DESC LIMIT se planificaba
+-- como Merge Append, que abre un recorrido de índice en cada partición mensual y en la DEFAULT,
+-- en lugar de un Append ordenado que se detiene al llenar la página. Además, una sola fila de
+-- un mes futuro en products_default hacía fallar create_product_partition para ese mes hasta
+-- moverla a mano.
+--
+-- Sin DEFAULT, las particiones se crean por adelantado (ensure_product_partitions desde
+-- ProductPartitionMaintainer) y un INSERT en un mes sin partición falla en el momento
+-- ("no partition of relation products found for row") en lugar de quedarse en un cajón.
+--
+-- Las filas que hubiera en products_default pasan a particiones mensuales: se separa, se copian
+-- sus filas a tablas sueltas y se adjuntan. Ninguna fila sale de products desde el punto de
+-- vista de los triggers (no hay INSERT/DELETE sobre products), así que contadores, versión,
+-- lápidas y notificaciones no cambian.
+
+DO $$
+DECLARE
+    month_utc TIMESTAMP;
+    partition_name TEXT;
+BEGIN
+    -- Mismo lock que create/expire_product_partitions (V13)
+    PERFORM pg_advisory_xact_lock(hashtext('products_partition_maintenance'));
+
+    IF to_regclass('products_default') IS NULL THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE products DETACH PARTITION products_default;
+
+    FOR month_utc IN
+        SELECT DISTINCT date_trunc('month', created_at AT TIME ZONE 'UTC')
+        FROM products_default
+        ORDER BY 1
+    LOOP
+        -- Un mes con partición propia no puede tener filas en DEFAULT: el nombre está libre
+        partition_name := 'products_p' || to_char(month_utc, 'YYYYMM');
+        EXECUTE format('CREATE TABLE %I (LIKE products INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+        EXECUTE format('INSERT INTO %I SELECT * FROM products_default WHERE created_at >= %L AND created_at < %L',
+                       partition_name,
+                       month_utc AT TIME ZONE 'UTC',
+                       (month_utc + INTERVAL '1 month') AT TIME ZONE 'UTC');
+        EXECUTE format('ALTER TABLE products ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name,
+                       month_utc AT TIME ZONE 'UTC',
+                       (month_utc + INTERVAL '1 month') AT TIME ZONE 'UTC');
+        RAISE NOTICE 'Filas de products_default movidas a %', partition_name;
+    END LOOP;
+
+    DROP TABLE products_default;
+END;
+$$ language 'plpgsql';
+
+-- Misma función que V13 sin la referencia a products_default
+CREATE OR REPLACE FUNCTION create_product_partition(month_start TIMESTAMP WITH TIME ZONE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    month_utc TIMESTAMP := date_trunc('month', month_start AT TIME ZONE 'UTC');
+    partition_name TEXT := 'products_p' || to_char(month_utc, 'YYYYMM');
+BEGIN
+    -- Mismo lock que expire_product_partitions; se libera al terminar la transacción
+    PERFORM pg_advisory_xact_lock(hashtext('products_partition_maintenance'));
+
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF products FOR VALUES FROM (%L) TO (%L)',
+                   partition_name,
+                   month_utc AT TIME ZONE 'UTC',
+                   (month_utc + INTERVAL '1 month') AT TIME ZONE 'UTC');
+    RETURN TRUE;
+END;
+$$ language 'plpgsql';
+
+-- Por si la aplicación no ha arrancado aún el mantenimiento tras desplegar esta versión
+SELECT ensure_product_partitions(3);
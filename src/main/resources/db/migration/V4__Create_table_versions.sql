@@ -0,0 +1,24 @@
+-- V4__Create_table_versions.sql
+
+-- Versión monotónica por tabla, usada para invalidar cachés de consultas
+CREATE TABLE table_versions (
+                                table_name VARCHAR(63) PRIMARY KEY,
+                                version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO table_versions (table_name, version) VALUES ('products', 0);
+
+-- Función para incrementar la versión de la tabla afectada
+CREATE OR REPLACE FUNCTION bump_table_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE table_versions SET version = version + 1 WHERE table_name = TG_TABLE_NAME;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Trigger por sentencia para products (también detecta escrituras fuera de la aplicación)
+CREATE TRIGGER bump_products_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON products
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_table_version();
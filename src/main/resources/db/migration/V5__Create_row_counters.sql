@@ -0,0 +1,67 @@
+-- V5__Create_row_counters.sql
+
+-- Contadores de filas fragmentados (16 filas por tabla) para evitar contención
+-- en una única fila cuando hay muchas inserciones/eliminaciones concurrentes
+CREATE TABLE row_counters (
+                              table_name VARCHAR(63) NOT NULL,
+                              shard SMALLINT NOT NULL,
+                              row_count BIGINT NOT NULL DEFAULT 0,
+                              PRIMARY KEY (table_name, shard)
+);
+
+INSERT INTO row_counters (table_name, shard, row_count)
+SELECT 'products', s, 0 FROM generate_series(0, 15) AS s;
+
+-- Valor inicial con el contenido actual de la tabla
+UPDATE row_counters
+SET row_count = (SELECT COUNT(*) FROM products)
+WHERE table_name = 'products' AND shard = 0;
+
+-- Función para sumar las filas insertadas (una actualización por sentencia)
+CREATE OR REPLACE FUNCTION increment_row_counter()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE row_counters
+    SET row_count = row_count + (SELECT COUNT(*) FROM new_rows)
+    WHERE table_name = TG_TABLE_NAME AND shard = pg_backend_pid() % 16;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Función para restar las filas eliminadas (una actualización por sentencia)
+CREATE OR REPLACE FUNCTION decrement_row_counter()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE row_counters
+    SET row_count = row_count - (SELECT COUNT(*) FROM old_rows)
+    WHERE table_name = TG_TABLE_NAME AND shard = pg_backend_pid() % 16;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Función para reiniciar los contadores tras un TRUNCATE
+CREATE OR REPLACE FUNCTION reset_row_counter()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE row_counters SET row_count = 0 WHERE table_name = TG_TABLE_NAME;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Triggers para products
+CREATE TRIGGER count_products_insert
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION increment_row_counter();
+
+CREATE TRIGGER count_products_delete
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION decrement_row_counter();
+
+CREATE TRIGGER count_products_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION reset_row_counter();
@@ -0,0 +1,46 @@
+-- V6__Create_product_change_notifications.sql
+
+-- Publica un evento compacto por cada fila modificada en products (canal product_changes)
+CREATE OR REPLACE FUNCTION notify_product_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('product_changes', json_build_object(
+                'id', OLD.id,
+                'op', TG_OP,
+                'updated_at', NOW()
+        )::text);
+RETURN OLD;
+END IF;
+
+    PERFORM pg_notify('product_changes', json_build_object(
+            'id', NEW.id,
+            'op', TG_OP,
+            'updated_at', NEW.updated_at
+    )::text);
+RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+-- TRUNCATE no tiene filas: se notifica sin id para forzar la resincronización de los clientes
+CREATE OR REPLACE FUNCTION notify_product_truncate()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('product_changes', json_build_object(
+            'id', NULL,
+            'op', TG_OP,
+            'updated_at', NOW()
+    )::text);
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER notify_products_change
+    AFTER INSERT OR UPDATE OR DELETE ON products
+    FOR EACH ROW
+    EXECUTE FUNCTION notify_product_change();
+
+CREATE TRIGGER notify_products_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_product_truncate();
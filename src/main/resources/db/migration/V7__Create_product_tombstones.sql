@@ -0,0 +1,31 @@
+-- V7__Create_product_tombstones.sql
+
+-- Lápidas de productos eliminados para la sincronización incremental (/api/products/sync).
+-- Se purgan periódicamente pasada la ventana de retención.
+CREATE TABLE product_tombstones (
+                                    id BIGINT PRIMARY KEY,
+                                    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Recorrido por (deleted_at, id) para la sync y la purga
+CREATE INDEX idx_product_tombstones_deleted_at ON product_tombstones(deleted_at, id);
+
+-- Recorrido por (updated_at, id) para la sync (coste proporcional a los cambios, no al catálogo)
+CREATE INDEX idx_products_updated_at ON products(updated_at, id);
+
+-- Función para registrar las filas eliminadas (una inserción por sentencia)
+CREATE OR REPLACE FUNCTION record_product_tombstones()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO product_tombstones (id, deleted_at)
+    SELECT id, CURRENT_TIMESTAMP FROM old_rows
+    ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER tombstone_products_delete
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_product_tombstones();
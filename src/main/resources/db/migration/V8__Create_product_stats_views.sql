@@ -0,0 +1,37 @@
+-- V8__Create_product_stats_views.sql
+
+-- Agregados del catálogo para /api/products/stats. Se refrescan en segundo plano con
+-- REFRESH MATERIALIZED VIEW CONCURRENTLY (requiere un índice único en cada vista), así
+-- el endpoint nunca recorre products.
+
+-- Resumen de precios; source_version es la versión de products con la que se calculó
+CREATE MATERIALIZED VIEW product_price_stats AS
+SELECT 1 AS id,
+       (SELECT version FROM table_versions WHERE table_name = 'products') AS source_version,
+       COUNT(*) AS product_count,
+       COUNT(description) AS with_description_count,
+       MIN(price) AS min_price,
+       MAX(price) AS max_price,
+       AVG(price) AS avg_price,
+       percentile_cont(ARRAY[0.5, 0.9, 0.95, 0.99]) WITHIN GROUP (ORDER BY price) AS price_percentiles,
+       CURRENT_TIMESTAMP AS refreshed_at
+FROM products;
+
+CREATE UNIQUE INDEX idx_product_price_stats_id ON product_price_stats(id);
+
+-- Productos por precio exacto: el histograma con límites configurables se calcula sobre esta vista
+CREATE MATERIALIZED VIEW product_price_counts AS
+SELECT price, COUNT(*) AS product_count
+FROM products
+GROUP BY price;
+
+CREATE UNIQUE INDEX idx_product_price_counts_price ON product_price_counts(price);
+
+-- Altas por hora (la agregación diaria se hace sobre esta vista)
+CREATE MATERIALIZED VIEW product_creation_hourly AS
+SELECT date_trunc('hour', created_at) AS bucket_start, COUNT(*) AS product_count
+FROM products
+WHERE created_at IS NOT NULL
+GROUP BY date_trunc('hour', created_at);
+
+CREATE UNIQUE INDEX idx_product_creation_hourly_bucket ON product_creation_hourly(bucket_start);
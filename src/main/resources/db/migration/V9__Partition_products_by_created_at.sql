@@ -0,0 +1,223 @@
+-- V9__Partition_products_by_created_at.sql
+
+-- Convierte products en una tabla particionada por rango mensual (UTC) de created_at.
+-- Requiere PostgreSQL 13+ (triggers BEFORE ... FOR EACH ROW en tablas particionadas).
+-- La copia se hace dentro de la transacción de la migración con products bloqueada:
+-- en catálogos grandes debe programarse en una ventana de mantenimiento.
+--
+-- Restricciones de las tablas particionadas:
+--   * la clave primaria debe incluir la clave de partición: pasa a ser (id, created_at);
+--     id sigue siendo único en la práctica porque lo genera products_id_seq
+--   * created_at pasa a ser NOT NULL
+--   * las vistas materializadas de V8 y los triggers de V3-V7 se recrean sobre la tabla nueva
+
+-- Dependientes de la tabla antigua
+DROP MATERIALIZED VIEW product_price_stats;
+DROP MATERIALIZED VIEW product_price_counts;
+DROP MATERIALIZED VIEW product_creation_hourly;
+
+ALTER TABLE products RENAME TO products_unpartitioned;
+ALTER TABLE products_unpartitioned RENAME CONSTRAINT products_pkey TO products_unpartitioned_pkey;
+DROP INDEX idx_products_name;
+DROP INDEX idx_products_updated_at;
+
+CREATE TABLE products (
+                          id BIGINT NOT NULL DEFAULT nextval('products_id_seq'),
+                          name VARCHAR(255) NOT NULL,
+                          price DECIMAL(10,2) NOT NULL CHECK (price >= 0),
+                          description TEXT,
+                          created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                          updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+                          PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- La secuencia pasa a pertenecer a la tabla nueva (si no, se borraría con la antigua)
+ALTER SEQUENCE products_id_seq OWNED BY products.id;
+
+-- Red de seguridad para filas fuera de las particiones mensuales creadas
+CREATE TABLE products_default PARTITION OF products DEFAULT;
+
+-- Índices en la tabla padre (se crean en cada partición)
+CREATE INDEX idx_products_name ON products(name);
+CREATE INDEX idx_products_updated_at ON products(updated_at, id);
+-- "Más recientes primero": recorrido hacia atrás y Append ordenado por particiones
+CREATE INDEX idx_products_created_at ON products(created_at, id);
+
+-- Crea la partición mensual (UTC) que contiene month_start; false si ya existía
+CREATE OR REPLACE FUNCTION create_product_partition(month_start TIMESTAMP WITH TIME ZONE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    month_utc TIMESTAMP := date_trunc('month', month_start AT TIME ZONE 'UTC');
+    partition_name TEXT := 'products_p' || to_char(month_utc, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+END IF;
+
+    -- Falla si products_default ya tiene filas de ese mes (hay que moverlas a mano)
+EXECUTE format('CREATE TABLE %I PARTITION OF products FOR VALUES FROM (%L) TO (%L)',
+               partition_name,
+               month_utc AT TIME ZONE 'UTC',
+               (month_utc + INTERVAL '1 month') AT TIME ZONE 'UTC');
+RETURN TRUE;
+END;
+$$ language 'plpgsql';
+
+-- Asegura las particiones desde el mes actual hasta months_ahead meses después
+CREATE OR REPLACE FUNCTION ensure_product_partitions(months_ahead INT)
+RETURNS INT AS $$
+DECLARE
+    current_month TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC');
+    month_utc TIMESTAMP;
+    created INT := 0;
+BEGIN
+    FOR month_utc IN
+        SELECT generate_series(current_month, current_month + make_interval(months => months_ahead), INTERVAL '1 month')
+    LOOP
+        IF create_product_partition(month_utc AT TIME ZONE 'UTC') THEN
+            created := created + 1;
+END IF;
+END LOOP;
+RETURN created;
+END;
+$$ language 'plpgsql';
+
+-- Retención: saca de products las particiones mensuales que terminan antes de
+-- (mes actual - retention_months). Con drop_data = false se conservan como
+-- products_archive_YYYYMM; con true se borran. Como DETACH/DROP no disparan los triggers
+-- de DELETE, aquí se registran las lápidas, se ajustan los contadores, se incrementa la
+-- versión de la tabla y se notifica un TRUNCATE para que los clientes SSE resincronicen.
+CREATE OR REPLACE FUNCTION expire_product_partitions(retention_months INT, drop_data BOOLEAN)
+RETURNS INT AS $$
+DECLARE
+    cutoff TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC') - make_interval(months => retention_months);
+    partition_name TEXT;
+    removed BIGINT;
+    expired INT := 0;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'products'::regclass
+          AND c.relname ~ '^products_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM 11), 'YYYYMM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('INSERT INTO product_tombstones (id, deleted_at) SELECT id, CURRENT_TIMESTAMP FROM %I '
+                           || 'ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at', partition_name);
+        GET DIAGNOSTICS removed = ROW_COUNT;
+
+        EXECUTE format('ALTER TABLE products DETACH PARTITION %I', partition_name);
+        IF drop_data THEN
+            EXECUTE format('DROP TABLE %I', partition_name);
+ELSE
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', partition_name,
+                           'products_archive_' || substring(partition_name FROM 11));
+END IF;
+
+UPDATE row_counters SET row_count = row_count - removed
+WHERE table_name = 'products' AND shard = 0;
+expired := expired + 1;
+END LOOP;
+
+    IF expired > 0 THEN
+UPDATE table_versions SET version = version + 1 WHERE table_name = 'products';
+PERFORM pg_notify('product_changes', json_build_object(
+                'id', NULL,
+                'op', 'TRUNCATE',
+                'updated_at', NOW()
+        )::text);
+END IF;
+RETURN expired;
+END;
+$$ language 'plpgsql';
+
+-- Particiones para los datos existentes y los próximos 3 meses
+SELECT create_product_partition(month_utc AT TIME ZONE 'UTC')
+FROM generate_series(
+             date_trunc('month', COALESCE((SELECT MIN(created_at) FROM products_unpartitioned), CURRENT_TIMESTAMP) AT TIME ZONE 'UTC'),
+             date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC'),
+             INTERVAL '1 month') AS month_utc;
+SELECT ensure_product_partitions(3);
+
+-- Copia sin triggers todavía (los contadores y la versión ya reflejan estas filas)
+INSERT INTO products (id, name, price, description, created_at, updated_at)
+SELECT id, name, price, description, COALESCE(created_at, updated_at, CURRENT_TIMESTAMP), updated_at
+FROM products_unpartitioned;
+
+DROP TABLE products_unpartitioned;
+
+-- Triggers de V3-V7 sobre la tabla particionada
+CREATE TRIGGER update_products_updated_at
+    BEFORE UPDATE ON products
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER bump_products_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON products
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_table_version();
+
+CREATE TRIGGER count_products_insert
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION increment_row_counter();
+
+CREATE TRIGGER count_products_delete
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION decrement_row_counter();
+
+CREATE TRIGGER count_products_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION reset_row_counter();
+
+CREATE TRIGGER notify_products_change
+    AFTER INSERT OR UPDATE OR DELETE ON products
+    FOR EACH ROW
+    EXECUTE FUNCTION notify_product_change();
+
+CREATE TRIGGER notify_products_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_product_truncate();
+
+CREATE TRIGGER tombstone_products_delete
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_product_tombstones();
+
+-- Vistas materializadas de V8
+CREATE MATERIALIZED VIEW product_price_stats AS
+SELECT 1 AS id,
+       (SELECT version FROM table_versions WHERE table_name = 'products') AS source_version,
+       COUNT(*) AS product_count,
+       COUNT(description) AS with_description_count,
+       MIN(price) AS min_price,
+       MAX(price) AS max_price,
+       AVG(price) AS avg_price,
+       percentile_cont(ARRAY[0.5, 0.9, 0.95, 0.99]) WITHIN GROUP (ORDER BY price) AS price_percentiles,
+       CURRENT_TIMESTAMP AS refreshed_at
+FROM products;
+
+CREATE UNIQUE INDEX idx_product_price_stats_id ON product_price_stats(id);
+
+CREATE MATERIALIZED VIEW product_price_counts AS
+SELECT price, COUNT(*) AS product_count
+FROM products
+GROUP BY price;
+
+CREATE UNIQUE INDEX idx_product_price_counts_price ON product_price_counts(price);
+
+CREATE MATERIALIZED VIEW product_creation_hourly AS
+SELECT date_trunc('hour', created_at) AS bucket_start, COUNT(*) AS product_count
+FROM products
+WHERE created_at IS NOT NULL
+GROUP BY date_trunc('hour', created_at);
+
+CREATE UNIQUE INDEX idx_product_creation_hourly_bucket ON product_creation_hourly(bucket_start);
@@ -0,0 +1,179 @@
+package org.devquality.config;
+
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import org.devquality.persistence.cache.ProductQueryCache;
+import org.devquality.persistence.counting.CountStrategy;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.repositories.IProductRepository;
+import org.devquality.persistence.repositories.impl.PipelinedProductRepository;
+import org.devquality.persistence.repositories.impl.ProductRepository;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga concurrente sobre las pocas conexiones compartidas del cliente con pipelining
+ */
+class PipelinedDatabaseConfigTest {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedDatabaseConfigTest.class);
+    private static final long QUERY_TIMEOUT_MS = 500;
+    private static final int THREADS = 64;
+    private static final int QUERIES_PER_THREAD = 200;
+    private static final int READ_MIX_ROUNDS = 50;
+    private static final BigDecimal READ_MIX_PRICE = new BigDecimal("4321.00");
+
+    private DatabaseConfig jdbc;
+    private PipelinedDatabaseConfig database;
+    private ExecutorService callers;
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc = TestDatabase.require();
+        database = new PipelinedDatabaseConfig(AppConfiguration.getInstance(), QUERY_TIMEOUT_MS);
+        callers = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException, SQLException {
+        if (callers != null) {
+            callers.shutdownNow();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (database != null) {
+            database.close();
+        }
+        TestDatabase.deleteProducts(jdbc, created);
+    }
+
+    @Test
+    void everyCallerGetsItsOwnResultUnderLoad() throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(callers.submit(() -> {
+                int ok = 0;
+                for (int i = 0; i < QUERIES_PER_THREAD; i++) {
+                    int expected = thread * QUERIES_PER_THREAD + i;
+                    RowSet<Row> rows = database.execute("SELECT $1::int", Tuple.of(expected));
+                    assertEquals(expected, rows.iterator().next().getInteger(0));
+                    ok++;
+                }
+                return ok;
+            }));
+        }
+
+        int completed = 0;
+        for (Future<Integer> result : results) {
+            completed += result.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(THREADS * QUERIES_PER_THREAD, completed);
+        logger.info("📊 {} consultas desde {} hilos en {}ms", completed, THREADS, elapsedMs);
+    }
+
+    /**
+     * La misma mezcla de lecturas por JDBC (HikariCP) y por el cliente con pipelining, con la misma
+     * concurrencia y sin caché. El rendimiento se registra, no se compara: depende de la máquina.
+     */
+    @Test
+    void sameReadMixThroughJdbcAndPipelinedRepositories() throws Exception {
+        long productId = TestDatabase.insertProduct(jdbc, "pipelined-read-mix", READ_MIX_PRICE);
+        created.add(productId);
+        IProductRepository viaJdbc = new ProductRepository(jdbc);
+        IProductRepository viaPipelining = new PipelinedProductRepository(database, ProductQueryCache.disabled(),
+                CountStrategy.EXACT);
+
+        // Calentamiento: pool, sentencias preparadas y JIT de ambos caminos
+        runReadMix(viaJdbc, productId, 5);
+        runReadMix(viaPipelining, productId, 5);
+
+        long jdbcNanos = runReadMix(viaJdbc, productId, READ_MIX_ROUNDS);
+        long pipelinedNanos = runReadMix(viaPipelining, productId, READ_MIX_ROUNDS);
+
+        int operations = THREADS * READ_MIX_ROUNDS * 3;
+        logger.info("📊 Mezcla de lecturas, {} hilos, {} operaciones: JDBC {} ops/s, pipelining {} ops/s",
+                THREADS, operations, opsPerSecond(operations, jdbcNanos), opsPerSecond(operations, pipelinedNanos));
+    }
+
+    /**
+     * Cada hilo repite por id, página y rango de precio; comprueba que el producto sembrado aparece
+     */
+    private long runReadMix(IProductRepository repository, long productId, int rounds) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(callers.submit(() -> {
+                int ok = 0;
+                for (int i = 0; i < rounds; i++) {
+                    Product byId = repository.findById(productId, IProductRepository.ALL_FIELDS);
+                    assertEquals(productId, (long) byId.getId());
+                    assertTrue(repository.findPage(0, 20, IProductRepository.ALL_FIELDS).size() <= 20);
+                    assertTrue(repository.findByPriceBetween(READ_MIX_PRICE, READ_MIX_PRICE,
+                            IProductRepository.ALL_FIELDS).stream().anyMatch(p -> p.getId() == productId));
+                    ok++;
+                }
+                return ok;
+            }));
+        }
+
+        int completed = 0;
+        for (Future<Integer> result : results) {
+            completed += result.get(120, TimeUnit.SECONDS);
+        }
+        assertEquals(THREADS * rounds, completed);
+        return System.nanoTime() - start;
+    }
+
+    private static long opsPerSecond(int operations, long nanos) {
+        return operations * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+    }
+
+    @Test
+    void slowQueryIsCancelledByTheServerWithoutFailingNeighbours() throws Exception {
+        Future<?> slow = callers.submit(() -> {
+            long start = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, () -> database.execute("SELECT pg_sleep(5)"));
+            assertEquals("57014", e.getSQLState());
+            // Lo cancela statement_timeout en el servidor, no el timeout local (timeout + margen)
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            return null;
+        });
+
+        List<Future<Integer>> fast = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            fast.add(callers.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    assertEquals(thread, database.execute("SELECT $1::int", Tuple.of(thread)).iterator().next().getInteger(0));
+                }
+                return thread;
+            }));
+        }
+
+        slow.get(10, TimeUnit.SECONDS);
+        for (Future<Integer> result : fast) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(1, database.execute("SELECT 1").iterator().next().getInteger(0));
+    }
+}
@@ -0,0 +1,43 @@
+package org.devquality.config;
+
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El checksum propio frente al que Flyway guardó al migrar, y la comparación de versiones
+ */
+class SchemaVerifierTest {
+
+    @Test
+    void comparesVersionSegmentsNumerically() {
+        assertTrue(SchemaVerifier.compareVersions("1.10", "1.9") > 0);
+        assertTrue(SchemaVerifier.compareVersions("9", "10") < 0);
+        assertTrue(SchemaVerifier.compareVersions("1.0.1", "1") > 0);
+        assertEquals(0, SchemaVerifier.compareVersions("2", "2.0"));
+        assertEquals(0, SchemaVerifier.compareVersions("16", "16"));
+    }
+
+    @Test
+    void comparesVersionsBeyondLongRange() {
+        assertTrue(SchemaVerifier.compareVersions("20240101120000000000", "9223372036854775807") > 0);
+    }
+
+    @Test
+    void schemaMigratedByFlywayPassesVerification() throws SQLException {
+        DatabaseConfig databaseConfig = TestDatabase.require();
+        SchemaVerifier verifier = new SchemaVerifier(databaseConfig);
+
+        // Mismo checksum que calculó Flyway para la última migración: si no, verify lanza
+        verifier.verify(0, 0);
+
+        try (Connection conn = databaseConfig.getConnection()) {
+            assertEquals(verifier.getClasspathVersion(), SchemaVerifier.queryAppliedVersion(conn));
+        }
+    }
+}
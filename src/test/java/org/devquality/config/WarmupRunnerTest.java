@@ -0,0 +1,16 @@
+package org.devquality.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class WarmupRunnerTest {
+
+    @Test
+    void clientSuppliedHeaderIsNotTrusted() {
+        assertFalse(WarmupRunner.isWarmupRequest(null));
+        assertFalse(WarmupRunner.isWarmupRequest(""));
+        assertFalse(WarmupRunner.isWarmupRequest("true"));
+        assertFalse(WarmupRunner.isWarmupRequest("00000000000000000000000000000000"));
+    }
+}
@@ -0,0 +1,221 @@
+package org.devquality.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reparto a clientes SSE falsos: resync por cola llena y reanudación con Last-Event-ID
+ */
+class ProductChangeBroadcasterTest {
+    private static final long HEARTBEAT_MS = 60_000;
+    private static final long WAIT_MS = 5_000;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private ProductChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void fullQueueDropsPendingEventsAndSendsResync() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(2, 16, 1, HEARTBEAT_MS);
+        FakeConnection client = new FakeConnection(null);
+        CountDownLatch release = client.blockFirstSend();
+        broadcaster.subscribe(client);
+
+        publish(1);
+        assertTrue(client.sending.await(WAIT_MS, TimeUnit.MILLISECONDS), "el primer envío no empezó");
+        // El envío del 1 sigue bloqueado: el 2 y el 3 llenan la cola y el 4 la desborda
+        publish(2);
+        publish(3);
+        publish(4);
+        release.countDown();
+
+        client.awaitEvents(2);
+        assertEquals(ProductChangeBroadcaster.CHANGE_EVENT, client.event(0).name);
+        assertEquals(ProductChangeBroadcaster.RESYNC_EVENT, client.event(1).name);
+        assertEquals("{\"reason\":\"overflow\"}", client.event(1).data);
+
+        // Tras resincronizar vuelve a recibir cambios
+        publish(5);
+        client.awaitEvents(3);
+        assertEquals(ProductChangeBroadcaster.CHANGE_EVENT, client.event(2).name);
+        assertEquals(5, productId(client.event(2)));
+        assertEquals(3, client.eventCount(), "los eventos 2 a 4 se descartaron");
+    }
+
+    @Test
+    void lastEventIdReplaysOnlyLaterEvents() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(16, 16, 1, HEARTBEAT_MS);
+        publish(1);
+        String afterFirst = lastEventId();
+        publish(2);
+        publish(3);
+
+        FakeConnection client = new FakeConnection(afterFirst);
+        broadcaster.subscribe(client);
+
+        client.awaitEvents(2);
+        assertEquals(2, productId(client.event(0)));
+        assertEquals(3, productId(client.event(1)));
+        assertEquals(lastEventId(), client.event(1).id);
+
+        publish(4);
+        client.awaitEvents(3);
+        assertEquals(4, productId(client.event(2)));
+    }
+
+    @Test
+    void lastEventIdOlderThanReplayWindowRequestsResync() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(16, 2, 1, HEARTBEAT_MS);
+        publish(1);
+        String evicted = lastEventId();
+        publish(2);
+        publish(3);
+        publish(4);
+
+        FakeConnection client = new FakeConnection(evicted);
+        broadcaster.subscribe(client);
+
+        client.awaitEvents(1);
+        assertEquals(ProductChangeBroadcaster.RESYNC_EVENT, client.event(0).name);
+        assertEquals("{\"reason\":\"replay-unavailable\"}", client.event(0).data);
+        assertEquals(1, client.eventCount(), "no se reenvía una historia incompleta");
+    }
+
+    @Test
+    void lastEventIdFromAnotherEpochRequestsResync() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(16, 16, 1, HEARTBEAT_MS);
+        publish(1);
+        String current = lastEventId();
+        // Misma secuencia, pero de un arranque anterior del proceso
+        String previousProcess = "0" + current;
+
+        FakeConnection client = new FakeConnection(previousProcess);
+        broadcaster.subscribe(client);
+
+        client.awaitEvents(1);
+        assertEquals(ProductChangeBroadcaster.RESYNC_EVENT, client.event(0).name);
+        assertEquals("{\"reason\":\"replay-unavailable\"}", client.event(0).data);
+    }
+
+    private void publish(long productId) {
+        broadcaster.publish(productId, "UPDATE", "2024-05-01T10:30:00Z");
+    }
+
+    /**
+     * El JSON puede venir indentado (pretty print en desarrollo)
+     */
+    private static long productId(Sent sent) throws Exception {
+        return JSON.readTree(sent.data).get("id").asLong();
+    }
+
+    private String lastEventId() {
+        return (String) broadcaster.getStats().get("lastEventId");
+    }
+
+    private record Sent(String name, String data, String id) {
+    }
+
+    /**
+     * Cliente que guarda lo que recibe; el primer envío puede quedarse bloqueado como un consumidor lento
+     */
+    private static final class FakeConnection implements SseConnection {
+        private final String lastEventId;
+        private final List<Sent> events = new ArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private CountDownLatch firstSendRelease;
+        private volatile boolean closed;
+
+        private FakeConnection(String lastEventId) {
+            this.lastEventId = lastEventId;
+        }
+
+        CountDownLatch blockFirstSend() {
+            firstSendRelease = new CountDownLatch(1);
+            return firstSendRelease;
+        }
+
+        @Override
+        public String lastEventId() {
+            return lastEventId;
+        }
+
+        @Override
+        public void onClose(Runnable callback) {
+        }
+
+        @Override
+        public void keepAlive() {
+        }
+
+        @Override
+        public boolean terminated() {
+            return closed;
+        }
+
+        @Override
+        public void sendEvent(String event, String data, String id) {
+            sending.countDown();
+            if (firstSendRelease != null) {
+                try {
+                    firstSendRelease.await(WAIT_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                firstSendRelease = null;
+            }
+            synchronized (events) {
+                events.add(new Sent(event, data, id));
+                events.notifyAll();
+            }
+        }
+
+        @Override
+        public void sendComment(String comment) {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + WAIT_MS;
+            synchronized (events) {
+                while (events.size() < count) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new AssertionError("se esperaban " + count + " eventos, llegaron " + events);
+                    }
+                    events.wait(remaining);
+                }
+            }
+        }
+
+        Sent event(int index) {
+            synchronized (events) {
+                return events.get(index);
+            }
+        }
+
+        int eventCount() {
+            synchronized (events) {
+                return events.size();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.devquality.persistence.batching;
+
+import org.devquality.config.DatabaseConfig;
+import org.devquality.persistence.entites.Product;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Inserciones agrupadas contra PostgreSQL: cada llamante recibe su fila aunque compartan commit
+ */
+class ProductInsertCoalescerTest {
+    private static final int CALLERS = 32;
+    private static final long MAX_DELAY_MS = 200;
+    private static final long WAIT_TIMEOUT_MS = 10_000;
+
+    private DatabaseConfig databaseConfig;
+    private ProductInsertCoalescer coalescer;
+    private ExecutorService callers;
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        databaseConfig = TestDatabase.require();
+        // Ventana amplia: los llamantes que salen a la vez caen en el mismo lote
+        coalescer = new ProductInsertCoalescer(databaseConfig, MAX_DELAY_MS, CALLERS, WAIT_TIMEOUT_MS);
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException, InterruptedException {
+        if (callers != null) {
+            callers.shutdownNow();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (coalescer != null) {
+            coalescer.shutdown(5_000);
+        }
+        TestDatabase.deleteProducts(databaseConfig, created);
+    }
+
+    @Test
+    void eachCallerGetsItsOwnRowUnderConcurrentInserts() throws Exception {
+        List<Future<Product>> results = insertAll(price -> new BigDecimal("1.00"));
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Product product = results.get(i).get();
+            created.add(product.getId());
+            assertEquals(name(i), product.getName(), "el llamante " + i + " recibió la fila de otro");
+            assertEquals(new BigDecimal("1.00"), product.getPrice());
+            assertEquals(name(i), nameInDatabase(product.getId()), "el id devuelto no es el de la fila escrita");
+            assertTrue(ids.add(product.getId()), "id repetido: " + product.getId());
+        }
+    }
+
+    @Test
+    void rowBreakingPriceCheckFailsOnlyItsCaller() throws Exception {
+        int broken = CALLERS / 2;
+        List<Future<Product>> results = insertAll(i -> i == broken ? new BigDecimal("-1.00") : new BigDecimal("1.00"));
+
+        for (int i = 0; i < CALLERS; i++) {
+            if (i == broken) {
+                try {
+                    created.add(results.get(i).get().getId());
+                    fail("un precio negativo no debería insertarse");
+                } catch (ExecutionException e) {
+                    assertInstanceOf(SQLException.class, e.getCause());
+                }
+                continue;
+            }
+            Product product = results.get(i).get();
+            created.add(product.getId());
+            assertEquals(name(i), product.getName());
+        }
+
+        Map<String, Object> stats = coalescer.getStats();
+        assertTrue((Long) stats.get("fallbacks") >= 1, "el lote con la fila rota se reintenta fila a fila: " + stats);
+        assertEquals(1L, stats.get("failedRows"), "solo falla la fila rota: " + stats);
+    }
+
+    @Test
+    void concurrentInsertsShareCommits() throws Exception {
+        List<Future<Product>> results = insertAll(price -> new BigDecimal("1.00"));
+        for (Future<Product> result : results) {
+            created.add(result.get().getId());
+        }
+
+        Map<String, Object> stats = coalescer.getStats();
+        long batches = (Long) stats.get("batches");
+        long rows = (Long) stats.get("rows");
+        assertEquals((long) CALLERS, rows);
+        assertTrue(batches < rows, "cada lote es un commit; " + rows + " filas en " + batches + " lotes");
+    }
+
+    /**
+     * Lanza CALLERS inserciones a la vez; el índice de cada una decide su nombre y su precio
+     */
+    private List<Future<Product>> insertAll(PriceFor priceFor) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Product>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            int index = i;
+            Callable<Product> call = () -> {
+                start.await();
+                return coalescer.insert(name(index), priceFor.price(index), "coalescer-test");
+            };
+            results.add(callers.submit(call));
+        }
+        start.countDown();
+        return results;
+    }
+
+    private String nameInDatabase(long id) throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT name FROM products WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static String name(int index) {
+        return "coalescer-" + index;
+    }
+
+    @FunctionalInterface
+    private interface PriceFor {
+        BigDecimal price(int index);
+    }
+}
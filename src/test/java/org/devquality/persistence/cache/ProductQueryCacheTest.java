@@ -0,0 +1,49 @@
+package org.devquality.persistence.cache;
+
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductQueryCacheTest {
+    private static final FieldSelection ALL = FieldSelection.all(List.of("id", "name", "price"));
+
+    private final ProductQueryCache cache = new ProductQueryCache(true, 100, 1024 * 1024, 0);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void patternsWithTheSameKeyQueryTheSameNormalizedValue() throws Exception {
+        String first = ProductQueryCache.normalizeNamePattern("  Teclado ");
+        String second = ProductQueryCache.normalizeNamePattern("teclado");
+
+        assertEquals(List.of("teclado"), search(first));
+        assertEquals(List.of("teclado"), search(second));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void bumpingTheVersionReloads() throws Exception {
+        String pattern = ProductQueryCache.normalizeNamePattern("Ratón");
+        search(pattern);
+
+        cache.bumpVersion();
+        search(pattern);
+
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Carga simulada: devuelve un producto cuyo nombre es el patrón que recibiría el SQL
+     */
+    private List<String> search(String pattern) throws Exception {
+        return cache.getOrLoad(ProductQueryCache.searchKey(pattern, ALL), () -> {
+            loads.incrementAndGet();
+            return List.of(new Product(1L, pattern, BigDecimal.ONE, null, null, null));
+        }).stream().map(Product::getName).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package org.devquality.persistence.entites;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes asignados por fila: el mapper generado (índices, OffsetDateTime) frente al mapeo anterior
+ * (columnas por nombre, Timestamp → LocalDateTime → String). El ResultSet devuelve siempre los mismos
+ * objetos, así solo se mide lo que asigna el mapeo.
+ */
+class ProductRowMapperAllocationTest {
+    private static final Logger logger = LoggerFactory.getLogger(ProductRowMapperAllocationTest.class);
+    private static final int ROWS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2024, 5, 1, 10, 30, 0, 0, ZoneOffset.UTC);
+    private static final Timestamp CREATED_TIMESTAMP = Timestamp.from(CREATED_AT.toInstant());
+    private static final BigDecimal PRICE = new BigDecimal("19.99");
+
+    @Test
+    void generatedMapperAllocatesLessPerRowThanLookupByName() throws Exception {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        ResultSet byIndex = resultSet(Map.of(1, 7L, 2, "Lámpara", 3, PRICE, 4, "De mesa", 5, CREATED_AT, 6, CREATED_AT));
+        ResultSet byName = resultSet(Map.of("id", 7L, "name", "Lámpara", "price", PRICE, "description", "De mesa",
+                "created_at", CREATED_TIMESTAMP, "updated_at", CREATED_TIMESTAMP));
+
+        Object[] sink = new Object[ROWS];
+        long generated = Long.MAX_VALUE;
+        long legacy = Long.MAX_VALUE;
+        // El mínimo de varias rondas descarta el calentamiento del JIT
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < ROWS; i++) {
+                sink[i] = ProductRowMapper.INSTANCE.map(byIndex);
+            }
+            generated = Math.min(generated, threads.getCurrentThreadAllocatedBytes() - start);
+
+            start = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < ROWS; i++) {
+                sink[i] = mapByName(byName);
+            }
+            legacy = Math.min(legacy, threads.getCurrentThreadAllocatedBytes() - start);
+        }
+
+        assertEquals(CREATED_AT, ProductRowMapper.INSTANCE.map(byIndex).getCreatedAt());
+        logger.info("📊 Bytes por fila: mapper generado {}, por nombre con String {}", generated / ROWS, legacy / ROWS);
+        assertTrue(generated < legacy, "generado " + generated / ROWS + " B/fila, por nombre " + legacy / ROWS + " B/fila");
+    }
+
+    /**
+     * Lo que hacía ProductRepository.mapResultSetToProduct: la entidad guardaba las fechas como String
+     */
+    private static Object[] mapByName(ResultSet rs) throws SQLException {
+        return new Object[]{
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getBigDecimal("price"),
+                rs.getString("description"),
+                String.valueOf(rs.getTimestamp("created_at").toLocalDateTime()),
+                String.valueOf(rs.getTimestamp("updated_at").toLocalDateTime())
+        };
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "la JVM no expone bytes asignados por hilo");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "la JVM no mide bytes asignados por hilo");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    /**
+     * Una sola fila, por índice o por nombre de columna; nunca hay NULL
+     */
+    private static ResultSet resultSet(Map<Object, Object> row) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return false;
+                    }
+                    Object value = row.get(args[0]);
+                    if (method.getName().equals("getObject") && args.length == 2) {
+                        return ((Class<?>) args[1]).cast(value);
+                    }
+                    return value;
+                });
+    }
+}
@@ -0,0 +1,32 @@
+package org.devquality.persistence.explain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consulta de un repositorio con parámetros de ejemplo para revisar su plan
+ *
+ * @param constant nombre de la constante SQL en el repositorio
+ * @param label variante revisada (p. ej. una proyección de ?fields=), vacía si es la única
+ * @param sql sentencia tal y como la ejecuta el repositorio
+ * @param params valores de ejemplo para los placeholders, en orden
+ * @param fullScan true si recorrer la tabla entera es inherente a la consulta (COUNT(*), listados sin límite)
+ */
+record ExplainedQuery(String constant, String label, String sql, List<Object> params, boolean fullScan) {
+
+    static ExplainedQuery of(String constant, String sql, Object... params) {
+        return new ExplainedQuery(constant, "", sql, Arrays.asList(params), false);
+    }
+
+    static ExplainedQuery fullScan(String constant, String sql, Object... params) {
+        return new ExplainedQuery(constant, "", sql, Arrays.asList(params), true);
+    }
+
+    ExplainedQuery labelled(String label) {
+        return new ExplainedQuery(constant, label, sql, params, fullScan);
+    }
+
+    String name() {
+        return label.isEmpty() ? constant : constant + " (" + label + ")";
+    }
+}
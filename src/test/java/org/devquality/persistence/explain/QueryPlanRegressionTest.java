@@ -0,0 +1,317 @@
+package org.devquality.persistence.explain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.persistence.entites.ProductRowMapper;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.mapping.ProjectedSql;
+import org.devquality.persistence.repositories.IProductRepository;
+import org.devquality.persistence.repositories.IUserRepository;
+import org.devquality.persistence.repositories.impl.ProductRepository;
+import org.devquality.persistence.repositories.impl.UserRepositoryImpl;
+import org.devquality.persistence.sync.ProductSyncRepository;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regresiones de planes: cada consulta de los repositorios pasa por EXPLAIN (FORMAT JSON) con
+ * parámetros de ejemplo y falla si algún plan recorre entera (Seq Scan) una tabla con más filas
+ * que el umbral, sumando las particiones recorridas de una misma tabla padre.
+ *
+ * Las filas de ejemplo (EXPLAIN_SEED_ROWS, 100000 por defecto) se insertan y se analizan en una
+ * transacción que se deshace al terminar; EXPLAIN sin ANALYZE no ejecuta las escrituras revisadas.
+ */
+class QueryPlanRegressionTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long SEQ_SCAN_ROW_THRESHOLD = envLong("EXPLAIN_SEQ_SCAN_ROW_THRESHOLD", 10000);
+    private static final long SEED_ROWS = envLong("EXPLAIN_SEED_ROWS", 100000);
+
+    private static final List<Class<?>> REPOSITORIES =
+            List.of(ProductRepository.class, UserRepositoryImpl.class, ProductSyncRepository.class);
+    private static final Pattern SQL = Pattern.compile("^\\s*(SELECT|INSERT|UPDATE|DELETE|WITH)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    // Sin partición DEFAULT (V16) cada mes sembrado necesita su partición; se deshace con el resto
+    private static final String SEED_PARTITIONS =
+            "SELECT create_product_partition(CURRENT_TIMESTAMP - g * INTERVAL '1 month') FROM generate_series(0, 12) g";
+
+    private static final String SEED_PRODUCTS =
+            "INSERT INTO products (name, price, description, created_at) " +
+                    "SELECT 'Producto ' || g, (g % 100000) / 100.0, 'Producto de ejemplo', " +
+                    "CURRENT_TIMESTAMP - (g % 365) * INTERVAL '1 day' FROM generate_series(1, ?) g";
+
+    private static final String SEED_USERS =
+            "INSERT INTO users (name, email) " +
+                    "SELECT 'Usuario ' || g, 'usuario' || g || '@example.com' FROM generate_series(1, ?) g " +
+                    "ON CONFLICT (email) DO NOTHING";
+
+    // Partición -> tabla padre (pg_partition_root es NULL para las tablas sin particionar)
+    private static final String SELECT_RELATION_ROWS =
+            "SELECT COALESCE(pg_partition_root(c.oid), c.oid)::regclass::text, GREATEST(c.reltuples, 0)::bigint " +
+                    "FROM pg_class c WHERE c.oid = to_regclass(?)";
+
+    /**
+     * Consultas revisadas; toda constante SQL de los repositorios debe aparecer al menos una vez
+     */
+    static List<ExplainedQuery> queries() throws ReflectiveOperationException {
+        FieldSelection allProducts = IProductRepository.ALL_FIELDS;
+        FieldSelection narrow = FieldSelection.parse("id,name,price", ProductRowMapper.FIELDS);
+        FieldSelection allUsers = IUserRepository.ALL_FIELDS;
+        BigDecimal price = new BigDecimal("19.99");
+        BigDecimal from = new BigDecimal("10.00");
+        BigDecimal to = new BigDecimal("10.50");
+        String email = "usuario42@example.com";
+
+        Class<?> products = ProductRepository.class;
+        Class<?> users = UserRepositoryImpl.class;
+        Class<?> sync = ProductSyncRepository.class;
+        return List.of(
+                ExplainedQuery.of("INSERT_PRODUCT", sql(products, "INSERT_PRODUCT", allProducts), "Producto", price, "Descripción"),
+                ExplainedQuery.fullScan("SELECT_ALL_PRODUCTS", sql(products, "SELECT_ALL_PRODUCTS", allProducts)),
+                ExplainedQuery.of("SELECT_PRODUCTS_PAGE", sql(products, "SELECT_PRODUCTS_PAGE", allProducts), 20, 0),
+                ExplainedQuery.of("SELECT_PRODUCT_BY_ID", sql(products, "SELECT_PRODUCT_BY_ID", allProducts), 42L),
+                ExplainedQuery.of("UPDATE_PRODUCT", sql(products, "UPDATE_PRODUCT", allProducts), "Producto", price, "Descripción", 42L),
+                ExplainedQuery.of("DELETE_PRODUCT_BY_ID", sql(products, "DELETE_PRODUCT_BY_ID", allProducts), 42L),
+                ExplainedQuery.fullScan("COUNT_PRODUCTS", sql(products, "COUNT_PRODUCTS", allProducts)),
+                ExplainedQuery.of("COUNT_PRODUCTS_MAINTAINED", sql(products, "COUNT_PRODUCTS_MAINTAINED", allProducts)),
+                ExplainedQuery.of("COUNT_PRODUCTS_ESTIMATED", sql(products, "COUNT_PRODUCTS_ESTIMATED", allProducts)),
+                ExplainedQuery.of("SEARCH_PRODUCTS_BY_NAME", sql(products, "SEARCH_PRODUCTS_BY_NAME", allProducts), "%producto 4242%"),
+                ExplainedQuery.of("SELECT_PRODUCTS_BY_PRICE_RANGE", sql(products, "SELECT_PRODUCTS_BY_PRICE_RANGE", allProducts), from, to),
+                ExplainedQuery.of("SELECT_PRODUCTS_BY_PRICE_RANGE", sql(products, "SELECT_PRODUCTS_BY_PRICE_RANGE", narrow), from, to)
+                        .labelled("id,name,price"),
+                ExplainedQuery.of("SELECT_PRODUCTS_VERSION", sql(products, "SELECT_PRODUCTS_VERSION", allProducts)),
+
+                ExplainedQuery.of("INSERT_USER", sql(users, "INSERT_USER", allUsers), "Usuario", email),
+                ExplainedQuery.fullScan("SELECT_ALL_USERS", sql(users, "SELECT_ALL_USERS", allUsers)),
+                ExplainedQuery.of("SELECT_USER_BY_ID", sql(users, "SELECT_USER_BY_ID", allUsers), 42L),
+                ExplainedQuery.of("SELECT_USER_BY_EMAIL", sql(users, "SELECT_USER_BY_EMAIL", allUsers), email),
+                ExplainedQuery.of("UPDATE_USER", sql(users, "UPDATE_USER", allUsers), "Usuario", email, 42L),
+                ExplainedQuery.of("DELETE_USER_BY_ID", sql(users, "DELETE_USER_BY_ID", allUsers), 42L),
+                ExplainedQuery.of("EXISTS_BY_ID", sql(users, "EXISTS_BY_ID", allUsers), 42L),
+                ExplainedQuery.of("EXISTS_BY_EMAIL", sql(users, "EXISTS_BY_EMAIL", allUsers), email),
+                ExplainedQuery.fullScan("COUNT_USERS", sql(users, "COUNT_USERS", allUsers)),
+
+                ExplainedQuery.of("SELECT_UPDATED_PRODUCTS", sql(sync, "SELECT_UPDATED_PRODUCTS", allProducts), "0", 0L, 101),
+                ExplainedQuery.of("SELECT_TOMBSTONES", sql(sync, "SELECT_TOMBSTONES", allProducts), "0", 0L, 101),
+                ExplainedQuery.of("CONFIRM_TOMBSTONES", sql(sync, "CONFIRM_TOMBSTONES", allProducts)),
+                ExplainedQuery.of("PURGE_TOMBSTONES", sql(sync, "PURGE_TOMBSTONES", allProducts), 604800000L, 10000)
+        );
+    }
+
+    @Test
+    void everySqlConstantIsExplained() throws ReflectiveOperationException {
+        Set<String> explained = new TreeSet<>();
+        for (ExplainedQuery query : queries()) {
+            explained.add(query.constant());
+        }
+        Set<String> missing = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            missing.addAll(sqlConstants(repository));
+        }
+        missing.removeAll(explained);
+
+        assertTrue(missing.isEmpty(), "Constantes SQL sin revisión de plan en queries(): " + missing);
+    }
+
+    @Test
+    void noQuerySeqScansALargeTable() throws Exception {
+        List<String> problems = new ArrayList<>();
+
+        inSeededTransaction(conn -> {
+            for (ExplainedQuery query : queries()) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    problems.addAll(check(conn, query));
+                } catch (SQLException e) {
+                    conn.rollback(savepoint);
+                    problems.add(query.name() + ": EXPLAIN falló: " + e.getMessage());
+                }
+            }
+        });
+
+        assertEquals(List.of(), problems);
+    }
+
+    /**
+     * La página "más recientes primero" recorre las particiones en orden (Append) y no mezcla
+     * todas a la vez (Merge Append, lo que ocurría con la partición DEFAULT de V9)
+     */
+    @Test
+    void productsPageReadsPartitionsInOrder() throws Exception {
+        ExplainedQuery page = queries().stream()
+                .filter(query -> query.constant().equals("SELECT_PRODUCTS_PAGE"))
+                .findFirst()
+                .orElseThrow();
+        Set<String> nodeTypes = new TreeSet<>();
+
+        inSeededTransaction(conn -> collectNodeTypes(plan(conn, page), nodeTypes));
+
+        assertTrue(nodeTypes.contains("Append"), "Plan de SELECT_PRODUCTS_PAGE: " + nodeTypes);
+        assertFalse(nodeTypes.contains("Merge Append"), "Plan de SELECT_PRODUCTS_PAGE: " + nodeTypes);
+    }
+
+    /**
+     * Ejecuta el trabajo en una transacción con los datos de ejemplo y la deshace al terminar
+     */
+    private static void inSeededTransaction(SeededWork work) throws Exception {
+        DatabaseConfig databaseConfig = TestDatabase.require();
+        try (Connection conn = databaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (SEED_ROWS > 0) {
+                    seed(conn);
+                }
+                work.run(conn);
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void seed(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(SEED_PARTITIONS);
+        }
+        for (String sql : List.of(SEED_PRODUCTS, SEED_USERS)) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, SEED_ROWS);
+                stmt.executeUpdate();
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE products, users");
+        }
+    }
+
+    private static JsonNode plan(Connection conn, ExplainedQuery query) throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN (FORMAT JSON) " + query.sql())) {
+            for (int i = 0; i < query.params().size(); i++) {
+                stmt.setObject(i + 1, query.params().get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return MAPPER.readTree(rs.getString(1)).path(0).path("Plan");
+            }
+        }
+    }
+
+    private static List<String> check(Connection conn, ExplainedQuery query) throws Exception {
+        JsonNode plan = plan(conn, query);
+
+        List<JsonNode> seqScans = new ArrayList<>();
+        collectSeqScans(plan, seqScans);
+        if (query.fullScan()) {
+            return List.of();
+        }
+
+        // Filas recorridas, no devueltas, sumadas por tabla padre: un Seq Scan sobre todas las
+        // particiones cuenta como la tabla entera aunque cada partición sea pequeña
+        Map<String, Long> rowsByTable = new LinkedHashMap<>();
+        for (JsonNode seqScan : seqScans) {
+            String relation = seqScan.path("Relation Name").asText();
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_RELATION_ROWS)) {
+                stmt.setString(1, relation);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    String table = relation;
+                    long relationRows = 0;
+                    if (rs.next()) {
+                        table = rs.getString(1);
+                        relationRows = rs.getLong(2);
+                    }
+                    rowsByTable.merge(table, Math.max(relationRows, seqScan.path("Plan Rows").asLong()), Long::sum);
+                }
+            }
+        }
+
+        List<String> problems = new ArrayList<>();
+        rowsByTable.forEach((table, rows) -> {
+            if (rows > SEQ_SCAN_ROW_THRESHOLD) {
+                problems.add(query.name() + ": Seq Scan en " + table + " (~" + rows + " filas, umbral "
+                        + SEQ_SCAN_ROW_THRESHOLD + ")");
+            }
+        });
+        return problems;
+    }
+
+    /**
+     * Nodos Seq Scan del árbol del plan (los paralelos también, con "Parallel Aware")
+     */
+    private static void collectSeqScans(JsonNode node, List<JsonNode> seqScans) {
+        if (node.path("Node Type").asText().equals("Seq Scan")) {
+            seqScans.add(node);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    private static void collectNodeTypes(JsonNode node, Set<String> nodeTypes) {
+        nodeTypes.add(node.path("Node Type").asText());
+        for (JsonNode child : node.path("Plans")) {
+            collectNodeTypes(child, nodeTypes);
+        }
+    }
+
+    /**
+     * Constantes static final con SQL del repositorio (String con una sentencia o ProjectedSql)
+     */
+    private static Set<String> sqlConstants(Class<?> repository) throws IllegalAccessException {
+        Set<String> names = new TreeSet<>();
+        for (Field field : repository.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers)) {
+                continue;
+            }
+            if (field.getType() == ProjectedSql.class) {
+                names.add(field.getName());
+            } else if (field.getType() == String.class) {
+                field.setAccessible(true);
+                if (SQL.matcher((String) field.get(null)).find()) {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String sql(Class<?> repository, String constant, FieldSelection fields)
+            throws ReflectiveOperationException {
+        Field field = repository.getDeclaredField(constant);
+        field.setAccessible(true);
+        Object value = field.get(null);
+        return value instanceof ProjectedSql projected ? projected.sql(fields) : (String) value;
+    }
+
+    @FunctionalInterface
+    private interface SeededWork {
+        void run(Connection conn) throws Exception;
+    }
+
+    private static long envLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+}
@@ -0,0 +1,160 @@
+package org.devquality.persistence.instrumentation;
+
+import org.devquality.config.ConfigSnapshot;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatsRegistryTest {
+    private static final int FAKE_ROWS = 3;
+
+    @Test
+    void statementsBeyondTheCapShareOneBucket() {
+        SqlStatsRegistry registry = registry(2);
+
+        SqlStatementStats first = registry.statsFor("SELECT a FROM t");
+        registry.statsFor("SELECT b FROM t");
+        SqlStatementStats overflow = registry.statsFor("SELECT c FROM t");
+
+        assertSame(first, registry.statsFor("SELECT a FROM t"));
+        assertSame(overflow, registry.statsFor("SELECT d FROM t"));
+        assertEquals("<otras sentencias>", overflow.getSql());
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void concurrentNewStatementsDoNotOvershootTheCap() throws Exception {
+        SqlStatsRegistry registry = registry(50);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        registry.statsFor("SELECT col_" + thread + "_" + i + " FROM t");
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(51, registry.size(), "50 sentencias distintas más el cajón común");
+    }
+
+    @Test
+    void resetFreesTheCapAndRetiresResolvedStats() {
+        SqlStatsRegistry registry = registry(1);
+        SqlStatementStats before = registry.statsFor("SELECT a FROM t");
+        registry.statsFor("SELECT b FROM t");
+
+        registry.reset();
+
+        assertTrue(before.isRetired());
+        assertEquals(0, registry.size());
+        SqlStatementStats after = registry.statsFor("SELECT b FROM t");
+        assertNotSame(before, after);
+        assertEquals("SELECT b FROM t", after.getSql());
+    }
+
+    @Test
+    void openPreparedStatementKeepsCountingAfterReset() throws Exception {
+        SqlStatsRegistry registry = registry(10);
+        DataSource dataSource = new InstrumentedDataSource(fakeDataSource(), registry);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE t SET a = ? WHERE id = ?")) {
+            stmt.executeUpdate();
+            registry.reset();
+            stmt.executeUpdate();
+            stmt.executeUpdate();
+        }
+
+        List<SqlStatementSummary> top = registry.top(10, "calls");
+        assertEquals(1, top.size());
+        assertEquals("UPDATE t SET a = ? WHERE id = ?", top.get(0).sql());
+        assertEquals(2, top.get(0).calls());
+    }
+
+    @Test
+    void resultSetCountsRowsWithoutAReflectiveProxy() throws Exception {
+        SqlStatsRegistry registry = registry(10);
+        DataSource dataSource = new InstrumentedDataSource(fakeDataSource(), registry);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT a FROM t WHERE id = ?");
+             ResultSet rs = stmt.executeQuery()) {
+            assertFalse(Proxy.isProxyClass(rs.getClass()), "los getters por columna no pasan por Method.invoke");
+            while (rs.next()) {
+                assertEquals("fila", rs.getString(1));
+            }
+        }
+
+        SqlStatementSummary summary = registry.top(1, "rows").get(0);
+        assertEquals(FAKE_ROWS, summary.rows());
+    }
+
+    private static SqlStatsRegistry registry(int maxStatements) {
+        SqlStatsRegistry registry = new SqlStatsRegistry(null, maxStatements);
+        registry.onConfigChange(null, ConfigSnapshot.from(1, Map.of("sql.slow-query-ms", "60000")), Set.of());
+        return registry;
+    }
+
+    /**
+     * DataSource cuyas sentencias no hacen nada: las escrituras afectan a una fila y las
+     * consultas devuelven FAKE_ROWS filas
+     */
+    private static DataSource fakeDataSource() {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "executeUpdate" -> 1;
+                    case "executeQuery" -> fakeResultSet();
+                    default -> null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("prepareStatement") ? statement : null);
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> method.getName().equals("getConnection") ? connection : null);
+    }
+
+    private static ResultSet fakeResultSet() {
+        int[] remaining = {FAKE_ROWS};
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> remaining[0]-- > 0;
+                    case "getString" -> "fila";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package org.devquality.persistence.partitioning;
+
+import org.devquality.config.DatabaseConfig;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Funciones de particionado de V13 llamadas desde dos "instancias" a la vez
+ */
+class ProductPartitionFunctionsTest {
+    // Un mes lejano que ninguna otra prueba ni el mantenimiento crean
+    private static final String MONTH = "2199-01-15T00:00:00Z";
+    private static final String PARTITION = "products_p219901";
+
+    private DatabaseConfig databaseConfig;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (databaseConfig == null) {
+            return;
+        }
+        try (Connection conn = databaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + PARTITION);
+        }
+    }
+
+    @Test
+    void concurrentCreateWaitsForTheFirstAndFindsThePartition() throws Exception {
+        databaseConfig = TestDatabase.require();
+
+        try (Connection first = databaseConfig.getConnection();
+             Connection second = databaseConfig.getConnection()) {
+            first.setAutoCommit(false);
+            assertTrue(createPartition(first));
+
+            CompletableFuture<Boolean> concurrent = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return createPartition(second);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            // Bloqueada en el advisory lock mientras la primera transacción siga abierta
+            assertThrows(TimeoutException.class, () -> concurrent.get(500, TimeUnit.MILLISECONDS));
+
+            first.commit();
+            first.setAutoCommit(true);
+            assertFalse(concurrent.get(5, TimeUnit.SECONDS), "la segunda llamada ve la partición ya creada");
+        }
+    }
+
+    private static boolean createPartition(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT create_product_partition(?::timestamptz)")) {
+            stmt.setString(1, MONTH);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+}
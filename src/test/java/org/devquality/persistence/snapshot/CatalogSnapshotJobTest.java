@@ -0,0 +1,59 @@
+package org.devquality.persistence.snapshot;
+
+import org.devquality.config.DatabaseConfig;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotJobTest {
+    private static final String OTHER_DATABASE = "000000000000";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotOfAnotherDatabaseWithTheSameVersionIsNotReused() throws Exception {
+        DatabaseConfig databaseConfig = TestDatabase.require();
+        long version = queryVersion(databaseConfig);
+        CatalogSnapshotJob job = new CatalogSnapshotJob(databaseConfig, directory, 60000);
+
+        // Foto de una BD recreada que llegó a la misma versión con otro contenido
+        Path stale = job.jsonPath(OTHER_DATABASE, version);
+        Files.writeString(stale, "{\"version\":" + version + ",\"products\":[]}", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve(stale.getFileName().toString().replace(".json", ".json.gz")), "x");
+
+        job.refresh();
+
+        CatalogSnapshot snapshot = job.getCurrent();
+        assertNotNull(snapshot);
+        assertEquals(version, snapshot.getVersion());
+        assertNotEquals(OTHER_DATABASE, snapshot.getDatabaseId());
+        assertTrue(snapshot.getJson().getEtag().startsWith("\"" + snapshot.getDatabaseId() + "-v" + version + "-"));
+        assertEquals(job.jsonPath(snapshot.getDatabaseId(), version), snapshot.getJson().getPath());
+        assertFalse(Files.exists(stale), "las fotos de otra BD se borran al publicar");
+    }
+
+    private static long queryVersion(DatabaseConfig databaseConfig) throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
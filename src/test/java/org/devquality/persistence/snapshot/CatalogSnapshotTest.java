@@ -0,0 +1,69 @@
+package org.devquality.persistence.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+    private static final String CONTENT = "{\"version\":7,\"products\":[{\"id\":1},{\"id\":2},{\"id\":3}]}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void slicesSpanningChunksReturnTheRequestedBytes() throws Exception {
+        // Trozos de 8 bytes: el mismo recorrido que los de 1GB de un fichero de más de 2GB
+        CatalogSnapshot.Content content = CatalogSnapshot.Content.map(file(), "db1", 7, "", 8);
+
+        assertEquals(CONTENT.length(), content.getSize());
+        assertEquals(CONTENT, read(content.slices(0, content.getSize())));
+        for (int start = 0; start < CONTENT.length(); start += 3) {
+            for (int length = 1; start + length <= CONTENT.length(); length += 5) {
+                assertEquals(CONTENT.substring(start, start + length), read(content.slices(start, length)));
+            }
+        }
+        assertEquals(2, content.slices(6, 4).size());
+    }
+
+    @Test
+    void etagDoesNotDependOnChunking() throws Exception {
+        Path file = file();
+
+        assertEquals(CatalogSnapshot.Content.map(file, "db1", 7, "").getEtag(),
+                CatalogSnapshot.Content.map(file, "db1", 7, "", 8).getEtag());
+    }
+
+    @Test
+    void etagIncludesDatabaseIdentity() throws Exception {
+        Path file = file();
+        String etag = CatalogSnapshot.Content.map(file, "db1", 7, "-gzip").getEtag();
+
+        // Misma versión y mismo contenido en otra BD: los clientes no deben mezclar ambas fotos
+        assertNotEquals(etag, CatalogSnapshot.Content.map(file, "db2", 7, "-gzip").getEtag());
+        assertTrue(etag.startsWith("\"db1-v7-") && etag.endsWith("-gzip\""), etag);
+    }
+
+    private Path file() throws Exception {
+        return Files.writeString(directory.resolve("products-db1-v7.json"), CONTENT, StandardCharsets.UTF_8);
+    }
+
+    private static String read(List<ByteBuffer> slices) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer slice : slices) {
+            byte[] bytes = new byte[slice.remaining()];
+            slice.get(bytes);
+            out.writeBytes(bytes);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
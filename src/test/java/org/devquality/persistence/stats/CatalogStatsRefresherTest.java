@@ -0,0 +1,109 @@
+package org.devquality.persistence.stats;
+
+import org.devquality.config.AppConfiguration;
+import org.devquality.config.DatabaseConfig;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogStatsRefresherTest {
+    private DatabaseConfig databaseConfig;
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabase.deleteProducts(databaseConfig, created);
+    }
+
+    @Test
+    void priceStatsIsRefreshedFirst() {
+        // Su source_version no puede marcar como incluidas escrituras que las demás vistas no vieron
+        assertTrue(CatalogStatsRefresher.REFRESH_VIEWS[0].endsWith("product_price_stats"));
+    }
+
+    @Test
+    void publishesStatsForCurrentVersion() throws SQLException {
+        databaseConfig = TestDatabase.require();
+        insert("stats-refresh");
+        CatalogStatsRefresher refresher = new CatalogStatsRefresher(databaseConfig, AppConfiguration.getInstance(), 60000);
+
+        refresher.refresh();
+
+        CatalogStats stats = refresher.getCurrent();
+        assertNotNull(stats);
+        assertEquals(queryLong("SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'"), stats.sourceVersion());
+        assertEquals(queryLong("SELECT COUNT(*) FROM products"), stats.productCount());
+        assertEquals(stats.productCount(), stats.priceHistogram().stream()
+                .mapToLong(CatalogStats.PriceBucket::count).sum());
+    }
+
+    @Test
+    void replicaWithoutTheLockSkipsTheRefreshUntilItIsReleased() throws SQLException {
+        databaseConfig = TestDatabase.require();
+        CatalogStatsRefresher refresher = new CatalogStatsRefresher(databaseConfig, AppConfiguration.getInstance(), 60000);
+        refresher.refresh();
+        insert("stats-locked");
+        long version = queryLong("SELECT SUM(version)::bigint FROM table_versions WHERE table_name = 'products'");
+
+        try (Connection otherReplica = databaseConfig.getConnection()) {
+            otherReplica.setAutoCommit(false);
+            try (Statement stmt = otherReplica.createStatement()) {
+                stmt.execute("SELECT pg_advisory_xact_lock(hashtext('catalog_stats_refresh'))");
+            }
+
+            refresher.refresh();
+            assertNotEquals(version, refresher.getCurrent().sourceVersion(), "con el lock tomado no se refresca");
+
+            otherReplica.rollback();
+            otherReplica.setAutoCommit(true);
+        }
+
+        refresher.refresh();
+        assertEquals(version, refresher.getCurrent().sourceVersion());
+    }
+
+    @Test
+    void hourlyBucketsStartOnUtcHoursWhateverTheSessionTimeZone() throws SQLException {
+        databaseConfig = TestDatabase.require();
+        insert("stats-utc");
+
+        try (Connection conn = databaseConfig.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET TIME ZONE 'Asia/Kolkata'");
+                stmt.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY product_creation_hourly");
+                stmt.execute("RESET TIME ZONE");
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM product_creation_hourly " +
+                         "WHERE date_part('minute', bucket_start AT TIME ZONE 'UTC') <> 0")) {
+                rs.next();
+                assertEquals(0, rs.getLong(1));
+            }
+        }
+    }
+
+    private void insert(String name) throws SQLException {
+        created.add(TestDatabase.insertProduct(databaseConfig, name));
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
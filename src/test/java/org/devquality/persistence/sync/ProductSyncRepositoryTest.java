@@ -0,0 +1,150 @@
+package org.devquality.persistence.sync;
+
+import org.devquality.config.DatabaseConfig;
+import org.devquality.persistence.entites.Product;
+import org.devquality.support.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sync contra PostgreSQL: cada prueba parte de un token "al día" y solo mira sus propios productos
+ */
+class ProductSyncRepositoryTest {
+    private static final long RETENTION_MS = 7L * 24 * 60 * 60 * 1000;
+
+    private DatabaseConfig databaseConfig;
+    private ProductSyncRepository repository;
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        databaseConfig = TestDatabase.require();
+        repository = new ProductSyncRepository(databaseConfig, RETENTION_MS);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabase.deleteProducts(databaseConfig, created);
+    }
+
+    @Test
+    void deliversInsertsAndTombstonesAfterToken() throws SQLException {
+        SyncToken token = catchUp(SyncToken.START);
+        long kept = insert("sync-kept");
+        long removed = insert("sync-removed");
+
+        Page page = drain(token);
+        assertTrue(page.updated.containsAll(List.of(kept, removed)));
+        assertFalse(page.deleted.contains(removed));
+
+        delete(removed);
+        Page afterDelete = drain(page.token);
+        assertTrue(afterDelete.deleted.contains(removed));
+        assertFalse(afterDelete.updated.contains(removed));
+        assertFalse(afterDelete.updated.contains(kept));
+    }
+
+    @Test
+    void tokenFromResponseRoundTripsToSamePosition() throws SQLException {
+        SyncToken token = catchUp(SyncToken.START);
+        long id = insert("sync-round-trip");
+
+        Page page = drain(SyncToken.decode(token.encode()));
+        assertTrue(page.updated.contains(id));
+
+        Page again = drain(SyncToken.decode(page.token.encode()));
+        assertFalse(again.updated.contains(id));
+    }
+
+    @Test
+    void longTransactionCommittingLateIsNotSkipped() throws SQLException {
+        long early = insert("sync-early");
+        long late = insert("sync-late");
+        SyncToken token = catchUp(SyncToken.START);
+
+        try (Connection longTx = databaseConfig.getConnection()) {
+            longTx.setAutoCommit(false);
+            // Toma su xid antes que la actualización de 'late', pero confirma después
+            rename(longTx, early, "sync-early-updated");
+
+            try (Connection conn = databaseConfig.getConnection()) {
+                rename(conn, late, "sync-late-updated");
+            }
+
+            Page whileOpen = drain(token);
+            assertFalse(whileOpen.updated.contains(early));
+            assertFalse(whileOpen.updated.contains(late), "no se entrega nada por detrás de una transacción abierta");
+            token = whileOpen.token;
+
+            longTx.commit();
+            longTx.setAutoCommit(true);
+        }
+
+        Page afterCommit = drain(token);
+        assertTrue(afterCommit.updated.contains(early));
+        assertTrue(afterCommit.updated.contains(late));
+        assertTrue(afterCommit.updated.indexOf(early) < afterCommit.updated.indexOf(late));
+    }
+
+    private SyncToken catchUp(SyncToken since) throws SQLException {
+        return drain(since).token;
+    }
+
+    /**
+     * Pide páginas pequeñas hasta alcanzar el horizonte
+     */
+    private Page drain(SyncToken since) throws SQLException {
+        Page page = new Page();
+        SyncToken token = since;
+        ProductChangeSet changes;
+        do {
+            changes = repository.findChangesSince(token, 100);
+            for (Product product : changes.updated()) {
+                page.updated.add(product.getId());
+            }
+            page.deleted.addAll(changes.deleted());
+            token = changes.next();
+        } while (changes.hasMore());
+        page.token = token;
+        return page;
+    }
+
+    private long insert(String name) throws SQLException {
+        long id = TestDatabase.insertProduct(databaseConfig, name);
+        created.add(id);
+        return id;
+    }
+
+    private void rename(Connection conn, long id, String name) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE products SET name = ? WHERE id = ?")) {
+            stmt.setString(1, name);
+            stmt.setLong(2, id);
+            assertEquals(1, stmt.executeUpdate());
+        }
+    }
+
+    private void delete(long id) throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM products WHERE id = ?")) {
+            stmt.setLong(1, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static final class Page {
+        private final List<Long> updated = new ArrayList<>();
+        private final List<Long> deleted = new ArrayList<>();
+        private SyncToken token;
+    }
+}
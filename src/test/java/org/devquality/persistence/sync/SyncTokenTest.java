@@ -0,0 +1,63 @@
+package org.devquality.persistence.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncTokenTest {
+
+    @Test
+    void roundTripsThroughEncode() {
+        SyncToken token = new SyncToken(123_456_789L, 42L, 1_700_000_000_000L);
+
+        assertEquals(token, SyncToken.decode(token.encode()));
+    }
+
+    @Test
+    void blankTokenIsStart() {
+        assertSame(SyncToken.START, SyncToken.decode(null));
+        assertSame(SyncToken.START, SyncToken.decode("  "));
+        assertTrue(SyncToken.START.isStart());
+    }
+
+    @Test
+    void startNeverExpires() {
+        assertFalse(SyncToken.START.isOlderThan(1, Long.MAX_VALUE));
+        assertFalse(SyncToken.START.reissuedAt(0).isOlderThan(1, Long.MAX_VALUE));
+    }
+
+    @Test
+    void expiresByIssueTime() {
+        SyncToken token = new SyncToken(10, 1, 1_000);
+
+        assertFalse(token.isOlderThan(500, 1_500));
+        assertTrue(token.isOlderThan(500, 1_501));
+        assertFalse(token.reissuedAt(1_400).isOlderThan(500, 1_501));
+    }
+
+    @Test
+    void timestampTokensFromPreviousVersionAreExpired() {
+        String legacy = encode("1700000000000000:42");
+
+        assertThrows(SyncTokenExpiredException.class, () -> SyncToken.decode(legacy));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> SyncToken.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> SyncToken.decode(encode("v2:1:2")));
+        assertThrows(IllegalArgumentException.class, () -> SyncToken.decode(encode("v3:1:2:3")));
+        assertThrows(IllegalArgumentException.class, () -> SyncToken.decode(encode("v2:x:2:3")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
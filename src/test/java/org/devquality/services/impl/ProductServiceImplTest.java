@@ -0,0 +1,54 @@
+package org.devquality.services.impl;
+
+import org.devquality.persistence.mapping.FieldSelection;
+import org.devquality.persistence.repositories.IProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductServiceImplTest {
+    private static final FieldSelection ALL = FieldSelection.all(List.of("id", "name"));
+
+    private final int[] requestedOffset = {-1};
+    private final ProductServiceImpl service = new ProductServiceImpl(pageRepository(), null);
+
+    @Test
+    void pageOffsetIsPageTimesSize() throws Exception {
+        service.getProductsPage(3, 20, ALL);
+
+        assertEquals(60, requestedOffset[0]);
+    }
+
+    @Test
+    void largestRepresentableOffsetIsAccepted() throws Exception {
+        service.getProductsPage(Integer.MAX_VALUE, 1, ALL);
+
+        assertEquals(Integer.MAX_VALUE, requestedOffset[0]);
+    }
+
+    @Test
+    void overflowingOffsetIsRejectedAsBadArgument() {
+        // IllegalArgumentException se responde con 400; ArithmeticException acababa en 500
+        assertThrows(IllegalArgumentException.class, () -> service.getProductsPage(Integer.MAX_VALUE, 100, ALL));
+        assertThrows(IllegalArgumentException.class, () -> service.getProductsPage(21_474_837, 100, ALL));
+        assertEquals(-1, requestedOffset[0]);
+    }
+
+    /**
+     * Repositorio que solo responde a findPage y recuerda el offset pedido
+     */
+    private IProductRepository pageRepository() {
+        return (IProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{IProductRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findPage")) {
+                        requestedOffset[0] = (Integer) args[0];
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
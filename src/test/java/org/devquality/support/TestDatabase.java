@@ -0,0 +1,119 @@
+package org.devquality.support;
+
+import org.devquality.config.DatabaseConfig;
+import org.devquality.config.FlywayConfiguration;
+import org.junit.jupiter.api.Assumptions;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+
+/**
+ * PostgreSQL para las pruebas de integración: una base de datos propia (TEST_DB_NAME, por
+ * defecto users_test), nunca la de la aplicación. `gradle test` pasa TEST_DB_* a las DB_* que
+ * leen el pool y la configuración; si DB_NAME no coincide con TEST_DB_NAME (p. ej. al lanzar
+ * la prueba desde el IDE sin esas variables) las pruebas se omiten antes de conectar.
+ * Se migra con Flyway. Si no está disponible, las pruebas que lo piden se omiten en lugar de
+ * fallar, así `gradle test` funciona sin base de datos.
+ */
+public final class TestDatabase {
+    private static final String DEFAULT_TEST_DB_NAME = "users_test";
+    private static final String INSERT_PRODUCT = "INSERT INTO products (name, price) VALUES (?, ?) RETURNING id";
+    private static final String DELETE_PRODUCTS = "DELETE FROM products WHERE id = ANY(?)";
+
+    private static Boolean available;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Pool sobre la base de pruebas migrada; omite la prueba si no hay PostgreSQL
+     */
+    public static synchronized DatabaseConfig require() {
+        String testDatabase = env("TEST_DB_NAME", DEFAULT_TEST_DB_NAME);
+        String configured = env("DB_NAME", "users");
+        Assumptions.assumeTrue(testDatabase.equals(configured), "DB_NAME (" + configured + ") no es la base de pruebas ("
+                + testDatabase + "): se omiten las pruebas de integración para no tocar la de la aplicación");
+
+        if (available == null) {
+            available = isReachable();
+            if (available) {
+                new FlywayConfiguration(DatabaseConfig.getInstance()).runMigrations();
+                ensurePartitions(DatabaseConfig.getInstance());
+            }
+        }
+        Assumptions.assumeTrue(available, "PostgreSQL no disponible: se omiten las pruebas de integración");
+        return DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Inserta un producto de precio 1.00 y devuelve su id
+     */
+    public static long insertProduct(DatabaseConfig databaseConfig, String name) throws SQLException {
+        return insertProduct(databaseConfig, name, BigDecimal.ONE);
+    }
+
+    public static long insertProduct(DatabaseConfig databaseConfig, String name, BigDecimal price) throws SQLException {
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_PRODUCT)) {
+            stmt.setString(1, name);
+            stmt.setBigDecimal(2, price);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Borra los productos que creó la prueba (para el tearDown)
+     */
+    public static void deleteProducts(DatabaseConfig databaseConfig, Collection<Long> ids) throws SQLException {
+        if (databaseConfig == null || ids.isEmpty()) {
+            return;
+        }
+        try (Connection conn = databaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_PRODUCTS)) {
+            stmt.setArray(1, conn.createArrayOf("bigint", ids.toArray()));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Lo que hace ProductPartitionMaintainer al arrancar: sin partición DEFAULT (V16), insertar en
+     * un mes sin partición falla
+     */
+    private static void ensurePartitions(DatabaseConfig databaseConfig) {
+        try (Connection conn = databaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT ensure_product_partitions(3)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron crear las particiones de products", e);
+        }
+    }
+
+    /**
+     * Comprobación rápida antes de crear el pool (HikariCP esperaría connectionTimeout)
+     */
+    private static boolean isReachable() {
+        String url = String.format("jdbc:postgresql://%s:%s/%s",
+                env("DB_HOST", "localhost"), env("DB_PORT", "5432"), env("DB_NAME", "users"));
+        DriverManager.setLoginTimeout(2);
+        try (Connection ignored = DriverManager.getConnection(url,
+                env("DB_USER", "Hexagonal"), env("DB_PASSWORD", "HexagonalSole89"))) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
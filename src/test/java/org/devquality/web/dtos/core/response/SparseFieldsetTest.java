@@ -0,0 +1,73 @@
+package org.devquality.web.dtos.core.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.devquality.config.JacksonConfiguration;
+import org.devquality.persistence.entites.Product;
+import org.devquality.persistence.mapping.FieldSelection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseFieldsetTest {
+    private static final List<String> PRODUCT_FIELDS =
+            List.of("id", "name", "price", "description", "createdAt", "updatedAt");
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+    private static final Product PRODUCT = new Product(7L, "Teclado", new BigDecimal("19.90"), "Mecánico", NOW, NOW);
+
+    @Test
+    void keepsOnlySelectedFields() throws Exception {
+        JsonNode json = serialize(mapper(), "id,createdAt");
+
+        assertEquals(2, json.size());
+        assertEquals(7, json.get("id").asLong());
+        assertTrue(json.has("createdAt"));
+    }
+
+    @Test
+    void matchesJavaNamesWithSnakeCaseNaming() throws Exception {
+        ObjectMapper mapper = mapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+        JsonNode json = serialize(mapper, "name,createdAt,updatedAt");
+
+        assertEquals(3, json.size());
+        assertEquals("Teclado", json.get("name").asText());
+        assertTrue(json.has("created_at"));
+        assertTrue(json.has("updated_at"));
+    }
+
+    @Test
+    void matchesJavaNamesWithKebabCaseNaming() throws Exception {
+        ObjectMapper mapper = mapper().setPropertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE);
+
+        JsonNode json = serialize(mapper, "price,createdAt");
+
+        assertEquals(2, json.size());
+        assertTrue(json.has("price"));
+        assertTrue(json.has("created-at"));
+    }
+
+    @Test
+    void fullSelectionIsNotWrapped() {
+        assertEquals(PRODUCT, SparseFieldset.of(PRODUCT, FieldSelection.parse(null, PRODUCT_FIELDS)));
+    }
+
+    private static JsonNode serialize(ObjectMapper mapper, String fields) throws Exception {
+        Object body = SparseFieldset.of(PRODUCT, FieldSelection.parse(fields, PRODUCT_FIELDS));
+        return mapper.readTree(mapper.writeValueAsString(body));
+    }
+
+    /**
+     * El de la aplicación: el filtro llega a Product por el mix-in de JacksonConfiguration
+     */
+    private static ObjectMapper mapper() {
+        return JacksonConfiguration.createObjectMapper();
+    }
+}
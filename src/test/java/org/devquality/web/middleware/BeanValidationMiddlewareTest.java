@@ -0,0 +1,51 @@
+package org.devquality.web.middleware;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BeanValidationMiddlewareTest {
+
+    @Test
+    void findsViolationWrappedByDatabind() {
+        StreamConstraintsException violation = new StreamConstraintsException("Depth exceeds the maximum allowed");
+        JsonMappingException wrapped = new JsonMappingException(null, "wrapped", violation);
+
+        assertSame(violation, BeanValidationMiddleware.findConstraintViolation(wrapped));
+        assertSame(violation, BeanValidationMiddleware.findConstraintViolation(new RuntimeException(wrapped)));
+    }
+
+    @Test
+    void findsViolationFromTooDeepBody() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.getFactory().setStreamReadConstraints(StreamReadConstraints.builder().maxNestingDepth(3).build());
+        String body = "{\"a\":{\"b\":{\"c\":{\"d\":{}}}}}";
+
+        Exception error = assertThrows(Exception.class, () -> mapper.readValue(body, Nested.class));
+
+        assertNotNull(BeanValidationMiddleware.findConstraintViolation(error));
+    }
+
+    @Test
+    void ignoresOtherParseErrors() {
+        assertNull(BeanValidationMiddleware.findConstraintViolation(
+                new JsonMappingException(null, "Unexpected character", new IllegalStateException())));
+        assertNull(BeanValidationMiddleware.findConstraintViolation(new RuntimeException()));
+    }
+
+    /**
+     * DTO con un objeto anidado: la profundidad se supera dentro de la deserialización del bean
+     */
+    static final class Nested {
+        public Map<String, Object> a;
+    }
+}
@@ -0,0 +1,153 @@
+package org.devquality.web.middleware;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devquality.persistence.entites.Product;
+import org.devquality.web.dtos.core.response.BaseResponse;
+import org.devquality.web.dtos.core.response.ResponseMetadata;
+import org.devquality.web.middleware.ContentNegotiation.Format;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentNegotiationTest {
+    private static final Logger logger = LoggerFactory.getLogger(ContentNegotiationTest.class);
+    private static final int TIMING_ITERATIONS = 2_000;
+    private static final int TIMING_ROUNDS = 5;
+
+    // Los números se comparan por valor: JSON lee 19.90 como double y Smile/CBOR lo conservan como BigDecimal
+    private static final Comparator<JsonNode> SAME_VALUE = (a, b) -> {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    };
+
+    @Test
+    void picksFormatFromAccept() {
+        assertEquals(Format.JSON, ContentNegotiation.forAccept(null));
+        assertEquals(Format.JSON, ContentNegotiation.forAccept("text/html"));
+        assertEquals(Format.SMILE, ContentNegotiation.forAccept("application/x-jackson-smile"));
+        assertEquals(Format.CBOR, ContentNegotiation.forAccept("application/cbor, application/json"));
+        assertEquals(Format.JSON, ContentNegotiation.forAccept("application/cbor;q=0.5, application/json"));
+        assertEquals(Format.SMILE, ContentNegotiation.forAccept("*/*;q=0.1, application/x-jackson-smile;q=0.9"));
+        assertEquals(Format.JSON, ContentNegotiation.forAccept("application/cbor;q=0"));
+    }
+
+    @Test
+    void picksFormatFromContentType() {
+        assertEquals(Format.JSON, ContentNegotiation.forContentType("application/json; charset=utf-8"));
+        assertEquals(Format.SMILE, ContentNegotiation.forContentType("application/x-jackson-smile"));
+        assertEquals(Format.CBOR, ContentNegotiation.forContentType("application/cbor"));
+        assertNull(ContentNegotiation.forContentType("*/*"));
+        assertNull(ContentNegotiation.forContentType("text/plain"));
+        assertNull(ContentNegotiation.forContentType(null));
+    }
+
+    @Test
+    void everyFormatRoundTripsTheSameDocument() throws Exception {
+        BaseResponse<List<Product>> response = productPage(100);
+        JsonNode expected = decode(Format.JSON, encode(Format.JSON, response));
+
+        for (Format format : Format.values()) {
+            JsonNode decoded = decode(format, encode(format, response));
+            assertTrue(expected.equals(SAME_VALUE, decoded), format + " no devuelve el mismo documento");
+        }
+        assertEquals(100, expected.get("data").size());
+    }
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() throws Exception {
+        BaseResponse<List<Product>> response = productPage(100);
+        Map<Format, Integer> sizes = new EnumMap<>(Format.class);
+        for (Format format : Format.values()) {
+            sizes.put(format, encode(format, response).length);
+        }
+
+        // Smile referencia los nombres repetidos de propiedades; CBOR codifica números y longitudes en binario
+        assertTrue(sizes.get(Format.SMILE) < sizes.get(Format.JSON), "Smile " + sizes);
+        assertTrue(sizes.get(Format.CBOR) < sizes.get(Format.JSON), "CBOR " + sizes);
+        assertTrue(sizes.get(Format.SMILE) < sizes.get(Format.CBOR), "Smile frente a CBOR " + sizes);
+    }
+
+    @Test
+    void binaryMappersDecodeRequestBodies() throws Exception {
+        Map<String, Object> body = Map.of("name", "Teclado", "price", 19.9, "description", "Mecánico");
+
+        for (Format format : Format.values()) {
+            ObjectMapper mapper = ContentNegotiation.mapper(format);
+            assertEquals(body, mapper.readValue(mapper.writeValueAsBytes(body), Map.class), format.name());
+        }
+    }
+
+    @Test
+    void logsEncodeAndDecodeTimesPerFormat() throws Exception {
+        BaseResponse<List<Product>> response = productPage(100);
+        Map<Format, long[]> nanos = new EnumMap<>(Format.class);
+        Object sink = null;
+
+        // El mínimo de varias rondas descarta el calentamiento del JIT; las rondas alternan formatos
+        for (int round = 0; round < TIMING_ROUNDS; round++) {
+            for (Format format : Format.values()) {
+                long[] best = nanos.computeIfAbsent(format, f -> new long[]{Long.MAX_VALUE, Long.MAX_VALUE});
+                ObjectMapper mapper = ContentNegotiation.mapper(format);
+                byte[] bytes = mapper.writeValueAsBytes(response);
+
+                long start = System.nanoTime();
+                for (int i = 0; i < TIMING_ITERATIONS; i++) {
+                    sink = mapper.writeValueAsBytes(response);
+                }
+                best[0] = Math.min(best[0], (System.nanoTime() - start) / TIMING_ITERATIONS);
+
+                start = System.nanoTime();
+                for (int i = 0; i < TIMING_ITERATIONS; i++) {
+                    sink = mapper.readTree(bytes);
+                }
+                best[1] = Math.min(best[1], (System.nanoTime() - start) / TIMING_ITERATIONS);
+            }
+        }
+
+        for (Format format : Format.values()) {
+            long[] best = nanos.get(format);
+            logger.info("📊 {} ({} bytes, 100 productos): codificar {} µs, decodificar {} µs", format,
+                    encode(format, response).length, best[0] / 1_000.0, best[1] / 1_000.0);
+            assertTrue(best[0] > 0 && best[1] > 0, format + " " + nanos);
+        }
+        assertTrue(sink != null);
+    }
+
+    private static byte[] encode(Format format, Object value) throws Exception {
+        return ContentNegotiation.mapper(format).writeValueAsBytes(value);
+    }
+
+    private static JsonNode decode(Format format, byte[] bytes) throws Exception {
+        return ContentNegotiation.mapper(format).readTree(bytes);
+    }
+
+    /**
+     * Página de listado como la que devuelve GET /api/products
+     */
+    private static BaseResponse<List<Product>> productPage(int size) {
+        OffsetDateTime createdAt = OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(new Product((long) i, "Producto " + i, new BigDecimal(i + ".90"),
+                    i % 3 == 0 ? null : "Descripción del producto " + i,
+                    createdAt.plusMinutes(i), createdAt.plusHours(i)));
+        }
+        return BaseResponse.success(products, "Productos obtenidos correctamente", ResponseMetadata.basic("Product"));
+    }
+}
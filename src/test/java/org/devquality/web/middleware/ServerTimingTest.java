@@ -0,0 +1,75 @@
+package org.devquality.web.middleware;
+
+import org.devquality.config.ConfigSnapshot;
+import org.devquality.persistence.instrumentation.RequestDbStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingTest {
+
+    @Test
+    void headerListsOnlyMeasuredPhasesInOrder() throws Exception {
+        ServerTiming.Timings timings = new ServerTiming.Timings(System.nanoTime());
+        timings.addParse(120_000);
+        timings.addSerialize(3_050_000);
+        RequestDbStats db = new RequestDbStats();
+        RequestDbStats.callWith(db, () -> {
+            RequestDbStats.recordConnection(100_000);
+            RequestDbStats.recordStatement(2_000_000);
+            RequestDbStats.recordStatement(2_210_000);
+            return null;
+        });
+
+        String value = timings.toHeaderValue(db);
+
+        assertTrue(value.startsWith("parse;dur=0.12, pool;dur=0.10, db;dur=4.21;desc=\"2 statements\", serialize;dur=3.05, app;dur="), value);
+        assertFalse(value.contains("validate"), value);
+    }
+
+    @Test
+    void headerWithoutDatabaseAccessOnlyHasApp() {
+        ServerTiming.Timings timings = new ServerTiming.Timings(System.nanoTime());
+
+        assertTrue(timings.toHeaderValue(null).matches("app;dur=\\d+\\.\\d{2}"));
+        assertTrue(timings.toHeaderValue(new RequestDbStats()).matches("app;dur=\\d+\\.\\d{2}"));
+    }
+
+    @Test
+    void sampleRateOneSamplesEveryRequest() {
+        ServerTiming serverTiming = new ServerTiming(config("true", "1.0"));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(serverTiming.shouldSample());
+        }
+    }
+
+    @Test
+    void sampleRateZeroSamplesNothing() {
+        ServerTiming serverTiming = new ServerTiming(config("true", "0"));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(serverTiming.shouldSample());
+        }
+    }
+
+    @Test
+    void disabledIgnoresSampleRate() {
+        assertFalse(new ServerTiming(config("false", "1.0")).shouldSample());
+    }
+
+    @Test
+    void sampleRateIsClampedToOne() {
+        assertTrue(new ServerTiming(config("true", "5")).shouldSample());
+    }
+
+    private static ConfigSnapshot config(String enabled, String sampleRate) {
+        return ConfigSnapshot.from(1, Map.of(
+                "server-timing.enabled", enabled,
+                "server-timing.sample-rate", sampleRate));
+    }
+}
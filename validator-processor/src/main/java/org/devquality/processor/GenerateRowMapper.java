@@ -0,0 +1,18 @@
+package org.devquality.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Genera en compilación un mapper de filas por índice de columna para la clase anotada.
+ *
+ * Las columnas son los parámetros del constructor público con más parámetros, en el mismo
+ * orden y en snake_case (createdAt → created_at). El mapper expone esa lista en COLUMNS
+ * para que las consultas seleccionen exactamente ese orden.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateRowMapper {
+}
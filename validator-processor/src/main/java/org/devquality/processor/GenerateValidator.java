@@ -0,0 +1,15 @@
+package org.devquality.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Genera en compilación un validador en Java plano (sin reflexión ni EL) a partir
+ * de las anotaciones jakarta.validation de los campos del DTO
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateValidator {
+}
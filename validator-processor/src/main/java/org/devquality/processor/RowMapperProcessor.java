@@ -0,0 +1,298 @@
+package org.devquality.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Genera mappers de filas por índice para las clases anotadas con {@link GenerateRowMapper}.
+ *
+ * El mapper lee cada columna por posición con el getter tipado de JDBC (sin búsquedas por
+ * nombre) y construye el objeto directamente con su constructor. Los timestamps se leen como
+ * OffsetDateTime con getObject, sin pasar por Timestamp/LocalDateTime/String. Si el cliente
+ * Vert.x está en el classpath también se genera fromRow(Row) para los repositorios con pipelining.
+ *
+ * Las variantes con máscara de campos (bit i = parámetro i del constructor) leen solo las
+ * columnas seleccionadas, en orden, y dejan el resto a null/0.
+ */
+@SupportedAnnotationTypes("org.devquality.processor.GenerateRowMapper")
+public class RowMapperProcessor extends AbstractProcessor {
+    private static final String ROW_MAPPER_INTERFACE = "org.devquality.persistence.mapping.RowMapper";
+    private static final String VERTX_ROW = "io.vertx.sqlclient.Row";
+
+    /**
+     * Tipo Java → (getter JDBC, getter Vert.x, ¿requiere wasNull?)
+     */
+    private static final Map<String, ColumnReader> READERS = Map.ofEntries(
+            Map.entry("long", new ColumnReader("rs.getLong(%d)", "row.getLong(%d)", false)),
+            Map.entry("java.lang.Long", new ColumnReader("rs.getLong(%d)", "row.getLong(%d)", true)),
+            Map.entry("int", new ColumnReader("rs.getInt(%d)", "row.getInteger(%d)", false)),
+            Map.entry("java.lang.Integer", new ColumnReader("rs.getInt(%d)", "row.getInteger(%d)", true)),
+            Map.entry("boolean", new ColumnReader("rs.getBoolean(%d)", "row.getBoolean(%d)", false)),
+            Map.entry("java.lang.Boolean", new ColumnReader("rs.getBoolean(%d)", "row.getBoolean(%d)", true)),
+            Map.entry("double", new ColumnReader("rs.getDouble(%d)", "row.getDouble(%d)", false)),
+            Map.entry("java.lang.Double", new ColumnReader("rs.getDouble(%d)", "row.getDouble(%d)", true)),
+            Map.entry("java.lang.String", new ColumnReader("rs.getString(%d)", "row.getString(%d)", false)),
+            Map.entry("java.math.BigDecimal", new ColumnReader("rs.getBigDecimal(%d)", "row.getBigDecimal(%d)", false)),
+            Map.entry("java.time.OffsetDateTime",
+                    new ColumnReader("rs.getObject(%d, java.time.OffsetDateTime.class)", "row.getOffsetDateTime(%d)", false)),
+            Map.entry("java.time.LocalDate",
+                    new ColumnReader("rs.getObject(%d, java.time.LocalDate.class)", "row.getLocalDate(%d)", false))
+    );
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateRowMapper.class)) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+                error(element, "@GenerateRowMapper solo se puede aplicar a clases o records");
+                continue;
+            }
+            try {
+                generate((TypeElement) element);
+            } catch (IOException e) {
+                error(element, "No se pudo generar el mapper: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        ExecutableElement constructor = widestPublicConstructor(type);
+        if (constructor == null) {
+            error(type, "@GenerateRowMapper necesita un constructor público con parámetros");
+            return;
+        }
+
+        List<Column> columns = new ArrayList<>();
+        for (VariableElement parameter : constructor.getParameters()) {
+            String javaType = processingEnv.getTypeUtils().erasure(parameter.asType()).toString();
+            ColumnReader reader = READERS.get(javaType);
+            if (reader == null) {
+                error(parameter, "Tipo no soportado por @GenerateRowMapper: " + javaType);
+                return;
+            }
+            String name = parameter.getSimpleName().toString();
+            columns.add(new Column(name, snakeCase(name), javaType, reader));
+        }
+        if (columns.size() > 31) {
+            error(constructor, "@GenerateRowMapper admite como máximo 31 columnas (máscara int)");
+            return;
+        }
+
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        String targetName = type.getSimpleName().toString();
+        String mapperName = targetName + "RowMapper";
+        boolean vertx = processingEnv.getElementUtils().getTypeElement(VERTX_ROW) != null;
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + mapperName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(render(packageName, targetName, mapperName, columns, vertx));
+        }
+    }
+
+    private String render(String packageName, String targetName, String mapperName, List<Column> columns, boolean vertx) {
+        StringBuilder columnList = new StringBuilder();
+        for (Column column : columns) {
+            if (columnList.length() > 0) {
+                columnList.append(", ");
+            }
+            columnList.append(column.name);
+        }
+
+        StringBuilder fieldList = new StringBuilder();
+        for (Column column : columns) {
+            if (fieldList.length() > 0) {
+                fieldList.append(", ");
+            }
+            fieldList.append('"').append(column.field).append('"');
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n");
+        out.append("import ").append(ROW_MAPPER_INTERFACE).append(";\n\n");
+        out.append("import java.sql.ResultSet;\n");
+        out.append("import java.sql.SQLException;\n");
+        out.append("import java.util.List;\n\n");
+        out.append("/**\n * Mapper por índice de columna generado a partir del constructor de ")
+                .append(targetName).append(". No editar.\n */\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("public final class ").append(mapperName)
+                .append(" implements RowMapper<").append(targetName).append("> {\n");
+        out.append("    public static final ").append(mapperName).append(" INSTANCE = new ").append(mapperName).append("();\n\n");
+        out.append("    /** Columnas en el orden que espera el mapper */\n");
+        out.append("    public static final String COLUMNS = \"").append(columnList).append("\";\n");
+        out.append("    public static final int COLUMN_COUNT = ").append(columns.size()).append(";\n");
+        out.append("    /** Nombres de propiedad en el mismo orden (bit i de la máscara = FIELDS.get(i)) */\n");
+        out.append("    public static final List<String> FIELDS = List.of(").append(fieldList).append(");\n\n");
+
+        out.append("    private ").append(mapperName).append("() {\n    }\n\n");
+
+        // Lista de columnas con alias de tabla (p. ej. "p.id, p.name, ...")
+        out.append("    public static String columns(String alias) {\n");
+        out.append("        return ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.append(" + \", \" + ");
+            }
+            out.append("alias + \".").append(columns.get(i).name).append("\"");
+        }
+        out.append(";\n    }\n\n");
+
+        // Lista de columnas seleccionadas por la máscara
+        out.append("    public static String columns(int mask) {\n");
+        out.append("        StringBuilder columns = new StringBuilder();\n");
+        for (int i = 0; i < columns.size(); i++) {
+            out.append("        if ((mask & ").append(1 << i).append(") != 0) {\n");
+            out.append("            columns.append(columns.length() == 0 ? \"\" : \", \").append(\"")
+                    .append(columns.get(i).name).append("\");\n");
+            out.append("        }\n");
+        }
+        out.append("        return columns.toString();\n    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public ").append(targetName).append(" map(ResultSet rs, int firstColumn) throws SQLException {\n");
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            String index = i == 0 ? "firstColumn" : "firstColumn + " + i;
+            String read = column.reader.jdbc.replace("%d", index);
+            if (column.reader.checkNull) {
+                String primitive = read.startsWith("rs.getLong") ? "long" : read.startsWith("rs.getInt") ? "int"
+                        : read.startsWith("rs.getBoolean") ? "boolean" : "double";
+                out.append("        ").append(primitive).append(" ").append(column.field).append("Value = ").append(read).append(";\n");
+                out.append("        ").append(column.javaType).append(" ").append(column.field)
+                        .append(" = rs.wasNull() ? null : ").append(column.field).append("Value;\n");
+            } else {
+                out.append("        ").append(column.javaType).append(" ").append(column.field)
+                        .append(" = ").append(read).append(";\n");
+            }
+            if (i > 0) {
+                arguments.append(", ");
+            }
+            arguments.append(column.field);
+        }
+        out.append("        return new ").append(targetName).append("(").append(arguments).append(");\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public ").append(targetName).append(" map(ResultSet rs, int firstColumn, int mask) throws SQLException {\n");
+        out.append("        int column = firstColumn;\n");
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            String read = column.reader.jdbc.replace("%d", "column++");
+            out.append("        ").append(column.javaType).append(" ").append(column.field)
+                    .append(" = ").append(defaultValue(column.javaType)).append(";\n");
+            out.append("        if ((mask & ").append(1 << i).append(") != 0) {\n");
+            if (column.reader.checkNull) {
+                out.append("            ").append(column.field).append(" = ").append(read).append(";\n");
+                out.append("            if (rs.wasNull()) {\n                ").append(column.field)
+                        .append(" = null;\n            }\n");
+            } else {
+                out.append("            ").append(column.field).append(" = ").append(read).append(";\n");
+            }
+            out.append("        }\n");
+        }
+        out.append("        return new ").append(targetName).append("(").append(arguments).append(");\n");
+        out.append("    }\n");
+
+        if (vertx) {
+            out.append("\n    /**\n     * Mapea una fila del cliente Vert.x (índices desde 0)\n     */\n");
+            out.append("    public static ").append(targetName).append(" fromRow(").append(VERTX_ROW).append(" row) {\n");
+            out.append("        return new ").append(targetName).append("(\n");
+            for (int i = 0; i < columns.size(); i++) {
+                out.append("                ").append(columns.get(i).reader.vertx.replace("%d", String.valueOf(i)))
+                        .append(i < columns.size() - 1 ? ",\n" : "\n");
+            }
+            out.append("        );\n");
+            out.append("    }\n");
+
+            out.append("\n    /**\n     * Mapea una fila Vert.x que solo contiene las columnas de la máscara\n     */\n");
+            out.append("    public static ").append(targetName).append(" fromRow(").append(VERTX_ROW).append(" row, int mask) {\n");
+            out.append("        int column = 0;\n");
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                out.append("        ").append(column.javaType).append(" ").append(column.field)
+                        .append(" = (mask & ").append(1 << i).append(") != 0 ? ")
+                        .append(column.reader.vertx.replace("%d", "column++")).append(" : ")
+                        .append(defaultValue(column.javaType)).append(";\n");
+            }
+            out.append("        return new ").append(targetName).append("(").append(arguments).append(");\n");
+            out.append("    }\n");
+        }
+
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static String defaultValue(String javaType) {
+        switch (javaType) {
+            case "long":
+                return "0L";
+            case "int":
+                return "0";
+            case "double":
+                return "0.0";
+            case "boolean":
+                return "false";
+            default:
+                return "null";
+        }
+    }
+
+    private static ExecutableElement widestPublicConstructor(TypeElement type) {
+        ExecutableElement widest = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC) || constructor.getParameters().isEmpty()) {
+                continue;
+            }
+            if (widest == null || constructor.getParameters().size() > widest.getParameters().size()) {
+                widest = constructor;
+            }
+        }
+        return widest;
+    }
+
+    private static String snakeCase(String name) {
+        StringBuilder out = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                out.append('_').append(Character.toLowerCase(c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private record ColumnReader(String jdbc, String vertx, boolean checkNull) {
+    }
+
+    private record Column(String field, String name, String javaType, ColumnReader reader) {
+    }
+}
@@ -0,0 +1,527 @@
+package org.devquality.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Genera validadores en Java plano para las clases anotadas con {@link GenerateValidator}.
+ *
+ * Cada restricción soportada se traduce a una comprobación directa con su mensaje literal,
+ * código y grupos. Las propiedades con restricciones no soportadas (p. ej. @Email, mensajes
+ * con interpolación o restricciones propias) se delegan a Hibernate Validator en runtime.
+ * Los validadores generados se registran en META-INF/services para ServiceLoader, sumándose a
+ * los que ya lista el archivo: en una compilación incremental solo se procesan las clases
+ * cambiadas y reescribirlo con ellas dejaría fuera al resto.
+ */
+@SupportedAnnotationTypes("org.devquality.processor.GenerateValidator")
+public class ValidatorProcessor extends AbstractProcessor {
+    private static final String CONSTRAINTS_PACKAGE = "jakarta.validation.constraints.";
+    private static final String CONSTRAINT_META = "jakarta.validation.Constraint";
+    private static final String VALID = "jakarta.validation.Valid";
+    private static final String DEFAULT_GROUP = "jakarta.validation.groups.Default";
+    private static final String VALIDATOR_INTERFACE = "org.devquality.web.validators.PrecompiledValidator";
+    private static final String SERVICE_FILE = "META-INF/services/" + VALIDATOR_INTERFACE;
+
+    private static final Set<String> EXACT_NUMBER_TYPES = Set.of(
+            "java.math.BigDecimal", "java.math.BigInteger", "java.lang.Long",
+            "java.lang.Integer", "java.lang.Short", "java.lang.Byte"
+    );
+
+    private final List<String> generatedValidators = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateValidator.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateValidator solo se puede aplicar a clases");
+                continue;
+            }
+            try {
+                generate((TypeElement) element);
+            } catch (IOException e) {
+                error(element, "No se pudo generar el validador: " + e.getMessage());
+            }
+        }
+
+        if (roundEnv.processingOver() && !generatedValidators.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (hasClassLevelConstraints(type)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Restricciones a nivel de clase o herencia: " + type.getSimpleName()
+                            + " se valida con Hibernate Validator", type);
+            return;
+        }
+
+        List<PropertyPlan> properties = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            PropertyPlan plan = planProperty(field);
+            if (plan != null) {
+                properties.add(plan);
+            }
+        }
+
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        String targetName = type.getSimpleName().toString();
+        String validatorName = targetName + "Validator";
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + validatorName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(render(packageName, targetName, validatorName, properties));
+        }
+        generatedValidators.add(packageName + "." + validatorName);
+    }
+
+    /**
+     * Traduce las restricciones de un campo. Devuelve null si el campo no tiene restricciones.
+     */
+    private PropertyPlan planProperty(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        TypeMirror type = field.asType();
+        if (type.getKind().isPrimitive()) {
+            type = processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+        }
+
+        PropertyPlan plan = new PropertyPlan(name, getterName(field), processingEnv.getTypeUtils().erasure(type).toString());
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            String annotation = annotationName(mirror);
+            if (VALID.equals(annotation)) {
+                plan.fallback = true;
+                continue;
+            }
+            if (!isConstraint(mirror)) {
+                continue;
+            }
+
+            plan.constrained = true;
+            Check check = planCheck(plan, mirror, annotation, type);
+            if (check == null) {
+                plan.fallback = true;
+            } else {
+                plan.checks.add(check);
+            }
+        }
+        return plan.constrained ? plan : null;
+    }
+
+    private Check planCheck(PropertyPlan plan, AnnotationMirror mirror, String annotation, TypeMirror type) {
+        if (!annotation.startsWith(CONSTRAINTS_PACKAGE)) {
+            return null;
+        }
+
+        Map<String, Object> values = annotationValues(mirror);
+        String message = (String) values.get("message");
+        if (message == null || message.contains("{") || message.contains("$")) {
+            // Requiere interpolación: lo resuelve Hibernate Validator
+            return null;
+        }
+
+        String simpleName = annotation.substring(CONSTRAINTS_PACKAGE.length());
+        Check check = new Check(simpleName.toUpperCase(), message, groups(values));
+        ValueKind kind = valueKind(type);
+        int index = plan.checks.size();
+
+        switch (simpleName) {
+            case "NotNull":
+                check.invalidWhen = "value == null";
+                return check;
+            case "Null":
+                check.invalidWhen = "value != null";
+                return check;
+            case "NotBlank":
+                if (kind != ValueKind.CHAR_SEQUENCE) return null;
+                check.invalidWhen = "value == null || value.toString().trim().isEmpty()";
+                return check;
+            case "NotEmpty":
+                if (kind == ValueKind.OTHER || kind == ValueKind.NUMBER || kind == ValueKind.BOOLEAN) return null;
+                check.invalidWhen = "value == null || " + lengthExpression(kind) + " == 0";
+                return check;
+            case "Size": {
+                if (kind == ValueKind.OTHER || kind == ValueKind.NUMBER || kind == ValueKind.BOOLEAN) return null;
+                int min = (Integer) values.get("min");
+                int max = (Integer) values.get("max");
+                check.invalidWhen = "value != null && !PrecompiledValidators.sizeBetween("
+                        + lengthExpression(kind) + ", " + min + ", " + max + ")";
+                return check;
+            }
+            case "Pattern": {
+                if (kind != ValueKind.CHAR_SEQUENCE || !((List<?>) values.get("flags")).isEmpty()) return null;
+                String constant = constantName(plan.name, simpleName, index);
+                plan.constants.add("private static final Pattern " + constant + " = Pattern.compile("
+                        + javaString((String) values.get("regexp")) + ");");
+                check.invalidWhen = "value != null && !" + constant + ".matcher(value).matches()";
+                return check;
+            }
+            case "Positive":
+                return signCheck(check, kind, "<= 0");
+            case "PositiveOrZero":
+                return signCheck(check, kind, "< 0");
+            case "Negative":
+                return signCheck(check, kind, ">= 0");
+            case "NegativeOrZero":
+                return signCheck(check, kind, "> 0");
+            case "Min":
+            case "Max": {
+                if (kind != ValueKind.NUMBER) return null;
+                String operator = simpleName.equals("Min") ? "< 0" : "> 0";
+                check.invalidWhen = "value != null && PrecompiledValidators.compare(value, "
+                        + values.get("value") + "L) " + operator;
+                return check;
+            }
+            case "DecimalMin":
+            case "DecimalMax": {
+                if (kind != ValueKind.NUMBER) return null;
+                boolean inclusive = (Boolean) values.get("inclusive");
+                String constant = constantName(plan.name, simpleName, index);
+                plan.constants.add("private static final BigDecimal " + constant + " = new BigDecimal("
+                        + javaString((String) values.get("value")) + ");");
+                String operator = simpleName.equals("DecimalMin")
+                        ? (inclusive ? "< 0" : "<= 0")
+                        : (inclusive ? "> 0" : ">= 0");
+                check.invalidWhen = "value != null && PrecompiledValidators.compare(value, " + constant + ") " + operator;
+                return check;
+            }
+            case "Digits": {
+                if (kind != ValueKind.NUMBER) return null;
+                check.invalidWhen = "value != null && !PrecompiledValidators.digits(value, "
+                        + values.get("integer") + ", " + values.get("fraction") + ")";
+                return check;
+            }
+            case "AssertTrue":
+                if (kind != ValueKind.BOOLEAN) return null;
+                check.invalidWhen = "value != null && !value";
+                return check;
+            case "AssertFalse":
+                if (kind != ValueKind.BOOLEAN) return null;
+                check.invalidWhen = "value != null && value";
+                return check;
+            default:
+                // @Email, @Future, @Past, ... -> Hibernate Validator
+                return null;
+        }
+    }
+
+    private Check signCheck(Check check, ValueKind kind, String operator) {
+        if (kind != ValueKind.NUMBER) {
+            return null;
+        }
+        check.invalidWhen = "value != null && PrecompiledValidators.signum(value) " + operator;
+        return check;
+    }
+
+    private String render(String packageName, String targetName, String validatorName, List<PropertyPlan> properties) {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n");
+        out.append("import org.devquality.web.dtos.core.response.ErrorDetail;\n");
+        out.append("import org.devquality.web.validators.PrecompiledValidator;\n");
+        out.append("import org.devquality.web.validators.PrecompiledValidators;\n");
+        out.append("import org.devquality.web.validators.ValidationService;\n\n");
+        out.append("import java.math.BigDecimal;\n");
+        out.append("import java.util.ArrayList;\n");
+        out.append("import java.util.List;\n");
+        out.append("import java.util.regex.Pattern;\n\n");
+        out.append("/**\n * Validador generado a partir de las anotaciones de ").append(targetName).append(". No editar.\n */\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("public final class ").append(validatorName)
+                .append(" implements PrecompiledValidator<").append(targetName).append("> {\n");
+
+        for (PropertyPlan property : properties) {
+            if (property.fallback) {
+                continue;
+            }
+            for (String constant : property.constants) {
+                out.append("    ").append(constant).append("\n");
+            }
+        }
+
+        out.append("\n    @Override\n");
+        out.append("    public Class<").append(targetName).append("> getTargetType() {\n");
+        out.append("        return ").append(targetName).append(".class;\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public List<ErrorDetail> validate(").append(targetName).append(" object, Class<?>... groups) {\n");
+        out.append("        List<ErrorDetail> errors = new ArrayList<>();\n");
+        for (PropertyPlan property : properties) {
+            if (property.fallback) {
+                out.append("        errors.addAll(ValidationService.validatePropertyWithHibernate(object, ")
+                        .append(javaString(property.name)).append(", groups));\n");
+            } else {
+                out.append("        validate").append(capitalize(property.name)).append("(object, groups, errors);\n");
+            }
+        }
+        out.append("        return errors;\n");
+        out.append("    }\n");
+
+        for (PropertyPlan property : properties) {
+            if (property.fallback) {
+                continue;
+            }
+            out.append("\n    private static void validate").append(capitalize(property.name)).append("(")
+                    .append(targetName).append(" object, Class<?>[] groups, List<ErrorDetail> errors) {\n");
+            out.append("        ").append(property.type).append(" value = object.").append(property.getter).append("();\n");
+            for (Check check : property.checks) {
+                out.append("        if ((").append(check.invalidWhen).append(")\n");
+                out.append("                && PrecompiledValidators.inGroups(groups");
+                for (String group : check.groups) {
+                    out.append(", ").append(group).append(".class");
+                }
+                out.append(")) {\n");
+                out.append("            errors.add(ErrorDetail.validation(").append(javaString(property.name)).append(", ")
+                        .append(javaString(check.code)).append(", ")
+                        .append(javaString(check.message)).append(", value));\n");
+                out.append("        }\n");
+            }
+            out.append("    }\n");
+        }
+
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private void writeServiceFile() {
+        Set<String> validators = existingServiceEntries();
+        validators.addAll(generatedValidators);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String validator : validators) {
+                    writer.write(validator);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "No se pudo escribir " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validadores que registró una compilación anterior en la misma salida (vacío si no hay archivo)
+     */
+    private Set<String> existingServiceEntries() {
+        Set<String> entries = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                    if (!entry.isEmpty()) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Primera compilación: el archivo todavía no existe
+        }
+        return entries;
+    }
+
+    private boolean hasClassLevelConstraints(TypeElement type) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (isConstraint(mirror)) {
+                return true;
+            }
+        }
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() != TypeKind.NONE && !"java.lang.Object".equals(superclass.toString());
+    }
+
+    private boolean isConstraint(AnnotationMirror mirror) {
+        Element annotationType = mirror.getAnnotationType().asElement();
+        if (annotationName(mirror).startsWith(CONSTRAINTS_PACKAGE)) {
+            // Los contenedores @X.List no son restricciones en sí, pero tampoco se soportan
+            return true;
+        }
+        for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+            if (CONSTRAINT_META.equals(annotationName(meta))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Object> annotationValues(AnnotationMirror mirror) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Grupos declarados en la restricción (Default si no declara ninguno), como nombres canónicos
+     */
+    private List<String> groups(Map<String, Object> values) {
+        List<String> groups = new ArrayList<>();
+        Object declared = values.get("groups");
+        if (declared instanceof List) {
+            for (Object value : (List<?>) declared) {
+                TypeMirror group = (TypeMirror) ((AnnotationValue) value).getValue();
+                groups.add(processingEnv.getTypeUtils().erasure(group).toString());
+            }
+        }
+        if (groups.isEmpty()) {
+            groups.add(DEFAULT_GROUP);
+        }
+        return groups;
+    }
+
+    private ValueKind valueKind(TypeMirror type) {
+        var types = processingEnv.getTypeUtils();
+        var elements = processingEnv.getElementUtils();
+        TypeMirror erased = types.erasure(type);
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            return ValueKind.ARRAY;
+        }
+        if (types.isAssignable(erased, types.erasure(elements.getTypeElement("java.lang.CharSequence").asType()))) {
+            return ValueKind.CHAR_SEQUENCE;
+        }
+        if (types.isAssignable(erased, types.erasure(elements.getTypeElement("java.util.Collection").asType()))) {
+            return ValueKind.COLLECTION;
+        }
+        if (types.isAssignable(erased, types.erasure(elements.getTypeElement("java.util.Map").asType()))) {
+            return ValueKind.MAP;
+        }
+        if (EXACT_NUMBER_TYPES.contains(erased.toString())) {
+            return ValueKind.NUMBER;
+        }
+        if ("java.lang.Boolean".equals(erased.toString())) {
+            return ValueKind.BOOLEAN;
+        }
+        return ValueKind.OTHER;
+    }
+
+    private static String lengthExpression(ValueKind kind) {
+        switch (kind) {
+            case CHAR_SEQUENCE:
+                return "value.length()";
+            case ARRAY:
+                return "value.length";
+            default:
+                return "value.size()";
+        }
+    }
+
+    private static String getterName(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+        return prefix + capitalize(name);
+    }
+
+    private static String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static String constantName(String property, String constraint, int index) {
+        return property.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase() + "_" + constraint.toUpperCase() + "_" + index;
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    /**
+     * Literal Java equivalente (caracteres no ASCII como escapes unicode)
+     */
+    private static String javaString(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum ValueKind {
+        CHAR_SEQUENCE, COLLECTION, MAP, ARRAY, NUMBER, BOOLEAN, OTHER
+    }
+
+    private static final class PropertyPlan {
+        private final String name;
+        private final String getter;
+        private final String type;
+        private final List<Check> checks = new ArrayList<>();
+        private final List<String> constants = new ArrayList<>();
+        private boolean constrained;
+        private boolean fallback;
+
+        private PropertyPlan(String name, String getter, String type) {
+            this.name = name;
+            this.getter = getter;
+            this.type = type;
+        }
+    }
+
+    private static final class Check {
+        private final String code;
+        private final String message;
+        private final List<String> groups;
+        private String invalidWhen;
+
+        private Check(String code, String message, List<String> groups) {
+            this.code = code;
+            this.message = message;
+            this.groups = groups;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.devquality.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compila un record de ejemplo con javac y el procesador, y ejecuta el mapper generado
+ */
+class RowMapperProcessorTest {
+    private static final String ROW_MAPPER = """
+            package org.devquality.persistence.mapping;
+
+            import java.sql.ResultSet;
+            import java.sql.SQLException;
+
+            public interface RowMapper<T> {
+                T map(ResultSet rs, int firstColumn) throws SQLException;
+
+                T map(ResultSet rs, int firstColumn, int mask) throws SQLException;
+            }
+            """;
+
+    private static final String ITEM = """
+            package sample;
+
+            import org.devquality.processor.GenerateRowMapper;
+
+            @GenerateRowMapper
+            public record Item(long id, String displayName, java.math.BigDecimal price, Integer stock,
+                               java.time.OffsetDateTime createdAt) {
+            }
+            """;
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2024, 5, 1, 10, 30, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path output;
+
+    @Test
+    void generatesColumnListInConstructorOrder() throws Exception {
+        compile(ITEM);
+
+        String source = Files.readString(output.resolve("sources/sample/ItemRowMapper.java"));
+        assertTrue(source.contains("COLUMNS = \"id, display_name, price, stock, created_at\""), source);
+        assertTrue(source.contains("FIELDS = List.of(\"id\", \"displayName\", \"price\", \"stock\", \"createdAt\")"), source);
+        assertTrue(source.contains("rs.getObject(firstColumn + 4, java.time.OffsetDateTime.class)"), source);
+        assertFalse(source.contains("fromRow"), "sin Vert.x en el classpath no se genera fromRow");
+
+        try (URLClassLoader loader = load()) {
+            Class<?> mapper = loader.loadClass("sample.ItemRowMapper");
+            assertEquals("p.id, p.display_name, p.price, p.stock, p.created_at",
+                    mapper.getMethod("columns", String.class).invoke(null, "p"));
+            assertEquals("id, price", mapper.getMethod("columns", int.class).invoke(null, 0b101));
+        }
+    }
+
+    @Test
+    void mapsEveryColumnByIndex() throws Exception {
+        compile(ITEM);
+
+        try (URLClassLoader loader = load()) {
+            Object item = map(loader, resultSet(Map.of(
+                    3, 7L, 4, "Lámpara", 5, new BigDecimal("19.99"), 6, 12, 7, CREATED_AT)), 3);
+
+            assertEquals(7L, component(item, "id"));
+            assertEquals("Lámpara", component(item, "displayName"));
+            assertEquals(new BigDecimal("19.99"), component(item, "price"));
+            assertEquals(12, component(item, "stock"));
+            assertEquals(CREATED_AT, component(item, "createdAt"));
+        }
+    }
+
+    @Test
+    void nullableWrapperReadsNullThroughWasNull() throws Exception {
+        compile(ITEM);
+
+        try (URLClassLoader loader = load()) {
+            Object item = map(loader, resultSet(Map.of(1, 7L, 2, "Lámpara", 5, CREATED_AT)), 1);
+
+            assertNull(component(item, "price"));
+            assertNull(component(item, "stock"), "Integer NULL no se convierte en 0");
+        }
+    }
+
+    @Test
+    void maskReadsOnlySelectedColumnsInOrder() throws Exception {
+        compile(ITEM);
+
+        try (URLClassLoader loader = load()) {
+            Class<?> mapper = loader.loadClass("sample.ItemRowMapper");
+            Object instance = mapper.getField("INSTANCE").get(null);
+            // id (bit 0) y stock (bit 3): columnas 1 y 2 del resultado
+            Object item = mapper.getMethod("map", ResultSet.class, int.class, int.class)
+                    .invoke(instance, resultSet(Map.of(1, 7L, 2, 12)), 1, 0b1001);
+
+            assertEquals(7L, component(item, "id"));
+            assertEquals(12, component(item, "stock"));
+            assertNull(component(item, "displayName"));
+            assertNull(component(item, "createdAt"));
+        }
+    }
+
+    @Test
+    void rejectsUnsupportedParameterTypes() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compileWithErrors("""
+                package sample;
+
+                @org.devquality.processor.GenerateRowMapper
+                public record Tagged(long id, java.util.List<String> tags) {
+                }
+                """);
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("java.util.List"), errors.get(0).getMessage(null));
+    }
+
+    private void compile(String source) throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compileWithErrors(source);
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compileWithErrors(String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path classes = Files.createDirectories(output.resolve("classes"));
+        Path sources = Files.createDirectories(output.resolve("sources"));
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(classes));
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(sources));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, List.of(processorClasses()));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null,
+                    List.of(source("org.devquality.persistence.mapping.RowMapper", ROW_MAPPER), source(typeName(source), source)));
+            task.setProcessors(List.of(new RowMapperProcessor()));
+            task.call();
+        }
+
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .toList();
+    }
+
+    private URLClassLoader load() throws Exception {
+        return new URLClassLoader(new URL[]{output.resolve("classes").toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static Object map(URLClassLoader loader, ResultSet rs, int firstColumn) throws Exception {
+        Class<?> mapper = loader.loadClass("sample.ItemRowMapper");
+        Object instance = mapper.getField("INSTANCE").get(null);
+        return mapper.getMethod("map", ResultSet.class, int.class).invoke(instance, rs, firstColumn);
+    }
+
+    private static Object component(Object record, String name) throws Exception {
+        return record.getClass().getMethod(name).invoke(record);
+    }
+
+    /**
+     * ResultSet de una sola fila: las columnas ausentes son NULL
+     */
+    private static ResultSet resultSet(Map<Integer, Object> row) {
+        boolean[] lastWasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return lastWasNull[0];
+                    }
+                    Object value = row.get((Integer) args[0]);
+                    lastWasNull[0] = value == null;
+                    switch (method.getName()) {
+                        case "getLong":
+                            return value == null ? 0L : value;
+                        case "getInt":
+                            return value == null ? 0 : value;
+                        case "getString":
+                        case "getBigDecimal":
+                        case "getObject":
+                            return value;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static File processorClasses() throws Exception {
+        return new File(GenerateRowMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static String typeName(String source) {
+        String packageName = source.substring(source.indexOf("package ") + 8, source.indexOf(';'));
+        String afterRecord = source.substring(source.indexOf("record ") + 7);
+        return packageName + "." + afterRecord.substring(0, afterRecord.indexOf('('));
+    }
+
+    private static JavaFileObject source(String typeName, String code) {
+        URI uri = URI.create("string:///" + typeName.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
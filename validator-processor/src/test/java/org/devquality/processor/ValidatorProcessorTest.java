@@ -0,0 +1,144 @@
+package org.devquality.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registro en META-INF/services entre compilaciones sobre la misma salida (como una incremental)
+ */
+class ValidatorProcessorTest {
+    private static final String SERVICE_FILE = "META-INF/services/org.devquality.web.validators.PrecompiledValidator";
+
+    /**
+     * Lo mínimo de la aplicación que importa un validador generado sin restricciones
+     */
+    private static final List<JavaFileObject> APPLICATION_TYPES = List.of(
+            source("org.devquality.web.dtos.core.response.ErrorDetail", """
+                    package org.devquality.web.dtos.core.response;
+
+                    public class ErrorDetail {
+                    }
+                    """),
+            source("org.devquality.web.validators.PrecompiledValidator", """
+                    package org.devquality.web.validators;
+
+                    import org.devquality.web.dtos.core.response.ErrorDetail;
+
+                    import java.util.List;
+
+                    public interface PrecompiledValidator<T> {
+                        Class<T> getTargetType();
+
+                        List<ErrorDetail> validate(T object, Class<?>... groups);
+                    }
+                    """),
+            source("org.devquality.web.validators.PrecompiledValidators", """
+                    package org.devquality.web.validators;
+
+                    public final class PrecompiledValidators {
+                    }
+                    """),
+            source("org.devquality.web.validators.ValidationService", """
+                    package org.devquality.web.validators;
+
+                    public class ValidationService {
+                    }
+                    """)
+    );
+
+    @TempDir
+    Path output;
+
+    @Test
+    void registersEveryValidatorOfTheCompilation() throws Exception {
+        compile("sample.First", "sample.Second");
+
+        assertEquals(List.of("sample.FirstValidator", "sample.SecondValidator"), serviceEntries());
+    }
+
+    @Test
+    void laterCompilationKeepsPreviouslyRegisteredValidators() throws Exception {
+        compile("sample.First", "sample.Second");
+        compile("sample.Third");
+
+        assertEquals(List.of("sample.FirstValidator", "sample.SecondValidator", "sample.ThirdValidator"),
+                serviceEntries());
+    }
+
+    @Test
+    void recompilingAClassDoesNotDuplicateItsEntry() throws Exception {
+        compile("sample.First");
+        compile("sample.First");
+
+        assertEquals(List.of("sample.FirstValidator"), serviceEntries());
+    }
+
+    private List<String> serviceEntries() throws Exception {
+        return Files.readAllLines(output.resolve("classes").resolve(SERVICE_FILE));
+    }
+
+    private void compile(String... typeNames) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path classes = Files.createDirectories(output.resolve("classes"));
+        Path sources = Files.createDirectories(output.resolve("sources"));
+
+        List<JavaFileObject> files = new ArrayList<>(APPLICATION_TYPES);
+        for (String typeName : typeNames) {
+            int dot = typeName.lastIndexOf('.');
+            files.add(source(typeName, "package " + typeName.substring(0, dot) + ";\n\n"
+                    + "@org.devquality.processor.GenerateValidator\n"
+                    + "public class " + typeName.substring(dot + 1) + " {\n"
+                    + "    private String name;\n"
+                    + "}\n"));
+        }
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(classes));
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(sources));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, List.of(processorClasses()));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null, files);
+            task.setProcessors(List.of(new ValidatorProcessor()));
+            task.call();
+        }
+
+        List<Diagnostic<? extends JavaFileObject>> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .toList();
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    private static File processorClasses() throws Exception {
+        return new File(GenerateValidator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static JavaFileObject source(String typeName, String code) {
+        URI uri = URI.create("string:///" + typeName.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}